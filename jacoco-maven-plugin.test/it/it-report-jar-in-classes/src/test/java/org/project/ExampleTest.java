@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Evgeny Mandrikov - initial API and implementation
+ *
+ *******************************************************************************/
+package org.project;
+
+import org.junit.Test;
+import org.project.a.A;
+import org.project.b.B;
+
+public class ExampleTest {
+
+  @Test
+  public void test() {
+    new A().sayHello();
+    new B().sayHello();
+  }
+
+}
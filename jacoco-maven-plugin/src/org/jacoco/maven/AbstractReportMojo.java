@@ -11,12 +11,17 @@
  *******************************************************************************/
 package org.jacoco.maven;
 
+import static java.lang.String.format;
+
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 
 import org.apache.maven.doxia.siterenderer.Renderer;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
@@ -73,12 +78,54 @@ public abstract class AbstractReportMojo extends AbstractMavenReport {
 	@Parameter
 	List<String> excludes;
 
+	/**
+	 * Additionally create a report in JSON format as
+	 * <code>jacoco.json</code> in the output directory.
+	 *
+	 * @since 0.8.5
+	 */
+	@Parameter(property = "jacoco.json", defaultValue = "false")
+	boolean json;
+
 	/**
 	 * Flag used to suppress execution.
 	 */
 	@Parameter(property = "jacoco.skip", defaultValue = "false")
 	boolean skip;
 
+	/**
+	 * Skip the report generation if neither the execution data files, the
+	 * class files, the source files nor the configuration have changed since
+	 * the last report was created in the output directory. This applies only
+	 * if the goal is not executed as part of a site generation.
+	 */
+	@Parameter(property = "jacoco.upToDateCheck", defaultValue = "true")
+	boolean upToDateCheck;
+
+	/**
+	 * Share the analyzed class files with later goals of this plugin in the
+	 * same build, e.g. a <code>check</code> after a <code>report</code> or a
+	 * <code>report-aggregate</code> in another module. The analysis is reused
+	 * only if the class files and their execution data are unchanged. As
+	 * results are kept in memory as long as the build runs and memory is
+	 * available, sharing should only be enabled for goals whose analysis is
+	 * actually reused by a later goal.
+	 */
+	@Parameter(property = "jacoco.shareAnalysis", defaultValue = "false")
+	boolean shareAnalysis;
+
+	/**
+	 * Current Maven session.
+	 */
+	@Parameter(property = "session", readonly = true)
+	MavenSession session;
+
+	/**
+	 * Descriptor of this plugin.
+	 */
+	@Parameter(property = "plugin", readonly = true)
+	PluginDescriptor plugin;
+
 	/**
 	 * Maven project.
 	 */
@@ -161,19 +208,71 @@ public abstract class AbstractReportMojo extends AbstractMavenReport {
 		if (!canGenerateReport()) {
 			return;
 		}
+		final File outputDirectory = new File(getOutputDirectory())
+				.getAbsoluteFile();
+		final File fingerprintFile = getFingerprintFile(outputDirectory);
+		Fingerprint fingerprint = null;
 		try {
+			if (upToDateCheck) {
+				fingerprint = createFingerprint(outputDirectory,
+						Locale.getDefault());
+				if (fingerprint.matches(fingerprintFile) && ReportSupport
+						.isReportComplete(outputDirectory, json)) {
+					getLog().info(
+							"Skipping JaCoCo execution because the report is up-to-date.");
+					return;
+				}
+			}
+			// The fingerprint must not survive an incomplete report:
+			fingerprintFile.delete();
 			executeReport(Locale.getDefault());
+			if (fingerprint != null) {
+				fingerprint.write(fingerprintFile);
+			}
+		} catch (final IOException e) {
+			throw new MojoExecutionException(
+					"Error while checking report fingerprint: "
+							+ e.getMessage(),
+					e);
 		} catch (final MavenReportException e) {
 			throw new MojoExecutionException("An error has occurred in "
 					+ getName(Locale.ENGLISH) + " report generation.", e);
 		}
 	}
 
+	/**
+	 * The fingerprint is kept in the build directory, so it is not published
+	 * with the report. As a project may create multiple reports the file name
+	 * is derived from the report's output directory.
+	 */
+	private File getFingerprintFile(final File outputDirectory) {
+		final String name = format("jacoco-report-%08x.fingerprint",
+				Integer.valueOf(outputDirectory.getPath().hashCode()));
+		return new File(getProject().getBuild().getDirectory(), name);
+	}
+
+	private Fingerprint createFingerprint(final File outputDirectory,
+			final Locale locale) throws IOException {
+		final Fingerprint fingerprint = new Fingerprint(getClass().getName());
+		fingerprint.add("outputDirectory", outputDirectory);
+		fingerprint.add("outputEncoding", outputEncoding);
+		fingerprint.add("title", title);
+		fingerprint.add("footer", footer);
+		fingerprint.add("sourceEncoding", sourceEncoding);
+		fingerprint.add("includes", includes);
+		fingerprint.add("excludes", excludes);
+		fingerprint.add("json", Boolean.valueOf(json));
+		fingerprint.add("locale", locale);
+		addInputs(fingerprint);
+		return fingerprint;
+	}
+
 	@Override
 	protected void executeReport(final Locale locale)
 			throws MavenReportException {
 		try {
-			final ReportSupport support = new ReportSupport(getLog());
+			final ReportSupport support = new ReportSupport(getLog(),
+					shareAnalysis ? session : null, plugin);
 			loadExecutionData(support);
 			addFormatters(support, locale);
 			final IReportVisitor visitor = support.initRootVisitor();
@@ -185,6 +284,17 @@ public abstract class AbstractReportMojo extends AbstractMavenReport {
 		}
 	}
 
+	/**
+	 * Adds all input files of this report and configuration which is not
+	 * known by this base class.
+	 * 
+	 * @param fingerprint
+	 *            fingerprint to add the inputs to
+	 * @throws IOException
+	 *             if an input file can not be read
+	 */
+	abstract void addInputs(final Fingerprint fingerprint) throws IOException;
+
 	abstract void loadExecutionData(final ReportSupport support)
 			throws IOException;
 
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Evgeny Mandrikov - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.maven;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.jacoco.core.analysis.CompactCoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+
+/**
+ * Analysis results of the class files of a project, which are shared between
+ * all goals of the plugin within the same Maven session. The cache is stored
+ * in the plugin context of the analyzed project, so it is also found by
+ * aggregate reports in other projects. Results are kept with soft references
+ * only and may be discarded by the garbage collector at any time.
+ * 
+ * Entries are identified by a fingerprint of the class files only. Together
+ * with every result the execution data of each analyzed class is kept, so a
+ * result can be reused with any execution data store which contains the same
+ * data for these classes, e.g. the merged data of an aggregate report.
+ */
+final class AnalysisCache {
+
+	private static final String KEY = AnalysisCache.class.getName();
+
+	private final Map<String, SoftReference<Entry>> entries;
+
+	private AnalysisCache() {
+		entries = new HashMap<String, SoftReference<Entry>>();
+	}
+
+	/**
+	 * Returns the cache for the given project, which is created on first
+	 * access.
+	 *
+	 * @param session
+	 *            current Maven session
+	 * @param plugin
+	 *            descriptor of this plugin
+	 * @param project
+	 *            project whose class files are analyzed
+	 * @return cache for the project
+	 */
+	static AnalysisCache get(final MavenSession session,
+			final PluginDescriptor plugin, final MavenProject project) {
+		final Map<String, Object> context = session.getPluginContext(plugin,
+				project);
+		synchronized (context) {
+			final Object cache = context.get(KEY);
+			// Other versions of the plugin use different class loaders:
+			if (cache instanceof AnalysisCache) {
+				return (AnalysisCache) cache;
+			}
+			final AnalysisCache newCache = new AnalysisCache();
+			context.put(KEY, newCache);
+			return newCache;
+		}
+	}
+
+	/**
+	 * Returns the analysis result for the given fingerprint if it has been
+	 * created with the same execution data for all of its classes.
+	 *
+	 * @param fingerprint
+	 *            fingerprint of the class files
+	 * @param store
+	 *            execution data for the analysis
+	 * @return analysis result or <code>null</code> if not available
+	 */
+	synchronized CompactCoverageBuilder get(final String fingerprint,
+			final ExecutionDataStore store) {
+		final SoftReference<Entry> ref = entries.get(fingerprint);
+		final Entry entry = ref == null ? null : ref.get();
+		return entry == null || !entry.matches(store) ? null : entry.builder;
+	}
+
+	/**
+	 * Stores an analysis result for the given fingerprint.
+	 *
+	 * @param fingerprint
+	 *            fingerprint of the class files
+	 * @param builder
+	 *            completely populated analysis result
+	 * @param store
+	 *            execution data used for the analysis
+	 */
+	synchronized void put(final String fingerprint,
+			final CompactCoverageBuilder builder,
+			final ExecutionDataStore store) {
+		entries.put(fingerprint,
+				new SoftReference<Entry>(new Entry(builder, store)));
+	}
+
+	private static class Entry {
+
+		final CompactCoverageBuilder builder;
+
+		private final long[] ids;
+
+		private final String[] names;
+
+		/** Probes used for every class, <code>null</code> without data */
+		private final boolean[][] probes;
+
+		private final boolean[] noMatch;
+
+		Entry(final CompactCoverageBuilder builder,
+				final ExecutionDataStore store) {
+			this.builder = builder;
+			final Collection<IClassCoverage> classes = builder.getClasses();
+			ids = new long[classes.size()];
+			names = new String[ids.length];
+			probes = new boolean[ids.length][];
+			noMatch = new boolean[ids.length];
+			int i = 0;
+			for (final IClassCoverage c : classes) {
+				ids[i] = c.getId();
+				names[i] = c.getName();
+				final ExecutionData data = store.get(c.getId());
+				// Execution data may be merged after the analysis:
+				probes[i] = data == null ? null : data.getProbes().clone();
+				noMatch[i] = c.isNoMatch();
+				i++;
+			}
+		}
+
+		/**
+		 * Checks whether the analysis would produce the same result with the
+		 * given execution data. Only the data of the analyzed classes is
+		 * compared.
+		 */
+		boolean matches(final ExecutionDataStore store) {
+			for (int i = 0; i < ids.length; i++) {
+				final ExecutionData data = store.get(ids[i]);
+				if (data == null) {
+					if (probes[i] != null
+							|| noMatch[i] != store.contains(names[i])) {
+						return false;
+					}
+				} else if (!Arrays.equals(probes[i], data.getProbes())) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -18,7 +18,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
@@ -38,6 +40,7 @@ public class CheckMojo extends AbstractJacocoMojo implements IViolationsOutput {
 
 	private static final String MSG_SKIPPING = "Skipping JaCoCo execution due to missing execution data file:";
 	private static final String CHECK_SUCCESS = "All coverage checks have been met.";
+	private static final String FINGERPRINT_FILE = "jacoco-check.fingerprint";
 	private static final String CHECK_FAILED = "Coverage checks have not been met. See log for details.";
 
 	/**
@@ -122,6 +125,20 @@ public class CheckMojo extends AbstractJacocoMojo implements IViolationsOutput {
 	@Parameter(property = "jacoco.haltOnFailure", defaultValue = "true", required = true)
 	private boolean haltOnFailure;
 
+	/**
+	 * Stop checking at the first violated rule. Only this violation is logged,
+	 * which is sufficient if the build just has to fail.
+	 */
+	@Parameter(property = "jacoco.failFast", defaultValue = "false")
+	private boolean failFast;
+
+	/**
+	 * Number of threads used to check the packages of the project. The logged
+	 * violations do not depend on this setting.
+	 */
+	@Parameter(property = "jacoco.check.threads", defaultValue = "1")
+	private int threads;
+
 	/**
 	 * File with execution data.
 	 */
@@ -142,6 +159,38 @@ public class CheckMojo extends AbstractJacocoMojo implements IViolationsOutput {
 	@Parameter
 	private List<String> excludes;
 
+	/**
+	 * Skip the check if neither the coverage data, the class files nor the
+	 * rules have changed since the last successful check of this project.
+	 * Session information in the execution data file is not considered.
+	 */
+	@Parameter(property = "jacoco.upToDateCheck", defaultValue = "true")
+	private boolean upToDateCheck;
+
+	/**
+	 * Share the analyzed class files with later goals of this plugin in the
+	 * same build, e.g. a <code>check</code> after a <code>report</code> or a
+	 * <code>report-aggregate</code> in another module. The analysis is reused
+	 * only if the class files and their execution data are unchanged. As
+	 * results are kept in memory as long as the build runs and memory is
+	 * available, sharing should only be enabled for goals whose analysis is
+	 * actually reused by a later goal.
+	 */
+	@Parameter(property = "jacoco.shareAnalysis", defaultValue = "false")
+	private boolean shareAnalysis;
+
+	/**
+	 * Current Maven session.
+	 */
+	@Parameter(property = "session", readonly = true)
+	private MavenSession session;
+
+	/**
+	 * Descriptor of this plugin.
+	 */
+	@Parameter(property = "plugin", readonly = true)
+	private PluginDescriptor plugin;
+
 	private boolean violations;
 
 	private boolean canCheckCoverage() {
@@ -172,13 +221,32 @@ public class CheckMojo extends AbstractJacocoMojo implements IViolationsOutput {
 	private void executeCheck() throws MojoExecutionException {
 		violations = false;
 
-		final ReportSupport support = new ReportSupport(getLog());
+		final File fingerprintFile = new File(
+				getProject().getBuild().getDirectory(), FINGERPRINT_FILE);
+		Fingerprint fingerprint = null;
+		try {
+			if (upToDateCheck) {
+				fingerprint = createFingerprint();
+				if (fingerprint.matches(fingerprintFile)) {
+					getLog().info(
+							"Skipping JaCoCo execution because the coverage checks are up-to-date.");
+					return;
+				}
+			}
+			fingerprintFile.delete();
+		} catch (final IOException e) {
+			throw new MojoExecutionException(
+					"Error while checking code coverage: " + e.getMessage(), e);
+		}
+
+		final ReportSupport support = new ReportSupport(getLog(),
+				shareAnalysis ? session : null, plugin);
 
 		final List<Rule> checkerrules = new ArrayList<Rule>();
 		for (final RuleConfiguration r : rules) {
 			checkerrules.add(r.rule);
 		}
-		support.addRulesChecker(checkerrules, this);
+		support.addRulesChecker(checkerrules, threads, failFast, this);
 
 		try {
 			final IReportVisitor visitor = support.initRootVisitor();
@@ -197,6 +265,41 @@ public class CheckMojo extends AbstractJacocoMojo implements IViolationsOutput {
 			}
 		} else {
 			this.getLog().info(CHECK_SUCCESS);
+			writeFingerprint(fingerprint, fingerprintFile);
+		}
+	}
+
+	private Fingerprint createFingerprint() throws IOException {
+		final Fingerprint fingerprint = new Fingerprint(getClass().getName());
+		for (final RuleConfiguration r : rules) {
+			final Rule rule = r.rule;
+			fingerprint.add("rule", rule.getElement() + " "
+					+ rule.getIncludes() + " " + rule.getExcludes());
+			for (final Limit limit : rule.getLimits()) {
+				fingerprint.add("limit",
+						limit.getEntity() + " " + limit.getValue() + " "
+								+ limit.getMinimum() + " "
+								+ limit.getMaximum());
+			}
+		}
+		fingerprint.add("includes", includes);
+		fingerprint.add("excludes", excludes);
+		fingerprint.addExecutionData(dataFile);
+		fingerprint.addProject(getProject(), includes, excludes, false);
+		return fingerprint;
+	}
+
+	private void writeFingerprint(final Fingerprint fingerprint,
+			final File file) throws MojoExecutionException {
+		if (fingerprint == null) {
+			return;
+		}
+		try {
+			fingerprint.write(file);
+		} catch (final IOException e) {
+			throw new MojoExecutionException(
+					"Error while writing check fingerprint: " + e.getMessage(),
+					e);
 		}
 	}
 
@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Evgeny Mandrikov - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.apache.maven.project.MavenProject;
+import org.jacoco.core.JaCoCo;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.tools.ExecFileLoader;
+
+/**
+ * Fingerprint of all inputs of a goal execution. The fingerprint consists of
+ * configuration values and the CRC32 checksums of the content of input files.
+ * If the fingerprint stored by a previous execution is equal to the current
+ * one, the execution can be skipped.
+ */
+final class Fingerprint {
+
+	private static final Comparator<ExecutionData> BY_ID = new Comparator<ExecutionData>() {
+		public int compare(final ExecutionData d1, final ExecutionData d2) {
+			final long id1 = d1.getId();
+			final long id2 = d2.getId();
+			return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+		}
+	};
+
+	private final StringBuilder manifest;
+
+	private final byte[] buffer;
+
+	/**
+	 * Creates a new fingerprint which already contains the JaCoCo version and
+	 * the name of the goal.
+	 *
+	 * @param goal
+	 *            name of the goal
+	 */
+	Fingerprint(final String goal) {
+		manifest = new StringBuilder();
+		buffer = new byte[0x1000];
+		add("version", JaCoCo.VERSION);
+		add("goal", goal);
+	}
+
+	/**
+	 * Adds a configuration value.
+	 *
+	 * @param key
+	 *            name of the value
+	 * @param value
+	 *            value, may be <code>null</code>
+	 */
+	void add(final String key, final Object value) {
+		manifest.append(key).append('=').append(value).append('\n');
+	}
+
+	/**
+	 * Adds the path and the content of the given file. Files which do not exist
+	 * are only recorded as missing.
+	 *
+	 * @param file
+	 *            input file
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	void addFile(final File file) throws IOException {
+		manifest.append(file.getAbsolutePath()).append(' ');
+		if (file.isFile()) {
+			final CRC32 crc = new CRC32();
+			final InputStream in = new FileInputStream(file);
+			try {
+				int len;
+				while ((len = in.read(buffer)) != -1) {
+					crc.update(buffer, 0, len);
+				}
+			} finally {
+				in.close();
+			}
+			manifest.append(Long.toHexString(crc.getValue()));
+		} else {
+			manifest.append('-');
+		}
+		manifest.append('\n');
+	}
+
+	/**
+	 * Adds the coverage data of the given execution data file. In contrast to
+	 * {@link #addFile(File)} session information is ignored, so the
+	 * fingerprint does not change if the same code is executed again.
+	 *
+	 * @param file
+	 *            execution data file
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	void addExecutionData(final File file) throws IOException {
+		final ExecFileLoader loader = new ExecFileLoader();
+		if (file.isFile()) {
+			loader.load(file);
+		}
+		manifest.append(file.getAbsolutePath()).append('\n');
+		addExecutionData(loader.getExecutionDataStore());
+	}
+
+	private void addExecutionData(final ExecutionDataStore store) {
+		final List<ExecutionData> contents = new ArrayList<ExecutionData>(
+				store.getContents());
+		Collections.sort(contents, BY_ID);
+		for (final ExecutionData data : contents) {
+			addExecutionData(data);
+			manifest.append('\n');
+		}
+	}
+
+	private void addExecutionData(final ExecutionData data) {
+		manifest.append(Long.toHexString(data.getId())).append(' ')
+				.append(data.getName()).append(' ');
+		for (final boolean probe : data.getProbes()) {
+			manifest.append(probe ? '1' : '0');
+		}
+	}
+
+	/**
+	 * Adds the class files of an analysis: The path, size and modification
+	 * time of the files. The content of the files is not read, so the
+	 * fingerprint can be calculated before every analysis without reading the
+	 * class files twice. The execution data is not included, see
+	 * {@link AnalysisCache}.
+	 *
+	 * @param files
+	 *            files to analyze
+	 */
+	void addAnalysis(final List<File> files) {
+		for (final File file : files) {
+			manifest.append(file.getAbsolutePath()).append(' ')
+					.append(Long.toHexString(file.length())).append(' ')
+					.append(Long.toHexString(file.lastModified()))
+					.append('\n');
+		}
+	}
+
+	/**
+	 * Adds all given files.
+	 *
+	 * @param files
+	 *            input files
+	 * @throws IOException
+	 *             if a file can not be read
+	 */
+	void addFiles(final List<File> files) throws IOException {
+		for (final File file : files) {
+			addFile(file);
+		}
+	}
+
+	/**
+	 * Adds all files within the given directory and its sub-directories in
+	 * alphabetical order. Symbolic links to parent directories are not
+	 * followed.
+	 *
+	 * @param directory
+	 *            input directory
+	 * @throws IOException
+	 *             if a file can not be read
+	 */
+	void addDirectory(final File directory) throws IOException {
+		addDirectory(directory, new HashSet<String>());
+	}
+
+	private void addDirectory(final File directory, final Set<String> parents)
+			throws IOException {
+		final File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		final String canonicalPath = directory.getCanonicalPath();
+		if (!parents.add(canonicalPath)) {
+			// symbolic link cycle
+			return;
+		}
+		Arrays.sort(files);
+		for (final File file : files) {
+			if (file.isDirectory()) {
+				addDirectory(file, parents);
+			} else {
+				addFile(file);
+			}
+		}
+		parents.remove(canonicalPath);
+	}
+
+	/**
+	 * Adds the filtered class files and optionally all source files of the
+	 * given project.
+	 *
+	 * @param project
+	 *            project to add
+	 * @param includes
+	 *            includes patterns for class files
+	 * @param excludes
+	 *            excludes patterns for class files
+	 * @param sources
+	 *            whether source files should be added
+	 * @throws IOException
+	 *             if a file can not be read
+	 */
+	void addProject(final MavenProject project, final List<String> includes,
+			final List<String> excludes, final boolean sources)
+			throws IOException {
+		add("project", project.getId());
+		final File classesDir = new File(
+				project.getBuild().getOutputDirectory());
+		if (classesDir.isDirectory()) {
+			addFiles(new FileFilter(includes, excludes).getFiles(classesDir));
+		}
+		if (sources) {
+			for (final File sourceRoot : ReportSupport
+					.getCompileSourceRoots(project)) {
+				addDirectory(sourceRoot);
+			}
+		}
+	}
+
+	/**
+	 * Returns the compact value of this fingerprint.
+	 *
+	 * @return checksum of all added inputs
+	 */
+	String getValue() {
+		final byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1")
+					.digest(manifest.toString().getBytes("UTF-8"));
+		} catch (final NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-1
+			throw new AssertionError(e);
+		} catch (final IOException e) {
+			throw new AssertionError(e);
+		}
+		final StringBuilder value = new StringBuilder();
+		for (final byte b : digest) {
+			value.append(Character.forDigit((b >> 4) & 0xf, 16))
+					.append(Character.forDigit(b & 0xf, 16));
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Checks whether the given file contains the same fingerprint.
+	 *
+	 * @param file
+	 *            file with a stored fingerprint
+	 * @return <code>true</code> if the file exists and contains the same
+	 *         fingerprint
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	boolean matches(final File file) throws IOException {
+		if (!file.isFile()) {
+			return false;
+		}
+		final byte[] expected = getValue().getBytes("UTF-8");
+		if (file.length() != expected.length) {
+			return false;
+		}
+		final byte[] stored = new byte[expected.length];
+		final InputStream in = new FileInputStream(file);
+		try {
+			int pos = 0;
+			int len;
+			while (pos < stored.length && (len = in.read(stored, pos,
+					stored.length - pos)) != -1) {
+				pos += len;
+			}
+		} finally {
+			in.close();
+		}
+		return Arrays.equals(expected, stored);
+	}
+
+	/**
+	 * Stores this fingerprint in the given file.
+	 *
+	 * @param file
+	 *            file to write to
+	 * @throws IOException
+	 *             if the file can not be written
+	 */
+	void write(final File file) throws IOException {
+		file.getParentFile().mkdirs();
+		final OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(getValue().getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+}
@@ -81,6 +81,14 @@ public class ReportAggregateMojo extends AbstractReportMojo {
 	@Parameter(defaultValue = "${project.reporting.outputDirectory}/jacoco-aggregate")
 	private File outputDirectory;
 
+	/**
+	 * Number of threads used to analyze the class files of the modules. The
+	 * modules are always added to the report in the order of the
+	 * dependencies, therefore the report does not depend on this setting.
+	 */
+	@Parameter(property = "jacoco.aggregate.threads", defaultValue = "1")
+	private int threads;
+
 	/**
 	 * The projects in the reactor.
 	 */
@@ -97,8 +105,25 @@ public class ReportAggregateMojo extends AbstractReportMojo {
 		return true;
 	}
 
+	@Override
+	void addInputs(final Fingerprint fingerprint) throws IOException {
+		fingerprint.addFiles(getDataFiles());
+		for (final MavenProject dependency : findDependencies(
+				Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME,
+				Artifact.SCOPE_PROVIDED)) {
+			fingerprint.addProject(dependency, getIncludes(), getExcludes(),
+					true);
+		}
+	}
+
 	@Override
 	void loadExecutionData(final ReportSupport support) throws IOException {
+		for (final File execFile : getDataFiles()) {
+			support.loadExecutionData(execFile);
+		}
+	}
+
+	private List<File> getDataFiles() throws IOException {
 		// https://issues.apache.org/jira/browse/MNG-5440
 		if (dataFileIncludes == null) {
 			dataFileIncludes = Arrays.asList("target/*.exec");
@@ -106,38 +131,31 @@ public class ReportAggregateMojo extends AbstractReportMojo {
 
 		final FileFilter filter = new FileFilter(dataFileIncludes,
 				dataFileExcludes);
-		loadExecutionData(support, filter, getProject().getBasedir());
+		final List<File> files = new ArrayList<File>();
+		files.addAll(filter.getFiles(getProject().getBasedir()));
 		for (final MavenProject dependency : findDependencies(
 				Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME,
 				Artifact.SCOPE_PROVIDED, Artifact.SCOPE_TEST)) {
-			loadExecutionData(support, filter, dependency.getBasedir());
-		}
-	}
-
-	private void loadExecutionData(final ReportSupport support,
-			final FileFilter filter, final File basedir) throws IOException {
-		for (final File execFile : filter.getFiles(basedir)) {
-			support.loadExecutionData(execFile);
+			files.addAll(filter.getFiles(dependency.getBasedir()));
 		}
+		return files;
 	}
 
 	@Override
 	void addFormatters(final ReportSupport support, final Locale locale)
 			throws IOException {
 		support.addAllFormatters(outputDirectory, outputEncoding, footer,
-				locale);
+				locale, json);
 	}
 
 	@Override
 	void createReport(final IReportGroupVisitor visitor,
 			final ReportSupport support) throws IOException {
 		final IReportGroupVisitor group = visitor.visitGroup(title);
-		for (final MavenProject dependency : findDependencies(
-				Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME,
-				Artifact.SCOPE_PROVIDED)) {
-			support.processProject(group, dependency.getArtifactId(),
-					dependency, getIncludes(), getExcludes(), sourceEncoding);
-		}
+		support.processProjects(group,
+				findDependencies(Artifact.SCOPE_COMPILE,
+						Artifact.SCOPE_RUNTIME, Artifact.SCOPE_PROVIDED),
+				getIncludes(), getExcludes(), sourceEncoding, threads);
 	}
 
 	@Override
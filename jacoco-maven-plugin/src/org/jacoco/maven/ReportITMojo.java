@@ -60,6 +60,13 @@ public class ReportITMojo extends AbstractReportMojo {
 		return new File(getProject().getBuild().getOutputDirectory()).exists();
 	}
 
+	@Override
+	void addInputs(final Fingerprint fingerprint) throws IOException {
+		fingerprint.addFile(dataFile);
+		fingerprint.addProject(getProject(), getIncludes(), getExcludes(),
+				true);
+	}
+
 	@Override
 	void loadExecutionData(final ReportSupport support) throws IOException {
 		support.loadExecutionData(dataFile);
@@ -69,7 +76,7 @@ public class ReportITMojo extends AbstractReportMojo {
 	void addFormatters(final ReportSupport support, final Locale locale)
 			throws IOException {
 		support.addAllFormatters(outputDirectory, outputEncoding, footer,
-				locale);
+				locale, json);
 	}
 
 	@Override
@@ -55,6 +55,13 @@ public class ReportMojo extends AbstractReportMojo {
 		return new File(getProject().getBuild().getOutputDirectory()).exists();
 	}
 
+	@Override
+	void addInputs(final Fingerprint fingerprint) throws IOException {
+		fingerprint.addFile(dataFile);
+		fingerprint.addProject(getProject(), getIncludes(), getExcludes(),
+				true);
+	}
+
 	@Override
 	void loadExecutionData(final ReportSupport support) throws IOException {
 		support.loadExecutionData(dataFile);
@@ -64,7 +71,7 @@ public class ReportMojo extends AbstractReportMojo {
 	void addFormatters(final ReportSupport support, final Locale locale)
 			throws IOException {
 		support.addAllFormatters(outputDirectory, outputEncoding, footer,
-				locale);
+				locale, json);
 	}
 
 	@Override
@@ -15,33 +15,46 @@ package org.jacoco.maven;
 import static java.lang.String.format;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
 
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.jacoco.core.analysis.Analyzer;
-import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.CompactCoverageBuilder;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageVisitor;
+import org.jacoco.core.analysis.PackageCoverageBuilder;
+import org.jacoco.core.analysis.SharedStringPool;
 import org.jacoco.core.tools.ExecFileLoader;
+import org.jacoco.report.BundleCollector;
 import org.jacoco.report.FileMultiReportOutput;
+import org.jacoco.report.IReportBundleVisitor;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IndexedSourceFileLocator;
 import org.jacoco.report.MultiReportVisitor;
 import org.jacoco.report.check.IViolationsOutput;
 import org.jacoco.report.check.Rule;
 import org.jacoco.report.check.RulesChecker;
 import org.jacoco.report.csv.CSVFormatter;
 import org.jacoco.report.html.HTMLFormatter;
+import org.jacoco.report.internal.OrderedTaskQueue;
+import org.jacoco.report.json.JSONFormatter;
 import org.jacoco.report.xml.XMLFormatter;
 
 /**
@@ -58,7 +71,17 @@ import org.jacoco.report.xml.XMLFormatter;
  */
 final class ReportSupport {
 
+	private static final Comparator<File> BY_DIRECTORY = new Comparator<File>() {
+		public int compare(final File f1, final File f2) {
+			final int c = String.valueOf(f1.getParent())
+					.compareTo(String.valueOf(f2.getParent()));
+			return c != 0 ? c : f1.getName().compareTo(f2.getName());
+		}
+	};
+
 	private final Log log;
+	private final MavenSession session;
+	private final PluginDescriptor plugin;
 	private final ExecFileLoader loader;
 	private final List<IReportVisitor> formatters;
 
@@ -69,7 +92,26 @@ final class ReportSupport {
 	 *            for log output
 	 */
 	public ReportSupport(final Log log) {
+		this(log, null, null);
+	}
+
+	/**
+	 * Construct a new instance with the given log output which shares the
+	 * analysis of class files with other goals of the given session.
+	 * 
+	 * @param log
+	 *            for log output
+	 * @param session
+	 *            current Maven session or <code>null</code> to disable sharing
+	 * @param plugin
+	 *            descriptor of this plugin or <code>null</code> to disable
+	 *            sharing
+	 */
+	public ReportSupport(final Log log, final MavenSession session,
+			final PluginDescriptor plugin) {
 		this.log = log;
+		this.session = session;
+		this.plugin = plugin;
 		this.loader = new ExecFileLoader();
 		this.formatters = new ArrayList<IReportVisitor>();
 	}
@@ -101,6 +143,11 @@ final class ReportSupport {
 		formatters.add(csv.createVisitor(new FileOutputStream(targetfile)));
 	}
 
+	public void addJsonFormatter(final File targetfile) throws IOException {
+		final JSONFormatter json = new JSONFormatter();
+		formatters.add(json.createVisitor(new FileOutputStream(targetfile)));
+	}
+
 	public void addHtmlFormatter(final File targetdir, final String encoding,
 			final String footer, final Locale locale) throws IOException {
 		final HTMLFormatter htmlFormatter = new HTMLFormatter();
@@ -114,17 +161,42 @@ final class ReportSupport {
 	}
 
 	public void addAllFormatters(final File targetdir, final String encoding,
-			final String footer, final Locale locale) throws IOException {
+			final String footer, final Locale locale, final boolean json)
+			throws IOException {
 		targetdir.mkdirs();
 		addXmlFormatter(new File(targetdir, "jacoco.xml"), encoding);
 		addCsvFormatter(new File(targetdir, "jacoco.csv"), encoding);
+		if (json) {
+			addJsonFormatter(new File(targetdir, "jacoco.json"));
+		}
 		addHtmlFormatter(targetdir, encoding, footer, locale);
 	}
 
-	public void addRulesChecker(final List<Rule> rules,
-			final IViolationsOutput output) {
+	/**
+	 * Checks whether all files written by
+	 * {@link #addAllFormatters(File, String, String, Locale, boolean)} exist
+	 * in the given directory.
+	 * 
+	 * @param targetdir
+	 *            report output directory
+	 * @param json
+	 *            whether a JSON report is expected
+	 * @return <code>true</code> if no report file is missing
+	 */
+	public static boolean isReportComplete(final File targetdir,
+			final boolean json) {
+		return new File(targetdir, "jacoco.xml").isFile()
+				&& new File(targetdir, "jacoco.csv").isFile()
+				&& (!json || new File(targetdir, "jacoco.json").isFile())
+				&& new File(targetdir, "index.html").isFile();
+	}
+
+	public void addRulesChecker(final List<Rule> rules, final int threads,
+			final boolean failFast, final IViolationsOutput output) {
 		final RulesChecker checker = new RulesChecker();
 		checker.setRules(rules);
+		checker.setThreads(threads);
+		checker.setFailFast(failFast);
 		formatters.add(checker.createVisitor(output));
 	}
 
@@ -184,30 +256,214 @@ final class ReportSupport {
 				new SourceFileCollection(project, srcEncoding));
 	}
 
+	/**
+	 * Calculates coverage for the given projects and emits it to the report
+	 * group including source references. The class files of the projects are
+	 * analyzed concurrently, the bundles are emitted in the order of the given
+	 * list from the calling thread.
+	 * 
+	 * @param visitor
+	 *            group visitor to emit the projects' coverage to
+	 * @param projects
+	 *            projects to emit, the artifact ids are used as bundle names
+	 * @param includes
+	 *            list of includes patterns
+	 * @param excludes
+	 *            list of excludes patterns
+	 * @param srcEncoding
+	 *            encoding of the source files within the projects
+	 * @param threads
+	 *            number of threads to analyze class files with
+	 * @throws IOException
+	 *             if class files can't be read
+	 */
+	public void processProjects(final IReportGroupVisitor visitor,
+			final List<MavenProject> projects, final List<String> includes,
+			final List<String> excludes, final String srcEncoding,
+			final int threads) throws IOException {
+		if (threads < 2) {
+			for (final MavenProject project : projects) {
+				processProject(visitor, project.getArtifactId(), project,
+						includes, excludes, srcEncoding);
+			}
+			return;
+		}
+		final OrderedTaskQueue<CompactCoverageBuilder> pending = new OrderedTaskQueue<CompactCoverageBuilder>(
+				"jacoco-report-analyzer", threads);
+		try {
+			final Iterator<MavenProject> next = projects.iterator();
+			for (final MavenProject project : projects) {
+				// Limit the number of analyzed projects kept in memory:
+				while (!pending.isFull() && next.hasNext()) {
+					pending.submit(
+							createAnalysis(next.next(), includes, excludes));
+				}
+				visitBundle(visitor, project.getArtifactId(), pending.next(),
+						new SourceFileCollection(project, srcEncoding));
+			}
+		} finally {
+			pending.shutdown();
+		}
+	}
+
+	private Callable<CompactCoverageBuilder> createAnalysis(
+			final MavenProject project, final List<String> includes,
+			final List<String> excludes) {
+		return new Callable<CompactCoverageBuilder>() {
+			public CompactCoverageBuilder call() throws IOException {
+				final List<File> files = getClassFiles(project, includes,
+						excludes);
+				final AnalysisCache cache = getCache(project);
+				if (cache == null) {
+					final CompactCoverageBuilder builder = new CompactCoverageBuilder();
+					analyze(builder, files);
+					return builder;
+				}
+				final String key = getAnalysisKey(files);
+				CompactCoverageBuilder builder = getCachedAnalysis(cache, key,
+						project);
+				if (builder == null) {
+					builder = new CompactCoverageBuilder();
+					analyze(builder, files);
+					cache.put(key, builder, loader.getExecutionDataStore());
+				}
+				return builder;
+			}
+		};
+	}
+
 	private void processProject(final IReportGroupVisitor visitor,
 			final String bundeName, final MavenProject project,
 			final List<String> includes, final List<String> excludes,
 			final ISourceFileLocator locator) throws IOException {
-		final CoverageBuilder builder = new CoverageBuilder();
-		final File classesDir = new File(project.getBuild()
-				.getOutputDirectory());
-
-		if (classesDir.isDirectory()) {
-			final Analyzer analyzer = new Analyzer(
-					loader.getExecutionDataStore(), builder);
-			final FileFilter filter = new FileFilter(includes, excludes);
-			for (final File file : filter.getFiles(classesDir)) {
-				analyzer.analyzeAll(file);
-			}
+		final List<File> files = getClassFiles(project, includes, excludes);
+		final AnalysisCache cache = getCache(project);
+		final String key = cache == null ? null : getAnalysisKey(files);
+		CompactCoverageBuilder builder = cache == null ? null
+				: getCachedAnalysis(cache, key, project);
+		if (builder != null) {
+			visitBundle(visitor, bundeName, builder, locator);
+			return;
+		}
+		if (isPackageOrdered(files)) {
+			builder = cache == null ? null : new CompactCoverageBuilder();
+			streamProject(visitor, bundeName, files, locator, builder);
+		} else {
+			// Archives and multi-release classes may contain any package,
+			// therefore the whole bundle is collected before it is emitted:
+			builder = new CompactCoverageBuilder();
+			analyze(builder, files);
+			visitBundle(visitor, bundeName, builder, locator);
+		}
+		if (cache != null) {
+			cache.put(key, builder, loader.getExecutionDataStore());
 		}
+	}
 
+	private void visitBundle(final IReportGroupVisitor visitor,
+			final String bundeName, final CompactCoverageBuilder builder,
+			final ISourceFileLocator locator) throws IOException {
 		final IBundleCoverage bundle = builder.getBundle(bundeName);
+		visitor.visitBundle(bundle, locator);
 		logBundleInfo(bundle, builder.getNoMatchClasses());
+	}
 
-		visitor.visitBundle(bundle, locator);
+	private void streamProject(final IReportGroupVisitor visitor,
+			final String bundeName, final List<File> files,
+			final ISourceFileLocator locator,
+			final CompactCoverageBuilder shared) throws IOException {
+		final IReportBundleVisitor bundleVisitor = BundleCollector
+				.visitBundle(visitor, bundeName, locator);
+		final PackageCoverageBuilder builder = new PackageCoverageBuilder(
+				bundeName, bundleVisitor);
+		final ICoverageVisitor coverageVisitor;
+		if (shared == null) {
+			coverageVisitor = builder;
+		} else {
+			coverageVisitor = new ICoverageVisitor() {
+				public void visitCoverage(final IClassCoverage coverage) {
+					shared.visitCoverage(coverage);
+					builder.visitCoverage(coverage);
+				}
+			};
+		}
+		// Packages are emitted as soon as they are complete, therefore the
+		// class files of every directory have to be analyzed contiguously.
+		// Classes not matching their directory are collected by the builder.
+		analyze(coverageVisitor, files);
+		builder.visitEnd();
+		bundleVisitor.visitEnd();
+		logBundleInfo(builder.getSummary(), builder.getNoMatchClasses());
 	}
 
-	private void logBundleInfo(final IBundleCoverage bundle,
+	private AnalysisCache getCache(final MavenProject project) {
+		if (session == null || plugin == null) {
+			return null;
+		}
+		return AnalysisCache.get(session, plugin, project);
+	}
+
+	private String getAnalysisKey(final List<File> files) {
+		final Fingerprint fingerprint = new Fingerprint("analysis");
+		fingerprint.addAnalysis(files);
+		return fingerprint.getValue();
+	}
+
+	private CompactCoverageBuilder getCachedAnalysis(final AnalysisCache cache,
+			final String key, final MavenProject project) {
+		final CompactCoverageBuilder builder = cache.get(key,
+				loader.getExecutionDataStore());
+		if (builder != null) {
+			log.info(format("Reusing analyzed classes of project %s",
+					project.getId()));
+		}
+		return builder;
+	}
+
+	private void analyze(final ICoverageVisitor coverageVisitor,
+			final List<File> files) throws IOException {
+		// Strings are shared between the projects of aggregate reports
+		// and between builds in long-lived Maven processes:
+		final Analyzer analyzer = new Analyzer(loader.getExecutionDataStore(),
+				coverageVisitor, SharedStringPool.getDefault());
+		for (final File file : files) {
+			analyzer.analyzeAll(file);
+		}
+	}
+
+	/**
+	 * Packages can only be streamed if the classes of every package are
+	 * analyzed contiguously. This is the case for class files in directories
+	 * matching their package names, but not for archives or multi-release
+	 * classes which may contain packages of other directories.
+	 */
+	private static boolean isPackageOrdered(final List<File> files) {
+		for (final File file : files) {
+			final String path = file.getPath().replace(File.separatorChar,
+					'/');
+			if (!path.endsWith(".class")
+					|| path.contains("/META-INF/versions/")) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<File> getClassFiles(final MavenProject project,
+			final List<String> includes, final List<String> excludes)
+			throws IOException {
+		final File classesDir = new File(project.getBuild()
+				.getOutputDirectory());
+		if (!classesDir.isDirectory()) {
+			return Collections.emptyList();
+		}
+		final FileFilter filter = new FileFilter(includes, excludes);
+		final List<File> files = filter.getFiles(classesDir);
+		Collections.sort(files, BY_DIRECTORY);
+		return files;
+	}
+
+	private void logBundleInfo(final ICoverageNode bundle,
 			final Collection<IClassCoverage> nomatch) {
 		log.info(format("Analyzed bundle '%s' with %s classes",
 				bundle.getName(),
@@ -241,33 +497,38 @@ final class ReportSupport {
 		}
 	}
 
+	/**
+	 * Locator for the source files of a project. The source roots are indexed
+	 * when the first source file is requested, so the file system is not
+	 * accessed for each source file of the report.
+	 */
 	private class SourceFileCollection implements ISourceFileLocator {
 
 		private final List<File> sourceRoots;
 		private final String encoding;
 
+		private IndexedSourceFileLocator index;
+
 		public SourceFileCollection(final MavenProject project,
 				final String encoding) {
 			this.sourceRoots = getCompileSourceRoots(project);
 			this.encoding = encoding;
 		}
 
-		public Reader getSourceFile(final String packageName,
-				final String fileName) throws IOException {
-			final String r;
-			if (packageName.length() > 0) {
-				r = packageName + '/' + fileName;
-			} else {
-				r = fileName;
-			}
-			for (final File sourceRoot : sourceRoots) {
-				final File file = new File(sourceRoot, r);
-				if (file.exists() && file.isFile()) {
-					return new InputStreamReader(new FileInputStream(file),
-							encoding);
+		private synchronized IndexedSourceFileLocator getIndex()
+				throws IOException {
+			if (index == null) {
+				index = new IndexedSourceFileLocator(encoding, getTabWidth());
+				for (final File sourceRoot : sourceRoots) {
+					index.addDirectory(sourceRoot);
 				}
 			}
-			return null;
+			return index;
+		}
+
+		public Reader getSourceFile(final String packageName,
+				final String fileName) throws IOException {
+			return getIndex().getSourceFile(packageName, fileName);
 		}
 
 		public int getTabWidth() {
@@ -275,7 +536,7 @@ final class ReportSupport {
 		}
 	}
 
-	private static List<File> getCompileSourceRoots(final MavenProject project) {
+	static List<File> getCompileSourceRoots(final MavenProject project) {
 		final List<File> result = new ArrayList<File>();
 		for (final Object path : project.getCompileSourceRoots()) {
 			result.add(resolvePath(project, (String) path));
@@ -0,0 +1,586 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.agent.rt.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jacoco.agent.rt.internal.output.FileOutput;
+import org.jacoco.agent.rt.internal.output.TcpServerOutput;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataReader;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.runtime.AgentOptions;
+import org.jacoco.core.runtime.AgentOptions.OutputMode;
+import org.jacoco.core.runtime.RemoteControlReader;
+import org.jacoco.core.runtime.RemoteControlWriter;
+import org.jacoco.core.runtime.RuntimeData;
+
+/**
+ * Stress harness for races between probe recording in application threads and
+ * concurrent dump/reset requests of the agent outputs.
+ * <p>
+ * Worker threads behave like instrumented code: they retrieve their probe
+ * arrays once through {@link RuntimeData#equals(Object)} and then set probes
+ * without any synchronization. In parallel a dumper thread repeatedly collects
+ * and resets the execution data through one of the {@link IDumpChannel}
+ * implementations. The dumper publishes an epoch counter which is odd while a
+ * dump is in progress. A worker pass that started and ended in the same even
+ * epoch is completed before the next dump starts, therefore all of its probes
+ * must show up in that dump. Every dump where this invariant does not hold is
+ * reported as a lost hit.
+ * <p>
+ * If the JVM supports virtual threads the same number of workers is
+ * additionally started as virtual threads.
+ */
+public class DumpResetStress {
+
+	/**
+	 * Channel to dump and reset execution data of a running agent.
+	 */
+	public interface IDumpChannel {
+
+		/**
+		 * @return descriptive name of this channel
+		 */
+		String getName();
+
+		/**
+		 * Starts the agent side of this channel.
+		 *
+		 * @return runtime data recorded by the agent
+		 * @throws Exception
+		 *             in case the channel can't be started
+		 */
+		RuntimeData startup() throws Exception;
+
+		/**
+		 * Requests a dump with reset and waits until the reset is completed.
+		 *
+		 * @return dumped execution data
+		 * @throws Exception
+		 *             in case the dump fails
+		 */
+		ExecutionDataStore dumpAndReset() throws Exception;
+
+		/**
+		 * Releases all resources of this channel.
+		 *
+		 * @throws Exception
+		 *             in case the shutdown fails
+		 */
+		void shutdown() throws Exception;
+
+	}
+
+	/**
+	 * Results of a single stress run.
+	 */
+	public static class Result {
+
+		private final String channel;
+		private final int workers;
+		private final int rounds;
+		private final int checkedRounds;
+		private final List<String> lostHits;
+		private final long passes;
+		private final long probeCount;
+		private final long elapsed;
+		private final long minLatency;
+		private final long maxLatency;
+		private final long totalLatency;
+
+		Result(final String channel, final int workers, final int rounds,
+				final int checkedRounds, final List<String> lostHits,
+				final long passes, final long probeCount, final long elapsed,
+				final long minLatency, final long maxLatency,
+				final long totalLatency) {
+			this.channel = channel;
+			this.workers = workers;
+			this.rounds = rounds;
+			this.checkedRounds = checkedRounds;
+			this.lostHits = lostHits;
+			this.passes = passes;
+			this.probeCount = probeCount;
+			this.elapsed = elapsed;
+			this.minLatency = minLatency;
+			this.maxLatency = maxLatency;
+			this.totalLatency = totalLatency;
+		}
+
+		/**
+		 * @return number of dumps where all probes of a preceding worker pass
+		 *         were expected
+		 */
+		public int getCheckedRounds() {
+			return checkedRounds;
+		}
+
+		/**
+		 * @return descriptions of all probes hits which were missing in a dump
+		 */
+		public List<String> getLostHits() {
+			return lostHits;
+		}
+
+		/**
+		 * @return total number of probe hits of all workers
+		 */
+		public long getProbeHits() {
+			return passes * probeCount;
+		}
+
+		/**
+		 * Writes a summary line of this result.
+		 *
+		 * @param out
+		 *            writer to print to
+		 */
+		public void print(final PrintWriter out) {
+			final double seconds = (double) elapsed / 1000000000;
+			out.printf(
+					"%-10s %3d workers %5d dumps %5d checked %3d lost  %8.1f Mhits/s  dump %6.2f/%6.2f/%6.2f ms%n",
+					channel, Integer.valueOf(workers),
+					Integer.valueOf(rounds), Integer.valueOf(checkedRounds),
+					Integer.valueOf(lostHits.size()),
+					Double.valueOf(getProbeHits() / seconds / 1000000),
+					Double.valueOf((double) minLatency / 1000000),
+					Double.valueOf((double) totalLatency / rounds / 1000000),
+					Double.valueOf((double) maxLatency / 1000000));
+		}
+
+	}
+
+	private static final long CLASSID_BASE = 0x5354524553530000L;
+
+	private final int classCount;
+
+	private final int probeCount;
+
+	private final int threads;
+
+	private final int rounds;
+
+	/**
+	 * Creates a new stress scenario.
+	 *
+	 * @param classCount
+	 *            number of simulated classes
+	 * @param probeCount
+	 *            number of probes per class
+	 * @param threads
+	 *            number of platform worker threads
+	 * @param rounds
+	 *            number of dumps per run
+	 */
+	public DumpResetStress(final int classCount, final int probeCount,
+			final int threads, final int rounds) {
+		this.classCount = classCount;
+		this.probeCount = probeCount;
+		this.threads = threads;
+		this.rounds = rounds;
+	}
+
+	/**
+	 * Runs the scenario against the given channel.
+	 *
+	 * @param channel
+	 *            channel to dump and reset through
+	 * @return result of the run
+	 * @throws Exception
+	 *             in case the channel or a worker fails
+	 */
+	public Result run(final IDumpChannel channel) throws Exception {
+		final RuntimeData data = channel.startup();
+		final AtomicInteger epoch = new AtomicInteger();
+		final AtomicIntegerArray confirmed = new AtomicIntegerArray(
+				rounds + 1);
+		final AtomicLong passes = new AtomicLong();
+		final List<Throwable> errors = new ArrayList<Throwable>();
+
+		final ExecutorService platform = Executors.newFixedThreadPool(threads);
+		final ExecutorService virtual = newVirtualThreadExecutor();
+		int workers = 0;
+		for (int i = 0; i < threads; i++) {
+			final Runnable worker = new Worker(data, epoch, confirmed, passes,
+					errors);
+			platform.execute(worker);
+			workers++;
+			if (virtual != null) {
+				virtual.execute(worker);
+				workers++;
+			}
+		}
+
+		final List<String> lostHits = new ArrayList<String>();
+		int checkedRounds = 0;
+		long minLatency = Long.MAX_VALUE;
+		long maxLatency = 0;
+		long totalLatency = 0;
+		final long start = System.nanoTime();
+		try {
+			for (int round = 0; round < rounds; round++) {
+				Thread.sleep(1);
+				epoch.incrementAndGet();
+				final boolean complete = confirmed.get(round) != 0;
+				final long t = System.nanoTime();
+				final ExecutionDataStore store = channel.dumpAndReset();
+				final long latency = System.nanoTime() - t;
+				epoch.incrementAndGet();
+				minLatency = Math.min(minLatency, latency);
+				maxLatency = Math.max(maxLatency, latency);
+				totalLatency += latency;
+				if (complete) {
+					checkedRounds++;
+					checkDump(round, store, lostHits);
+				}
+			}
+		} finally {
+			epoch.set(-1);
+			platform.shutdown();
+			platform.awaitTermination(10, TimeUnit.SECONDS);
+			if (virtual != null) {
+				virtual.shutdown();
+				virtual.awaitTermination(10, TimeUnit.SECONDS);
+			}
+			channel.shutdown();
+		}
+		final long elapsed = System.nanoTime() - start;
+
+		synchronized (errors) {
+			if (!errors.isEmpty()) {
+				throw new IllegalStateException("Worker failed",
+						errors.get(0));
+			}
+		}
+		return new Result(channel.getName(), workers, rounds, checkedRounds,
+				lostHits, passes.get(), (long) classCount * probeCount,
+				elapsed, minLatency, maxLatency, totalLatency);
+	}
+
+	private void checkDump(final int round, final ExecutionDataStore store,
+			final List<String> lostHits) {
+		for (int c = 0; c < classCount; c++) {
+			final ExecutionData data = store.get(CLASSID_BASE + c);
+			if (data == null) {
+				lostHits.add(String.format("round %s: class %s missing",
+						Integer.valueOf(round), getClassName(c)));
+				continue;
+			}
+			final boolean[] probes = data.getProbes();
+			for (int p = 0; p < probes.length; p++) {
+				if (!probes[p]) {
+					lostHits.add(String.format("round %s: %s probe %s",
+							Integer.valueOf(round), getClassName(c),
+							Integer.valueOf(p)));
+				}
+			}
+		}
+	}
+
+	private static String getClassName(final int c) {
+		return "stress/Target" + c;
+	}
+
+	private class Worker implements Runnable {
+
+		private final RuntimeData data;
+		private final AtomicInteger epoch;
+		private final AtomicIntegerArray confirmed;
+		private final AtomicLong passes;
+		private final List<Throwable> errors;
+
+		Worker(final RuntimeData data, final AtomicInteger epoch,
+				final AtomicIntegerArray confirmed, final AtomicLong passes,
+				final List<Throwable> errors) {
+			this.data = data;
+			this.epoch = epoch;
+			this.confirmed = confirmed;
+			this.passes = passes;
+			this.errors = errors;
+		}
+
+		public void run() {
+			try {
+				final boolean[][] probes = new boolean[classCount][];
+				for (int c = 0; c < classCount; c++) {
+					// Same access path as generated by the agent runtimes
+					final Object[] args = new Object[] {
+							Long.valueOf(CLASSID_BASE + c), getClassName(c),
+							Integer.valueOf(probeCount) };
+					data.equals(args);
+					probes[c] = (boolean[]) args[0];
+				}
+				long count = 0;
+				while (true) {
+					final int e = epoch.get();
+					if (e < 0) {
+						break;
+					}
+					for (final boolean[] p : probes) {
+						for (int i = 0; i < p.length; i++) {
+							p[i] = true;
+						}
+					}
+					if ((e & 1) == 0 && epoch.get() == e) {
+						confirmed.set(e >> 1, 1);
+					}
+					count++;
+				}
+				passes.addAndGet(count);
+			} catch (final Throwable t) {
+				synchronized (errors) {
+					errors.add(t);
+				}
+			}
+		}
+	}
+
+	private static ExecutorService newVirtualThreadExecutor()
+			throws Exception {
+		try {
+			return (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static ExecutionDataStore read(final InputStream in)
+			throws IOException {
+		final ExecutionDataStore store = new ExecutionDataStore();
+		final ExecutionDataReader reader = new ExecutionDataReader(in);
+		reader.setExecutionDataVisitor(store);
+		reader.setSessionInfoVisitor(new SessionInfoStore());
+		reader.read();
+		return store;
+	}
+
+	private static AgentOptions createOptions() {
+		final AgentOptions options = new AgentOptions();
+		// avoid network access (DNS lookup for id generation):
+		options.setSessionId("stress");
+		return options;
+	}
+
+	/**
+	 * Dumps through {@link FileOutput} and reads the written file.
+	 */
+	public static class FileChannel implements IDumpChannel {
+
+		private final File file;
+
+		private FileOutput output;
+
+		/**
+		 * @param file
+		 *            execution data file to write
+		 */
+		public FileChannel(final File file) {
+			this.file = file;
+		}
+
+		public String getName() {
+			return "file";
+		}
+
+		public RuntimeData startup() throws Exception {
+			final AgentOptions options = createOptions();
+			options.setDestfile(file.getAbsolutePath());
+			options.setAppend(false);
+			final RuntimeData data = new RuntimeData();
+			output = new FileOutput();
+			output.startup(options, data);
+			return data;
+		}
+
+		public ExecutionDataStore dumpAndReset() throws Exception {
+			output.writeExecutionData(true);
+			final InputStream in = new FileInputStream(file);
+			try {
+				return read(in);
+			} finally {
+				in.close();
+			}
+		}
+
+		public void shutdown() throws Exception {
+			output.shutdown();
+		}
+
+	}
+
+	/**
+	 * Dumps through a remote client connected to {@link TcpServerOutput}.
+	 */
+	public static class TcpServerChannel implements IDumpChannel {
+
+		private final IExceptionLogger logger;
+
+		private TcpServerOutput output;
+
+		private Socket socket;
+
+		private RemoteControlWriter writer;
+
+		private RemoteControlReader reader;
+
+		/**
+		 * @param logger
+		 *            logger for exceptions of the server thread
+		 */
+		public TcpServerChannel(final IExceptionLogger logger) {
+			this.logger = logger;
+		}
+
+		public String getName() {
+			return "tcpserver";
+		}
+
+		public RuntimeData startup() throws Exception {
+			final InetAddress address = InetAddress.getByName(null);
+			final ServerSocket serverSocket = new ServerSocket(0, 1, address);
+			output = new TcpServerOutput(logger) {
+				@Override
+				protected ServerSocket createServerSocket(
+						final AgentOptions options) {
+					return serverSocket;
+				}
+			};
+			final RuntimeData data = new RuntimeData();
+			output.startup(createOptions(), data);
+			socket = new Socket(address, serverSocket.getLocalPort());
+			socket.setTcpNoDelay(true);
+			writer = new RemoteControlWriter(socket.getOutputStream());
+			reader = new RemoteControlReader(socket.getInputStream());
+			return data;
+		}
+
+		public ExecutionDataStore dumpAndReset() throws Exception {
+			final ExecutionDataStore store = new ExecutionDataStore();
+			reader.setExecutionDataVisitor(store);
+			reader.setSessionInfoVisitor(new SessionInfoStore());
+			writer.visitDumpCommand(true, true);
+			// returns after the command has been confirmed
+			reader.read();
+			return store;
+		}
+
+		public void shutdown() throws Exception {
+			socket.close();
+			output.shutdown();
+		}
+
+	}
+
+	/**
+	 * Dumps through the MBean registered by the {@link Agent}.
+	 */
+	public static class JmxChannel implements IDumpChannel {
+
+		private final IExceptionLogger logger;
+
+		private Agent agent;
+
+		private MBeanServer server;
+
+		private ObjectName name;
+
+		/**
+		 * @param logger
+		 *            logger for exceptions of the agent
+		 */
+		public JmxChannel(final IExceptionLogger logger) {
+			this.logger = logger;
+		}
+
+		public String getName() {
+			return "jmx";
+		}
+
+		public RuntimeData startup() throws Exception {
+			final AgentOptions options = createOptions();
+			options.setOutput(OutputMode.none);
+			options.setJmx(true);
+			agent = new Agent(options, logger);
+			agent.startup();
+			server = ManagementFactory.getPlatformMBeanServer();
+			name = new ObjectName("org.jacoco:type=Runtime");
+			return agent.getData();
+		}
+
+		public ExecutionDataStore dumpAndReset() throws Exception {
+			final byte[] bytes = (byte[]) server.invoke(name,
+					"getExecutionData", new Object[] { Boolean.TRUE },
+					new String[] { "boolean" });
+			return read(new ByteArrayInputStream(bytes));
+		}
+
+		public void shutdown() throws Exception {
+			agent.shutdown();
+		}
+
+	}
+
+	/**
+	 * Runs the scenario for all channels and prints throughput and dump
+	 * latency (min/avg/max).
+	 *
+	 * @param args
+	 *            optional: threads, rounds, classes, probes per class
+	 * @throws Exception
+	 */
+	public static void main(final String[] args) throws Exception {
+		final int threads = args.length > 0 ? Integer.parseInt(args[0])
+				: Runtime.getRuntime().availableProcessors();
+		final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		final int classes = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		final int probes = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+		final DumpResetStress stress = new DumpResetStress(classes, probes,
+				threads, rounds);
+		final File file = File.createTempFile("jacoco-stress", ".exec");
+		file.deleteOnExit();
+		final PrintWriter out = new PrintWriter(System.out, true);
+		final IDumpChannel[] channels = new IDumpChannel[] {
+				new FileChannel(file),
+				new TcpServerChannel(IExceptionLogger.SYSTEM_ERR),
+				new JmxChannel(IExceptionLogger.SYSTEM_ERR) };
+		for (final IDumpChannel channel : channels) {
+			final Result result = stress.run(channel);
+			result.print(out);
+			for (final String lost : result.getLostHits()) {
+				out.println("  lost: " + lost);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.agent.rt.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.jacoco.agent.rt.internal.DumpResetStress.FileChannel;
+import org.jacoco.agent.rt.internal.DumpResetStress.IDumpChannel;
+import org.jacoco.agent.rt.internal.DumpResetStress.JmxChannel;
+import org.jacoco.agent.rt.internal.DumpResetStress.Result;
+import org.jacoco.agent.rt.internal.DumpResetStress.TcpServerChannel;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Short runs of {@link DumpResetStress} for every agent output.
+ */
+public class DumpResetStressTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ExceptionRecorder logger;
+
+	@Before
+	public void setup() {
+		logger = new ExceptionRecorder();
+	}
+
+	@Test
+	public void file_output_should_not_lose_probe_hits() throws Exception {
+		assertNoLostHits(new FileChannel(folder.newFile("jacoco.exec")), 100);
+	}
+
+	@Test
+	public void tcpserver_output_should_not_lose_probe_hits()
+			throws Exception {
+		// each remote dump takes some ms due to TCP acknowledge delays
+		assertNoLostHits(new TcpServerChannel(logger), 20);
+	}
+
+	@Test
+	public void jmx_should_not_lose_probe_hits() throws Exception {
+		assertNoLostHits(new JmxChannel(logger), 100);
+	}
+
+	private void assertNoLostHits(final IDumpChannel channel,
+			final int rounds) throws Exception {
+		final DumpResetStress stress = new DumpResetStress(10, 32, 4, rounds);
+
+		final Result result = stress.run(channel);
+
+		assertEquals(Collections.emptyList(), result.getLostHits());
+		assertTrue(result.getCheckedRounds() > 0);
+		assertTrue(result.getProbeHits() > 0);
+		logger.assertNoException();
+	}
+
+}
@@ -23,6 +23,7 @@ import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.Resource;
 import org.apache.tools.ant.types.ResourceCollection;
+import org.apache.tools.ant.types.resources.FileResource;
 import org.apache.tools.ant.types.resources.Union;
 import org.apache.tools.ant.util.FileUtils;
 import org.jacoco.core.instr.Instrumenter;
@@ -99,8 +100,13 @@ public class InstrumentTask extends Task {
 			InputStream input = null;
 			OutputStream output = null;
 			try {
-				input = resource.getInputStream();
 				output = new FileOutputStream(file);
+				if (resource instanceof FileResource) {
+					return instrumenter.instrumentAll(
+							((FileResource) resource).getFile(), output,
+							resource.getName());
+				}
+				input = resource.getInputStream();
 				return instrumenter.instrumentAll(input, output,
 						resource.getName());
 			} finally {
@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
@@ -43,7 +44,9 @@ import org.jacoco.report.FileMultiReportOutput;
 import org.jacoco.report.IMultiReportOutput;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.IncrementalFileMultiReportOutput;
 import org.jacoco.report.MultiReportVisitor;
+import org.jacoco.report.ParallelZipMultiReportOutput;
 import org.jacoco.report.ZipMultiReportOutput;
 import org.jacoco.report.check.IViolationsOutput;
 import org.jacoco.report.check.Limit;
@@ -51,6 +54,8 @@ import org.jacoco.report.check.Rule;
 import org.jacoco.report.check.RulesChecker;
 import org.jacoco.report.csv.CSVFormatter;
 import org.jacoco.report.html.HTMLFormatter;
+import org.jacoco.report.internal.OrderedTaskQueue;
+import org.jacoco.report.json.JSONFormatter;
 import org.jacoco.report.xml.XMLFormatter;
 
 /**
@@ -168,6 +173,12 @@ public class ReportTask extends Task {
 
 		private File destfile;
 
+		private boolean incremental = false;
+
+		private int threads = 1;
+
+		private int tablepagesize = 0;
+
 		private String footer = "";
 
 		private String encoding = "UTF-8";
@@ -194,6 +205,41 @@ public class ReportTask extends Task {
 			this.destfile = destfile;
 		}
 
+		/**
+		 * Sets whether only changed files should be written to the
+		 * destination directory. Files of a previous report which are not
+		 * part of the new report are deleted. Default is <code>false</code>.
+		 * 
+		 * @param incremental
+		 *            <code>true</code> to write changed files only
+		 */
+		public void setIncremental(final boolean incremental) {
+			this.incremental = incremental;
+		}
+
+		/**
+		 * Sets the number of threads used to render pages and to compress
+		 * the entries of a Zip output file. Default is 1.
+		 * 
+		 * @param threads
+		 *            number of threads
+		 */
+		public void setThreads(final int threads) {
+			this.threads = threads;
+		}
+
+		/**
+		 * Sets the maximum number of rows rendered into coverage tables. For
+		 * tables with more rows the data is loaded by a script and shown in
+		 * pages. Default is 0 which renders all rows.
+		 * 
+		 * @param tablepagesize
+		 *            maximum number of rows or 0
+		 */
+		public void setTablepagesize(final int tablepagesize) {
+			this.tablepagesize = tablepagesize;
+		}
+
 		/**
 		 * Sets an optional footer text that will be displayed on every report
 		 * page.
@@ -236,7 +282,9 @@ public class ReportTask extends Task {
 							getLocation());
 				}
 				final FileOutputStream stream = new FileOutputStream(destfile);
-				output = new ZipMultiReportOutput(stream);
+				output = threads > 1
+						? new ParallelZipMultiReportOutput(stream, threads)
+						: new ZipMultiReportOutput(stream);
 
 			} else {
 				if (destdir == null) {
@@ -244,12 +292,16 @@ public class ReportTask extends Task {
 							"Destination directory or file must be supplied for html report",
 							getLocation());
 				}
-				output = new FileMultiReportOutput(destdir);
+				output = incremental
+						? new IncrementalFileMultiReportOutput(destdir)
+						: new FileMultiReportOutput(destdir);
 			}
 			final HTMLFormatter formatter = new HTMLFormatter();
 			formatter.setFooterText(footer);
 			formatter.setOutputEncoding(encoding);
 			formatter.setLocale(locale);
+			formatter.setThreads(threads);
+			formatter.setTablePageSize(tablepagesize);
 			return formatter.createVisitor(output);
 		}
 
@@ -341,6 +393,36 @@ public class ReportTask extends Task {
 
 	}
 
+	/**
+	 * Formatter element for JSON reports.
+	 */
+	public class JSONFormatterElement extends FormatterElement {
+
+		private File destfile;
+
+		/**
+		 * Sets the output file for the report.
+		 * 
+		 * @param destfile
+		 *            output file
+		 */
+		public void setDestfile(final File destfile) {
+			this.destfile = destfile;
+		}
+
+		@Override
+		public IReportVisitor createVisitor() throws IOException {
+			if (destfile == null) {
+				throw new BuildException(
+						"Destination file must be supplied for json report",
+						getLocation());
+			}
+			final JSONFormatter formatter = new JSONFormatter();
+			return formatter.createVisitor(new FileOutputStream(destfile));
+		}
+
+	}
+
 	/**
 	 * Formatter element for coverage checks.
 	 */
@@ -351,6 +433,8 @@ public class ReportTask extends Task {
 		private boolean violations = false;
 		private boolean failOnViolation = true;
 		private String violationsPropery = null;
+		private boolean failFast = false;
+		private int threads = 1;
 
 		/**
 		 * Creates and adds a new rule.
@@ -384,10 +468,33 @@ public class ReportTask extends Task {
 			this.violationsPropery = property;
 		}
 
+		/**
+		 * Sets whether checking should stop at the first violation. Default
+		 * is <code>false</code>.
+		 * 
+		 * @param flag
+		 *            if <code>true</code> only the first violation is reported
+		 */
+		public void setFailFast(final boolean flag) {
+			this.failFast = flag;
+		}
+
+		/**
+		 * Sets the number of threads used to check packages. Default is 1.
+		 * 
+		 * @param threads
+		 *            number of threads
+		 */
+		public void setThreads(final int threads) {
+			this.threads = threads;
+		}
+
 		@Override
 		public IReportVisitor createVisitor() throws IOException {
 			final RulesChecker formatter = new RulesChecker();
 			formatter.setRules(rules);
+			formatter.setFailFast(failFast);
+			formatter.setThreads(threads);
 			return formatter.createVisitor(this);
 		}
 
@@ -423,6 +530,8 @@ public class ReportTask extends Task {
 
 	private final List<FormatterElement> formatters = new ArrayList<FormatterElement>();
 
+	private int threads = 1;
+
 	/**
 	 * Returns the nested resource collection for execution data files.
 	 * 
@@ -463,6 +572,17 @@ public class ReportTask extends Task {
 		return element;
 	}
 
+	/**
+	 * Creates a new JSON report element.
+	 * 
+	 * @return JSON report element
+	 */
+	public JSONFormatterElement createJson() {
+		final JSONFormatterElement element = new JSONFormatterElement();
+		formatters.add(element);
+		return element;
+	}
+
 	/**
 	 * Creates a new coverage check element.
 	 * 
@@ -485,14 +605,38 @@ public class ReportTask extends Task {
 		return element;
 	}
 
+	/**
+	 * Sets the number of threads used to analyze the class files of the groups
+	 * in the report structure. Groups are still added to the report in the
+	 * order of the structure, so the report does not depend on this setting.
+	 * Default is 1.
+	 * 
+	 * @param threads
+	 *            number of threads
+	 */
+	public void setThreads(final int threads) {
+		this.threads = threads;
+	}
+
 	@Override
 	public void execute() throws BuildException {
+		if (threads < 1) {
+			throw new BuildException(
+					"Number of threads must be greater than 0", getLocation());
+		}
 		loadExecutionData();
 		try {
 			final IReportVisitor visitor = createVisitor();
 			visitor.visitInfo(sessionInfoStore.getInfos(),
 					executionDataStore.getContents());
-			createReport(visitor, structure);
+			final List<GroupElement> bundles = new ArrayList<GroupElement>();
+			collectBundles(structure, bundles);
+			final BundleQueue queue = new BundleQueue(bundles, threads);
+			try {
+				createReport(visitor, structure, queue);
+			} finally {
+				queue.shutdown();
+			}
 			visitor.visitEnd();
 			for (final FormatterElement f : formatters) {
 				f.finish();
@@ -532,14 +676,28 @@ public class ReportTask extends Task {
 		return new MultiReportVisitor(visitors);
 	}
 
+	private static void collectBundles(final GroupElement group,
+			final List<GroupElement> bundles) {
+		if (group.children.isEmpty()) {
+			bundles.add(group);
+		} else {
+			for (final GroupElement child : group.children) {
+				collectBundles(child, bundles);
+			}
+		}
+	}
+
 	private void createReport(final IReportGroupVisitor visitor,
-			final GroupElement group) throws IOException {
+			final GroupElement group, final BundleQueue queue)
+			throws IOException {
 		if (group.name == null) {
 			throw new BuildException("Group name must be supplied",
 					getLocation());
 		}
 		if (group.children.isEmpty()) {
-			final IBundleCoverage bundle = createBundle(group);
+			final CoverageBuilder builder = queue.next();
+			final IBundleCoverage bundle = builder.getBundle(group.name);
+			logBundleInfo(bundle, builder.getNoMatchClasses());
 			final SourceFilesElement sourcefiles = group.sourcefiles;
 			final AntResourcesLocator locator = new AntResourcesLocator(
 					sourcefiles.encoding, sourcefiles.tabWidth);
@@ -552,18 +710,18 @@ public class ReportTask extends Task {
 			final IReportGroupVisitor groupVisitor = visitor
 					.visitGroup(group.name);
 			for (final GroupElement child : group.children) {
-				createReport(groupVisitor, child);
+				createReport(groupVisitor, child, queue);
 			}
 		}
 	}
 
-	private IBundleCoverage createBundle(final GroupElement group)
+	private CoverageBuilder analyze(final GroupElement group)
 			throws IOException {
 		final CoverageBuilder builder = new CoverageBuilder();
 		final Analyzer analyzer = new Analyzer(executionDataStore, builder);
 		for (final Iterator<?> i = group.classfiles.iterator(); i.hasNext();) {
 			final Resource resource = (Resource) i.next();
-			if (resource.isDirectory() && resource instanceof FileResource) {
+			if (resource instanceof FileResource) {
 				analyzer.analyzeAll(((FileResource) resource).getFile());
 			} else {
 				final InputStream in = resource.getInputStream();
@@ -571,9 +729,52 @@ public class ReportTask extends Task {
 				in.close();
 			}
 		}
-		final IBundleCoverage bundle = builder.getBundle(group.name);
-		logBundleInfo(bundle, builder.getNoMatchClasses());
-		return bundle;
+		return builder;
+	}
+
+	/**
+	 * Provides the analyzed class files of the bundle groups in the order of
+	 * the report structure. With multiple threads the groups are analyzed
+	 * concurrently, but only a limited number of groups ahead of the group
+	 * currently written to the report.
+	 */
+	private class BundleQueue {
+
+		private final Iterator<GroupElement> groups;
+
+		private final OrderedTaskQueue<CoverageBuilder> pending;
+
+		BundleQueue(final List<GroupElement> groups, final int threads) {
+			this.groups = groups.iterator();
+			if (threads == 1) {
+				pending = null;
+			} else {
+				pending = new OrderedTaskQueue<CoverageBuilder>(
+						"jacoco-report-analyzer", threads);
+			}
+		}
+
+		CoverageBuilder next() throws IOException {
+			if (pending == null) {
+				return analyze(groups.next());
+			}
+			while (!pending.isFull() && groups.hasNext()) {
+				final GroupElement group = groups.next();
+				pending.submit(new Callable<CoverageBuilder>() {
+					public CoverageBuilder call() throws IOException {
+						return analyze(group);
+					}
+				});
+			}
+			return pending.next();
+		}
+
+		void shutdown() {
+			if (pending != null) {
+				pending.shutdown();
+			}
+		}
+
 	}
 
 	private void logBundleInfo(final IBundleCoverage bundle,
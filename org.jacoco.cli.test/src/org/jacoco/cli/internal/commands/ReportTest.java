@@ -15,6 +15,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.jacoco.cli.internal.CommandTestBase;
 import org.jacoco.core.data.ExecutionData;
@@ -109,6 +111,18 @@ public class ReportTest extends CommandTestBase {
 		assertTrue(csv.isFile());
 	}
 
+	@Test
+	public void should_create_json_report_when_json_option_is_provided()
+			throws Exception {
+		File json = new File(tmp.getRoot(), "coverage.json");
+
+		execute("report", "--classfiles", getClassPath(), "--json",
+				json.getAbsolutePath());
+
+		assertOk();
+		assertTrue(json.isFile());
+	}
+
 	@Test
 	public void should_create_html_report_when_html_option_is_provided()
 			throws Exception {
@@ -126,6 +140,27 @@ public class ReportTest extends CommandTestBase {
 						.isFile());
 	}
 
+	@Test
+	public void should_read_sources_from_archive_when_sourcefiles_option_is_an_archive()
+			throws Exception {
+		File html = new File(tmp.getRoot(), "coverage");
+		File sources = new File(tmp.getRoot(), "sources.jar");
+		final ZipOutputStream zip = new ZipOutputStream(
+				new FileOutputStream(sources));
+		zip.putNextEntry(new ZipEntry(
+				"org/jacoco/cli/internal/commands/ReportTest.java"));
+		zip.write("class ReportTest {}".getBytes("UTF-8"));
+		zip.close();
+
+		execute("report", "--classfiles", getClassPath(), "--sourcefiles",
+				sources.getAbsolutePath(), "--html", html.getAbsolutePath());
+
+		assertOk();
+		assertTrue(new File(html,
+				"org.jacoco.cli.internal.commands/ReportTest.java.html")
+						.isFile());
+	}
+
 	@Test
 	public void should_use_all_values_when_multiple_classfiles_options_are_provided()
 			throws Exception {
@@ -13,10 +13,8 @@
 package org.jacoco.cli.internal.commands;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
@@ -81,11 +79,10 @@ public class Instrument extends Command {
 
 	private int instrument(final File src, final File dest) throws IOException {
 		dest.getParentFile().mkdirs();
-		final InputStream input = new FileInputStream(src);
 		try {
 			final OutputStream output = new FileOutputStream(dest);
 			try {
-				return instrumenter.instrumentAll(input, output,
+				return instrumenter.instrumentAll(src, output,
 						src.getAbsolutePath());
 			} finally {
 				output.close();
@@ -93,8 +90,6 @@ public class Instrument extends Command {
 		} catch (final IOException e) {
 			dest.delete();
 			throw e;
-		} finally {
-			input.close();
 		}
 	}
 
@@ -27,14 +27,13 @@ import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.tools.ExecFileLoader;
-import org.jacoco.report.DirectorySourceFileLocator;
 import org.jacoco.report.FileMultiReportOutput;
 import org.jacoco.report.IReportVisitor;
-import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IndexedSourceFileLocator;
 import org.jacoco.report.MultiReportVisitor;
-import org.jacoco.report.MultiSourceFileLocator;
 import org.jacoco.report.csv.CSVFormatter;
 import org.jacoco.report.html.HTMLFormatter;
+import org.jacoco.report.json.JSONFormatter;
 import org.jacoco.report.xml.XMLFormatter;
 import org.kohsuke.args4j.Argument;
 import org.kohsuke.args4j.Option;
@@ -50,7 +49,7 @@ public class Report extends Command {
 	@Option(name = "--classfiles", usage = "location of Java class files", metaVar = "<path>", required = true)
 	List<File> classfiles = new ArrayList<File>();
 
-	@Option(name = "--sourcefiles", usage = "location of the source files", metaVar = "<path>")
+	@Option(name = "--sourcefiles", usage = "location of the source files or source archives", metaVar = "<path>")
 	List<File> sourcefiles = new ArrayList<File>();
 
 	@Option(name = "--tabwith", usage = "tab stop width for the source pages (default 4)", metaVar = "<n>")
@@ -68,6 +67,9 @@ public class Report extends Command {
 	@Option(name = "--csv", usage = "output file for the CSV report", metaVar = "<file>")
 	File csv;
 
+	@Option(name = "--json", usage = "output file for the JSON report", metaVar = "<file>")
+	File json;
+
 	@Option(name = "--html", usage = "output directory for the HTML report", metaVar = "<dir>")
 	File html;
 
@@ -135,8 +137,13 @@ public class Report extends Command {
 		final IReportVisitor visitor = createReportVisitor();
 		visitor.visitInfo(loader.getSessionInfoStore().getInfos(),
 				loader.getExecutionDataStore().getContents());
-		visitor.visitBundle(bundle, getSourceLocator());
-		visitor.visitEnd();
+		final IndexedSourceFileLocator locator = getSourceLocator();
+		try {
+			visitor.visitBundle(bundle, locator);
+			visitor.visitEnd();
+		} finally {
+			locator.close();
+		}
 	}
 
 	private IReportVisitor createReportVisitor() throws IOException {
@@ -152,6 +159,11 @@ public class Report extends Command {
 			visitors.add(formatter.createVisitor(new FileOutputStream(csv)));
 		}
 
+		if (json != null) {
+			final JSONFormatter formatter = new JSONFormatter();
+			visitors.add(formatter.createVisitor(new FileOutputStream(json)));
+		}
+
 		if (html != null) {
 			final HTMLFormatter formatter = new HTMLFormatter();
 			visitors.add(
@@ -161,13 +173,13 @@ public class Report extends Command {
 		return new MultiReportVisitor(visitors);
 	}
 
-	private ISourceFileLocator getSourceLocator() {
-		final MultiSourceFileLocator multi = new MultiSourceFileLocator(
-				tabwidth);
+	private IndexedSourceFileLocator getSourceLocator() throws IOException {
+		final IndexedSourceFileLocator locator = new IndexedSourceFileLocator(
+				encoding, tabwidth);
 		for (final File f : sourcefiles) {
-			multi.add(new DirectorySourceFileLocator(f, encoding, tabwidth));
+			locator.add(f);
 		}
-		return multi;
+		return locator;
 	}
 
 }
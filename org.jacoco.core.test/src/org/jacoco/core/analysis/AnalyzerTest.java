@@ -15,6 +15,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -25,10 +26,12 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.jar.JarInputStream;
 import java.util.jar.Pack200;
@@ -145,7 +148,7 @@ public class AnalyzerTest {
 		final byte[] bytes = TargetLoader
 				.getClassDataAsBytes(AnalyzerTest.class);
 		executionData.get(Long.valueOf(CRC64.classId(bytes)),
-				"org/jacoco/core/analysis/AnalyzerTest", 200);
+				"org/jacoco/core/analysis/AnalyzerTest", 400);
 		analyzer.analyzeClass(bytes, "Test");
 		assertFalse(classes.get("org/jacoco/core/analysis/AnalyzerTest")
 				.isNoMatch());
@@ -174,6 +177,16 @@ public class AnalyzerTest {
 		}
 	}
 
+	@Test
+	public void testAnalyzeClass_NullBuffer() {
+		try {
+			analyzer.analyzeClass((byte[]) null, "Null.class");
+			fail("expected exception");
+		} catch (IOException e) {
+			assertEquals("Error while analyzing Null.class.", e.getMessage());
+		}
+	}
+
 	private static class BrokenInputStream extends InputStream {
 		@Override
 		public int read() throws IOException {
@@ -312,6 +325,57 @@ public class AnalyzerTest {
 		assertClasses("org/jacoco/core/analysis/AnalyzerTest");
 	}
 
+	@Test
+	public void analyzeAll_should_analyze_files_of_folder_before_subfolders()
+			throws IOException {
+		createClassfile("a", Analyzer.class);
+		createClassfile("a/b", AnalyzerTest.class);
+		createClassfile("a/b/c", CoverageBuilder.class);
+		final File file = new File(folder.getRoot(), "a/z.class");
+		final OutputStream out = new FileOutputStream(file);
+		out.write(TargetLoader.getClassDataAsBytes(CoverageNodeImpl.class));
+		out.close();
+		final List<String> order = new ArrayList<String>();
+		analyzer = new Analyzer(executionData, new ICoverageVisitor() {
+			public void visitCoverage(final IClassCoverage coverage) {
+				order.add(coverage.getName());
+			}
+		});
+
+		analyzer.analyzeAll(new File(folder.getRoot(), "a"));
+
+		assertEquals(4, order.size());
+		assertEquals(new HashSet<String>(Arrays.asList(
+				"org/jacoco/core/analysis/Analyzer",
+				"org/jacoco/core/analysis/CoverageNodeImpl")),
+				new HashSet<String>(order.subList(0, 2)));
+		assertEquals(Arrays.asList("org/jacoco/core/analysis/AnalyzerTest",
+				"org/jacoco/core/analysis/CoverageBuilder"),
+				order.subList(2, 4));
+	}
+
+	@Test
+	public void analyzers_should_share_strings_of_shared_pool()
+			throws IOException {
+		final SharedStringPool pool = new SharedStringPool(1024);
+		final byte[] bytes = TargetLoader
+				.getClassDataAsBytes(AnalyzerTest.class);
+		final List<IClassCoverage> result = new ArrayList<IClassCoverage>();
+		final ICoverageVisitor visitor = new ICoverageVisitor() {
+			public void visitCoverage(final IClassCoverage coverage) {
+				result.add(coverage);
+			}
+		};
+
+		new Analyzer(executionData, visitor, pool).analyzeClass(bytes, "");
+		new Analyzer(executionData, visitor, pool).analyzeClass(bytes, "");
+
+		assertSame(result.get(0).getName(), result.get(1).getName());
+		assertSame(result.get(0).getSuperName(), result.get(1).getSuperName());
+		assertSame(result.get(0).getMethods().iterator().next().getDesc(),
+				result.get(1).getMethods().iterator().next().getDesc());
+	}
+
 	@Test
 	public void testAnalyzeAll_Path() throws IOException {
 		createClassfile("bin1", Analyzer.class);
@@ -350,14 +414,14 @@ public class AnalyzerTest {
 	 *
 	 * With JDK > 5 triggers exception in
 	 * {@link Analyzer#analyzeAll(java.io.InputStream, String)},
-	 * i.e. message will contain only "broken.zip@brokenentry.txt".
+	 * i.e. message will contain only "broken.zip@brokenentry.class".
 	 */
 	@Test
 	public void testAnalyzeAll_BrokenZipEntry() throws IOException {
 		File file = new File(folder.getRoot(), "broken.zip");
 		OutputStream out = new FileOutputStream(file);
 		ZipOutputStream zip = new ZipOutputStream(out);
-		zip.putNextEntry(new ZipEntry("brokenentry.txt"));
+		zip.putNextEntry(new ZipEntry("brokenentry.class"));
 		out.write(0x23); // Unexpected data here
 		zip.close();
 		try {
@@ -396,6 +460,93 @@ public class AnalyzerTest {
 		}
 	}
 
+	@Test
+	public void analyzeAll_should_analyze_zip_file() throws IOException {
+		final File file = new File(folder.getRoot(), "test.jar");
+		final ZipOutputStream zip = new ZipOutputStream(
+				new FileOutputStream(file));
+		zip.putNextEntry(new ZipEntry("org/"));
+		zip.putNextEntry(new ZipEntry("readme.txt"));
+		zip.write("not a class".getBytes("UTF-8"));
+		zip.putNextEntry(new ZipEntry("org/jacoco/core/analysis/Analyzer.class"));
+		zip.write(TargetLoader.getClassDataAsBytes(Analyzer.class));
+		zip.putNextEntry(new ZipEntry("nested.jar"));
+		zip.write(createJar(AnalyzerTest.class));
+		zip.close();
+
+		final int count = analyzer.analyzeAll(file);
+
+		assertEquals(2, count);
+		assertClasses("org/jacoco/core/analysis/Analyzer",
+				"org/jacoco/core/analysis/AnalyzerTest");
+	}
+
+	@Test
+	public void analyzeAll_should_skip_zip_file_entries_by_name()
+			throws IOException {
+		final File file = new File(folder.getRoot(), "test.jar");
+		final ZipOutputStream zip = new ZipOutputStream(
+				new FileOutputStream(file));
+		zip.putNextEntry(new ZipEntry("data.bin"));
+		zip.write(TargetLoader.getClassDataAsBytes(Analyzer.class));
+		zip.close();
+
+		final int count = analyzer.analyzeAll(file);
+
+		assertEquals(0, count);
+		assertClasses();
+	}
+
+	@Test
+	public void analyzeAll_should_read_zip_file_without_central_directory()
+			throws IOException {
+		final byte[] jar = createJar(AnalyzerTest.class);
+		// cut off central directory:
+		final int length = jar.length - 22 - 46
+				- "org/jacoco/core/analysis/AnalyzerTest.class".length();
+		final File file = new File(folder.getRoot(), "test.jar");
+		final OutputStream out = new FileOutputStream(file);
+		out.write(jar, 0, length);
+		out.close();
+
+		final int count = analyzer.analyzeAll(file);
+
+		assertEquals(1, count);
+		assertClasses("org/jacoco/core/analysis/AnalyzerTest");
+	}
+
+	@Test
+	public void analyzeAll_should_report_broken_class_file_in_zip_file()
+			throws IOException {
+		final File file = new File(folder.getRoot(), "test.jar");
+		final ZipOutputStream zip = new ZipOutputStream(
+				new FileOutputStream(file));
+		zip.putNextEntry(new ZipEntry("Broken.class"));
+		final byte[] brokenclass = TargetLoader
+				.getClassDataAsBytes(AnalyzerTest.class);
+		brokenclass[10] = 0x23;
+		zip.write(brokenclass);
+		zip.close();
+
+		try {
+			analyzer.analyzeAll(file);
+			fail("expected exception");
+		} catch (IOException e) {
+			assertEquals("Error while analyzing " + file.getPath()
+					+ "@Broken.class.", e.getMessage());
+		}
+	}
+
+	private static byte[] createJar(final Class<?> source) throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final ZipOutputStream zip = new ZipOutputStream(buffer);
+		zip.putNextEntry(
+				new ZipEntry(source.getName().replace('.', '/') + ".class"));
+		zip.write(TargetLoader.getClassDataAsBytes(source));
+		zip.close();
+		return buffer.toByteArray();
+	}
+
 	private void createClassfile(final String dir, final Class<?> source)
 			throws IOException {
 		File file = new File(folder.getRoot(), dir);
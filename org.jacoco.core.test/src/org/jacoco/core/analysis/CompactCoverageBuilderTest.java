@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CompactCoverageBuilder}.
+ */
+public class CompactCoverageBuilderTest {
+
+	private CompactCoverageBuilder coverageBuilder;
+
+	@Before
+	public void setup() {
+		coverageBuilder = new CompactCoverageBuilder();
+	}
+
+	@Test
+	public void getBundle_should_group_classes_by_package() {
+		addClass(1, false, "org/jacoco/examples/Sample1", "Sample1.java", 3);
+		addClass(2, false, "Sample2", null, 6);
+
+		final IBundleCoverage bundle = coverageBuilder.getBundle("testbundle");
+
+		assertEquals("testbundle", bundle.getName());
+		assertEquals(CounterImpl.getInstance(1, 1),
+				bundle.getInstructionCounter());
+		assertEquals(2, bundle.getPackages().size());
+		for (final IPackageCoverage p : bundle.getPackages()) {
+			if ("".equals(p.getName())) {
+				assertEquals("Sample2",
+						p.getClasses().iterator().next().getName());
+				assertTrue(p.getSourceFiles().isEmpty());
+			} else {
+				assertEquals("org/jacoco/examples", p.getName());
+				assertEquals("org/jacoco/examples/Sample1",
+						p.getClasses().iterator().next().getName());
+				assertEquals("Sample1.java",
+						p.getSourceFiles().iterator().next().getName());
+			}
+		}
+	}
+
+	@Test
+	public void getClasses_should_return_all_classes() {
+		addClass(1, false, "Sample1", null, 3);
+		addClass(2, false, "Sample2", null, 6);
+
+		final Collection<IClassCoverage> classes = coverageBuilder
+				.getClasses();
+
+		assertEquals(2, classes.size());
+		assertEquals("Sample1", classes.iterator().next().getName());
+	}
+
+	@Test
+	public void getNoMatchClasses_should_return_classes_with_no_match() {
+		addClass(1, true, "Sample1", null, 3);
+		addClass(2, false, "Sample2", null, 6);
+
+		final Collection<IClassCoverage> nomatch = coverageBuilder
+				.getNoMatchClasses();
+
+		assertEquals(1, nomatch.size());
+		assertEquals("Sample1", nomatch.iterator().next().getName());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void visitCoverage_should_reject_different_class_with_same_name() {
+		addClass(1, false, "Sample", null, 3);
+		addClass(2, false, "Sample", null, 3);
+	}
+
+	private void addClass(final long id, final boolean nomatch,
+			final String name, final String source, final int line) {
+		final MethodCoverageImpl method = new MethodCoverageImpl("doit",
+				"()V", null);
+		method.increment(id == 1 ? CounterImpl.COUNTER_1_0
+				: CounterImpl.COUNTER_0_1, CounterImpl.COUNTER_0_0, line);
+		method.incrementMethodCounter();
+		final ClassCoverageImpl coverage = new ClassCoverageImpl(name, id,
+				nomatch);
+		coverage.setSourceFileName(source);
+		coverage.addMethod(method);
+		coverageBuilder.visitCoverage(coverage);
+	}
+
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PackageCoverageBuilder}.
+ */
+public class PackageCoverageBuilderTest {
+
+	private List<IPackageCoverage> packages;
+
+	private PackageCoverageBuilder builder;
+
+	@Before
+	public void setup() {
+		packages = new ArrayList<IPackageCoverage>();
+		builder = new PackageCoverageBuilder("bundle",
+				new IPackageCoverageVisitor() {
+					public void visitPackage(final IPackageCoverage coverage) {
+						packages.add(coverage);
+					}
+				});
+	}
+
+	@Test
+	public void should_emit_package_when_next_package_starts()
+			throws IOException {
+		builder.visitCoverage(createClass(1, "p1/A", "A.java", false));
+		builder.visitCoverage(createClass(2, "p1/B", "A.java", false));
+		assertTrue(packages.isEmpty());
+
+		builder.visitCoverage(createClass(3, "p2/C", "C.java", false));
+		assertEquals(1, packages.size());
+		final IPackageCoverage p1 = packages.get(0);
+		assertEquals("p1", p1.getName());
+		assertEquals(2, p1.getClasses().size());
+		assertEquals(1, p1.getSourceFiles().size());
+		final ISourceFileCoverage s = p1.getSourceFiles().iterator().next();
+		assertEquals("A.java", s.getName());
+		assertEquals("p1", s.getPackageName());
+		assertEquals(2, s.getMethodCounter().getTotalCount());
+
+		builder.visitEnd();
+		assertEquals(2, packages.size());
+		assertEquals("p2", packages.get(1).getName());
+	}
+
+	@Test
+	public void should_summarize_emitted_packages() throws IOException {
+		builder.visitCoverage(createClass(1, "p1/A", null, false));
+		builder.visitCoverage(createClass(2, "p2/B", null, true));
+		builder.visitCoverage(createClass(3, "p3/C", null, false));
+		builder.visitEnd();
+
+		final ICoverageNode summary = builder.getSummary();
+		assertEquals(ICoverageNode.ElementType.BUNDLE,
+				summary.getElementType());
+		assertEquals("bundle", summary.getName());
+		assertEquals(3, summary.getClassCounter().getTotalCount());
+		assertEquals(3, summary.getMethodCounter().getTotalCount());
+		assertEquals(1, builder.getNoMatchClasses().size());
+		assertEquals("p2/B",
+				builder.getNoMatchClasses().iterator().next().getName());
+	}
+
+	@Test
+	public void should_ignore_duplicate_classes_with_same_id()
+			throws IOException {
+		builder.visitCoverage(createClass(1, "p1/A", null, false));
+		builder.visitCoverage(createClass(1, "p1/A", null, false));
+		builder.visitEnd();
+
+		assertEquals(1, packages.get(0).getClasses().size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void should_reject_different_classes_with_same_name() {
+		builder.visitCoverage(createClass(1, "p1/A", null, false));
+		builder.visitCoverage(createClass(2, "p1/A", null, false));
+	}
+
+	@Test
+	public void should_collect_remaining_classes_when_out_of_package_order()
+			throws IOException {
+		builder.visitCoverage(createClass(1, "p1/A", null, false));
+		builder.visitCoverage(createClass(2, "p2/B", "B.java", false));
+		builder.visitCoverage(createClass(3, "p1/C", null, false));
+		builder.visitCoverage(createClass(4, "p3/D", null, false));
+		builder.visitCoverage(createClass(5, "p2/E", "B.java", false));
+		assertEquals(1, packages.size());
+		assertFalse(builder.isStreaming());
+
+		builder.visitEnd();
+
+		assertEquals(4, packages.size());
+		assertEquals("p1", packages.get(0).getName());
+		assertEquals(1, packages.get(0).getClasses().size());
+		final IPackageCoverage p2 = packages.get(1);
+		assertEquals("p2", p2.getName());
+		assertEquals(2, p2.getClasses().size());
+		assertEquals(1, p2.getSourceFiles().size());
+		assertEquals(2, p2.getSourceFiles().iterator().next()
+				.getClassCounter().getTotalCount());
+		assertEquals("p1", packages.get(2).getName());
+		assertEquals(1, packages.get(2).getClasses().size());
+		assertEquals("p3", packages.get(3).getName());
+		assertEquals(5, builder.getSummary().getClassCounter().getTotalCount());
+	}
+
+	@Test
+	public void isStreaming_should_return_true_for_classes_in_package_order()
+			throws IOException {
+		builder.visitCoverage(createClass(1, "p1/A", null, false));
+		builder.visitCoverage(createClass(2, "p2/B", null, false));
+		builder.visitEnd();
+
+		assertTrue(builder.isStreaming());
+	}
+
+	@Test
+	public void visitEnd_should_not_emit_anything_for_empty_bundle()
+			throws IOException {
+		builder.visitEnd();
+
+		assertEquals(Collections.emptyList(), packages);
+		assertEquals(0, builder.getSummary().getClassCounter().getTotalCount());
+	}
+
+	@Test
+	public void visitEnd_should_rethrow_output_exception() {
+		final IOException expected = new IOException("failed");
+		final List<String> visited = new ArrayList<String>();
+		builder = new PackageCoverageBuilder("bundle",
+				new IPackageCoverageVisitor() {
+					public void visitPackage(final IPackageCoverage coverage)
+							throws IOException {
+						visited.add(coverage.getName());
+						throw expected;
+					}
+				});
+		builder.visitCoverage(createClass(1, "p1/A", null, false));
+		builder.visitCoverage(createClass(2, "p2/B", null, false));
+		builder.visitCoverage(createClass(3, "p3/C", null, false));
+
+		try {
+			builder.visitEnd();
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertSame(expected, e);
+		}
+		assertEquals(Collections.singletonList("p1"), visited);
+	}
+
+	private static IClassCoverage createClass(final long id,
+			final String name, final String source, final boolean noMatch) {
+		final MethodCoverageImpl method = new MethodCoverageImpl("doit",
+				"()V", null);
+		method.increment(CounterImpl.COUNTER_1_0, CounterImpl.COUNTER_0_0, 6);
+		method.incrementMethodCounter();
+		final ClassCoverageImpl coverage = new ClassCoverageImpl(name, id,
+				noMatch);
+		coverage.setSourceFileName(source);
+		coverage.addMethod(method);
+		return coverage;
+	}
+
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SharedStringPool}.
+ */
+public class SharedStringPoolTest {
+
+	private SharedStringPool pool;
+
+	@Before
+	public void setup() {
+		pool = new SharedStringPool(1024);
+	}
+
+	@Test
+	public void get_should_return_null_for_null() {
+		assertNull(pool.get((String) null));
+	}
+
+	@Test
+	public void get_should_return_same_instance() {
+		final String a = pool.get(new String("JaCoCo"));
+		final String b = pool.get(new String("JaCoCo"));
+
+		assertEquals("JaCoCo", a);
+		assertSame(a, b);
+	}
+
+	@Test
+	public void get_should_normalize_arrays() {
+		final String[] arr1 = pool.get(new String[] { new String("JaCoCo") });
+		final String[] arr2 = pool.get(new String[] { new String("JaCoCo") });
+
+		assertSame(arr1[0], arr2[0]);
+	}
+
+	@Test
+	public void size_should_be_bounded() {
+		for (int i = 0; i < 10000; i++) {
+			pool.get(String.valueOf(i));
+		}
+
+		assertTrue(String.valueOf(pool.size()), pool.size() <= 1024);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_should_reject_small_size() {
+		new SharedStringPool(15);
+	}
+
+	@Test
+	public void getDefault_should_return_same_instance() {
+		assertSame(SharedStringPool.getDefault(),
+				SharedStringPool.getDefault());
+	}
+
+	@Test
+	public void get_should_return_same_instance_for_concurrent_threads()
+			throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final List<Future<String[]>> results = new ArrayList<Future<String[]>>();
+		for (int t = 0; t < 4; t++) {
+			results.add(executor.submit(new Callable<String[]>() {
+				public String[] call() {
+					final String[] strings = new String[500];
+					for (int i = 0; i < strings.length; i++) {
+						strings[i] = pool.get(new String("s" + i));
+					}
+					return strings;
+				}
+			}));
+		}
+		final String[] expected = results.get(0).get();
+		for (final Future<String[]> result : results) {
+			final String[] actual = result.get();
+			for (int i = 0; i < expected.length; i++) {
+				assertSame(expected[i], actual[i]);
+			}
+		}
+		executor.shutdown();
+	}
+
+}
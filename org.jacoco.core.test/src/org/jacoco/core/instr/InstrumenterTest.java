@@ -18,6 +18,8 @@ import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -35,12 +37,15 @@ import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 import org.jacoco.core.analysis.AnalyzerTest;
+import org.jacoco.core.internal.InputStreams;
 import org.jacoco.core.internal.data.CRC64;
 import org.jacoco.core.internal.instr.InstrSupport;
 import org.jacoco.core.runtime.IExecutionDataAccessorGenerator;
 import org.jacoco.core.test.TargetLoader;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
@@ -86,6 +91,9 @@ public class InstrumenterTest {
 
 	}
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	private AccessorGenerator accessorGenerator;
 	private Instrumenter instrumenter;
 
@@ -143,6 +151,17 @@ public class InstrumenterTest {
 		}
 	}
 
+	@Test
+	public void testInstrumentNullBuffer() {
+		try {
+			instrumenter.instrument((byte[]) null, "Null.class");
+			fail();
+		} catch (IOException e) {
+			assertEquals("Error while instrumenting Null.class.",
+					e.getMessage());
+		}
+	}
+
 	private static class BrokenInputStream extends InputStream {
 		@Override
 		public int read() throws IOException {
@@ -420,6 +439,93 @@ public class InstrumenterTest {
 		assertEquals("text", new String(out.toByteArray()));
 	}
 
+	@Test
+	public void instrumentAll_should_instrument_class_file()
+			throws IOException {
+		final File file = folder.newFile("Test.class");
+		final OutputStream fileout = new FileOutputStream(file);
+		fileout.write(TargetLoader.getClassDataAsBytes(getClass()));
+		fileout.close();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		final int count = instrumenter.instrumentAll(file, out, "Test");
+
+		assertEquals(1, count);
+		assertEquals(CRC64.classId(TargetLoader.getClassDataAsBytes(getClass())),
+				accessorGenerator.classId);
+	}
+
+	@Test
+	public void instrumentAll_should_instrument_zip_file() throws IOException {
+		final File file = folder.newFile("test.jar");
+		final ZipOutputStream zipout = new ZipOutputStream(
+				new FileOutputStream(file));
+		zipout.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+		zipout.putNextEntry(new ZipEntry("META-INF/ALIAS.SF"));
+		zipout.putNextEntry(new ZipEntry("dir/"));
+		zipout.putNextEntry(new ZipEntry("dir/Test.class"));
+		zipout.write(TargetLoader.getClassDataAsBytes(getClass()));
+		zipout.putNextEntry(new ZipEntry("readme.txt"));
+		zipout.write("text".getBytes());
+		zipout.close();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		final int count = instrumenter.instrumentAll(file, out, "Test");
+
+		assertEquals(1, count);
+		assertEquals(CRC64.classId(TargetLoader.getClassDataAsBytes(getClass())),
+				accessorGenerator.classId);
+		final ZipInputStream zipin = new ZipInputStream(
+				new ByteArrayInputStream(out.toByteArray()));
+		assertEquals("META-INF/MANIFEST.MF", zipin.getNextEntry().getName());
+		assertEquals("dir/", zipin.getNextEntry().getName());
+		assertEquals("dir/Test.class", zipin.getNextEntry().getName());
+		assertEquals("readme.txt", zipin.getNextEntry().getName());
+		assertEquals("text", new String(InputStreams.readFully(zipin)));
+		assertNull(zipin.getNextEntry());
+	}
+
+	@Test
+	public void instrumentAll_should_copy_zip_file_entries_skipped_by_name()
+			throws IOException {
+		final byte[] classfile = TargetLoader.getClassDataAsBytes(getClass());
+		final File file = folder.newFile("test.jar");
+		final ZipOutputStream zipout = new ZipOutputStream(
+				new FileOutputStream(file));
+		zipout.putNextEntry(new ZipEntry("data.bin"));
+		zipout.write(classfile);
+		zipout.close();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		final int count = instrumenter.instrumentAll(file, out, "Test");
+
+		assertEquals(0, count);
+		final ZipInputStream zipin = new ZipInputStream(
+				new ByteArrayInputStream(out.toByteArray()));
+		assertEquals("data.bin", zipin.getNextEntry().getName());
+		assertArrayEquals(classfile, InputStreams.readFully(zipin));
+		assertNull(zipin.getNextEntry());
+	}
+
+	@Test
+	public void instrumentAll_should_read_zip_file_without_central_directory()
+			throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final ZipOutputStream zipout = new ZipOutputStream(buffer);
+		zipout.putNextEntry(new ZipEntry("Test.class"));
+		zipout.write(TargetLoader.getClassDataAsBytes(getClass()));
+		zipout.closeEntry();
+		final File file = folder.newFile("test.jar");
+		final OutputStream fileout = new FileOutputStream(file);
+		fileout.write(buffer.toByteArray());
+		fileout.close();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		final int count = instrumenter.instrumentAll(file, out, "Test");
+
+		assertEquals(1, count);
+	}
+
 	@Test
 	public void testInstrumentAll_RemoveSignatures() throws IOException {
 		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ContentBuffer}.
+ */
+public class ContentBufferTest {
+
+	private ContentBuffer buffer;
+
+	@Before
+	public void setup() {
+		buffer = new ContentBuffer();
+	}
+
+	@Test
+	public void readFully_should_read_empty_stream() throws IOException {
+		buffer.readFully(new ByteArrayInputStream(new byte[0]));
+
+		assertEquals(0, buffer.getLength());
+		assertArrayEquals(new byte[0], buffer.toByteArray());
+	}
+
+	@Test
+	public void readFully_should_read_all_bytes() throws IOException {
+		final byte[] content = createContent(10000);
+
+		buffer.readFully(new ChunkedInputStream(content));
+
+		assertEquals(content.length, buffer.getLength());
+		assertArrayEquals(content, buffer.toByteArray());
+	}
+
+	@Test
+	public void readFully_should_reuse_array_for_smaller_content()
+			throws IOException {
+		buffer.readFully(new ByteArrayInputStream(createContent(10000)));
+		final byte[] array = buffer.getBytes();
+
+		final byte[] content = createContent(5000);
+		buffer.readFully(new ByteArrayInputStream(content));
+
+		assertSame(array, buffer.getBytes());
+		assertEquals(content.length, buffer.getLength());
+		assertArrayEquals(content, buffer.toByteArray());
+	}
+
+	private static byte[] createContent(final int length) {
+		final byte[] content = new byte[length];
+		for (int i = 0; i < length; i++) {
+			content[i] = (byte) (i * 31);
+		}
+		return content;
+	}
+
+	/**
+	 * Returns at most 100 bytes per read call.
+	 */
+	private static class ChunkedInputStream extends InputStream {
+
+		private final ByteArrayInputStream in;
+
+		ChunkedInputStream(final byte[] content) {
+			in = new ByteArrayInputStream(content);
+		}
+
+		@Override
+		public int read() {
+			return in.read();
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) {
+			return in.read(b, off, Math.min(len, 100));
+		}
+
+	}
+
+}
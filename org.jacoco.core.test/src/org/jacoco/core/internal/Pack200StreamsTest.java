@@ -60,6 +60,31 @@ public class Pack200StreamsTest {
 		assertNull(zipin.getNextEntry());
 	}
 
+	@Test
+	public void testPackStream() throws IOException {
+		ByteArrayOutputStream jarbuffer = new ByteArrayOutputStream();
+		ZipOutputStream zipout = new ZipOutputStream(jarbuffer);
+		zipout.putNextEntry(new ZipEntry("Test.class"));
+		zipout.write(TargetLoader.getClassDataAsBytes(getClass()));
+		zipout.finish();
+
+		ByteArrayOutputStream pack200buffer = new ByteArrayOutputStream();
+		Pack200Streams.pack(
+				new NoCloseInputStream(
+						new ByteArrayInputStream(jarbuffer.toByteArray())),
+				new NoCloseOutputStream(pack200buffer));
+
+		jarbuffer.reset();
+		Pack200.newUnpacker().unpack(
+				new ByteArrayInputStream(pack200buffer.toByteArray()),
+				new JarOutputStream(jarbuffer));
+
+		ZipInputStream zipin = new ZipInputStream(new ByteArrayInputStream(
+				jarbuffer.toByteArray()));
+		assertEquals("Test.class", zipin.getNextEntry().getName());
+		assertNull(zipin.getNextEntry());
+	}
+
 	@Test
 	public void testUnpack() throws IOException {
 		ByteArrayOutputStream jarbuffer = new ByteArrayOutputStream();
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SpillBuffer}.
+ */
+public class SpillBufferTest {
+
+	@Test
+	public void should_keep_small_content_in_memory() throws IOException {
+		final SpillBuffer buffer = new SpillBuffer(100);
+		final byte[] content = createContent(100);
+
+		buffer.write(content, 0, 60);
+		buffer.write(content, 60, 40);
+
+		assertNull(buffer.getFile());
+		assertArrayEquals(content, read(buffer.getInputStream()));
+	}
+
+	@Test
+	public void should_keep_single_bytes_in_memory_up_to_threshold()
+			throws IOException {
+		final SpillBuffer buffer = new SpillBuffer(10000);
+		final byte[] content = createContent(10001);
+
+		for (int i = 0; i < 10000; i++) {
+			buffer.write(content[i]);
+		}
+		assertNull(buffer.getFile());
+		buffer.write(content[10000]);
+
+		assertNotNull(buffer.getFile());
+		final InputStream in = buffer.getInputStream();
+		assertArrayEquals(content, read(in));
+		in.close();
+	}
+
+	@Test
+	public void should_write_large_content_to_temporary_file()
+			throws IOException {
+		final SpillBuffer buffer = new SpillBuffer(100);
+		final byte[] content = createContent(10000);
+
+		buffer.write(content, 0, 60);
+		buffer.write(content[60]);
+		buffer.write(content, 61, content.length - 61);
+
+		final File file = buffer.getFile();
+		assertNotNull(file);
+		final InputStream in = buffer.getInputStream();
+		assertArrayEquals(content, read(in));
+		assertTrue(file.exists());
+		in.close();
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void dispose_should_delete_temporary_file() throws IOException {
+		final SpillBuffer buffer = new SpillBuffer(0);
+		buffer.write(1);
+		final File file = buffer.getFile();
+		assertTrue(file.exists());
+
+		buffer.dispose();
+
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void dispose_should_ignore_content_in_memory() throws IOException {
+		final SpillBuffer buffer = new SpillBuffer();
+		buffer.write(1);
+
+		buffer.dispose();
+
+		assertNull(buffer.getFile());
+	}
+
+	private static byte[] createContent(final int size) {
+		final byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = (byte) i;
+		}
+		return content;
+	}
+
+	private static byte[] read(final InputStream in) throws IOException {
+		final ContentBuffer buffer = new ContentBuffer();
+		buffer.readFully(in);
+		return buffer.toByteArray();
+	}
+
+}
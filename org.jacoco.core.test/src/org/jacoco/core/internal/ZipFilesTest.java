@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ZipFiles}.
+ */
+public class ZipFilesTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void open_should_return_zip_file() throws IOException {
+		final File file = folder.newFile("test.zip");
+		final ZipOutputStream out = new ZipOutputStream(
+				new FileOutputStream(file));
+		out.putNextEntry(new ZipEntry("Test.class"));
+		out.close();
+
+		final ZipFile zip = ZipFiles.open(file);
+
+		assertNotNull(zip);
+		assertEquals("Test.class", zip.entries().nextElement().getName());
+		zip.close();
+	}
+
+	@Test
+	public void open_should_return_null_when_central_directory_is_missing()
+			throws IOException {
+		final File file = folder.newFile("test.zip");
+		final OutputStream out = new FileOutputStream(file);
+		out.write(new byte[] { 0x50, 0x4b, 0x03, 0x04 });
+		out.close();
+
+		assertNull(ZipFiles.open(file));
+	}
+
+	@Test
+	public void isClassOrArchive_should_accept_class_files_and_archives() {
+		assertTrue(ZipFiles.isClassOrArchive("org/example/Foo.class"));
+		assertTrue(ZipFiles.isClassOrArchive("lib/nested.jar"));
+		assertTrue(ZipFiles.isClassOrArchive("lib/NESTED.ZIP"));
+		assertTrue(ZipFiles.isClassOrArchive("app.war"));
+		assertTrue(ZipFiles.isClassOrArchive("app.ear"));
+		assertTrue(ZipFiles.isClassOrArchive("lib.pack"));
+		assertTrue(ZipFiles.isClassOrArchive("lib.pack.gz"));
+	}
+
+	@Test
+	public void isClassOrArchive_should_reject_other_entries() {
+		assertFalse(ZipFiles.isClassOrArchive("META-INF/MANIFEST.MF"));
+		assertFalse(ZipFiles.isClassOrArchive("readme.txt"));
+		assertFalse(ZipFiles.isClassOrArchive("org/example/Foo.java"));
+	}
+
+}
@@ -12,6 +12,8 @@
 package org.jacoco.core.internal.analysis;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.jacoco.core.internal.flow.MethodProbesVisitor;
 import org.jacoco.core.internal.instr.InstrSupport;
@@ -57,4 +59,29 @@ public class ClassAnalyzerTest {
 		assertEquals(0, coverage.getMethods().size());
 	}
 
+	@Test
+	public void getKotlinSMAP_should_return_null_without_SourceDebugExtension() {
+		analyzer.visitSource("Foo.kt", null);
+
+		assertNull(analyzer.getKotlinSMAP());
+	}
+
+	@Test
+	public void getKotlinSMAP_should_parse_SourceDebugExtension_once() {
+		analyzer.visitSource("Foo.kt", "" //
+				+ "SMAP\n" //
+				+ "Foo.kt\n" //
+				+ "Kotlin\n" //
+				+ "*S Kotlin\n" //
+				+ "*F\n" //
+				+ "+ 1 Foo.kt\n" //
+				+ "Foo\n" //
+				+ "*L\n" //
+				+ "1#1,8:1\n" //
+				+ "*E\n");
+
+		assertEquals(1, analyzer.getKotlinSMAP().mappings().size());
+		assertSame(analyzer.getKotlinSMAP(), analyzer.getKotlinSMAP());
+	}
+
 }
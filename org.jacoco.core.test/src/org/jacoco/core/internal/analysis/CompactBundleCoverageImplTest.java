@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CompactBundleCoverageImpl} and
+ * {@link CompactClassTable}.
+ */
+public class CompactBundleCoverageImplTest {
+
+	private CoverageBuilder expected;
+
+	private CompactClassTable table;
+
+	@Before
+	public void setup() {
+		expected = new CoverageBuilder();
+		table = new CompactClassTable();
+	}
+
+	@Test
+	public void should_create_empty_bundle() {
+		final IBundleCoverage bundle = new CompactBundleCoverageImpl("empty",
+				table);
+
+		assertEquals(ElementType.BUNDLE, bundle.getElementType());
+		assertEquals("empty", bundle.getName());
+		assertEquals(CounterImpl.COUNTER_0_0, bundle.getInstructionCounter());
+		assertFalse(bundle.containsCode());
+		assertTrue(bundle.getPackages().isEmpty());
+	}
+
+	@Test
+	public void should_provide_same_content_as_bundle() {
+		final ClassCoverageImpl a = createClass("p1/A", 1, "A.java", 10, 1);
+		a.setSignature("<T:Ljava/lang/Object;>Ljava/lang/Object;");
+		a.setSuperName("java/lang/Object");
+		a.setInterfaces(new String[] { "java/lang/Runnable",
+				"java/io/Serializable" });
+		add(a);
+		// overlapping lines in the same source file:
+		add(createClass("p1/B", 2, "A.java", 12, 2));
+		add(createClass("p1/C", 3, "C.java", 1, 1));
+		add(createClass("p1/D", 4, null, 1, 1));
+		final ClassCoverageImpl e = createClass("p2/E", 5, null, 5, 3);
+		e.setInterfaces(null);
+		add(e);
+		final ClassCoverageImpl f = new ClassCoverageImpl("p2/F", 6, true);
+		f.setInterfaces(new String[0]);
+		add(f);
+		final ClassCoverageImpl g = createClass("p2/\u00e4\u0800\uffff", 7,
+				"\u00e4.java", 1, 2);
+		// line without method:
+		g.increment(CounterImpl.COUNTER_0_1, CounterImpl.COUNTER_0_0, 20);
+		add(g);
+		add(a);
+
+		assertBundle(expected.getBundle("bundle"),
+				new CompactBundleCoverageImpl("bundle", table));
+	}
+
+	@Test
+	public void should_add_classes_after_trim() {
+		add(createClass("p/A", 1, "A.java", 1, 2));
+		table.trim();
+		add(createClass("p/B", 2, "A.java", 3, 2));
+		add(createClass("p/A", 1, "A.java", 1, 2));
+
+		assertEquals(2, table.getClassCount());
+		assertBundle(expected.getBundle("bundle"),
+				new CompactBundleCoverageImpl("bundle", table));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void should_reject_different_class_with_same_name() {
+		table.add(createClass("p/A", 1, "A.java", 1, 2));
+		table.trim();
+		table.add(createClass("p/A", 2, "A.java", 1, 2));
+	}
+
+	@Test
+	public void should_keep_large_line_counters() {
+		final MethodCoverageImpl m = new MethodCoverageImpl("m", "()V", null);
+		m.increment(CounterImpl.getInstance(300, 70000),
+				CounterImpl.getInstance(2, 1000), 7);
+		m.increment(CounterImpl.getInstance(1, 2),
+				CounterImpl.getInstance(3, 4), 9);
+		m.incrementMethodCounter();
+		final ClassCoverageImpl c = new ClassCoverageImpl("p/C", 1, false);
+		c.setSourceFileName("C.java");
+		c.addMethod(m);
+		add(c);
+
+		final IBundleCoverage actual = new CompactBundleCoverageImpl("bundle",
+				table);
+
+		assertBundle(expected.getBundle("bundle"), actual);
+		final ISourceNode method = actual.getPackages().iterator().next()
+				.getClasses().iterator().next().getMethods().iterator().next();
+		assertEquals(CounterImpl.getInstance(300, 70000),
+				method.getLine(7).getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(3, 4),
+				method.getLine(9).getBranchCounter());
+	}
+
+	@Test
+	public void views_should_be_equal_for_same_node() {
+		table.add(createClass("p/A", 1, "A.java", 1, 1));
+		final IBundleCoverage bundle = new CompactBundleCoverageImpl("bundle",
+				table);
+
+		final IPackageCoverage p1 = bundle.getPackages().iterator().next();
+		final IPackageCoverage p2 = bundle.getPackages().iterator().next();
+		final IClassCoverage c1 = p1.getClasses().iterator().next();
+		final IClassCoverage c2 = table.getClassCoverage(0);
+		final ISourceFileCoverage s = p1.getSourceFiles().iterator().next();
+
+		assertEquals(p1, p2);
+		assertEquals(p1.hashCode(), p2.hashCode());
+		assertEquals(c1, c2);
+		assertEquals(c1.hashCode(), c2.hashCode());
+		assertFalse(p1.equals(c1));
+		assertFalse(p1.equals(s));
+		assertFalse(c1.equals(c1.getMethods().iterator().next()));
+		assertFalse(p1.equals(null));
+		assertFalse(c1.equals(null));
+		assertEquals("p/A [CLASS]", c1.toString());
+		assertEquals("bundle [BUNDLE]", bundle.toString());
+	}
+
+	@Test
+	public void getPlainCopy_should_copy_counters() {
+		table.add(createClass("p/A", 1, null, 1, 2));
+		final IBundleCoverage bundle = new CompactBundleCoverageImpl("bundle",
+				table);
+
+		final ICoverageNode copy = bundle.getPackages().iterator().next()
+				.getPlainCopy();
+
+		assertEquals(ElementType.PACKAGE, copy.getElementType());
+		assertEquals("p", copy.getName());
+		assertCounters(bundle.getPackages().iterator().next(), copy);
+		assertCounters(bundle, bundle.getPlainCopy());
+	}
+
+	private void add(final ClassCoverageImpl c) {
+		expected.visitCoverage(c);
+		table.add(c);
+	}
+
+	private ClassCoverageImpl createClass(final String name, final long id,
+			final String source, final int firstLine, final int methods) {
+		final ClassCoverageImpl c = new ClassCoverageImpl(name, id, false);
+		c.setSourceFileName(source);
+		for (int i = 0; i < methods; i++) {
+			final MethodCoverageImpl m = new MethodCoverageImpl("m" + i,
+					"()V", i == 0 ? null : "()V");
+			final int line = firstLine + i * 3;
+			m.increment(CounterImpl.getInstance(i, 5),
+					CounterImpl.COUNTER_0_0, line);
+			m.increment(CounterImpl.getInstance(2, 0),
+					CounterImpl.getInstance(1, 1), line + 2);
+			m.increment(CounterImpl.COUNTER_1_0, CounterImpl.COUNTER_0_0,
+					ISourceNode.UNKNOWN_LINE);
+			m.incrementMethodCounter();
+			c.addMethod(m);
+		}
+		return c;
+	}
+
+	private static void assertBundle(final IBundleCoverage expected,
+			final IBundleCoverage actual) {
+		assertCounters(expected, actual);
+		assertEquals(expected.getPackages().size(),
+				actual.getPackages().size());
+		for (final IPackageCoverage e : expected.getPackages()) {
+			final IPackageCoverage a = find(actual.getPackages(), e.getName());
+			assertCounters(e, a);
+			assertEquals(e.getClasses().size(), a.getClasses().size());
+			for (final IClassCoverage ec : e.getClasses()) {
+				final IClassCoverage ac = find(a.getClasses(), ec.getName());
+				assertSourceNode(ec, ac);
+				assertEquals(ec.getId(), ac.getId());
+				assertEquals(Boolean.valueOf(ec.isNoMatch()),
+						Boolean.valueOf(ac.isNoMatch()));
+				assertEquals(ec.getSignature(), ac.getSignature());
+				assertEquals(ec.getSuperName(), ac.getSuperName());
+				if (ec.getInterfaceNames() == null) {
+					assertNull(ac.getInterfaceNames());
+				} else {
+					assertArrayEquals(ec.getInterfaceNames(),
+							ac.getInterfaceNames());
+				}
+				assertEquals(ec.getSourceFileName(), ac.getSourceFileName());
+				assertEquals(ec.getPackageName(), ac.getPackageName());
+				assertEquals(ec.getMethods().size(), ac.getMethods().size());
+				final Iterator<IMethodCoverage> am = ac.getMethods()
+						.iterator();
+				for (final IMethodCoverage em : ec.getMethods()) {
+					final IMethodCoverage m = am.next();
+					assertSourceNode(em, m);
+					assertEquals(em.getDesc(), m.getDesc());
+					assertEquals(em.getSignature(), m.getSignature());
+				}
+			}
+			assertEquals(e.getSourceFiles().size(), a.getSourceFiles().size());
+			for (final ISourceFileCoverage es : e.getSourceFiles()) {
+				final ISourceFileCoverage as = find(a.getSourceFiles(),
+						es.getName());
+				assertSourceNode(es, as);
+				assertEquals(es.getPackageName(), as.getPackageName());
+			}
+		}
+	}
+
+	private static void assertSourceNode(final ISourceNode expected,
+			final ISourceNode actual) {
+		assertCounters(expected, actual);
+		assertEquals(expected.getFirstLine(), actual.getFirstLine());
+		assertEquals(expected.getLastLine(), actual.getLastLine());
+		for (int nr = expected.getFirstLine() - 1; nr <= expected
+				.getLastLine() + 1; nr++) {
+			assertEquals(expected.getLine(nr).getInstructionCounter(),
+					actual.getLine(nr).getInstructionCounter());
+			assertEquals(expected.getLine(nr).getBranchCounter(),
+					actual.getLine(nr).getBranchCounter());
+		}
+	}
+
+	private static void assertCounters(final ICoverageNode expected,
+			final ICoverageNode actual) {
+		assertEquals(expected.getElementType(), actual.getElementType());
+		assertEquals(expected.getName(), actual.getName());
+		for (final CounterEntity entity : CounterEntity.values()) {
+			assertEquals(expected.getCounter(entity),
+					actual.getCounter(entity));
+		}
+		assertEquals(expected.getInstructionCounter(),
+				actual.getInstructionCounter());
+		assertEquals(expected.getBranchCounter(), actual.getBranchCounter());
+		assertEquals(expected.getLineCounter(), actual.getLineCounter());
+		assertEquals(expected.getComplexityCounter(),
+				actual.getComplexityCounter());
+		assertEquals(expected.getMethodCounter(), actual.getMethodCounter());
+		assertEquals(expected.getClassCounter(), actual.getClassCounter());
+		assertEquals(Boolean.valueOf(expected.containsCode()),
+				Boolean.valueOf(actual.containsCode()));
+	}
+
+	private static <T extends ICoverageNode> T find(
+			final Collection<T> nodes, final String name) {
+		for (final T node : nodes) {
+			if (name.equals(node.getName())) {
+				return node;
+			}
+		}
+		throw new AssertionError("Node not found: " + name);
+	}
+
+}
@@ -158,6 +158,25 @@ public class InstructionTest {
 				instruction.getBranchCounter());
 	}
 
+	@Test
+	public void merge_should_calculate_superset_of_covered_branches_with_large_branch_numbers() {
+		final Instruction i1 = new Instruction(124);
+		i1.addBranch(false, 63);
+		i1.addBranch(true, 64);
+		i1.addBranch(false, 100);
+		final Instruction i2 = new Instruction(124);
+		i2.addBranch(true, 63);
+		i2.addBranch(false, 64);
+		i2.addBranch(false, 100);
+
+		instruction = i1.merge(i2);
+
+		assertEquals(CounterImpl.COUNTER_0_1,
+				instruction.getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(1, 2),
+				instruction.getBranchCounter());
+	}
+
 	@Test
 	public void replaceBranches_should_calculate_coverage_on_new_branches() {
 		Instruction i1 = new Instruction(1);
@@ -13,7 +13,7 @@ package org.jacoco.core.internal.analysis;
 
 import static org.junit.Assert.assertEquals;
 
-import java.util.Map;
+import java.util.List;
 
 import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.core.internal.flow.LabelInfo;
@@ -21,7 +21,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.InsnNode;
 
 /**
@@ -31,159 +31,182 @@ public class InstructionsBuilderTest {
 
 	private InstructionsBuilder builder;
 
+	private InsnList list;
+
 	@Before
 	public void setup() {
 		builder = new InstructionsBuilder(new boolean[] { false, true });
+		list = new InsnList();
 	}
 
 	@Test
 	public void current_line_number_should_be_applied_to_instructions() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 
 		builder.setCurrentLine(10);
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		InsnNode i2 = newNode();
 		builder.addInstruction(i2);
-		InsnNode i3 = new InsnNode(Opcodes.NOP);
+		InsnNode i3 = newNode();
 		builder.addInstruction(i3);
 
 		builder.setCurrentLine(20);
-		InsnNode i4 = new InsnNode(Opcodes.NOP);
+		InsnNode i4 = newNode();
 		builder.addInstruction(i4);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
-		assertEquals(ISourceFileCoverage.UNKNOWN_LINE, map.get(i1).getLine());
-		assertEquals(10, map.get(i2).getLine());
-		assertEquals(10, map.get(i3).getLine());
-		assertEquals(20, map.get(i4).getLine());
+		Instruction[] instructions = builder.getInstructions(list);
+		assertEquals(ISourceFileCoverage.UNKNOWN_LINE, instructions[list.indexOf(i1)].getLine());
+		assertEquals(10, instructions[list.indexOf(i2)].getLine());
+		assertEquals(10, instructions[list.indexOf(i3)].getLine());
+		assertEquals(20, instructions[list.indexOf(i4)].getLine());
+	}
+
+	@Test
+	public void instructions_should_be_available_without_nodes() {
+		builder.discardNodes();
+		builder.setCurrentLine(10);
+		builder.addInstruction(null);
+		builder.addProbe(1, 0);
+
+		final List<Instruction> instructions = builder.getInstructions();
+		assertEquals(1, instructions.size());
+		assertEquals(10, instructions.get(0).getLine());
+		assertEquals(CounterImpl.COUNTER_0_1,
+				instructions.get(0).getInstructionCounter());
 	}
 
 	@Test
 	public void null_probearray_should_not_mark_instruction_as_covered() {
 		builder = new InstructionsBuilder(null);
 
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 		builder.addProbe(5, 0);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
 	}
 
 	@Test
 	public void unexecuted_probe_should_not_mark_instruction_as_covered() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 		builder.addProbe(0, 0);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
 	}
 
 	@Test
 	public void executed_probe_should_mark_instruction_as_covered() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 		builder.addProbe(1, 0);
 
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_be_linked_by_default() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		InsnNode i2 = newNode();
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_not_be_linked_when_noSuccessor_was_called() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 		builder.noSuccessor();
 
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		InsnNode i2 = newNode();
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should not be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_be_linked_after_label_marked_as_successor() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 
 		Label l = new Label();
 		LabelInfo.setSuccessor(l);
 		builder.addLabel(l);
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		InsnNode i2 = newNode();
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
 	}
 
 	@Test
 	public void subsequent_instructions_should_not_be_linked_after_label_not_marked_as_successor() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 
 		builder.addLabel(new Label());
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		InsnNode i2 = newNode();
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should not be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_1_0,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
 	}
 
 	@Test
 	public void jumps_should_propagate_coverage_status() {
-		InsnNode i1 = new InsnNode(Opcodes.NOP);
+		InsnNode i1 = newNode();
 		builder.addInstruction(i1);
 		Label l2 = new Label();
 		builder.addJump(l2, 0);
 
 		builder.addLabel(l2);
-		InsnNode i2 = new InsnNode(Opcodes.NOP);
+		InsnNode i2 = newNode();
 		builder.addInstruction(i2);
 
 		// mark i2 as covered
 		builder.addProbe(1, 0);
 
 		// coverage should be propagated to i1
-		Map<AbstractInsnNode, Instruction> map = builder.getInstructions();
+		Instruction[] instructions = builder.getInstructions(list);
 		assertEquals(CounterImpl.COUNTER_0_1,
-				map.get(i1).getInstructionCounter());
+				instructions[list.indexOf(i1)].getInstructionCounter());
+	}
+
+	private InsnNode newNode() {
+		final InsnNode node = new InsnNode(Opcodes.NOP);
+		list.add(node);
+		return node;
 	}
 
 }
@@ -14,9 +14,7 @@ package org.jacoco.core.internal.analysis;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 
 import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.junit.Before;
@@ -31,7 +29,11 @@ import org.objectweb.asm.tree.InsnNode;
  */
 public class MethodCoverageCalculatorTest {
 
-	private Map<AbstractInsnNode, Instruction> instructions;
+	private boolean[] probes;
+
+	private int probeCount;
+
+	private InstructionsBuilder builder;
 
 	// The purpose of this list is to link instruction nodes
 	private InsnList list;
@@ -40,7 +42,9 @@ public class MethodCoverageCalculatorTest {
 
 	@Before
 	public void setup() {
-		instructions = new HashMap<AbstractInsnNode, Instruction>();
+		probes = new boolean[16];
+		probeCount = 0;
+		builder = new InstructionsBuilder(probes);
 		coverage = new MethodCoverageImpl("run", "()V", null);
 		list = new InsnList();
 	}
@@ -52,7 +56,8 @@ public class MethodCoverageCalculatorTest {
 		addInsn(2, false);
 		addInsn(3, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.calculate(coverage);
 
 		assertLine(1, 0, 1, 0, 0);
@@ -66,7 +71,8 @@ public class MethodCoverageCalculatorTest {
 		addInsn(2, false, false, true);
 		addInsn(3, false, true, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.calculate(coverage);
 
 		assertLine(1, 1, 0, 2, 0);
@@ -80,7 +86,8 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i1 = addInsn(1, false);
 		addInsn(2, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.ignore(i1, i1);
 		c.calculate(coverage);
 
@@ -98,7 +105,8 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(2, false);
 		addInsn(3, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.ignore(i1, i2);
 		c.calculate(coverage);
 
@@ -113,7 +121,8 @@ public class MethodCoverageCalculatorTest {
 		addInsn(2, false);
 		InsnNode i3 = addInsn(3, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.ignore(i1, i1);
 		c.ignore(i3, i3);
 		c.calculate(coverage);
@@ -129,7 +138,8 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(2, true, false);
 		addInsn(3, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.merge(i1, i2);
 		c.calculate(coverage);
 
@@ -144,7 +154,8 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(1, false, true, false);
 		InsnNode i3 = addInsn(1, false, false, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.merge(i1, i2);
 		c.merge(i2, i3);
 		c.calculate(coverage);
@@ -159,7 +170,8 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i2 = addInsn(2, true, false);
 		addInsn(3, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.merge(i1, i2);
 		c.merge(i2, i1);
 		c.calculate(coverage);
@@ -176,7 +188,8 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i3 = addInsn(2, true);
 		InsnNode i4 = addInsn(2, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.replaceBranches(i1,
 				new HashSet<AbstractInsnNode>(Arrays.asList(i2, i3, i4)));
 		c.calculate(coverage);
@@ -192,7 +205,8 @@ public class MethodCoverageCalculatorTest {
 		InsnNode i3 = addInsn(2, false);
 		InsnNode i4 = addInsn(2, false);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.merge(i4, i3);
 		c.merge(i3, i2);
 		c.replaceBranches(i1,
@@ -202,13 +216,57 @@ public class MethodCoverageCalculatorTest {
 		assertLine(1, 0, 1, 0, 3);
 	}
 
+	@Test
+	public void should_report_linked_instructions() {
+		probes[0] = true;
+		builder.setCurrentLine(1);
+		builder.addInstruction(addNode());
+		builder.setCurrentLine(2);
+		builder.addInstruction(addNode());
+		builder.addProbe(0, 0);
+		builder.noSuccessor();
+		builder.setCurrentLine(3);
+		builder.addInstruction(addNode());
+
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
+		c.calculate(coverage);
+
+		assertEquals(1, coverage.getFirstLine());
+		assertEquals(3, coverage.getLastLine());
+		assertLine(1, 0, 1, 0, 0);
+		assertLine(2, 0, 1, 0, 0);
+		assertLine(3, 1, 0, 0, 0);
+	}
+
+	@Test
+	public void should_report_linked_instructions_with_filtering() {
+		probes[0] = true;
+		builder.setCurrentLine(1);
+		InsnNode i1 = addNode();
+		builder.addInstruction(i1);
+		builder.setCurrentLine(2);
+		builder.addInstruction(addNode());
+		builder.addProbe(0, 0);
+
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
+		c.ignore(i1, i1);
+		c.calculate(coverage);
+
+		assertEquals(2, coverage.getFirstLine());
+		assertEquals(2, coverage.getLastLine());
+		assertLine(2, 0, 1, 0, 0);
+	}
+
 	@Test
 	public void should_work_without_lines() {
 		addInsn(ISourceFileCoverage.UNKNOWN_LINE, false);
 		addInsn(ISourceFileCoverage.UNKNOWN_LINE, false);
 		addInsn(ISourceFileCoverage.UNKNOWN_LINE, true);
 
-		MethodCoverageCalculator c = new MethodCoverageCalculator(instructions);
+		MethodCoverageCalculator c = new MethodCoverageCalculator(list,
+				builder);
 		c.calculate(coverage);
 
 		assertEquals(ISourceFileCoverage.UNKNOWN_LINE, coverage.getFirstLine());
@@ -225,14 +283,21 @@ public class MethodCoverageCalculatorTest {
 	}
 
 	private InsnNode addInsn(int line, boolean... branches) {
-		Instruction i = new Instruction(line);
+		InsnNode node = addNode();
+		builder.noSuccessor();
+		builder.setCurrentLine(line);
+		builder.addInstruction(node);
 		int idx = 0;
 		for (boolean covered : branches) {
-			i.addBranch(covered, idx++);
+			probes[probeCount] = covered;
+			builder.addProbe(probeCount++, idx++);
 		}
+		return node;
+	}
+
+	private InsnNode addNode() {
 		InsnNode node = new InsnNode(Opcodes.NOP);
 		list.add(node);
-		instructions.put(node, i);
 		return node;
 	}
 
@@ -213,4 +213,59 @@ public class SourceNodeImplTest {
 		assertEquals(CounterImpl.getInstance(0, 1), node.getLineCounter());
 	}
 
+	@Test
+	public void testIncrementLinesLargeCounters() {
+		final SourceNodeImpl node = new SourceNodeImpl(ElementType.CLASS, "Foo");
+		node.increment(CounterImpl.getInstance(1, 2),
+				CounterImpl.getInstance(3, 4), 10);
+		node.increment(CounterImpl.getInstance(200, 0),
+				CounterImpl.getInstance(0, 70000), 12);
+		node.increment(CounterImpl.getInstance(100, 300),
+				CounterImpl.getInstance(255, 0), 12);
+		node.increment(CounterImpl.getInstance(5, 6),
+				CounterImpl.getInstance(7, 8), 14);
+
+		assertEquals(CounterImpl.getInstance(1, 2), node.getLine(10)
+				.getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(3, 4), node.getLine(10)
+				.getBranchCounter());
+		assertEquals(CounterImpl.getInstance(300, 300), node.getLine(12)
+				.getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(255, 70000), node.getLine(12)
+				.getBranchCounter());
+		assertEquals(CounterImpl.getInstance(5, 6), node.getLine(14)
+				.getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(7, 8), node.getLine(14)
+				.getBranchCounter());
+		assertEquals(CounterImpl.COUNTER_0_0, node.getLine(13)
+				.getInstructionCounter());
+		assertEquals(10, node.getFirstLine());
+		assertEquals(14, node.getLastLine());
+		assertEquals(CounterImpl.getInstance(0, 3), node.getLineCounter());
+	}
+
+	@Test
+	public void testIncrementChildWithLargeCounters() {
+		final SourceNodeImpl node = new SourceNodeImpl(ElementType.CLASS, "Foo");
+		node.increment(CounterImpl.getInstance(1, 0), CounterImpl.COUNTER_0_0,
+				20);
+
+		final SourceNodeImpl child = new SourceNodeImpl(ElementType.CLASS,
+				"Foo");
+		child.increment(CounterImpl.getInstance(1000, 0),
+				CounterImpl.COUNTER_0_0, 5);
+		child.increment(CounterImpl.getInstance(0, 1), CounterImpl.COUNTER_0_0,
+				20);
+
+		node.increment(child);
+
+		assertEquals(5, node.getFirstLine());
+		assertEquals(20, node.getLastLine());
+		assertEquals(CounterImpl.getInstance(1000, 0), node.getLine(5)
+				.getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(1, 1), node.getLine(20)
+				.getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(1, 1), node.getLineCounter());
+	}
+
 }
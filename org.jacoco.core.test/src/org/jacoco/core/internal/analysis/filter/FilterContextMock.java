@@ -45,4 +45,11 @@ public class FilterContextMock implements IFilterContext {
 		return sourceDebugExtension;
 	}
 
+	public KotlinSMAP getKotlinSMAP() {
+		if (sourceDebugExtension == null) {
+			return null;
+		}
+		return new KotlinSMAP(sourceFileName, sourceDebugExtension);
+	}
+
 }
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Evgeny Mandrikov - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis.filter;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jacoco.core.internal.instr.InstrSupport;
+import org.junit.Test;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.MethodNode;
+
+/**
+ * Unit tests for {@link Filters}.
+ */
+public class FiltersTest extends FilterTestBase {
+
+	private final Filters filter = Filters.all();
+
+	@Test
+	public void none_should_not_match_any_method() {
+		final MethodNode m = createKotlinWhenMethod();
+
+		assertFalse(Filters.NONE.canMatch(m, context));
+	}
+
+	@Test
+	public void canMatch_should_return_false_for_plain_method() {
+		final MethodNode m = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"name", "()V", null, null);
+		m.visitVarInsn(Opcodes.ALOAD, 0);
+		m.visitMethodInsn(Opcodes.INVOKESTATIC, "java/util/Objects",
+				"requireNonNull", "(Ljava/lang/Object;)Ljava/lang/Object;",
+				false);
+		m.visitInsn(Opcodes.RETURN);
+
+		assertFalse(filter.canMatch(m, context));
+	}
+
+	@Test
+	public void canMatch_should_return_true_for_method_using_kotlin_runtime() {
+		final MethodNode m = createKotlinWhenMethod();
+
+		assertTrue(filter.canMatch(m, context));
+	}
+
+	@Test
+	public void canMatch_should_return_true_for_constructor() {
+		final MethodNode m = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"<init>", "()V", null, null);
+		m.visitInsn(Opcodes.RETURN);
+
+		assertTrue(filter.canMatch(m, context));
+	}
+
+	@Test
+	public void none_should_not_filter() {
+		final MethodNode m = createKotlinWhenMethod();
+		context.classAnnotations
+				.add(KotlinGeneratedFilter.KOTLIN_METADATA_DESC);
+
+		Filters.NONE.filter(m, context, output);
+
+		assertIgnored();
+	}
+
+	@Test
+	public void should_dispatch_classes_without_kotlin_metadata_to_kotlin_when_filter() {
+		final MethodNode m = createKotlinWhenMethod();
+
+		filter.filter(m, context, output);
+
+		assertIgnored(new Range(m.instructions.get(3), m.instructions.get(3)),
+				new Range(m.instructions.get(5), m.instructions.get(9)));
+	}
+
+	@Test
+	public void should_dispatch_kotlin_classes_to_kotlin_filters() {
+		final MethodNode m = createKotlinWhenMethod();
+		context.classAnnotations
+				.add(KotlinGeneratedFilter.KOTLIN_METADATA_DESC);
+
+		filter.filter(m, context, output);
+
+		assertIgnored(new Range(m.instructions.get(3), m.instructions.get(3)),
+				new Range(m.instructions.get(5), m.instructions.get(9)));
+	}
+
+	@Test
+	public void should_dispatch_enum_classes_to_enum_filters() {
+		final MethodNode m = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"values", "()[LFoo;", null, null);
+		m.visitInsn(Opcodes.NOP);
+		context.superClassName = "java/lang/Enum";
+
+		filter.filter(m, context, output);
+
+		assertMethodIgnored(m);
+	}
+
+	@Test
+	public void should_determine_class_features_for_every_context() {
+		final MethodNode m = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"values", "()[LFoo;", null, null);
+		m.visitInsn(Opcodes.NOP);
+		filter.filter(m, context, output);
+
+		final FilterContextMock enumContext = new FilterContextMock();
+		enumContext.superClassName = "java/lang/Enum";
+		filter.filter(m, enumContext, output);
+
+		assertMethodIgnored(m);
+	}
+
+	@Test
+	public void should_dispatch_methods_with_monitorexit_to_synchronized_filter() {
+		final MethodNode m = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"name", "()V", null, null);
+		final Label start = new Label();
+		final Label end = new Label();
+		final Label handler = new Label();
+		final Label handlerEnd = new Label();
+		m.visitTryCatchBlock(start, end, handler, null);
+		m.visitTryCatchBlock(handler, handlerEnd, handler, null);
+		m.visitVarInsn(Opcodes.ALOAD, 0);
+		m.visitInsn(Opcodes.DUP);
+		m.visitVarInsn(Opcodes.ASTORE, 1);
+		m.visitInsn(Opcodes.MONITORENTER);
+		m.visitLabel(start);
+		m.visitInsn(Opcodes.NOP);
+		m.visitVarInsn(Opcodes.ALOAD, 1);
+		m.visitInsn(Opcodes.MONITOREXIT);
+		m.visitLabel(end);
+		final Label exit = new Label();
+		m.visitJumpInsn(Opcodes.GOTO, exit);
+		m.visitLabel(handler);
+		m.visitVarInsn(Opcodes.ASTORE, 2);
+		m.visitVarInsn(Opcodes.ALOAD, 1);
+		m.visitInsn(Opcodes.MONITOREXIT);
+		m.visitLabel(handlerEnd);
+		m.visitVarInsn(Opcodes.ALOAD, 2);
+		m.visitInsn(Opcodes.ATHROW);
+		m.visitLabel(exit);
+		m.visitInsn(Opcodes.RETURN);
+
+		filter.filter(m, context, output);
+
+		assertIgnored(new Range((LabelNode) handler.info,
+				((LabelNode) exit.info).getPrevious()));
+	}
+
+	private static MethodNode createKotlinWhenMethod() {
+		final MethodNode m = new MethodNode(InstrSupport.ASM_API_VERSION, 0,
+				"name", "()V", null, null);
+		final Label label = new Label();
+		final Label line = new Label();
+		m.visitLabel(line);
+		m.visitLineNumber(1, line);
+		m.visitInsn(Opcodes.NOP);
+		m.visitJumpInsn(Opcodes.IFEQ, label);
+		m.visitInsn(Opcodes.NOP);
+		m.visitLabel(label);
+		m.visitTypeInsn(Opcodes.NEW, "kotlin/NoWhenBranchMatchedException");
+		m.visitInsn(Opcodes.DUP);
+		m.visitMethodInsn(Opcodes.INVOKESPECIAL,
+				"kotlin/NoWhenBranchMatchedException", "<init>", "()V", false);
+		m.visitInsn(Opcodes.ATHROW);
+		return m;
+	}
+
+}
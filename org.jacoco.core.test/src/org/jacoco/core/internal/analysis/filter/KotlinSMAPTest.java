@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Evgeny Mandrikov - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link KotlinSMAP}.
+ */
+public class KotlinSMAPTest {
+
+	@Test
+	public void should_parse() {
+		final KotlinSMAP smap = new KotlinSMAP("callsite.kt", "" //
+				+ "SMAP\n" //
+				+ "callsite.kt\n" //
+				+ "Kotlin\n" //
+				+ "*S Kotlin\n" //
+				+ "*F\n" //
+				+ "+ 1 callsite.kt\n" //
+				+ "CallsiteKt\n" //
+				+ "+ 2 a.kt\n" //
+				+ "AKt\n" //
+				+ "*L\n" //
+				+ "1#1,8:1\n" //
+				+ "2#2,2:9\n" //
+				+ "*E\n" //
+				+ "*S KotlinDebug\n");
+
+		final List<KotlinSMAP.Mapping> mappings = smap.mappings();
+		assertEquals(2, mappings.size());
+		assertMapping(mappings.get(0), "callsite.kt", "CallsiteKt", 1, 8, 1);
+		assertMapping(mappings.get(1), "a.kt", "AKt", 2, 2, 9);
+	}
+
+	@Test
+	public void should_parse_optional_line_info_fields() {
+		final KotlinSMAP smap = new KotlinSMAP("callsite.kt", "" //
+				+ "SMAP\r\n" //
+				+ "callsite.kt\r\n" //
+				+ "Kotlin\r\n" //
+				+ "*S Kotlin\r\n" //
+				+ "*F\r\n" //
+				+ "+ 1 callsite.kt\r\n" //
+				+ "CallsiteKt\r\n" //
+				+ "*L\r\n" //
+				+ "1#1:1\r\n" // RepeatCount defaults to 1
+				+ "5,2:7,3\r\n" // LineFileID defaults to previous one
+				+ "*E");
+
+		final List<KotlinSMAP.Mapping> mappings = smap.mappings();
+		assertEquals(2, mappings.size());
+		assertMapping(mappings.get(0), "callsite.kt", "CallsiteKt", 1, 1, 1);
+		assertMapping(mappings.get(1), "callsite.kt", "CallsiteKt", 5, 2, 7);
+	}
+
+	@Test
+	public void should_throw_exception_when_unexpected_header() {
+		assertUnexpected("Unexpected SMAP line: other.kt", "SMAP\n" //
+				+ "other.kt\n");
+	}
+
+	@Test
+	public void should_throw_exception_when_unexpected_end() {
+		assertUnexpected("Unexpected SMAP line: null", "SMAP\n");
+	}
+
+	@Test
+	public void should_throw_exception_when_unknown_LineFileID() {
+		assertUnexpected("Unexpected SMAP line: 1#2,8:1", "" //
+				+ "SMAP\n" //
+				+ "callsite.kt\n" //
+				+ "Kotlin\n" //
+				+ "*S Kotlin\n" //
+				+ "*F\n" //
+				+ "+ 1 callsite.kt\n" //
+				+ "CallsiteKt\n" //
+				+ "*L\n" //
+				+ "1#2,8:1\n" //
+				+ "*E\n");
+	}
+
+	@Test
+	public void should_throw_exception_when_unexpected_characters_in_LineInfo() {
+		assertUnexpected("Unexpected SMAP line: 1#1,8:1x", "" //
+				+ "SMAP\n" //
+				+ "callsite.kt\n" //
+				+ "Kotlin\n" //
+				+ "*S Kotlin\n" //
+				+ "*F\n" //
+				+ "+ 1 callsite.kt\n" //
+				+ "CallsiteKt\n" //
+				+ "*L\n" //
+				+ "1#1,8:1x\n" //
+				+ "*E\n");
+	}
+
+	private static void assertUnexpected(final String message,
+			final String smap) {
+		try {
+			new KotlinSMAP("callsite.kt", smap);
+			fail("exception expected");
+		} catch (final IllegalStateException e) {
+			assertEquals(message, e.getMessage());
+		}
+	}
+
+	private static void assertMapping(final KotlinSMAP.Mapping mapping,
+			final String inputFileName, final String inputClassName,
+			final int inputStartLine, final int repeatCount,
+			final int outputStartLine) {
+		assertEquals(inputFileName, mapping.inputFileName());
+		assertEquals(inputClassName, mapping.inputClassName());
+		assertEquals(inputStartLine, mapping.inputStartLine());
+		assertEquals(repeatCount, mapping.repeatCount());
+		assertEquals(outputStartLine, mapping.outputStartLine());
+	}
+
+}
@@ -14,6 +14,8 @@ package org.jacoco.core.internal.data;
 import static org.junit.Assert.assertEquals;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.Random;
 
 import org.jacoco.core.data.ExecutionDataWriter;
 import org.junit.Test;
@@ -94,4 +96,91 @@ public class CRC64Test {
 		assertEquals(0xD8016B38AAD48308L, sum);
 	}
 
+	@Test
+	public void classId_should_match_bytewise_calculation() {
+		final Random random = new Random(42);
+		for (int length = 0; length < 100; length++) {
+			final byte[] bytes = new byte[length];
+			random.nextBytes(bytes);
+			assertEquals(reference(bytes), CRC64.classId(bytes));
+		}
+	}
+
+	@Test
+	public void classId_should_accept_array_range() {
+		final byte[] bytes = createClass(Opcodes.V9);
+		final byte[] padded = new byte[bytes.length + 10];
+		System.arraycopy(bytes, 0, padded, 7, bytes.length);
+
+		assertEquals(CRC64.classId(bytes),
+				CRC64.classId(padded, 7, bytes.length));
+	}
+
+	@Test
+	public void classId_should_accept_heap_and_direct_buffers() {
+		final byte[] bytes = createClass(Opcodes.V1_8);
+		final long expected = CRC64.classId(bytes);
+
+		final ByteBuffer heap = ByteBuffer.allocate(bytes.length + 5);
+		heap.position(3);
+		heap.put(bytes);
+		heap.position(3);
+		heap.limit(3 + bytes.length);
+		assertEquals(expected, CRC64.classId(heap.slice()));
+		assertEquals(expected, CRC64.classId(heap));
+		assertEquals(3, heap.position());
+
+		final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+		direct.put(bytes);
+		direct.flip();
+		assertEquals(expected, CRC64.classId(direct));
+		assertEquals(0, direct.position());
+	}
+
+	@Test
+	public void streaming_calculation_should_match_classId() {
+		final byte[] bytes = createClass(Opcodes.V9);
+		final long expected = CRC64.classId(bytes);
+		for (int chunk = 1; chunk <= bytes.length; chunk++) {
+			final CRC64 crc = new CRC64();
+			for (int i = 0; i < bytes.length; i += chunk) {
+				crc.update(bytes, i, Math.min(chunk, bytes.length - i));
+			}
+			assertEquals(expected, crc.getClassId());
+
+			final CRC64 buffered = new CRC64();
+			for (int i = 0; i < bytes.length; i += chunk) {
+				buffered.update(ByteBuffer.wrap(bytes, i,
+						Math.min(chunk, bytes.length - i)));
+			}
+			assertEquals(expected, buffered.getClassId());
+		}
+	}
+
+	@Test
+	public void streaming_calculation_should_support_short_input() {
+		final CRC64 crc = new CRC64();
+		crc.update(new byte[] { 1, 2, 3 }, 1, 2);
+		assertEquals(CRC64.classId(new byte[] { 2, 3 }), crc.getClassId());
+	}
+
+	/**
+	 * Straightforward implementation which processes one byte at a time.
+	 */
+	static long reference(final byte[] bytes) {
+		long sum = 0;
+		for (final byte b : bytes) {
+			long v = (sum ^ b) & 0xff;
+			for (int j = 0; j < 8; j++) {
+				if ((v & 1) == 1) {
+					v = (v >>> 1) ^ 0xd800000000000000L;
+				} else {
+					v = (v >>> 1);
+				}
+			}
+			sum = (sum >>> 8) ^ v;
+		}
+		return sum;
+	}
+
 }
@@ -63,6 +63,31 @@ public class InstrSupportTest {
 		assertArrayEquals(createJava14Class(), bytes);
 	}
 
+	@Test
+	public void classReaderFor_should_read_java_14_class_from_array_range() {
+		final byte[] bytes = createJava14Class();
+		final byte[] padded = new byte[bytes.length + 10];
+		System.arraycopy(bytes, 0, padded, 5, bytes.length);
+
+		final ClassReader classReader = InstrSupport.classReaderFor(padded, 5,
+				bytes.length);
+
+		classReader.accept(new ClassVisitor(InstrSupport.ASM_API_VERSION) {
+			@Override
+			public void visit(final int version, final int access,
+					final String name, final String signature,
+					final String superName, final String[] interfaces) {
+				assertEquals(Opcodes.V13 + 1, version);
+				assertEquals("Foo", name);
+			}
+		}, 0);
+
+		assertEquals(Opcodes.V13 + 1, InstrSupport.getMajorVersion(classReader));
+		final byte[] unpadded = new byte[bytes.length];
+		System.arraycopy(padded, 5, unpadded, 0, bytes.length);
+		assertArrayEquals(createJava14Class(), unpadded);
+	}
+
 	private static byte[] createJava14Class() {
 		final ClassWriter cw = new ClassWriter(0);
 		cw.visit(Opcodes.V13 + 1, 0, "Foo", null, "java/lang/Object", null);
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageVisitor;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.internal.InputStreams;
+import org.jacoco.core.test.TargetLoader;
+
+/**
+ * Scenario to measure the heap allocated while analyzing a JAR file. As a
+ * reference every class is read into a new array before it is analyzed. The
+ * figures are only available on JVMs which support the measurement of thread
+ * allocations.
+ */
+public class AnalysisAllocationScenario implements IPerfScenario {
+
+	private final Class<?> target;
+
+	private final int count;
+
+	public AnalysisAllocationScenario(Class<?> target, int count) {
+		this.target = target;
+		this.count = count;
+	}
+
+	public void run(IPerfOutput output) throws Exception {
+		final byte[] jar = createJar();
+		final Analyzer analyzer = createAnalyzer();
+		final Analyzer reference = createAnalyzer();
+		// warm-up
+		analyzer.analyzeAll(new ByteArrayInputStream(jar), "jar");
+		analyzeWithNewArrays(reference, jar);
+
+		final long size = getAllocatedBytes(new Callable<Void>() {
+			public Void call() throws Exception {
+				analyzer.analyzeAll(new ByteArrayInputStream(jar), "jar");
+				return null;
+			}
+		});
+		final long refsize = getAllocatedBytes(new Callable<Void>() {
+			public Void call() throws Exception {
+				analyzeWithNewArrays(reference, jar);
+				return null;
+			}
+		});
+		output.writeByteResult(String.format("allocated for %s classes",
+				Integer.valueOf(count)), size, refsize);
+	}
+
+	private byte[] createJar() throws IOException {
+		final byte[] bytes = TargetLoader.getClassDataAsBytes(target);
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final ZipOutputStream zip = new ZipOutputStream(buffer);
+		for (int i = 0; i < count; i++) {
+			zip.putNextEntry(new ZipEntry("Target" + i + ".class"));
+			zip.write(bytes);
+		}
+		zip.close();
+		return buffer.toByteArray();
+	}
+
+	private static Analyzer createAnalyzer() {
+		return new Analyzer(new ExecutionDataStore(), new ICoverageVisitor() {
+			public void visitCoverage(IClassCoverage coverage) {
+			}
+		});
+	}
+
+	private static void analyzeWithNewArrays(final Analyzer analyzer,
+			final byte[] jar) throws IOException {
+		final ZipInputStream zip = new ZipInputStream(
+				new ByteArrayInputStream(jar));
+		ZipEntry entry;
+		while ((entry = zip.getNextEntry()) != null) {
+			analyzer.analyzeClass(InputStreams.readFully(zip), entry.getName());
+		}
+	}
+
+	/**
+	 * @return bytes allocated by the current thread or 0 if not supported
+	 */
+	private static long getAllocatedBytes(final Callable<Void> subject)
+			throws Exception {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		final Method method;
+		try {
+			method = Class.forName("com.sun.management.ThreadMXBean")
+					.getMethod("getThreadAllocatedBytes", long.class);
+		} catch (final ClassNotFoundException e) {
+			return 0;
+		}
+		if (!method.getDeclaringClass().isInstance(bean)) {
+			return 0;
+		}
+		final Long id = Long.valueOf(Thread.currentThread().getId());
+		final long start = ((Long) method.invoke(bean, id)).longValue();
+		subject.call();
+		return ((Long) method.invoke(bean, id)).longValue() - start;
+	}
+
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.util.concurrent.Callable;
+
+import org.jacoco.core.internal.data.CRC64;
+import org.jacoco.core.test.TargetLoader;
+
+/**
+ * Scenario to measure the time taken to calculate class identifiers. As a
+ * reference the identifiers are calculated with a byte-by-byte table lookup.
+ */
+public class ClassIdScenario extends TimedScenario {
+
+	private static final long[] LOOKUPTABLE = new long[0x100];
+
+	static {
+		for (int i = 0; i < 0x100; i++) {
+			long v = i;
+			for (int j = 0; j < 8; j++) {
+				if ((v & 1) == 1) {
+					v = (v >>> 1) ^ 0xd800000000000000L;
+				} else {
+					v = (v >>> 1);
+				}
+			}
+			LOOKUPTABLE[i] = v;
+		}
+	}
+
+	private final Class<?> target;
+
+	private final int count;
+
+	/** Keeps results alive to avoid dead code elimination */
+	private long sink;
+
+	protected ClassIdScenario(Class<?> target, int count) {
+		super(String.format("class ids of %s classes", Integer.valueOf(count)));
+		this.target = target;
+		this.count = count;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		final byte[] bytes = TargetLoader.getClassDataAsBytes(target);
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				for (int i = 0; i < count; i++) {
+					sink ^= CRC64.classId(bytes);
+				}
+				return null;
+			}
+		};
+	}
+
+	@Override
+	protected Callable<Void> getReferenceCallable() throws Exception {
+		final byte[] bytes = TargetLoader.getClassDataAsBytes(target);
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				for (int i = 0; i < count; i++) {
+					long sum = 0;
+					for (final byte b : bytes) {
+						sum = (sum >>> 8) ^ LOOKUPTABLE[((int) sum ^ b) & 0xff];
+					}
+					sink ^= sum;
+				}
+				return null;
+			}
+		};
+	}
+
+}
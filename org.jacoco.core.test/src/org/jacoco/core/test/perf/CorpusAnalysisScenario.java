@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Evgeny Mandrikov - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageVisitor;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.internal.InputStreams;
+
+/**
+ * Scenario to measure the time taken to analyze all classes of a real code
+ * base, here the classes of the JAR file or directory the given class has
+ * been loaded from. In contrast to the synthetic targets such a code base
+ * contains the typical mix of constructs which are subject to filtering.
+ */
+public class CorpusAnalysisScenario extends TimedScenario {
+
+	private final Class<?> member;
+
+	private final int count;
+
+	protected CorpusAnalysisScenario(Class<?> member, int count) {
+		super(String.format("analysing classes of %s %s times",
+				member.getPackage().getName(), Integer.valueOf(count)));
+		this.member = member;
+		this.count = count;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		final List<byte[]> classes = readClasses();
+		final ExecutionDataStore executionData = new ExecutionDataStore();
+		ICoverageVisitor visitor = new ICoverageVisitor() {
+			public void visitCoverage(IClassCoverage coverage) {
+			}
+		};
+		final Analyzer analyzer = new Analyzer(executionData, visitor);
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				for (int i = 0; i < count; i++) {
+					for (final byte[] c : classes) {
+						analyzer.analyzeClass(c, "corpus");
+					}
+				}
+				return null;
+			}
+		};
+	}
+
+	private List<byte[]> readClasses() throws IOException {
+		final File location = new File(member.getProtectionDomain()
+				.getCodeSource().getLocation().getPath());
+		final List<byte[]> classes = new ArrayList<byte[]>();
+		if (location.isDirectory()) {
+			readClasses(location, classes);
+		} else {
+			final ZipFile zip = new ZipFile(location);
+			try {
+				final Enumeration<? extends ZipEntry> entries = zip.entries();
+				while (entries.hasMoreElements()) {
+					final ZipEntry entry = entries.nextElement();
+					if (entry.getName().endsWith(".class")) {
+						classes.add(read(zip.getInputStream(entry)));
+					}
+				}
+			} finally {
+				zip.close();
+			}
+		}
+		return classes;
+	}
+
+	private static void readClasses(final File dir, final List<byte[]> classes)
+			throws IOException {
+		for (final File f : dir.listFiles()) {
+			if (f.isDirectory()) {
+				readClasses(f, classes);
+			} else if (f.getName().endsWith(".class")) {
+				classes.add(read(new FileInputStream(f)));
+			}
+		}
+	}
+
+	private static byte[] read(final InputStream in) throws IOException {
+		try {
+			return InputStreams.readFully(in);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.core.test.perf;
+
+import java.util.concurrent.Callable;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageVisitor;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Scenario to measure the time taken to analyze a single very large method
+ * like it is typically created by parser or protocol generators.
+ */
+public class LargeMethodAnalysisScenario extends TimedScenario {
+
+	private final int size;
+
+	private final int count;
+
+	protected LargeMethodAnalysisScenario(int size, int count) {
+		super(String.format("analysing method with %s branches %s times",
+				Integer.valueOf(size), Integer.valueOf(count)));
+		this.size = size;
+		this.count = count;
+	}
+
+	@Override
+	protected Callable<Void> getInstrumentedCallable() throws Exception {
+		final byte[] bytes = createClass(size);
+		final ExecutionDataStore executionData = new ExecutionDataStore();
+		ICoverageVisitor visitor = new ICoverageVisitor() {
+			public void visitCoverage(IClassCoverage coverage) {
+			}
+		};
+		final Analyzer analyzer = new Analyzer(executionData, visitor);
+		return new Callable<Void>() {
+			public Void call() throws Exception {
+				for (int i = 0; i < count; i++) {
+					analyzer.analyzeClass(bytes, "Large");
+				}
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Creates a class with a method containing a table switch with the given
+	 * number of cases followed by the same number of if statements.
+	 */
+	private static byte[] createClass(final int size) {
+		final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+		writer.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, "Large", null,
+				"java/lang/Object", null);
+		final MethodVisitor mv = writer.visitMethod(
+				Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "run", "(I)I", null,
+				null);
+		mv.visitCode();
+		int line = 1;
+
+		final Label dflt = new Label();
+		final Label[] cases = new Label[size];
+		for (int i = 0; i < size; i++) {
+			cases[i] = new Label();
+		}
+		mv.visitVarInsn(Opcodes.ILOAD, 0);
+		mv.visitTableSwitchInsn(0, size - 1, dflt, cases);
+		for (int i = 0; i < size; i++) {
+			mv.visitLabel(cases[i]);
+			mv.visitLineNumber(line++, cases[i]);
+			mv.visitLdcInsn(Integer.valueOf(i * 7));
+			mv.visitInsn(Opcodes.IRETURN);
+		}
+		mv.visitLabel(dflt);
+
+		for (int i = 0; i < size; i++) {
+			final Label next = new Label();
+			mv.visitLabel(new Label());
+			mv.visitVarInsn(Opcodes.ILOAD, 0);
+			mv.visitLdcInsn(Integer.valueOf(i * 3));
+			mv.visitJumpInsn(Opcodes.IF_ICMPNE, next);
+			mv.visitLdcInsn(Integer.valueOf(i));
+			mv.visitInsn(Opcodes.IRETURN);
+			mv.visitLabel(next);
+		}
+		mv.visitInsn(Opcodes.ICONST_0);
+		mv.visitInsn(Opcodes.IRETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+}
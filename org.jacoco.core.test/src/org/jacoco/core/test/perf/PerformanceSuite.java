@@ -13,6 +13,7 @@ package org.jacoco.core.test.perf;
 
 import java.io.PrintWriter;
 
+import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.test.perf.targets.Target01;
 import org.jacoco.core.test.perf.targets.Target02;
 import org.jacoco.core.test.perf.targets.Target03;
@@ -32,6 +33,10 @@ public class PerformanceSuite implements IPerfScenario {
 		new InstrumentationSizeSzenario(Target03.class).run(output);
 		new InstrumentationTimeScenario(Target03.class, 1000).run(output);
 		new AnalysisTimeScenario(Target03.class, 1000).run(output);
+		new ClassIdScenario(Target03.class, 10000).run(output);
+		new AnalysisAllocationScenario(Target03.class, 1000).run(output);
+		new LargeMethodAnalysisScenario(2000, 100).run(output);
+		new CorpusAnalysisScenario(Analyzer.class, 50).run(output);
 	}
 
 	public static void main(String[] args) throws Exception {
@@ -15,16 +15,19 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Enumeration;
 import java.util.StringTokenizer;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.internal.ContentBuffer;
 import org.jacoco.core.internal.ContentTypeDetector;
-import org.jacoco.core.internal.InputStreams;
 import org.jacoco.core.internal.Pack200Streams;
+import org.jacoco.core.internal.ZipFiles;
 import org.jacoco.core.internal.analysis.ClassAnalyzer;
 import org.jacoco.core.internal.analysis.ClassCoverageImpl;
 import org.jacoco.core.internal.analysis.StringPool;
@@ -49,7 +52,9 @@ public class Analyzer {
 
 	private final ICoverageVisitor coverageVisitor;
 
-	private final StringPool stringPool;
+	private final IStringPool stringPool;
+
+	private final ContentBuffer contentBuffer;
 
 	/**
 	 * Creates a new analyzer reporting to the given output.
@@ -62,9 +67,30 @@ public class Analyzer {
 	 */
 	public Analyzer(final ExecutionDataStore executionData,
 			final ICoverageVisitor coverageVisitor) {
+		this(executionData, coverageVisitor, new StringPool());
+	}
+
+	/**
+	 * Creates a new analyzer reporting to the given output which normalizes
+	 * names and descriptors with the given pool. A {@link SharedStringPool}
+	 * allows analyzers on different threads or in subsequent analysis runs to
+	 * share identical strings.
+	 * 
+	 * @param executionData
+	 *            execution data
+	 * @param coverageVisitor
+	 *            the output instance that will coverage data for every analyzed
+	 *            class
+	 * @param stringPool
+	 *            pool to normalize strings with
+	 */
+	public Analyzer(final ExecutionDataStore executionData,
+			final ICoverageVisitor coverageVisitor,
+			final IStringPool stringPool) {
 		this.executionData = executionData;
 		this.coverageVisitor = coverageVisitor;
-		this.stringPool = new StringPool();
+		this.stringPool = stringPool;
+		this.contentBuffer = new ContentBuffer();
 	}
 
 	/**
@@ -88,8 +114,8 @@ public class Analyzer {
 			probes = data.getProbes();
 			noMatch = false;
 		}
-		final ClassCoverageImpl coverage = new ClassCoverageImpl(className,
-				classid, noMatch);
+		final ClassCoverageImpl coverage = new ClassCoverageImpl(
+				stringPool.get(className), classid, noMatch);
 		final ClassAnalyzer analyzer = new ClassAnalyzer(coverage, probes,
 				stringPool) {
 			@Override
@@ -101,9 +127,11 @@ public class Analyzer {
 		return new ClassProbesAdapter(analyzer, false);
 	}
 
-	private void analyzeClass(final byte[] source) {
-		final long classId = CRC64.classId(source);
-		final ClassReader reader = InstrSupport.classReaderFor(source);
+	private void analyzeClass(final byte[] source, final int offset,
+			final int length) {
+		final long classId = CRC64.classId(source, offset, length);
+		final ClassReader reader = InstrSupport.classReaderFor(source, offset,
+				length);
 		if ((reader.getAccess() & Opcodes.ACC_MODULE) != 0) {
 			return;
 		}
@@ -127,8 +155,14 @@ public class Analyzer {
 	 */
 	public void analyzeClass(final byte[] buffer, final String location)
 			throws IOException {
+		// A null buffer is reported like any other broken class definition:
+		analyzeClass(buffer, 0, buffer == null ? 0 : buffer.length, location);
+	}
+
+	private void analyzeClass(final byte[] buffer, final int offset,
+			final int length, final String location) throws IOException {
 		try {
-			analyzeClass(buffer);
+			analyzeClass(buffer, offset, length);
 		} catch (final RuntimeException cause) {
 			throw analyzerError(location, cause);
 		}
@@ -147,13 +181,14 @@ public class Analyzer {
 	 */
 	public void analyzeClass(final InputStream input, final String location)
 			throws IOException {
-		final byte[] buffer;
 		try {
-			buffer = InputStreams.readFully(input);
+			contentBuffer.readFully(input);
 		} catch (final IOException e) {
 			throw analyzerError(location, e);
 		}
-		analyzeClass(buffer, location);
+		// The class is completely analyzed before the buffer is reused
+		analyzeClass(contentBuffer.getBytes(), 0, contentBuffer.getLength(),
+				location);
 	}
 
 	private IOException analyzerError(final String location,
@@ -205,7 +240,10 @@ public class Analyzer {
 	/**
 	 * Analyzes all class files contained in the given file or folder. Class
 	 * files as well as ZIP files are considered. Folders are searched
-	 * recursively.
+	 * recursively, the files of a folder are analyzed before its sub-folders.
+	 * ZIP files are accessed through their central directory, so entries
+	 * whose names do not denote class files or archives are skipped without
+	 * reading their content.
 	 * 
 	 * @param file
 	 *            file or folder to look for class files
@@ -216,16 +254,73 @@ public class Analyzer {
 	public int analyzeAll(final File file) throws IOException {
 		int count = 0;
 		if (file.isDirectory()) {
-			for (final File f : file.listFiles()) {
-				count += analyzeAll(f);
+			// Files first, so the classes of a package are analyzed
+			// contiguously before classes of nested packages:
+			final File[] files = file.listFiles();
+			for (final File f : files) {
+				if (!f.isDirectory()) {
+					count += analyzeFile(f);
+				}
+			}
+			for (final File f : files) {
+				if (f.isDirectory()) {
+					count += analyzeAll(f);
+				}
 			}
 		} else {
-			final InputStream in = new FileInputStream(file);
+			count += analyzeFile(file);
+		}
+		return count;
+	}
+
+	private int analyzeFile(final File file) throws IOException {
+		final String location = file.getPath();
+		final InputStream in = new FileInputStream(file);
+		try {
+			final ContentTypeDetector detector;
 			try {
-				count += analyzeAll(in, file.getPath());
-			} finally {
-				in.close();
+				detector = new ContentTypeDetector(in);
+			} catch (final IOException e) {
+				throw analyzerError(location, e);
+			}
+			if (detector.getType() == ContentTypeDetector.ZIPFILE) {
+				final ZipFile zip = ZipFiles.open(file);
+				if (zip != null) {
+					return analyzeZipFile(zip, location);
+				}
 			}
+			return analyzeAll(detector.getInputStream(), location);
+		} finally {
+			in.close();
+		}
+	}
+
+	private int analyzeZipFile(final ZipFile zip, final String location)
+			throws IOException {
+		int count = 0;
+		try {
+			final Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				final ZipEntry entry = entries.nextElement();
+				if (entry.isDirectory()
+						|| !ZipFiles.isClassOrArchive(entry.getName())) {
+					continue;
+				}
+				final String entryLocation = location + "@" + entry.getName();
+				final InputStream in;
+				try {
+					in = zip.getInputStream(entry);
+				} catch (final IOException e) {
+					throw analyzerError(entryLocation, e);
+				}
+				try {
+					count += analyzeAll(in, entryLocation);
+				} finally {
+					in.close();
+				}
+			}
+		} finally {
+			zip.close();
 		}
 		return count;
 	}
@@ -294,7 +389,11 @@ public class Analyzer {
 		} catch (final IOException e) {
 			throw analyzerError(location, e);
 		}
-		return analyzeAll(unpackedInput, location);
+		try {
+			return analyzeAll(unpackedInput, location);
+		} finally {
+			unpackedInput.close();
+		}
 	}
 
 }
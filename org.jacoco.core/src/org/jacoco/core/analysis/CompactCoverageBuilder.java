@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.jacoco.core.internal.analysis.CompactBundleCoverageImpl;
+import org.jacoco.core.internal.analysis.CompactClassTable;
+
+/**
+ * Builder for hierarchical {@link ICoverageNode} structures like
+ * {@link CoverageBuilder}, which keeps the data of all classes in a few
+ * primitive arrays instead of node objects. Every class passed to
+ * {@link #visitCoverage(IClassCoverage)} is encoded immediately, so the
+ * analyzed node can be garbage collected right away. This requires
+ * considerably less memory if many bundles need to be kept at the same time.
+ * Accessing the nodes of the created bundles is slightly slower as node objects
+ * are created on demand.
+ */
+public class CompactCoverageBuilder implements ICoverageVisitor {
+
+	private final CompactClassTable table;
+
+	/**
+	 * Create a new builder.
+	 */
+	public CompactCoverageBuilder() {
+		this.table = new CompactClassTable();
+	}
+
+	/**
+	 * Returns all class nodes currently contained in this builder.
+	 *
+	 * @return all class nodes
+	 */
+	public Collection<IClassCoverage> getClasses() {
+		final int size = table.getClassCount();
+		return new AbstractList<IClassCoverage>() {
+			@Override
+			public IClassCoverage get(final int index) {
+				return table.getClassCoverage(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Creates a bundle from all nodes currently contained in this builder.
+	 * Once all classes have been added, bundles can be created and used by
+	 * multiple threads concurrently.
+	 *
+	 * @param name
+	 *            Name of the bundle
+	 * @return bundle containing all classes and source files
+	 */
+	public synchronized IBundleCoverage getBundle(final String name) {
+		table.trim();
+		return new CompactBundleCoverageImpl(name, table);
+	}
+
+	/**
+	 * Returns all classes for which execution data does not match.
+	 *
+	 * @see IClassCoverage#isNoMatch()
+	 * @return collection of classes with non-matching execution data
+	 */
+	public Collection<IClassCoverage> getNoMatchClasses() {
+		final Collection<IClassCoverage> result = new ArrayList<IClassCoverage>();
+		for (final IClassCoverage c : getClasses()) {
+			if (c.isNoMatch()) {
+				result.add(c);
+			}
+		}
+		return result;
+	}
+
+	// === ICoverageVisitor ===
+
+	public synchronized void visitCoverage(final IClassCoverage coverage) {
+		table.add(coverage);
+	}
+
+}
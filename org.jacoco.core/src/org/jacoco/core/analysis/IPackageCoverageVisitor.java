@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import java.io.IOException;
+
+/**
+ * Interface for coverage data output as a stream of completed
+ * {@link IPackageCoverage} instances.
+ * 
+ * @see PackageCoverageBuilder
+ */
+public interface IPackageCoverageVisitor {
+
+	/**
+	 * Coverage data for a package is emitted to this method as soon as all
+	 * classes of the package have been analyzed.
+	 * 
+	 * @param coverage
+	 *            coverage data for a package
+	 * @throws IOException
+	 *             if the package can't be processed
+	 */
+	void visitPackage(IPackageCoverage coverage) throws IOException;
+
+}
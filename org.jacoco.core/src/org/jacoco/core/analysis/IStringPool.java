@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+/**
+ * Pool used by an {@link Analyzer} to normalize names, descriptors and
+ * signatures in a way that if <code>equals()</code> is <code>true</code> for
+ * two strings they will be represented by the same instance.
+ * 
+ * @see SharedStringPool
+ */
+public interface IStringPool {
+
+	/**
+	 * Returns a normalized instance that is equal to the given {@link String}.
+	 * 
+	 * @param s
+	 *            any string or <code>null</code>
+	 * @return normalized instance or <code>null</code>
+	 */
+	String get(String s);
+
+	/**
+	 * Returns a modified version of the array with all string slots normalized.
+	 * It is up to the implementation to replace strings in the array instance
+	 * or return a new array instance.
+	 * 
+	 * @param arr
+	 *            String array or <code>null</code>
+	 * @return normalized instance or <code>null</code>
+	 */
+	String[] get(String[] arr);
+
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.internal.analysis.PackageCoverageImpl;
+import org.jacoco.core.internal.analysis.SourceFileCoverageImpl;
+
+/**
+ * Builder which emits {@link IPackageCoverage} nodes as soon as they are
+ * complete. In contrast to {@link CoverageBuilder} only the classes of the
+ * current package are kept in memory, so the memory required for a report
+ * scales with the largest package rather than with the whole bundle.
+ * 
+ * Packages can only be streamed if the classes are supplied in package order,
+ * i.e. once a class of another package has been visited no more classes of the
+ * previous package follow. {@link Analyzer#analyzeAll(java.io.File)} processes
+ * class files of a directory in this order, as long as the directory layout
+ * matches the package names. A package is considered complete when a class of
+ * another package is visited or when {@link #visitEnd()} is called.
+ * 
+ * If a class of an already completed package is visited, the builder stops
+ * streaming: all remaining classes are kept in memory and emitted grouped by
+ * package when {@link #visitEnd()} is called. In this case a package may be
+ * emitted more than once, therefore callers should only use this builder for
+ * input which is known to be in package order, e.g. plain class directories.
+ */
+public class PackageCoverageBuilder implements ICoverageVisitor {
+
+	private final IPackageCoverageVisitor output;
+
+	private final CoverageNodeImpl summary;
+
+	private final Set<String> completedPackages;
+
+	private final Collection<IClassCoverage> noMatchClasses;
+
+	private PackageBuilder current;
+
+	private Map<String, PackageBuilder> collected;
+
+	private IOException error;
+
+	/**
+	 * Create a new builder.
+	 * 
+	 * @param name
+	 *            name of the bundle
+	 * @param output
+	 *            receiver of the completed packages
+	 */
+	public PackageCoverageBuilder(final String name,
+			final IPackageCoverageVisitor output) {
+		this.output = output;
+		this.summary = new CoverageNodeImpl(ElementType.BUNDLE, name);
+		this.completedPackages = new HashSet<String>();
+		this.noMatchClasses = new ArrayList<IClassCoverage>();
+	}
+
+	/**
+	 * Returns the summary of all packages emitted so far. The node does not
+	 * contain any child nodes.
+	 * 
+	 * @return summary of the bundle
+	 */
+	public ICoverageNode getSummary() {
+		return summary;
+	}
+
+	/**
+	 * Returns all classes for which execution data does not match.
+	 * 
+	 * @see IClassCoverage#isNoMatch()
+	 * @return collection of classes with non-matching execution data
+	 */
+	public Collection<IClassCoverage> getNoMatchClasses() {
+		return Collections.unmodifiableCollection(noMatchClasses);
+	}
+
+	/**
+	 * Returns whether all packages have been emitted while the classes were
+	 * visited, i.e. the classes have been supplied in package order.
+	 * 
+	 * @return <code>true</code> if no packages had to be collected
+	 */
+	public boolean isStreaming() {
+		return collected == null;
+	}
+
+	/**
+	 * Emits the last package. Must be called after all classes have been
+	 * visited.
+	 * 
+	 * @throws IOException
+	 *             if the output failed to process a package
+	 */
+	public void visitEnd() throws IOException {
+		completePackage();
+		if (collected != null) {
+			for (final PackageBuilder p : collected.values()) {
+				emit(p);
+			}
+			collected.clear();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	// === ICoverageVisitor ===
+
+	public void visitCoverage(final IClassCoverage coverage) {
+		final String pkg = coverage.getPackageName();
+		if (collected != null) {
+			PackageBuilder p = collected.get(pkg);
+			if (p == null) {
+				p = new PackageBuilder(pkg);
+				collected.put(pkg, p);
+			}
+			add(p, coverage);
+			return;
+		}
+		if (current == null || !pkg.equals(current.name)) {
+			if (completedPackages.contains(pkg)) {
+				// Not in package order: fall back to collect the remaining
+				// classes. The current package is still open and can be
+				// collected as well.
+				collected = new LinkedHashMap<String, PackageBuilder>();
+				if (current != null) {
+					collected.put(current.name, current);
+					current = null;
+				}
+				visitCoverage(coverage);
+				return;
+			}
+			completePackage();
+			completedPackages.add(pkg);
+			current = new PackageBuilder(pkg);
+		}
+		add(current, coverage);
+	}
+
+	private void add(final PackageBuilder p, final IClassCoverage coverage) {
+		final String name = coverage.getName();
+		final IClassCoverage dup = p.classes.put(name, coverage);
+		if (dup != null) {
+			if (dup.getId() != coverage.getId()) {
+				throw new IllegalStateException(
+						"Can't add different class with same name: " + name);
+			}
+		} else {
+			if (coverage.isNoMatch()) {
+				noMatchClasses.add(coverage);
+			}
+			final String source = coverage.getSourceFileName();
+			if (source != null) {
+				p.getSourceFile(source).increment(coverage);
+			}
+		}
+	}
+
+	private void completePackage() {
+		if (current != null) {
+			emit(current);
+			current = null;
+		}
+	}
+
+	private void emit(final PackageBuilder p) {
+		final IPackageCoverage coverage = new PackageCoverageImpl(p.name,
+				new ArrayList<IClassCoverage>(p.classes.values()),
+				new ArrayList<ISourceFileCoverage>(p.sourcefiles.values()));
+		summary.increment(coverage);
+		if (error == null) {
+			try {
+				output.visitPackage(coverage);
+			} catch (final IOException e) {
+				// Reported by visitEnd() as ICoverageVisitor can't throw
+				error = e;
+			}
+		}
+	}
+
+	private static class PackageBuilder {
+
+		final String name;
+
+		final Map<String, IClassCoverage> classes;
+
+		final Map<String, SourceFileCoverageImpl> sourcefiles;
+
+		PackageBuilder(final String name) {
+			this.name = name;
+			this.classes = new LinkedHashMap<String, IClassCoverage>();
+			this.sourcefiles = new LinkedHashMap<String, SourceFileCoverageImpl>();
+		}
+
+		SourceFileCoverageImpl getSourceFile(final String filename) {
+			SourceFileCoverageImpl sourcefile = sourcefiles.get(filename);
+			if (sourcefile == null) {
+				sourcefile = new SourceFileCoverageImpl(filename, name);
+				sourcefiles.put(filename, sourcefile);
+			}
+			return sourcefile;
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.analysis;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Thread safe {@link IStringPool} which can be shared between analyzers, e.g.
+ * for parallel analysis or in long-lived processes which create reports
+ * repeatedly. Strings are only weakly referenced, so they are released as soon
+ * as no coverage data refers to them anymore. In addition the number of
+ * entries is bounded: the pool is split into segments with individual locks
+ * and a segment is cleared when it exceeds its share of the maximum size.
+ */
+public final class SharedStringPool implements IStringPool {
+
+	private static final String[] EMPTY_ARRAY = new String[0];
+
+	/** Default maximum number of pooled strings */
+	public static final int DEFAULT_MAX_SIZE = 1 << 18;
+
+	private static final int SEGMENT_COUNT = 16;
+
+	private static final SharedStringPool DEFAULT = new SharedStringPool(
+			DEFAULT_MAX_SIZE);
+
+	private final Map<String, WeakReference<String>>[] segments;
+
+	private final int maxSegmentSize;
+
+	/**
+	 * Returns a VM wide pool instance with {@link #DEFAULT_MAX_SIZE}.
+	 * 
+	 * @return shared pool instance
+	 */
+	public static SharedStringPool getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Creates a new pool.
+	 * 
+	 * @param maxSize
+	 *            maximum number of strings kept in this pool
+	 */
+	@SuppressWarnings("unchecked")
+	public SharedStringPool(final int maxSize) {
+		if (maxSize < SEGMENT_COUNT) {
+			throw new IllegalArgumentException(
+					"Invalid maximum size " + maxSize);
+		}
+		segments = new Map[SEGMENT_COUNT];
+		for (int i = 0; i < SEGMENT_COUNT; i++) {
+			segments[i] = new WeakHashMap<String, WeakReference<String>>();
+		}
+		maxSegmentSize = maxSize / SEGMENT_COUNT;
+	}
+
+	public String get(final String s) {
+		if (s == null) {
+			return null;
+		}
+		final int h = s.hashCode();
+		final Map<String, WeakReference<String>> segment = segments[(h ^ h >>> 16)
+				& (SEGMENT_COUNT - 1)];
+		synchronized (segment) {
+			final WeakReference<String> ref = segment.get(s);
+			if (ref != null) {
+				final String norm = ref.get();
+				if (norm != null) {
+					return norm;
+				}
+			}
+			if (segment.size() >= maxSegmentSize) {
+				segment.clear();
+			}
+			segment.put(s, new WeakReference<String>(s));
+			return s;
+		}
+	}
+
+	public String[] get(final String[] arr) {
+		if (arr == null) {
+			return null;
+		}
+		if (arr.length == 0) {
+			return EMPTY_ARRAY;
+		}
+		for (int i = 0; i < arr.length; i++) {
+			arr[i] = get(arr[i]);
+		}
+		return arr;
+	}
+
+	/**
+	 * Returns the number of strings currently pooled. Strings which have been
+	 * garbage collected might still be counted.
+	 * 
+	 * @return number of pooled strings
+	 */
+	public int size() {
+		int size = 0;
+		for (final Map<String, WeakReference<String>> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+}
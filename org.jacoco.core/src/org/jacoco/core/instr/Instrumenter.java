@@ -11,19 +11,24 @@
  *******************************************************************************/
 package org.jacoco.core.instr;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Enumeration;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
+import org.jacoco.core.internal.ContentBuffer;
 import org.jacoco.core.internal.ContentTypeDetector;
-import org.jacoco.core.internal.InputStreams;
 import org.jacoco.core.internal.Pack200Streams;
+import org.jacoco.core.internal.SpillBuffer;
+import org.jacoco.core.internal.ZipFiles;
 import org.jacoco.core.internal.data.CRC64;
 import org.jacoco.core.internal.flow.ClassProbesAdapter;
 import org.jacoco.core.internal.instr.ClassInstrumenter;
@@ -45,6 +50,13 @@ public class Instrumenter {
 
 	private final SignatureRemover signatureRemover;
 
+	private final ThreadLocal<ContentBuffer> contentBuffer = new ThreadLocal<ContentBuffer>() {
+		@Override
+		protected ContentBuffer initialValue() {
+			return new ContentBuffer();
+		}
+	};
+
 	/**
 	 * Creates a new instance based on the given runtime.
 	 * 
@@ -69,9 +81,11 @@ public class Instrumenter {
 		signatureRemover.setActive(flag);
 	}
 
-	private byte[] instrument(final byte[] source) {
-		final long classId = CRC64.classId(source);
-		final ClassReader reader = InstrSupport.classReaderFor(source);
+	private byte[] instrument(final byte[] source, final int offset,
+			final int length) {
+		final long classId = CRC64.classId(source, offset, length);
+		final ClassReader reader = InstrSupport.classReaderFor(source, offset,
+				length);
 		final ClassWriter writer = new ClassWriter(reader, 0) {
 			@Override
 			protected String getCommonSuperClass(final String type1,
@@ -102,8 +116,14 @@ public class Instrumenter {
 	 */
 	public byte[] instrument(final byte[] buffer, final String name)
 			throws IOException {
+		// A null buffer is reported like any other broken class definition:
+		return instrument(buffer, 0, buffer == null ? 0 : buffer.length, name);
+	}
+
+	private byte[] instrument(final byte[] buffer, final int offset,
+			final int length, final String name) throws IOException {
 		try {
-			return instrument(buffer);
+			return instrument(buffer, offset, length);
 		} catch (final RuntimeException e) {
 			throw instrumentError(name, e);
 		}
@@ -124,13 +144,14 @@ public class Instrumenter {
 	 */
 	public byte[] instrument(final InputStream input, final String name)
 			throws IOException {
-		final byte[] bytes;
+		final ContentBuffer buffer = contentBuffer.get();
 		try {
-			bytes = InputStreams.readFully(input);
+			buffer.readFully(input);
 		} catch (final IOException e) {
 			throw instrumentError(name, e);
 		}
-		return instrument(bytes, name);
+		// The class is completely written before the buffer is reused
+		return instrument(buffer.getBytes(), 0, buffer.getLength(), name);
 	}
 
 	/**
@@ -203,6 +224,91 @@ public class Instrumenter {
 		}
 	}
 
+	/**
+	 * Creates a instrumented version of the given file depending on its type.
+	 * Class files and the content of archive files are instrumented. All other
+	 * files are copied without modification. ZIP files are accessed through
+	 * their central directory, so removed signature entries are not inflated
+	 * and entries whose names denote neither class files nor archives are
+	 * copied without detecting their content type. Archives nested in the file
+	 * are processed as streams. The provided
+	 * {@link OutputStream} is not closed by this method.
+	 * 
+	 * @param input
+	 *            file to instrument
+	 * @param output
+	 *            stream to write the instrumented version of the contents
+	 * @param name
+	 *            a name used for exception messages
+	 * @return number of instrumented classes
+	 * @throws IOException
+	 *             if reading data from the file fails or a class can't be
+	 *             instrumented
+	 */
+	public int instrumentAll(final File input, final OutputStream output,
+			final String name) throws IOException {
+		final InputStream in = new FileInputStream(input);
+		try {
+			final ContentTypeDetector detector;
+			try {
+				detector = new ContentTypeDetector(in);
+			} catch (final IOException e) {
+				throw instrumentError(name, e);
+			}
+			if (detector.getType() == ContentTypeDetector.ZIPFILE) {
+				final ZipFile zip = ZipFiles.open(input);
+				if (zip != null) {
+					return instrumentZipFile(zip, output, name);
+				}
+			}
+			return instrumentAll(detector.getInputStream(), output, name);
+		} finally {
+			in.close();
+		}
+	}
+
+	private int instrumentZipFile(final ZipFile zipin,
+			final OutputStream output, final String name) throws IOException {
+		final ZipOutputStream zipout = new ZipOutputStream(output);
+		int count = 0;
+		try {
+			final Enumeration<? extends ZipEntry> entries = zipin.entries();
+			while (entries.hasMoreElements()) {
+				final ZipEntry entry = entries.nextElement();
+				final String entryName = entry.getName();
+				if (signatureRemover.removeEntry(entryName)) {
+					continue;
+				}
+
+				zipout.putNextEntry(new ZipEntry(entryName));
+				final InputStream entryin;
+				try {
+					entryin = zipin.getInputStream(entry);
+				} catch (final IOException e) {
+					throw instrumentError(name, e);
+				}
+				try {
+					if (!signatureRemover.filterEntry(entryName, entryin,
+							zipout)) {
+						if (ZipFiles.isClassOrArchive(entryName)) {
+							count += instrumentAll(entryin, zipout,
+									name + "@" + entryName);
+						} else {
+							copy(entryin, zipout, name + "@" + entryName);
+						}
+					}
+				} finally {
+					entryin.close();
+				}
+				zipout.closeEntry();
+			}
+			zipout.finish();
+		} finally {
+			zipin.close();
+		}
+		return count;
+	}
+
 	private int instrumentZip(final InputStream input,
 			final OutputStream output, final String name) throws IOException {
 		final ZipInputStream zipin = new ZipInputStream(input);
@@ -256,10 +362,20 @@ public class Instrumenter {
 		} catch (final IOException e) {
 			throw instrumentError(name, e);
 		}
-		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-		final int count = instrumentAll(unpackedInput, buffer, name);
-		Pack200Streams.pack(buffer.toByteArray(), output);
-		return count;
+		final SpillBuffer buffer = new SpillBuffer();
+		try {
+			final int count = instrumentAll(unpackedInput, buffer, name);
+			final InputStream packInput = buffer.getInputStream();
+			try {
+				Pack200Streams.pack(packInput, output);
+			} finally {
+				packInput.close();
+			}
+			return count;
+		} finally {
+			unpackedInput.close();
+			buffer.dispose();
+		}
 	}
 
 	private void copy(final InputStream input, final OutputStream output,
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reusable buffer to read the complete content of input streams into. The
+ * internal array is only grown if the content does not fit, so reading many
+ * streams only requires memory for the largest content. Instances are not
+ * thread safe.
+ */
+public final class ContentBuffer {
+
+	private static final int INITIAL_CAPACITY = 4096;
+
+	private byte[] bytes;
+
+	private int length;
+
+	/**
+	 * Creates a new empty buffer.
+	 */
+	public ContentBuffer() {
+		bytes = new byte[INITIAL_CAPACITY];
+		length = 0;
+	}
+
+	/**
+	 * Replaces the content of this buffer with all bytes from the given input
+	 * stream. The provided {@link InputStream} is not closed by this method.
+	 *
+	 * @param is
+	 *            the input stream to read from
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void readFully(final InputStream is) throws IOException {
+		length = 0;
+		while (true) {
+			if (length == bytes.length) {
+				final byte[] newBytes = new byte[bytes.length * 2];
+				System.arraycopy(bytes, 0, newBytes, 0, length);
+				bytes = newBytes;
+			}
+			final int r = is.read(bytes, length, bytes.length - length);
+			if (r == -1) {
+				break;
+			}
+			length += r;
+		}
+	}
+
+	/**
+	 * Returns the internal array of this buffer. Only the first
+	 * {@link #getLength()} bytes are valid content, the remaining bytes are
+	 * undefined. The array may be reused by subsequent calls to
+	 * {@link #readFully(InputStream)}.
+	 *
+	 * @return internal array
+	 */
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of valid bytes in this buffer.
+	 *
+	 * @return content length
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns a copy of the current content.
+	 *
+	 * @return new array with exactly {@link #getLength()} bytes
+	 */
+	public byte[] toByteArray() {
+		final byte[] copy = new byte[length];
+		System.arraycopy(bytes, 0, copy, 0, length);
+		return copy;
+	}
+
+}
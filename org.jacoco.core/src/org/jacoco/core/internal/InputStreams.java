@@ -11,7 +11,6 @@
  *******************************************************************************/
 package org.jacoco.core.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -25,7 +24,9 @@ public final class InputStreams {
 
 	/**
 	 * Reads all bytes from an input stream into a byte array. The provided
-	 * {@link InputStream} is not closed by this method.
+	 * {@link InputStream} is not closed by this method. To read many streams
+	 * without allocating a new buffer for each of them use a
+	 * {@link ContentBuffer} instead.
 	 *
 	 * @param is
 	 *            the input stream to read from
@@ -34,16 +35,9 @@ public final class InputStreams {
 	 *             if an I/O error occurs
 	 */
 	public static byte[] readFully(final InputStream is) throws IOException {
-		final byte[] buf = new byte[1024];
-		final ByteArrayOutputStream out = new ByteArrayOutputStream();
-		while (true) {
-			final int r = is.read(buf);
-			if (r == -1) {
-				break;
-			}
-			out.write(buf, 0, r);
-		}
-		return out.toByteArray();
+		final ContentBuffer buffer = new ContentBuffer();
+		buffer.readFully(is);
+		return buffer.toByteArray();
 	}
 
 }
@@ -12,7 +12,6 @@
 package org.jacoco.core.internal;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,21 +26,33 @@ import java.util.jar.Pack200;
 public final class Pack200Streams {
 
 	/**
-	 * Unpack a stream in Pack200 format into a stream in JAR/ZIP format.
+	 * Unpack a stream in Pack200 format into a stream in JAR/ZIP format. Large
+	 * archives are buffered in a temporary file which is deleted when the
+	 * returned stream is closed.
 	 * 
 	 * @param input
 	 *            stream in Pack200 format
 	 * @return stream in JAR/ZIP format
 	 * @throws IOException
 	 *             in case of errors with the streams
+	 * @see SpillBuffer
 	 */
 	public static InputStream unpack(final InputStream input)
 			throws IOException {
-		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-		final JarOutputStream jar = new JarOutputStream(buffer);
-		Pack200.newUnpacker().unpack(new NoCloseInput(input), jar);
-		jar.finish();
-		return new ByteArrayInputStream(buffer.toByteArray());
+		final SpillBuffer buffer = new SpillBuffer();
+		boolean success = false;
+		try {
+			final JarOutputStream jar = new JarOutputStream(buffer);
+			Pack200.newUnpacker().unpack(new NoCloseInput(input), jar);
+			jar.close();
+			final InputStream result = buffer.getInputStream();
+			success = true;
+			return result;
+		} finally {
+			if (!success) {
+				buffer.dispose();
+			}
+		}
 	}
 
 	/**
@@ -56,8 +67,23 @@ public final class Pack200Streams {
 	 */
 	public static void pack(final byte[] source, final OutputStream output)
 			throws IOException {
-		final JarInputStream jar = new JarInputStream(new ByteArrayInputStream(
-				source));
+		pack(new ByteArrayInputStream(source), output);
+	}
+
+	/**
+	 * Packs a stream in JAR/ZIP format into a stream in Pack200 format. The
+	 * source stream is not closed by this method.
+	 * 
+	 * @param source
+	 *            stream in JAR/ZIP format
+	 * @param output
+	 *            stream in Pack200 format
+	 * @throws IOException
+	 *             in case of errors with the streams
+	 */
+	public static void pack(final InputStream source, final OutputStream output)
+			throws IOException {
+		final JarInputStream jar = new JarInputStream(new NoCloseInput(source));
 		Pack200.newPacker().pack(jar, output);
 	}
 
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Output stream which keeps its content in memory up to a given threshold.
+ * Larger content is written to a temporary file, so arbitrary large content
+ * can be buffered with bounded heap usage. The content can be read back with
+ * {@link #getInputStream()}. The temporary file is deleted when the stream
+ * returned by {@link #getInputStream()} is closed or {@link #dispose()} is
+ * called, therefore callers have to ensure one of both also on error paths.
+ */
+public final class SpillBuffer extends OutputStream {
+
+	/** Default number of bytes kept in memory */
+	public static final int DEFAULT_THRESHOLD = 1024 * 1024;
+
+	private final int threshold;
+
+	private byte[] bytes;
+
+	private int count;
+
+	private File file;
+
+	private OutputStream fileOutput;
+
+	/**
+	 * Creates a new buffer with the default threshold.
+	 */
+	public SpillBuffer() {
+		this(DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new buffer with the given threshold.
+	 * 
+	 * @param threshold
+	 *            maximum number of bytes kept in memory
+	 */
+	public SpillBuffer(final int threshold) {
+		this.threshold = threshold;
+		this.bytes = new byte[Math.min(threshold, 4096)];
+		this.count = 0;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		if (reserve(1)) {
+			bytes[count++] = (byte) b;
+		} else {
+			fileOutput.write(b);
+		}
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+		if (reserve(len)) {
+			System.arraycopy(b, off, bytes, count, len);
+			count += len;
+		} else {
+			fileOutput.write(b, off, len);
+		}
+	}
+
+	/**
+	 * Makes room for the given number of bytes in memory or switches to the
+	 * temporary file if the threshold would be exceeded.
+	 * 
+	 * @return <code>true</code> if the bytes have to be written to memory
+	 */
+	private boolean reserve(final int len) throws IOException {
+		if (fileOutput == null && count + len > threshold) {
+			spill();
+		}
+		if (fileOutput != null) {
+			return false;
+		}
+		if (count + len > bytes.length) {
+			final byte[] newBytes = new byte[Math.min(threshold,
+					Math.max(bytes.length * 2, count + len))];
+			System.arraycopy(bytes, 0, newBytes, 0, count);
+			bytes = newBytes;
+		}
+		return true;
+	}
+
+	private void spill() throws IOException {
+		file = File.createTempFile("jacoco", ".tmp");
+		try {
+			fileOutput = new BufferedOutputStream(new FileOutputStream(file));
+		} catch (final IOException e) {
+			file.delete();
+			throw e;
+		}
+		fileOutput.write(bytes, 0, count);
+		bytes = null;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (fileOutput != null) {
+			fileOutput.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (fileOutput != null) {
+			fileOutput.close();
+		}
+	}
+
+	/**
+	 * Returns a stream to read the content written so far. Closing the
+	 * returned stream releases the temporary file.
+	 * 
+	 * @return stream with the buffer content
+	 * @throws IOException
+	 *             if the temporary file can't be read
+	 */
+	public InputStream getInputStream() throws IOException {
+		if (file == null) {
+			return new ByteArrayInputStream(bytes, 0, count);
+		}
+		close();
+		return new FilterInputStream(new BufferedInputStream(
+				new FileInputStream(file))) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					dispose();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Releases the temporary file if any.
+	 */
+	public void dispose() {
+		if (fileOutput != null) {
+			try {
+				fileOutput.close();
+			} catch (final IOException e) {
+				// nothing we can do here
+			}
+		}
+		if (file != null) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * @return temporary file or <code>null</code> if the content is kept in
+	 *         memory
+	 */
+	File getFile() {
+		return file;
+	}
+
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Utilities for {@link ZipFile}s.
+ */
+public final class ZipFiles {
+
+	private static final String[] EXTENSIONS = { ".class", ".jar", ".zip",
+			".war", ".ear", ".gz", ".pack" };
+
+	private ZipFiles() {
+	}
+
+	/**
+	 * Checks by its name whether the given entry of a {@link ZipFile} might
+	 * contain class files, i.e. whether it is a class file or an archive.
+	 * Other entries can be skipped without reading their content.
+	 *
+	 * @param name
+	 *            name of the entry
+	 * @return <code>true</code> if the entry has to be read
+	 */
+	public static boolean isClassOrArchive(final String name) {
+		final String lowerName = name.toLowerCase(Locale.ENGLISH);
+		for (final String extension : EXTENSIONS) {
+			if (lowerName.endsWith(extension)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Opens the given file as a {@link ZipFile} if its central directory can
+	 * be read. Otherwise the content has to be read as a stream.
+	 *
+	 * @param file
+	 *            file with ZIP content
+	 * @return opened file or <code>null</code> if the file can not be opened
+	 *         as {@link ZipFile}, e.g. because the central directory is missing
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	public static ZipFile open(final File file) throws IOException {
+		try {
+			return new ZipFile(file);
+		} catch (final ZipException e) {
+			return null;
+		}
+	}
+
+}
@@ -14,9 +14,10 @@ package org.jacoco.core.internal.analysis;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.jacoco.core.analysis.IStringPool;
 import org.jacoco.core.internal.analysis.filter.Filters;
-import org.jacoco.core.internal.analysis.filter.IFilter;
 import org.jacoco.core.internal.analysis.filter.IFilterContext;
+import org.jacoco.core.internal.analysis.filter.KotlinSMAP;
 import org.jacoco.core.internal.flow.ClassProbesVisitor;
 import org.jacoco.core.internal.flow.MethodProbesVisitor;
 import org.jacoco.core.internal.instr.InstrSupport;
@@ -33,13 +34,15 @@ public class ClassAnalyzer extends ClassProbesVisitor
 
 	private final ClassCoverageImpl coverage;
 	private final boolean[] probes;
-	private final StringPool stringPool;
+	private final IStringPool stringPool;
 
 	private final Set<String> classAnnotations = new HashSet<String>();
 
 	private String sourceDebugExtension;
 
-	private final IFilter filter;
+	private KotlinSMAP kotlinSMAP;
+
+	private final Filters filter;
 
 	/**
 	 * Creates a new analyzer that builds coverage data for a class.
@@ -52,7 +55,7 @@ public class ClassAnalyzer extends ClassProbesVisitor
 	 *            shared pool to minimize the number of {@link String} instances
 	 */
 	public ClassAnalyzer(final ClassCoverageImpl coverage,
-			final boolean[] probes, final StringPool stringPool) {
+			final boolean[] probes, final IStringPool stringPool) {
 		this.coverage = coverage;
 		this.probes = probes;
 		this.stringPool = stringPool;
@@ -95,19 +98,31 @@ public class ClassAnalyzer extends ClassProbesVisitor
 			@Override
 			public void accept(final MethodNode methodNode,
 					final MethodVisitor methodVisitor) {
+				// Most methods can not be matched by any filter, their ASM
+				// nodes are neither indexed nor passed to the filters:
+				final boolean filtered = filter.canMatch(methodNode,
+						ClassAnalyzer.this);
+				if (!filtered) {
+					builder.discardNodes();
+				}
 				super.accept(methodNode, methodVisitor);
 				addMethodCoverage(stringPool.get(name), stringPool.get(desc),
-						stringPool.get(signature), builder, methodNode);
+						stringPool.get(signature), builder,
+						filtered ? methodNode : null);
 			}
 		};
 	}
 
 	private void addMethodCoverage(final String name, final String desc,
 			final String signature, final InstructionsBuilder icc,
-			final MethodNode methodNode) {
-		final MethodCoverageCalculator mcc = new MethodCoverageCalculator(
-				icc.getInstructions());
-		filter.filter(methodNode, this, mcc);
+			final MethodNode filteredNode) {
+		final MethodCoverageCalculator mcc;
+		if (filteredNode == null) {
+			mcc = new MethodCoverageCalculator(null, icc);
+		} else {
+			mcc = new MethodCoverageCalculator(filteredNode.instructions, icc);
+			filter.filter(filteredNode, this, mcc);
+		}
 
 		final MethodCoverageImpl mc = new MethodCoverageImpl(name, desc,
 				signature);
@@ -154,4 +169,12 @@ public class ClassAnalyzer extends ClassProbesVisitor
 		return sourceDebugExtension;
 	}
 
+	public KotlinSMAP getKotlinSMAP() {
+		if (kotlinSMAP == null && sourceDebugExtension != null) {
+			kotlinSMAP = new KotlinSMAP(getSourceFileName(),
+					sourceDebugExtension);
+		}
+		return kotlinSMAP;
+	}
+
 }
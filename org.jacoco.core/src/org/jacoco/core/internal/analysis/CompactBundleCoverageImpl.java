@@ -0,0 +1,403 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis;
+
+import static org.jacoco.core.internal.analysis.CompactClassTable.COUNTERS_SIZE;
+import static org.jacoco.core.internal.analysis.CompactClassTable.NULL_STRING;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+
+/**
+ * {@link IBundleCoverage} implementation on top of the classes of a
+ * {@link CompactClassTable}. The classes are grouped into packages and source
+ * files when the bundle is created. Only counters and line ranges are stored
+ * for packages and source files, lines of source files are summed up from
+ * their classes on access.
+ */
+public class CompactBundleCoverageImpl extends CompactClassTable.NodeView
+		implements IBundleCoverage {
+
+	/** name, first class, class count, first source file, source file count */
+	private static final int PACKAGE_SIZE = 5;
+
+	/** name, package name, first class, class count, first line, last line */
+	private static final int SOURCEFILE_SIZE = 6;
+
+	private final String name;
+
+	private final CompactClassTable table;
+
+	/** class indices ordered by package and source file */
+	private final int[] classOrder;
+
+	private final int[] packages;
+
+	private final int[] sourcefiles;
+
+	/** counters of the bundle, all packages and all source files */
+	private final int[] counters;
+
+	/**
+	 * Creates a new bundle from all classes currently contained in the given
+	 * table.
+	 *
+	 * @param name
+	 *            name of this bundle
+	 * @param table
+	 *            table with all classes of this bundle
+	 */
+	public CompactBundleCoverageImpl(final String name,
+			final CompactClassTable table) {
+		this.name = name;
+		this.table = table;
+		this.classOrder = sortClasses(table);
+
+		int packageCount = 0;
+		int sourceFileCount = 0;
+		for (int i = 0; i < classOrder.length; i++) {
+			if (isNewPackage(i)) {
+				packageCount++;
+			}
+			if (isNewSourceFile(i)) {
+				sourceFileCount++;
+			}
+		}
+		this.packages = new int[packageCount * PACKAGE_SIZE];
+		this.sourcefiles = new int[sourceFileCount * SOURCEFILE_SIZE];
+		this.counters = new int[(1 + packageCount + sourceFileCount)
+				* COUNTERS_SIZE];
+
+		int p = -1;
+		int s = -1;
+		for (int i = 0; i < classOrder.length; i++) {
+			final int c = classOrder[i];
+			if (isNewPackage(i)) {
+				p++;
+				packages[p * PACKAGE_SIZE] = table.getPackageName(c);
+				packages[p * PACKAGE_SIZE + 1] = i;
+				packages[p * PACKAGE_SIZE + 3] = s + 1;
+			}
+			packages[p * PACKAGE_SIZE + 2]++;
+			if (table.getSourceFileName(c) == NULL_STRING) {
+				table.addCounters(c, counters, packageCounters(p));
+				continue;
+			}
+			if (isNewSourceFile(i)) {
+				s++;
+				final int pos = s * SOURCEFILE_SIZE;
+				sourcefiles[pos] = table.getSourceFileName(c);
+				sourcefiles[pos + 1] = table.getPackageName(c);
+				sourcefiles[pos + 2] = i;
+				sourcefiles[pos + 4] = ISourceNode.UNKNOWN_LINE;
+				sourcefiles[pos + 5] = ISourceNode.UNKNOWN_LINE;
+				packages[p * PACKAGE_SIZE + 4]++;
+			}
+			final int pos = s * SOURCEFILE_SIZE;
+			sourcefiles[pos + 3]++;
+			table.addCounters(c, counters, sourceFileCounters(s));
+			final int first = table.getFirstLine(c);
+			if (first != ISourceNode.UNKNOWN_LINE) {
+				if (sourcefiles[pos + 4] == ISourceNode.UNKNOWN_LINE) {
+					sourcefiles[pos + 4] = first;
+					sourcefiles[pos + 5] = table.getLastLine(c);
+				} else {
+					sourcefiles[pos + 4] = Math.min(sourcefiles[pos + 4], first);
+					sourcefiles[pos + 5] = Math.max(sourcefiles[pos + 5],
+							table.getLastLine(c));
+				}
+			}
+		}
+
+		for (p = 0; p < packageCount; p++) {
+			final int first = packages[p * PACKAGE_SIZE + 3];
+			final int count = packages[p * PACKAGE_SIZE + 4];
+			for (s = first; s < first + count; s++) {
+				countLines(s);
+				add(sourceFileCounters(s), packageCounters(p));
+			}
+			add(packageCounters(p), 0);
+		}
+	}
+
+	private static int[] sortClasses(final CompactClassTable table) {
+		final Integer[] order = new Integer[table.getClassCount()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = Integer.valueOf(i);
+		}
+		// Classes without source file are sorted last within their package:
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(final Integer c1, final Integer c2) {
+				final int p1 = table.getPackageName(c1.intValue());
+				final int p2 = table.getPackageName(c2.intValue());
+				if (p1 != p2) {
+					return p1 < p2 ? -1 : 1;
+				}
+				final int s1 = table.getSourceFileName(c1.intValue());
+				final int s2 = table.getSourceFileName(c2.intValue());
+				if (s1 == s2) {
+					return 0;
+				}
+				if (s1 == NULL_STRING) {
+					return 1;
+				}
+				if (s2 == NULL_STRING) {
+					return -1;
+				}
+				return s1 < s2 ? -1 : 1;
+			}
+		});
+		final int[] result = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			result[i] = order[i].intValue();
+		}
+		return result;
+	}
+
+	private boolean isNewPackage(final int i) {
+		return i == 0 || table.getPackageName(classOrder[i]) != table
+				.getPackageName(classOrder[i - 1]);
+	}
+
+	private boolean isNewSourceFile(final int i) {
+		final int source = table.getSourceFileName(classOrder[i]);
+		return source != NULL_STRING && (isNewPackage(i)
+				|| source != table.getSourceFileName(classOrder[i - 1]));
+	}
+
+	/**
+	 * Lines of different classes may overlap, therefore the line counter of a
+	 * source file is calculated from the sum of all lines.
+	 */
+	private void countLines(final int s) {
+		final int pos = s * SOURCEFILE_SIZE;
+		final int offset = sourceFileCounters(s)
+				+ CounterEntity.LINE.ordinal() * 2;
+		counters[offset] = 0;
+		counters[offset + 1] = 0;
+		final int first = sourcefiles[pos + 4];
+		if (first == ISourceNode.UNKNOWN_LINE) {
+			return;
+		}
+		final int[] lines = new int[(sourcefiles[pos + 5] - first + 1) * 4];
+		final int firstClass = sourcefiles[pos + 2];
+		for (int i = firstClass; i < firstClass + sourcefiles[pos + 3]; i++) {
+			table.addLines(classOrder[i], lines, first);
+		}
+		for (int l = 0; l < lines.length; l += 4) {
+			if (lines[l + 1] > 0) {
+				counters[offset + 1]++;
+			} else if (lines[l] > 0) {
+				counters[offset]++;
+			}
+		}
+	}
+
+	private void add(final int source, final int target) {
+		for (int i = 0; i < COUNTERS_SIZE; i++) {
+			counters[target + i] += counters[source + i];
+		}
+	}
+
+	private int packageCounters(final int p) {
+		return (1 + p) * COUNTERS_SIZE;
+	}
+
+	private int sourceFileCounters(final int s) {
+		return (1 + packages.length / PACKAGE_SIZE + s) * COUNTERS_SIZE;
+	}
+
+	private ICounter counter(final int offset, final CounterEntity entity) {
+		final int pos = offset + entity.ordinal() * 2;
+		return CounterImpl.getInstance(counters[pos], counters[pos + 1]);
+	}
+
+	private Collection<IClassCoverage> classes(final int start,
+			final int size) {
+		return new AbstractList<IClassCoverage>() {
+			@Override
+			public IClassCoverage get(final int i) {
+				return table.getClassCoverage(classOrder[start + i]);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	// === ICoverageNode implementation ===
+
+	public ElementType getElementType() {
+		return ElementType.BUNDLE;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public ICounter getCounter(final CounterEntity entity) {
+		return counter(0, entity);
+	}
+
+	// === IBundleCoverage implementation ===
+
+	public Collection<IPackageCoverage> getPackages() {
+		return new AbstractList<IPackageCoverage>() {
+			@Override
+			public IPackageCoverage get(final int index) {
+				return new PackageView(index);
+			}
+
+			@Override
+			public int size() {
+				return packages.length / PACKAGE_SIZE;
+			}
+		};
+	}
+
+	// === Views ===
+
+	/**
+	 * Base class for views on packages and source files of this bundle.
+	 */
+	private abstract class BundleNodeView extends CompactClassTable.NodeView {
+
+		final int index;
+
+		BundleNodeView(final int index) {
+			this.index = index;
+		}
+
+		private CompactBundleCoverageImpl getBundle() {
+			return CompactBundleCoverageImpl.this;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == null || obj.getClass() != getClass()) {
+				return false;
+			}
+			final BundleNodeView other = (BundleNodeView) obj;
+			return index == other.index && getBundle() == other.getBundle();
+		}
+
+		@Override
+		public int hashCode() {
+			return index;
+		}
+
+	}
+
+	private final class PackageView extends BundleNodeView implements
+			IPackageCoverage {
+
+		PackageView(final int index) {
+			super(index);
+		}
+
+		public ElementType getElementType() {
+			return ElementType.PACKAGE;
+		}
+
+		public String getName() {
+			return table.getString(packages[index * PACKAGE_SIZE]);
+		}
+
+		public ICounter getCounter(final CounterEntity entity) {
+			return counter(packageCounters(index), entity);
+		}
+
+		public Collection<IClassCoverage> getClasses() {
+			return classes(packages[index * PACKAGE_SIZE + 1],
+					packages[index * PACKAGE_SIZE + 2]);
+		}
+
+		public Collection<ISourceFileCoverage> getSourceFiles() {
+			final int start = packages[index * PACKAGE_SIZE + 3];
+			final int size = packages[index * PACKAGE_SIZE + 4];
+			return new AbstractList<ISourceFileCoverage>() {
+				@Override
+				public ISourceFileCoverage get(final int i) {
+					return new SourceFileView(start + i);
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+
+	}
+
+	private final class SourceFileView extends BundleNodeView implements
+			ISourceFileCoverage {
+
+		SourceFileView(final int index) {
+			super(index);
+		}
+
+		public ElementType getElementType() {
+			return ElementType.SOURCEFILE;
+		}
+
+		public String getName() {
+			return table.getString(sourcefiles[index * SOURCEFILE_SIZE]);
+		}
+
+		public ICounter getCounter(final CounterEntity entity) {
+			return counter(sourceFileCounters(index), entity);
+		}
+
+		public String getPackageName() {
+			return table.getString(sourcefiles[index * SOURCEFILE_SIZE + 1]);
+		}
+
+		public int getFirstLine() {
+			return sourcefiles[index * SOURCEFILE_SIZE + 4];
+		}
+
+		public int getLastLine() {
+			return sourcefiles[index * SOURCEFILE_SIZE + 5];
+		}
+
+		public ILine getLine(final int nr) {
+			final int first = getFirstLine();
+			if (first == ISourceNode.UNKNOWN_LINE || nr < first
+					|| nr > getLastLine()) {
+				return LineImpl.EMPTY;
+			}
+			final int[] counts = new int[4];
+			final int firstClass = sourcefiles[index * SOURCEFILE_SIZE + 2];
+			final int classCount = sourcefiles[index * SOURCEFILE_SIZE + 3];
+			for (int i = firstClass; i < firstClass + classCount; i++) {
+				table.addLine(classOrder[i], nr, counts);
+			}
+			return LineImpl.getInstance(counts[0], counts[1], counts[2],
+					counts[3]);
+		}
+
+	}
+
+}
@@ -0,0 +1,789 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+
+/**
+ * Table which stores the coverage data of classes and their methods in a few
+ * growing primitive arrays. Classes are encoded when they are added, so the
+ * original node objects can be garbage collected immediately. Nodes are
+ * exposed through lightweight views which are created on demand and hold no
+ * data:
+ *
+ * <ul>
+ * <li>All strings are kept once in a byte array with UTF-8 like encoding.</li>
+ * <li>Counters are stored as variable length integers.</li>
+ * <li>Lines are stored for methods only. Lines of classes are summed up from
+ * their methods on access, unless the class reported different values.</li>
+ * </ul>
+ *
+ * The table is not thread safe while classes are added.
+ */
+public class CompactClassTable {
+
+	static final int NULL_STRING = -1;
+
+	/** line start of nodes which have no lines stored */
+	private static final int NO_LINES = -1;
+
+	/** largest counter value which fits into a packed line entry */
+	private static final int PACKED_LIMIT = 0xFF;
+
+	/**
+	 * name, counter offset, first line, last line, line start, descriptor,
+	 * signature
+	 */
+	private static final int NODE_SIZE = 7;
+
+	/**
+	 * node, signature, super name, first interface, interface count, source
+	 * file name, package name, method count
+	 */
+	private static final int CLASS_SIZE = 8;
+
+	/** number of int values of all counters of a node */
+	static final int COUNTERS_SIZE = ICoverageNode.CounterEntity.values().length
+			* 2;
+
+	/** index of all strings, dropped when the table is trimmed */
+	private Map<String, Integer> stringIndex;
+
+	private byte[] stringData = new byte[256];
+	private int stringDataSize;
+
+	/** start of each string in {@link #stringData} plus total length */
+	private int[] stringOffsets = new int[64];
+	private int stringCount;
+
+	/** class index plus one per string, 0 if the string is no class name */
+	private int[] classByName = new int[64];
+
+	/** missed and covered counts of all counter entities as var ints */
+	private byte[] counterData = new byte[256];
+	private int counterDataSize;
+
+	private int[] nodes = new int[16 * NODE_SIZE];
+	private int nodeCount;
+
+	/** counter values per line, packed or wide like in SourceNodeImpl */
+	private int[] lines = new int[256];
+	private int lineCount;
+
+	/** nodes with wide line entries */
+	private final BitSet wideLines = new BitSet();
+
+	private int[] classes = new int[16 * CLASS_SIZE];
+	private long[] classIds = new long[16];
+	private int classCount;
+
+	private final BitSet classNoMatch = new BitSet();
+
+	/** string indices of all interface names */
+	private int[] interfaces = new int[16];
+	private int interfaceCount;
+
+	/**
+	 * Creates a new empty table.
+	 */
+	public CompactClassTable() {
+		stringIndex = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Adds the given class with all its methods to this table. If a class with
+	 * the same name and id has already been added the class is ignored.
+	 *
+	 * @param coverage
+	 *            class to add
+	 * @return <code>true</code> if the class has been added
+	 * @throws IllegalStateException
+	 *             if a different class with the same name has already been
+	 *             added
+	 */
+	public boolean add(final IClassCoverage coverage) {
+		final int name = string(coverage.getName());
+		final int existing = classByName[name] - 1;
+		if (existing != -1) {
+			if (classIds[existing] != coverage.getId()) {
+				throw new IllegalStateException(
+						"Can't add different class with same name: "
+								+ coverage.getName());
+			}
+			return false;
+		}
+		final int signature = string(coverage.getSignature());
+		final int superName = string(coverage.getSuperName());
+		final int firstInterface = interfaceCount;
+		final String[] itfs = coverage.getInterfaceNames();
+		if (itfs != null) {
+			interfaces = ensure(interfaces, interfaceCount + itfs.length);
+			for (final String itf : itfs) {
+				final int s = string(itf);
+				interfaces[interfaceCount++] = s;
+			}
+		}
+		final int sourceFile = string(coverage.getSourceFileName());
+		final int packageName = string(coverage.getPackageName());
+
+		final Collection<IMethodCoverage> methods = coverage.getMethods();
+		final int node = node(name, coverage);
+		final SourceNodeImpl sum = new SourceNodeImpl(null, null);
+		for (final IMethodCoverage m : methods) {
+			sum.increment(m);
+		}
+		lines(node, coverage, !isEqual(coverage, sum));
+		for (final IMethodCoverage m : methods) {
+			final int desc = string(m.getDesc());
+			final int methodSignature = string(m.getSignature());
+			final int method = node(string(m.getName()), m);
+			lines(method, m, true);
+			nodes[method * NODE_SIZE + 5] = desc;
+			nodes[method * NODE_SIZE + 6] = methodSignature;
+		}
+
+		final int idx = classCount++;
+		classes = ensure(classes, classCount * CLASS_SIZE);
+		classIds = ensure(classIds, classCount);
+		final int info = idx * CLASS_SIZE;
+		classes[info] = node;
+		classes[info + 1] = signature;
+		classes[info + 2] = superName;
+		classes[info + 3] = firstInterface;
+		classes[info + 4] = itfs == null ? -1 : itfs.length;
+		classes[info + 5] = sourceFile;
+		classes[info + 6] = packageName;
+		classes[info + 7] = methods.size();
+		classIds[idx] = coverage.getId();
+		if (coverage.isNoMatch()) {
+			classNoMatch.set(idx);
+		}
+		classByName[name] = idx + 1;
+		return true;
+	}
+
+	/**
+	 * Releases all memory which is only required for adding classes. Further
+	 * classes can still be added afterwards. Does nothing if no classes have
+	 * been added since the last call.
+	 */
+	public void trim() {
+		if (stringIndex == null) {
+			return;
+		}
+		stringIndex = null;
+		stringData = trim(stringData, stringDataSize);
+		stringOffsets = trim(stringOffsets, stringCount + 1);
+		classByName = trim(classByName, stringCount);
+		counterData = trim(counterData, counterDataSize);
+		nodes = trim(nodes, nodeCount * NODE_SIZE);
+		lines = trim(lines, lineCount);
+		classes = trim(classes, classCount * CLASS_SIZE);
+		final long[] ids = new long[classCount];
+		System.arraycopy(classIds, 0, ids, 0, classCount);
+		classIds = ids;
+		interfaces = trim(interfaces, interfaceCount);
+	}
+
+	/**
+	 * Returns the number of classes in this table.
+	 *
+	 * @return number of classes
+	 */
+	public int getClassCount() {
+		return classCount;
+	}
+
+	/**
+	 * Returns a view on the class with the given index.
+	 *
+	 * @param idx
+	 *            index of the class
+	 * @return view on the class
+	 */
+	public IClassCoverage getClassCoverage(final int idx) {
+		return new ClassView(idx);
+	}
+
+	// === Access for bundles ===
+
+	/**
+	 * @return string index of the package name of the given class
+	 */
+	int getPackageName(final int idx) {
+		return classes[idx * CLASS_SIZE + 6];
+	}
+
+	/**
+	 * @return string index of the source file name of the given class or
+	 *         {@link #NULL_STRING}
+	 */
+	int getSourceFileName(final int idx) {
+		return classes[idx * CLASS_SIZE + 5];
+	}
+
+	int getFirstLine(final int idx) {
+		return nodes[classes[idx * CLASS_SIZE] * NODE_SIZE + 2];
+	}
+
+	int getLastLine(final int idx) {
+		return nodes[classes[idx * CLASS_SIZE] * NODE_SIZE + 3];
+	}
+
+	/**
+	 * Adds all counter values of the given class to the given array in the
+	 * order of {@link ICoverageNode.CounterEntity} with missed and covered
+	 * count for each entity.
+	 */
+	void addCounters(final int idx, final int[] target, final int offset) {
+		int pos = nodes[classes[idx * CLASS_SIZE] * NODE_SIZE + 1];
+		for (int i = 0; i < COUNTERS_SIZE; i++) {
+			int value = 0;
+			for (int shift = 0;; shift += 7) {
+				final byte b = counterData[pos++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					break;
+				}
+			}
+			target[offset + i] += value;
+		}
+	}
+
+	/**
+	 * Adds the missed and covered instructions and branches of the given line
+	 * of the given class to the first four entries of the given array.
+	 */
+	void addLine(final int idx, final int nr, final int[] target) {
+		final int node = classes[idx * CLASS_SIZE];
+		if (!isInRange(node, nr)) {
+			return;
+		}
+		if (nodes[node * NODE_SIZE + 4] != NO_LINES) {
+			addNodeLine(node, nr, target, 0);
+			return;
+		}
+		final int methodCount = classes[idx * CLASS_SIZE + 7];
+		for (int m = node + 1; m <= node + methodCount; m++) {
+			if (isInRange(m, nr)) {
+				addNodeLine(m, nr, target, 0);
+			}
+		}
+	}
+
+	/**
+	 * Adds all lines of the given class to the given array with four entries
+	 * per line starting at the given first line.
+	 */
+	void addLines(final int idx, final int[] target, final int first) {
+		final int node = classes[idx * CLASS_SIZE];
+		if (nodes[node * NODE_SIZE + 4] != NO_LINES) {
+			addNodeLines(node, target, first);
+			return;
+		}
+		final int methodCount = classes[idx * CLASS_SIZE + 7];
+		for (int m = node + 1; m <= node + methodCount; m++) {
+			addNodeLines(m, target, first);
+		}
+	}
+
+	private void addNodeLines(final int node, final int[] target,
+			final int first) {
+		final int pos = node * NODE_SIZE;
+		if (nodes[pos + 2] == ISourceNode.UNKNOWN_LINE) {
+			return;
+		}
+		for (int nr = nodes[pos + 2]; nr <= nodes[pos + 3]; nr++) {
+			addNodeLine(node, nr, target, (nr - first) * 4);
+		}
+	}
+
+	private void addNodeLine(final int node, final int nr,
+			final int[] target, final int offset) {
+		final int start = nodes[node * NODE_SIZE + 4];
+		final int idx = nr - nodes[node * NODE_SIZE + 2];
+		if (wideLines.get(node)) {
+			final int pos = start + idx * 4;
+			target[offset] += lines[pos];
+			target[offset + 1] += lines[pos + 1];
+			target[offset + 2] += lines[pos + 2];
+			target[offset + 3] += lines[pos + 3];
+		} else {
+			final int packed = lines[start + idx];
+			target[offset] += packed & PACKED_LIMIT;
+			target[offset + 1] += (packed >>> 8) & PACKED_LIMIT;
+			target[offset + 2] += (packed >>> 16) & PACKED_LIMIT;
+			target[offset + 3] += packed >>> 24;
+		}
+	}
+
+	private boolean isInRange(final int node, final int nr) {
+		final int pos = node * NODE_SIZE;
+		return nodes[pos + 2] != ISourceNode.UNKNOWN_LINE
+				&& nr >= nodes[pos + 2] && nr <= nodes[pos + 3];
+	}
+
+	// === Encoding ===
+
+	private int string(final String s) {
+		if (s == null) {
+			return NULL_STRING;
+		}
+		if (stringIndex == null) {
+			stringIndex = new HashMap<String, Integer>();
+			for (int i = 0; i < stringCount; i++) {
+				stringIndex.put(getString(i), Integer.valueOf(i));
+			}
+		}
+		final Integer existing = stringIndex.get(s);
+		if (existing != null) {
+			return existing.intValue();
+		}
+		stringData = ensure(stringData, stringDataSize + s.length() * 3);
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if (c < 0x80) {
+				stringData[stringDataSize++] = (byte) c;
+			} else if (c < 0x800) {
+				stringData[stringDataSize++] = (byte) (0xC0 | (c >> 6));
+				stringData[stringDataSize++] = (byte) (0x80 | (c & 0x3F));
+			} else {
+				stringData[stringDataSize++] = (byte) (0xE0 | (c >> 12));
+				stringData[stringDataSize++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				stringData[stringDataSize++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		final int idx = stringCount++;
+		stringOffsets = ensure(stringOffsets, stringCount + 1);
+		stringOffsets[stringCount] = stringDataSize;
+		classByName = ensure(classByName, stringCount);
+		stringIndex.put(s, Integer.valueOf(idx));
+		return idx;
+	}
+
+	/**
+	 * Decodes the string with the given index.
+	 *
+	 * @param idx
+	 *            string index or {@link #NULL_STRING}
+	 * @return decoded string
+	 */
+	String getString(final int idx) {
+		if (idx == NULL_STRING) {
+			return null;
+		}
+		final int end = stringOffsets[idx + 1];
+		int pos = stringOffsets[idx];
+		final char[] chars = new char[end - pos];
+		int length = 0;
+		while (pos < end) {
+			final int b = stringData[pos++] & 0xFF;
+			if (b < 0x80) {
+				chars[length++] = (char) b;
+			} else if (b < 0xE0) {
+				final int b2 = stringData[pos++] & 0x3F;
+				chars[length++] = (char) (((b & 0x1F) << 6) | b2);
+			} else {
+				final int b2 = stringData[pos++] & 0x3F;
+				final int b3 = stringData[pos++] & 0x3F;
+				chars[length++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+			}
+		}
+		return new String(chars, 0, length);
+	}
+
+	private int node(final int name, final ICoverageNode node) {
+		final int idx = nodeCount++;
+		nodes = ensure(nodes, nodeCount * NODE_SIZE);
+		final int pos = idx * NODE_SIZE;
+		nodes[pos] = name;
+		nodes[pos + 1] = counterDataSize;
+		nodes[pos + 2] = ISourceNode.UNKNOWN_LINE;
+		nodes[pos + 3] = ISourceNode.UNKNOWN_LINE;
+		nodes[pos + 4] = NO_LINES;
+		nodes[pos + 5] = NULL_STRING;
+		nodes[pos + 6] = NULL_STRING;
+		for (final ICoverageNode.CounterEntity entity : ICoverageNode.CounterEntity
+				.values()) {
+			final ICounter counter = node.getCounter(entity);
+			writeVarInt(counter.getMissedCount());
+			writeVarInt(counter.getCoveredCount());
+		}
+		return idx;
+	}
+
+	private void writeVarInt(final int value) {
+		counterData = ensure(counterData, counterDataSize + 5);
+		int v = value;
+		while ((v & ~0x7F) != 0) {
+			counterData[counterDataSize++] = (byte) (0x80 | (v & 0x7F));
+			v >>>= 7;
+		}
+		counterData[counterDataSize++] = (byte) v;
+	}
+
+	private void lines(final int node, final ISourceNode source,
+			final boolean explicit) {
+		final int first = source.getFirstLine();
+		if (first == ISourceNode.UNKNOWN_LINE) {
+			return;
+		}
+		final int last = source.getLastLine();
+		final int pos = node * NODE_SIZE;
+		nodes[pos + 2] = first;
+		nodes[pos + 3] = last;
+		if (!explicit) {
+			return;
+		}
+		nodes[pos + 4] = lineCount;
+		final boolean wide = isWide(source);
+		if (wide) {
+			wideLines.set(node);
+		}
+		lines = ensure(lines, lineCount + (last - first + 1) * (wide ? 4 : 1));
+		for (int nr = first; nr <= last; nr++) {
+			final ILine line = source.getLine(nr);
+			final ICounter i = line.getInstructionCounter();
+			final ICounter b = line.getBranchCounter();
+			if (wide) {
+				lines[lineCount++] = i.getMissedCount();
+				lines[lineCount++] = i.getCoveredCount();
+				lines[lineCount++] = b.getMissedCount();
+				lines[lineCount++] = b.getCoveredCount();
+			} else {
+				lines[lineCount++] = i.getMissedCount()
+						| (i.getCoveredCount() << 8)
+						| (b.getMissedCount() << 16)
+						| (b.getCoveredCount() << 24);
+			}
+		}
+	}
+
+	private static boolean isWide(final ISourceNode node) {
+		for (int nr = node.getFirstLine(); nr <= node.getLastLine(); nr++) {
+			final ILine line = node.getLine(nr);
+			final ICounter i = line.getInstructionCounter();
+			final ICounter b = line.getBranchCounter();
+			final int all = i.getMissedCount() | i.getCoveredCount()
+					| b.getMissedCount() | b.getCoveredCount();
+			if (all > PACKED_LIMIT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isEqual(final ISourceNode node,
+			final ISourceNode sum) {
+		final int first = node.getFirstLine();
+		final int last = node.getLastLine();
+		if (first != sum.getFirstLine() || last != sum.getLastLine()) {
+			return false;
+		}
+		if (first == ISourceNode.UNKNOWN_LINE) {
+			return true;
+		}
+		for (int nr = first; nr <= last; nr++) {
+			final ILine l1 = node.getLine(nr);
+			final ILine l2 = sum.getLine(nr);
+			if (!l1.getInstructionCounter().equals(l2.getInstructionCounter())
+					|| !l1.getBranchCounter().equals(l2.getBranchCounter())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] ensure(final byte[] array, final int size) {
+		if (size <= array.length) {
+			return array;
+		}
+		final byte[] copy = new byte[Math.max(size, array.length * 2)];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+	private static int[] ensure(final int[] array, final int size) {
+		if (size <= array.length) {
+			return array;
+		}
+		final int[] copy = new int[Math.max(size, array.length * 2)];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+	private static long[] ensure(final long[] array, final int size) {
+		if (size <= array.length) {
+			return array;
+		}
+		final long[] copy = new long[Math.max(size, array.length * 2)];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+	private static byte[] trim(final byte[] array, final int size) {
+		final byte[] copy = new byte[size];
+		System.arraycopy(array, 0, copy, 0, size);
+		return copy;
+	}
+
+	private static int[] trim(final int[] array, final int size) {
+		final int[] copy = new int[size];
+		System.arraycopy(array, 0, copy, 0, size);
+		return copy;
+	}
+
+	// === Views ===
+
+	/**
+	 * Base class for views on a single node. Only the element type, the name
+	 * and the counters have to be provided.
+	 */
+	abstract static class NodeView implements ICoverageNode {
+
+		public ICounter getInstructionCounter() {
+			return getCounter(CounterEntity.INSTRUCTION);
+		}
+
+		public ICounter getBranchCounter() {
+			return getCounter(CounterEntity.BRANCH);
+		}
+
+		public ICounter getLineCounter() {
+			return getCounter(CounterEntity.LINE);
+		}
+
+		public ICounter getComplexityCounter() {
+			return getCounter(CounterEntity.COMPLEXITY);
+		}
+
+		public ICounter getMethodCounter() {
+			return getCounter(CounterEntity.METHOD);
+		}
+
+		public ICounter getClassCounter() {
+			return getCounter(CounterEntity.CLASS);
+		}
+
+		public boolean containsCode() {
+			return getInstructionCounter().getTotalCount() != 0;
+		}
+
+		public ICoverageNode getPlainCopy() {
+			final CoverageNodeImpl copy = new CoverageNodeImpl(
+					getElementType(), getName());
+			copy.increment(this);
+			return copy;
+		}
+
+		@Override
+		public String toString() {
+			return getName() + " [" + getElementType() + "]";
+		}
+
+	}
+
+	/**
+	 * View on a class or method node of this table.
+	 */
+	private abstract class TableNodeView extends NodeView implements
+			ISourceNode {
+
+		final int node;
+
+		TableNodeView(final int node) {
+			this.node = node;
+		}
+
+		public String getName() {
+			return getString(nodes[node * NODE_SIZE]);
+		}
+
+		public ICounter getCounter(final CounterEntity entity) {
+			int pos = nodes[node * NODE_SIZE + 1];
+			// Skip missed and covered values of all previous entities:
+			for (int i = entity.ordinal() * 2; i > 0; i--) {
+				while (counterData[pos++] < 0) {
+					// continuation byte
+				}
+			}
+			int missed = 0;
+			for (int shift = 0;; shift += 7) {
+				final byte b = counterData[pos++];
+				missed |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					break;
+				}
+			}
+			int covered = 0;
+			for (int shift = 0;; shift += 7) {
+				final byte b = counterData[pos++];
+				covered |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					break;
+				}
+			}
+			return CounterImpl.getInstance(missed, covered);
+		}
+
+		public int getFirstLine() {
+			return nodes[node * NODE_SIZE + 2];
+		}
+
+		public int getLastLine() {
+			return nodes[node * NODE_SIZE + 3];
+		}
+
+		public ILine getLine(final int nr) {
+			if (!isInRange(node, nr)) {
+				return LineImpl.EMPTY;
+			}
+			final int[] counts = new int[4];
+			addLine(nr, counts);
+			return LineImpl.getInstance(counts[0], counts[1], counts[2],
+					counts[3]);
+		}
+
+		abstract void addLine(int nr, int[] counts);
+
+		private CompactClassTable getTable() {
+			return CompactClassTable.this;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == null || obj.getClass() != getClass()) {
+				return false;
+			}
+			final TableNodeView other = (TableNodeView) obj;
+			return node == other.node && getTable() == other.getTable();
+		}
+
+		@Override
+		public int hashCode() {
+			return node;
+		}
+
+	}
+
+	private final class ClassView extends TableNodeView implements
+			IClassCoverage {
+
+		private final int idx;
+
+		ClassView(final int idx) {
+			super(classes[idx * CLASS_SIZE]);
+			this.idx = idx;
+		}
+
+		@Override
+		void addLine(final int nr, final int[] counts) {
+			CompactClassTable.this.addLine(idx, nr, counts);
+		}
+
+		public ElementType getElementType() {
+			return ElementType.CLASS;
+		}
+
+		public long getId() {
+			return classIds[idx];
+		}
+
+		public boolean isNoMatch() {
+			return classNoMatch.get(idx);
+		}
+
+		public String getSignature() {
+			return getString(classes[idx * CLASS_SIZE + 1]);
+		}
+
+		public String getSuperName() {
+			return getString(classes[idx * CLASS_SIZE + 2]);
+		}
+
+		public String[] getInterfaceNames() {
+			final int start = classes[idx * CLASS_SIZE + 3];
+			final int size = classes[idx * CLASS_SIZE + 4];
+			if (size == -1) {
+				return null;
+			}
+			final String[] result = new String[size];
+			for (int i = 0; i < size; i++) {
+				result[i] = getString(interfaces[start + i]);
+			}
+			return result;
+		}
+
+		public String getSourceFileName() {
+			return getString(classes[idx * CLASS_SIZE + 5]);
+		}
+
+		public String getPackageName() {
+			return getString(classes[idx * CLASS_SIZE + 6]);
+		}
+
+		public Collection<IMethodCoverage> getMethods() {
+			final int size = classes[idx * CLASS_SIZE + 7];
+			return new AbstractList<IMethodCoverage>() {
+				@Override
+				public IMethodCoverage get(final int i) {
+					return new MethodView(node + 1 + i);
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+
+	}
+
+	private final class MethodView extends TableNodeView implements
+			IMethodCoverage {
+
+		MethodView(final int node) {
+			super(node);
+		}
+
+		@Override
+		void addLine(final int nr, final int[] counts) {
+			addNodeLine(node, nr, counts, 0);
+		}
+
+		public ElementType getElementType() {
+			return ElementType.METHOD;
+		}
+
+		public String getDesc() {
+			return getString(nodes[node * NODE_SIZE + 5]);
+		}
+
+		public String getSignature() {
+			return getString(nodes[node * NODE_SIZE + 6]);
+		}
+
+	}
+
+}
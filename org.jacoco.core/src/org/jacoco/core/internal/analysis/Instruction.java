@@ -58,7 +58,11 @@ public class Instruction {
 
 	private int branches;
 
-	private final BitSet coveredBranches;
+	/** Covered branches with identifiers below 64 */
+	private long coveredBranches;
+
+	/** Covered branches with higher identifiers, only allocated if required */
+	private BitSet moreCoveredBranches;
 
 	private Instruction predecessor;
 
@@ -73,7 +77,6 @@ public class Instruction {
 	public Instruction(final int line) {
 		this.line = line;
 		this.branches = 0;
-		this.coveredBranches = new BitSet();
 	}
 
 	/**
@@ -94,7 +97,7 @@ public class Instruction {
 		branches++;
 		target.predecessor = this;
 		target.predecessorBranch = branch;
-		if (!target.coveredBranches.isEmpty()) {
+		if (target.isCovered()) {
 			propagateExecutedBranch(this, branch);
 		}
 	}
@@ -122,16 +125,41 @@ public class Instruction {
 	private static void propagateExecutedBranch(Instruction insn, int branch) {
 		// No recursion here, as there can be very long chains of instructions
 		while (insn != null) {
-			if (!insn.coveredBranches.isEmpty()) {
-				insn.coveredBranches.set(branch);
+			if (insn.isCovered()) {
+				insn.setCovered(branch);
 				break;
 			}
-			insn.coveredBranches.set(branch);
+			insn.setCovered(branch);
 			branch = insn.predecessorBranch;
 			insn = insn.predecessor;
 		}
 	}
 
+	private boolean isCovered() {
+		return coveredBranches != 0 || moreCoveredBranches != null;
+	}
+
+	private void setCovered(final int branch) {
+		if (branch < 64) {
+			coveredBranches |= 1L << branch;
+		} else {
+			if (moreCoveredBranches == null) {
+				moreCoveredBranches = new BitSet();
+			}
+			moreCoveredBranches.set(branch);
+		}
+	}
+
+	private void setCovered(final Instruction other) {
+		coveredBranches |= other.coveredBranches;
+		if (other.moreCoveredBranches != null) {
+			if (moreCoveredBranches == null) {
+				moreCoveredBranches = new BitSet();
+			}
+			moreCoveredBranches.or(other.moreCoveredBranches);
+		}
+	}
+
 	/**
 	 * Returns the source line this instruction belongs to.
 	 * 
@@ -152,8 +180,8 @@ public class Instruction {
 	public Instruction merge(final Instruction other) {
 		final Instruction result = new Instruction(this.line);
 		result.branches = this.branches;
-		result.coveredBranches.or(this.coveredBranches);
-		result.coveredBranches.or(other.coveredBranches);
+		result.setCovered(this);
+		result.setCovered(other);
 		return result;
 	}
 
@@ -172,8 +200,8 @@ public class Instruction {
 		result.branches = newBranches.size();
 		int idx = 0;
 		for (final Instruction b : newBranches) {
-			if (!b.coveredBranches.isEmpty()) {
-				result.coveredBranches.set(idx++);
+			if (b.isCovered()) {
+				result.setCovered(idx++);
 			}
 		}
 		return result;
@@ -186,8 +214,8 @@ public class Instruction {
 	 * @return the instruction coverage counter
 	 */
 	public ICounter getInstructionCounter() {
-		return coveredBranches.isEmpty() ? CounterImpl.COUNTER_1_0
-				: CounterImpl.COUNTER_0_1;
+		return isCovered() ? CounterImpl.COUNTER_0_1
+				: CounterImpl.COUNTER_1_0;
 	}
 
 	/**
@@ -200,7 +228,10 @@ public class Instruction {
 		if (branches < 2) {
 			return CounterImpl.COUNTER_0_0;
 		}
-		final int covered = coveredBranches.cardinality();
+		int covered = Long.bitCount(coveredBranches);
+		if (moreCoveredBranches != null) {
+			covered += moreCoveredBranches.cardinality();
+		}
 		return CounterImpl.getInstance(branches - covered, covered);
 	}
 
@@ -12,14 +12,13 @@
 package org.jacoco.core.internal.analysis;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.jacoco.core.analysis.ISourceNode;
 import org.jacoco.core.internal.flow.LabelInfo;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
 
 /**
  * Stateful builder for the {@link Instruction}s of a method. All instructions
@@ -39,10 +38,13 @@ class InstructionsBuilder {
 	private Instruction currentInsn;
 
 	/**
-	 * All instructions of a method mapped from the ASM node to the
-	 * corresponding {@link Instruction} instance.
+	 * ASM nodes of all instructions of a method in the order of addition or
+	 * <code>null</code> if the nodes are not required.
 	 */
-	private final Map<AbstractInsnNode, Instruction> instructions;
+	private List<AbstractInsnNode> nodes;
+
+	/** {@link Instruction} instances corresponding to {@link #nodes}. */
+	private final List<Instruction> instructions;
 
 	/**
 	 * The labels which mark the subsequent instructions.
@@ -69,11 +71,21 @@ class InstructionsBuilder {
 		this.probes = probes;
 		this.currentLine = ISourceNode.UNKNOWN_LINE;
 		this.currentInsn = null;
-		this.instructions = new HashMap<AbstractInsnNode, Instruction>();
+		this.nodes = new ArrayList<AbstractInsnNode>();
+		this.instructions = new ArrayList<Instruction>();
 		this.currentLabel = new ArrayList<Label>(2);
 		this.jumps = new ArrayList<Jump>();
 	}
 
+	/**
+	 * Declares that the instructions of this method will not be filtered.
+	 * Therefore the ASM nodes of added instructions are not kept and
+	 * {@link #getInstructions(InsnList)} can not be used.
+	 */
+	void discardNodes() {
+		nodes = null;
+	}
+
 	/**
 	 * Sets the current source line. All subsequently added instructions will be
 	 * assigned to this line. If no line is set (e.g. for classes compiled
@@ -112,7 +124,10 @@ class InstructionsBuilder {
 			currentInsn.addBranch(insn, 0);
 		}
 		currentInsn = insn;
-		instructions.put(node, insn);
+		if (nodes != null) {
+			nodes.add(node);
+		}
+		instructions.add(insn);
 	}
 
 	/**
@@ -150,21 +165,43 @@ class InstructionsBuilder {
 	}
 
 	/**
-	 * Returns the status for all instructions of this method. This method must
-	 * be called exactly once after the instructions have been added.
+	 * Returns the status for all instructions of this method in the order they
+	 * have been added. This method must only be called after all instructions
+	 * have been added.
 	 * 
-	 * @return map of ASM instruction nodes to corresponding {@link Instruction}
-	 *         instances
+	 * @return list of {@link Instruction} instances
 	 */
-	Map<AbstractInsnNode, Instruction> getInstructions() {
+	List<Instruction> getInstructions() {
 		// Wire jumps:
 		for (final Jump j : jumps) {
 			j.wire();
 		}
+		jumps.clear();
 
 		return instructions;
 	}
 
+	/**
+	 * Returns the status for all instructions of this method indexed by the
+	 * position of their ASM node. This method must only be called after all
+	 * instructions have been added.
+	 * 
+	 * @param list
+	 *            list containing all added ASM instruction nodes
+	 * @return array with the {@link Instruction} instance for every ASM node
+	 *         at its index within the given list, <code>null</code> for nodes
+	 *         which have not been added like labels or line numbers
+	 */
+	Instruction[] getInstructions(final InsnList list) {
+		final List<Instruction> instructions = getInstructions();
+		final Instruction[] result = new Instruction[list.size()];
+		final int size = nodes.size();
+		for (int i = 0; i < size; i++) {
+			result[list.indexOf(nodes.get(i))] = instructions.get(i);
+		}
+		return result;
+	}
+
 	private static class Jump {
 
 		private final Instruction source;
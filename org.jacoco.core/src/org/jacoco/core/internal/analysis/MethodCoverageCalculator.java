@@ -12,50 +12,74 @@
 package org.jacoco.core.internal.analysis;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.core.analysis.ISourceNode;
 import org.jacoco.core.internal.analysis.filter.IFilterOutput;
 import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
 
 /**
  * Calculates the filtered coverage of a single method. A instance of this class
  * can be first used as {@link IFilterOutput} before the coverage result is
  * calculated.
+ * 
+ * All instructions are identified by the index of their ASM node within the
+ * {@link InsnList} of the method. As most methods are not affected by any
+ * filter the index is only created when the first filtering command is
+ * received.
  */
 class MethodCoverageCalculator implements IFilterOutput {
 
-	private final Map<AbstractInsnNode, Instruction> instructions;
+	private final InsnList list;
 
-	private final Set<AbstractInsnNode> ignored;
+	private final InstructionsBuilder builder;
+
+	private Instruction[] instructions;
+
+	private boolean[] ignored;
 
 	/**
 	 * Instructions that should be merged form disjoint sets. Coverage
 	 * information from instructions of one set will be merged into
 	 * representative instruction of set.
 	 * 
-	 * Each such set is represented as a singly linked list: each element except
-	 * one references another element from the same set, element without
-	 * reference - is a representative of this set.
+	 * Each such set is represented as a tree: each element except one
+	 * references another element from the same set, the element which
+	 * references itself is the representative of this set.
 	 * 
-	 * This map stores reference (value) for elements of sets (key).
+	 * This array stores the reference for every index. It is only allocated
+	 * when the first merge is requested.
 	 */
-	private final Map<AbstractInsnNode, AbstractInsnNode> merged;
+	private int[] merged;
+
+	private List<AbstractInsnNode> replacementSources;
 
-	private final Map<AbstractInsnNode, Set<AbstractInsnNode>> replacements;
+	private List<Set<AbstractInsnNode>> replacementTargets;
 
-	MethodCoverageCalculator(
-			final Map<AbstractInsnNode, Instruction> instructions) {
-		this.instructions = instructions;
-		this.ignored = new HashSet<AbstractInsnNode>();
-		this.merged = new HashMap<AbstractInsnNode, AbstractInsnNode>();
-		this.replacements = new HashMap<AbstractInsnNode, Set<AbstractInsnNode>>();
+	/**
+	 * Creates a new calculator for the instructions of the given builder.
+	 * 
+	 * @param list
+	 *            ASM instruction nodes of the method or <code>null</code> if
+	 *            the method is not filtered
+	 * @param builder
+	 *            builder which has been used to add all instructions of the
+	 *            method
+	 */
+	MethodCoverageCalculator(final InsnList list,
+			final InstructionsBuilder builder) {
+		this.list = list;
+		this.builder = builder;
+	}
+
+	private void createIndex() {
+		if (instructions == null) {
+			instructions = builder.getInstructions(list);
+			ignored = new boolean[instructions.length];
+		}
 	}
 
 	/**
@@ -66,75 +90,85 @@ class MethodCoverageCalculator implements IFilterOutput {
 	 *            the result is added to this coverage node
 	 */
 	void calculate(final MethodCoverageImpl coverage) {
-		applyMerges();
-		applyReplacements();
-		ensureCapacity(coverage);
-
-		for (final Entry<AbstractInsnNode, Instruction> entry : instructions
-				.entrySet()) {
-			if (!ignored.contains(entry.getKey())) {
-				final Instruction instruction = entry.getValue();
-				coverage.increment(instruction.getInstructionCounter(),
-						instruction.getBranchCounter(), instruction.getLine());
+		final List<Instruction> result;
+		if (instructions == null) {
+			result = builder.getInstructions();
+		} else {
+			applyMerges();
+			applyReplacements();
+			result = new ArrayList<Instruction>(instructions.length);
+			for (int i = 0; i < instructions.length; i++) {
+				final Instruction instruction = instructions[i];
+				if (instruction != null && !ignored[i]) {
+					result.add(instruction);
+				}
 			}
 		}
 
+		ensureCapacity(coverage, result);
+
+		for (final Instruction instruction : result) {
+			coverage.increment(instruction.getInstructionCounter(),
+					instruction.getBranchCounter(), instruction.getLine());
+		}
+
 		coverage.incrementMethodCounter();
 	}
 
 	private void applyMerges() {
+		if (merged == null) {
+			return;
+		}
+
 		// Merge to the representative:
-		for (final Entry<AbstractInsnNode, AbstractInsnNode> entry : merged
-				.entrySet()) {
-			final AbstractInsnNode node = entry.getKey();
-			final Instruction instruction = instructions.get(node);
-			final AbstractInsnNode representativeNode = findRepresentative(
-					node);
-			ignored.add(node);
-			instructions.put(representativeNode,
-					instructions.get(representativeNode).merge(instruction));
-			entry.setValue(representativeNode);
+		for (int i = 0; i < merged.length; i++) {
+			final int r = findRepresentative(i);
+			if (r != i) {
+				ignored[i] = true;
+				instructions[r] = instructions[r].merge(instructions[i]);
+			}
 		}
 
 		// Get merged value back from representative
-		for (final Entry<AbstractInsnNode, AbstractInsnNode> entry : merged
-				.entrySet()) {
-			instructions.put(entry.getKey(),
-					instructions.get(entry.getValue()));
+		for (int i = 0; i < merged.length; i++) {
+			final int r = findRepresentative(i);
+			if (r != i) {
+				instructions[i] = instructions[r];
+			}
 		}
 	}
 
 	private void applyReplacements() {
-		for (final Entry<AbstractInsnNode, Set<AbstractInsnNode>> entry : replacements
-				.entrySet()) {
-			final Set<AbstractInsnNode> replacements = entry.getValue();
+		if (replacementSources == null) {
+			return;
+		}
+		final int size = replacementSources.size();
+		for (int i = 0; i < size; i++) {
+			final Set<AbstractInsnNode> replacements = replacementTargets
+					.get(i);
 			final List<Instruction> newBranches = new ArrayList<Instruction>(
 					replacements.size());
 			for (final AbstractInsnNode b : replacements) {
-				newBranches.add(instructions.get(b));
+				newBranches.add(instructions[list.indexOf(b)]);
 			}
-			final AbstractInsnNode node = entry.getKey();
-			instructions.put(node,
-					instructions.get(node).replaceBranches(newBranches));
+			final int idx = list.indexOf(replacementSources.get(i));
+			instructions[idx] = instructions[idx].replaceBranches(newBranches);
 		}
 	}
 
-	private void ensureCapacity(final MethodCoverageImpl coverage) {
+	private static void ensureCapacity(final MethodCoverageImpl coverage,
+			final List<Instruction> instructions) {
 		// Determine line range:
 		int firstLine = ISourceFileCoverage.UNKNOWN_LINE;
 		int lastLine = ISourceFileCoverage.UNKNOWN_LINE;
-		for (final Entry<AbstractInsnNode, Instruction> entry : instructions
-				.entrySet()) {
-			if (!ignored.contains(entry.getKey())) {
-				final int line = entry.getValue().getLine();
-				if (line != ISourceNode.UNKNOWN_LINE) {
-					if (firstLine > line
-							|| lastLine == ISourceNode.UNKNOWN_LINE) {
-						firstLine = line;
-					}
-					if (lastLine < line) {
-						lastLine = line;
-					}
+		for (final Instruction instruction : instructions) {
+			final int line = instruction.getLine();
+			if (line != ISourceNode.UNKNOWN_LINE) {
+				if (firstLine > line || lastLine == ISourceNode.UNKNOWN_LINE) {
+					firstLine = line;
+				}
+				if (lastLine < line) {
+					lastLine = line;
 				}
 			}
 		}
@@ -143,10 +177,11 @@ class MethodCoverageCalculator implements IFilterOutput {
 		coverage.ensureCapacity(firstLine, lastLine);
 	}
 
-	private AbstractInsnNode findRepresentative(AbstractInsnNode i) {
-		AbstractInsnNode r;
-		while ((r = merged.get(i)) != null) {
-			i = r;
+	private int findRepresentative(int i) {
+		while (merged[i] != i) {
+			// path halving keeps the trees flat
+			merged[i] = merged[merged[i]];
+			i = merged[i];
 		}
 		return i;
 	}
@@ -155,24 +190,37 @@ class MethodCoverageCalculator implements IFilterOutput {
 
 	public void ignore(final AbstractInsnNode fromInclusive,
 			final AbstractInsnNode toInclusive) {
-		for (AbstractInsnNode i = fromInclusive; i != toInclusive; i = i
-				.getNext()) {
-			ignored.add(i);
+		createIndex();
+		final int to = list.indexOf(toInclusive);
+		for (int i = list.indexOf(fromInclusive); i <= to; i++) {
+			ignored[i] = true;
 		}
-		ignored.add(toInclusive);
 	}
 
-	public void merge(AbstractInsnNode i1, AbstractInsnNode i2) {
-		i1 = findRepresentative(i1);
-		i2 = findRepresentative(i2);
-		if (i1 != i2) {
-			merged.put(i2, i1);
+	public void merge(final AbstractInsnNode i1, final AbstractInsnNode i2) {
+		createIndex();
+		if (merged == null) {
+			merged = new int[instructions.length];
+			for (int i = 0; i < merged.length; i++) {
+				merged[i] = i;
+			}
+		}
+		final int r1 = findRepresentative(list.indexOf(i1));
+		final int r2 = findRepresentative(list.indexOf(i2));
+		if (r1 != r2) {
+			merged[r2] = r1;
 		}
 	}
 
 	public void replaceBranches(final AbstractInsnNode source,
 			final Set<AbstractInsnNode> newTargets) {
-		replacements.put(source, newTargets);
+		createIndex();
+		if (replacementSources == null) {
+			replacementSources = new ArrayList<AbstractInsnNode>();
+			replacementTargets = new ArrayList<Set<AbstractInsnNode>>();
+		}
+		replacementSources.add(source);
+		replacementTargets.add(newTargets);
 	}
 
 }
@@ -21,7 +21,19 @@ import org.jacoco.core.analysis.ISourceNode;
  */
 public class SourceNodeImpl extends CoverageNodeImpl implements ISourceNode {
 
-	private LineImpl[] lines;
+	/** largest counter value which fits into a packed line entry */
+	private static final int PACKED_LIMIT = 0xFF;
+
+	/**
+	 * Counter values per line. In packed mode each line uses one entry holding
+	 * missed and covered instructions and missed and covered branches with 8
+	 * bits each. Once a value exceeds {@link #PACKED_LIMIT} the node switches
+	 * to wide mode where each line uses four consecutive entries.
+	 */
+	private int[] lines;
+
+	/** whether {@link #lines} is in wide mode */
+	private boolean wide;
 
 	/** first line number in {@link #lines} */
 	private int offset;
@@ -37,6 +49,7 @@ public class SourceNodeImpl extends CoverageNodeImpl implements ISourceNode {
 	public SourceNodeImpl(final ElementType elementType, final String name) {
 		super(elementType, name);
 		lines = null;
+		wide = false;
 		offset = UNKNOWN_LINE;
 	}
 
@@ -54,17 +67,18 @@ public class SourceNodeImpl extends CoverageNodeImpl implements ISourceNode {
 		if (first == UNKNOWN_LINE || last == UNKNOWN_LINE) {
 			return;
 		}
+		final int stride = wide ? 4 : 1;
 		if (lines == null) {
 			offset = first;
-			lines = new LineImpl[last - first + 1];
+			lines = new int[(last - first + 1) * stride];
 		} else {
 			final int newFirst = Math.min(getFirstLine(), first);
 			final int newLast = Math.max(getLastLine(), last);
-			final int newLength = newLast - newFirst + 1;
+			final int newLength = (newLast - newFirst + 1) * stride;
 			if (newLength > lines.length) {
-				final LineImpl[] newLines = new LineImpl[newLength];
-				System.arraycopy(lines, 0, newLines, offset - newFirst,
-						lines.length);
+				final int[] newLines = new int[newLength];
+				System.arraycopy(lines, 0, newLines,
+						(offset - newFirst) * stride, lines.length);
 				offset = newFirst;
 				lines = newLines;
 			}
@@ -91,10 +105,24 @@ public class SourceNodeImpl extends CoverageNodeImpl implements ISourceNode {
 		if (firstLine != UNKNOWN_LINE) {
 			final int lastLine = child.getLastLine();
 			ensureCapacity(firstLine, lastLine);
-			for (int i = firstLine; i <= lastLine; i++) {
-				final ILine line = child.getLine(i);
-				incrementLine(line.getInstructionCounter(),
-						line.getBranchCounter(), i);
+			if (child instanceof SourceNodeImpl) {
+				final SourceNodeImpl c = (SourceNodeImpl) child;
+				for (int i = firstLine; i <= lastLine; i++) {
+					final int idx = i - c.offset;
+					incrementLine(c.get(idx, 0), c.get(idx, 1),
+							c.get(idx, 2), c.get(idx, 3), i);
+				}
+			} else {
+				for (int i = firstLine; i <= lastLine; i++) {
+					final ILine line = child.getLine(i);
+					final ICounter instructions = line
+							.getInstructionCounter();
+					final ICounter branches = line.getBranchCounter();
+					incrementLine(instructions.getMissedCount(),
+							instructions.getCoveredCount(),
+							branches.getMissedCount(),
+							branches.getCoveredCount(), i);
+				}
 			}
 		}
 	}
@@ -114,23 +142,27 @@ public class SourceNodeImpl extends CoverageNodeImpl implements ISourceNode {
 	public void increment(final ICounter instructions, final ICounter branches,
 			final int line) {
 		if (line != UNKNOWN_LINE) {
-			incrementLine(instructions, branches, line);
+			incrementLine(instructions.getMissedCount(),
+					instructions.getCoveredCount(), branches.getMissedCount(),
+					branches.getCoveredCount(), line);
 		}
 		instructionCounter = instructionCounter.increment(instructions);
 		branchCounter = branchCounter.increment(branches);
 	}
 
-	private void incrementLine(final ICounter instructions,
-			final ICounter branches, final int line) {
+	private void incrementLine(final int im, final int ic, final int bm,
+			final int bc, final int line) {
 		ensureCapacity(line, line);
-		final LineImpl l = getLine(line);
-		final int oldTotal = l.getInstructionCounter().getTotalCount();
-		final int oldCovered = l.getInstructionCounter().getCoveredCount();
-		lines[line - offset] = l.increment(instructions, branches);
+		final int idx = line - offset;
+		final int oldMissed = get(idx, 0);
+		final int oldCovered = get(idx, 1);
+		set(idx, oldMissed + im, oldCovered + ic, get(idx, 2) + bm,
+				get(idx, 3) + bc);
 
 		// Increment line counter:
-		if (instructions.getTotalCount() > 0) {
-			if (instructions.getCoveredCount() == 0) {
+		final int oldTotal = oldMissed + oldCovered;
+		if (im + ic > 0) {
+			if (ic == 0) {
 				if (oldTotal == 0) {
 					lineCounter = lineCounter
 							.increment(CounterImpl.COUNTER_1_0);
@@ -148,6 +180,49 @@ public class SourceNodeImpl extends CoverageNodeImpl implements ISourceNode {
 		}
 	}
 
+	/**
+	 * Reads a single counter value of the line at the given index.
+	 * 
+	 * @param idx
+	 *            line index relative to {@link #offset}
+	 * @param field
+	 *            0: missed instructions, 1: covered instructions, 2: missed
+	 *            branches, 3: covered branches
+	 */
+	private int get(final int idx, final int field) {
+		if (wide) {
+			return lines[idx * 4 + field];
+		}
+		return (lines[idx] >>> (field * 8)) & PACKED_LIMIT;
+	}
+
+	private void set(final int idx, final int im, final int ic, final int bm,
+			final int bc) {
+		if (!wide && (im | ic | bm | bc) > PACKED_LIMIT) {
+			widen();
+		}
+		if (wide) {
+			final int pos = idx * 4;
+			lines[pos] = im;
+			lines[pos + 1] = ic;
+			lines[pos + 2] = bm;
+			lines[pos + 3] = bc;
+		} else {
+			lines[idx] = im | (ic << 8) | (bm << 16) | (bc << 24);
+		}
+	}
+
+	private void widen() {
+		final int[] newLines = new int[lines.length * 4];
+		for (int i = 0; i < lines.length; i++) {
+			for (int field = 0; field < 4; field++) {
+				newLines[i * 4 + field] = get(i, field);
+			}
+		}
+		lines = newLines;
+		wide = true;
+	}
+
 	// === ISourceNode implementation ===
 
 	public int getFirstLine() {
@@ -155,15 +230,19 @@ public class SourceNodeImpl extends CoverageNodeImpl implements ISourceNode {
 	}
 
 	public int getLastLine() {
-		return lines == null ? UNKNOWN_LINE : (offset + lines.length - 1);
+		if (lines == null) {
+			return UNKNOWN_LINE;
+		}
+		return offset + (wide ? lines.length / 4 : lines.length) - 1;
 	}
 
 	public LineImpl getLine(final int nr) {
 		if (lines == null || nr < getFirstLine() || nr > getLastLine()) {
 			return LineImpl.EMPTY;
 		}
-		final LineImpl line = lines[nr - offset];
-		return line == null ? LineImpl.EMPTY : line;
+		final int idx = nr - offset;
+		return LineImpl.getInstance(get(idx, 0), get(idx, 1), get(idx, 2),
+				get(idx, 3));
 	}
 
 }
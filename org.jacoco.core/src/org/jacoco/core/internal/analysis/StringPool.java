@@ -15,6 +15,8 @@ package org.jacoco.core.internal.analysis;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.jacoco.core.analysis.IStringPool;
+
 /**
  * Utility to normalize {@link String} instances in a way that if
  * <code>equals()</code> is <code>true</code> for two strings they will be
@@ -23,7 +25,7 @@ import java.util.Map;
  * effects and is supposed to be faster, as neither native code is called nor
  * synchronization is required for concurrent lookup.
  */
-public final class StringPool {
+public final class StringPool implements IStringPool {
 
 	private static final String[] EMPTY_ARRAY = new String[0];
 
@@ -11,51 +11,225 @@
  *******************************************************************************/
 package org.jacoco.core.internal.analysis.filter;
 
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TypeInsnNode;
 
 /**
- * Filter that combines other filters.
+ * Filter that combines other filters. Every filter is registered with the
+ * features a class and a method must have so that the filter can match at all.
+ * These features are determined once per class and once per method, so that
+ * every method is only dispatched to the filters relevant for it. A filter
+ * only requires features it checks itself, therefore the dispatching does not
+ * change the result of any filter. Methods for which no filter is relevant can
+ * be detected upfront with {@link #canMatch(MethodNode, IFilterContext)}.
+ * Instances are not thread safe.
  */
 public final class Filters implements IFilter {
 
 	/**
 	 * Filter that does nothing.
 	 */
-	public static final IFilter NONE = new Filters();
+	public static final Filters NONE = new Filters();
 
-	private final IFilter[] filters;
+	/** Class has been compiled by the Kotlin compiler. */
+	private static final int KOTLIN = 1;
+
+	/** Class is an enum. */
+	private static final int ENUM = 1 << 2;
+
+	/** Class or method has annotations. */
+	private static final int ANNOTATED = 1 << 3;
+
+	/** Class has a SourceDebugExtension attribute. */
+	private static final int SOURCE_DEBUG = 1 << 4;
+
+	/** Method is synthetic. */
+	private static final int SYNTHETIC = 1 << 5;
+
+	/** Method is a constructor. */
+	private static final int CONSTRUCTOR = 1 << 6;
+
+	/** Method has try-catch blocks. */
+	private static final int TRY_CATCH = 1 << 7;
+
+	/** Method contains a switch instruction. */
+	private static final int SWITCH = 1 << 8;
+
+	/** Method contains a MONITOREXIT instruction. */
+	private static final int MONITOREXIT = 1 << 9;
+
+	/** Method creates instances or calls methods of Kotlin runtime types. */
+	private static final int KOTLIN_RUNTIME = 1 << 10;
+
+	private final Entry[] entries;
+
+	private IFilterContext currentContext;
+
+	private int classFeatures;
 
 	/**
 	 * Creates filter that combines all other filters.
 	 * 
 	 * @return filter that combines all other filters
 	 */
-	public static IFilter all() {
-		return new Filters(new EnumFilter(), new SyntheticFilter(),
-				new SynchronizedFilter(), new TryWithResourcesJavac11Filter(),
-				new TryWithResourcesJavacFilter(),
-				new TryWithResourcesEcjFilter(), new FinallyFilter(),
-				new PrivateEmptyNoArgConstructorFilter(),
-				new StringSwitchJavacFilter(), new StringSwitchEcjFilter(),
-				new EnumEmptyConstructorFilter(),
-				new AnnotationGeneratedFilter(), new KotlinGeneratedFilter(),
-				new KotlinLateinitFilter(), new KotlinWhenFilter(),
-				new KotlinWhenStringFilter(),
-				new KotlinUnsafeCastOperatorFilter(),
-				new KotlinNotNullOperatorFilter(),
-				new KotlinDefaultArgumentsFilter(), new KotlinInlineFilter(),
-				new KotlinCoroutineFilter());
-	}
-
-	private Filters(final IFilter... filters) {
-		this.filters = filters;
+	public static Filters all() {
+		return new Filters(
+				new Entry(new EnumFilter(), ENUM),
+				new Entry(new SyntheticFilter(), SYNTHETIC),
+				new Entry(new SynchronizedFilter(), TRY_CATCH | MONITOREXIT),
+				new Entry(new TryWithResourcesJavac11Filter(), TRY_CATCH),
+				new Entry(new TryWithResourcesJavacFilter(), TRY_CATCH),
+				new Entry(new TryWithResourcesEcjFilter(), TRY_CATCH),
+				new Entry(new FinallyFilter(), TRY_CATCH),
+				new Entry(new PrivateEmptyNoArgConstructorFilter(),
+						CONSTRUCTOR),
+				new Entry(new StringSwitchJavacFilter(), SWITCH),
+				new Entry(new StringSwitchEcjFilter(), SWITCH),
+				new Entry(new EnumEmptyConstructorFilter(), ENUM | CONSTRUCTOR),
+				new Entry(new AnnotationGeneratedFilter(), ANNOTATED),
+				new Entry(new KotlinGeneratedFilter(), KOTLIN),
+				new Entry(new KotlinLateinitFilter(), KOTLIN_RUNTIME),
+				new Entry(new KotlinWhenFilter(), KOTLIN_RUNTIME),
+				new Entry(new KotlinWhenStringFilter(), SWITCH),
+				new Entry(new KotlinUnsafeCastOperatorFilter(), KOTLIN_RUNTIME),
+				new Entry(new KotlinNotNullOperatorFilter(), KOTLIN_RUNTIME),
+				new Entry(new KotlinDefaultArgumentsFilter(),
+						KOTLIN | SYNTHETIC),
+				new Entry(new KotlinInlineFilter(), KOTLIN | SOURCE_DEBUG),
+				new Entry(new KotlinCoroutineFilter(), KOTLIN | SWITCH));
+	}
+
+	private Filters(final Entry... entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * Checks whether any of the combined filters might produce output for the
+	 * given method. If not, the method does not need to be filtered at all.
+	 * 
+	 * @param methodNode
+	 *            method to check
+	 * @param context
+	 *            context information for the method
+	 * @return <code>true</code> if the method has to be filtered
+	 */
+	public boolean canMatch(final MethodNode methodNode,
+			final IFilterContext context) {
+		if (entries.length == 0) {
+			return false;
+		}
+		final int features = getFeatures(methodNode, context);
+		for (final Entry entry : entries) {
+			if (entry.matches(features)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	public void filter(final MethodNode methodNode,
 			final IFilterContext context, final IFilterOutput output) {
-		for (final IFilter filter : filters) {
-			filter.filter(methodNode, context, output);
+		if (entries.length == 0) {
+			return;
 		}
+		final int features = getFeatures(methodNode, context);
+		for (final Entry entry : entries) {
+			if (entry.matches(features)) {
+				entry.filter.filter(methodNode, context, output);
+			}
+		}
+	}
+
+	private int getFeatures(final MethodNode methodNode,
+			final IFilterContext context) {
+		return getClassFeatures(context) | getMethodFeatures(methodNode);
+	}
+
+	private int getClassFeatures(final IFilterContext context) {
+		if (context != currentContext) {
+			currentContext = context;
+			int features = 0;
+			if (KotlinGeneratedFilter.isKotlinClass(context)) {
+				features |= KOTLIN;
+			}
+			if ("java/lang/Enum".equals(context.getSuperClassName())) {
+				features |= ENUM;
+			}
+			if (!context.getClassAnnotations().isEmpty()) {
+				features |= ANNOTATED;
+			}
+			if (context.getSourceDebugExtension() != null) {
+				features |= SOURCE_DEBUG;
+			}
+			classFeatures = features;
+		}
+		return classFeatures;
+	}
+
+	private static int getMethodFeatures(final MethodNode methodNode) {
+		int features = 0;
+		if ((methodNode.access & Opcodes.ACC_SYNTHETIC) != 0) {
+			features |= SYNTHETIC;
+		}
+		if ("<init>".equals(methodNode.name)) {
+			features |= CONSTRUCTOR;
+		}
+		if (methodNode.visibleAnnotations != null
+				|| methodNode.invisibleAnnotations != null) {
+			features |= ANNOTATED;
+		}
+		if (!methodNode.tryCatchBlocks.isEmpty()) {
+			features |= TRY_CATCH;
+		}
+		for (AbstractInsnNode i = methodNode.instructions
+				.getFirst(); i != null; i = i.getNext()) {
+			switch (i.getOpcode()) {
+			case Opcodes.TABLESWITCH:
+			case Opcodes.LOOKUPSWITCH:
+				features |= SWITCH;
+				break;
+			case Opcodes.MONITOREXIT:
+				features |= MONITOREXIT;
+				break;
+			case Opcodes.NEW:
+				if (isKotlinRuntime(((TypeInsnNode) i).desc)) {
+					features |= KOTLIN_RUNTIME;
+				}
+				break;
+			case Opcodes.INVOKESTATIC:
+				if (isKotlinRuntime(((MethodInsnNode) i).owner)) {
+					features |= KOTLIN_RUNTIME;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return features;
+	}
+
+	private static boolean isKotlinRuntime(final String type) {
+		return type.startsWith("kotlin/");
+	}
+
+	private static class Entry {
+
+		final IFilter filter;
+
+		final int requirements;
+
+		Entry(final IFilter filter, final int requirements) {
+			this.filter = filter;
+			this.requirements = requirements;
+		}
+
+		boolean matches(final int features) {
+			return (requirements & features) == requirements;
+		}
+
 	}
 
 }
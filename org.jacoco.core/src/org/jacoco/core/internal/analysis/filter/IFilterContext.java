@@ -45,4 +45,15 @@ public interface IFilterContext {
 	 */
 	String getSourceDebugExtension();
 
+	/**
+	 * Returns the parsed Kotlin stratum of the SourceDebugExtension attribute.
+	 * The attribute is parsed only once per class.
+	 * 
+	 * @return parsed SourceDebugExtension attribute or <code>null</code> if
+	 *         not available
+	 * @throws IllegalStateException
+	 *             if the attribute is not a valid Kotlin SMAP
+	 */
+	KotlinSMAP getKotlinSMAP();
+
 }
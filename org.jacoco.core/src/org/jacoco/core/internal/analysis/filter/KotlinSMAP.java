@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Evgeny Mandrikov - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.core.internal.analysis.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed Kotlin stratum of a SourceDebugExtension attribute as specified in
+ * JSR-45. The attribute is parsed with a simple scanner and the result is
+ * intended to be computed only once per class.
+ */
+public final class KotlinSMAP {
+
+	/**
+	 * Mapping of a range of input lines to output lines.
+	 */
+	public static final class Mapping {
+
+		private final String inputFileName;
+
+		private final String inputClassName;
+
+		private final int inputStartLine;
+
+		private final int repeatCount;
+
+		private final int outputStartLine;
+
+		Mapping(final String inputFileName, final String inputClassName,
+				final int inputStartLine, final int repeatCount,
+				final int outputStartLine) {
+			this.inputFileName = inputFileName;
+			this.inputClassName = inputClassName;
+			this.inputStartLine = inputStartLine;
+			this.repeatCount = repeatCount;
+			this.outputStartLine = outputStartLine;
+		}
+
+		/**
+		 * @return name of the input source file
+		 */
+		public String inputFileName() {
+			return inputFileName;
+		}
+
+		/**
+		 * @return vm name of the input class
+		 */
+		public String inputClassName() {
+			return inputClassName;
+		}
+
+		/**
+		 * @return first line of the range in the input source file
+		 */
+		public int inputStartLine() {
+			return inputStartLine;
+		}
+
+		/**
+		 * @return number of lines of the range
+		 */
+		public int repeatCount() {
+			return repeatCount;
+		}
+
+		/**
+		 * @return first line of the range in the output class
+		 */
+		public int outputStartLine() {
+			return outputStartLine;
+		}
+
+	}
+
+	private final List<Mapping> mappings;
+
+	/**
+	 * Parses the given SourceDebugExtension attribute.
+	 * 
+	 * @param sourceFileName
+	 *            name of the source file of the class the attribute belongs
+	 *            to
+	 * @param smap
+	 *            value of the SourceDebugExtension attribute
+	 * @throws IllegalStateException
+	 *             if the attribute can't be parsed
+	 */
+	public KotlinSMAP(final String sourceFileName, final String smap) {
+		final Scanner scanner = new Scanner(smap);
+		scanner.expectLine("SMAP");
+		// OutputFileName
+		scanner.expectLine(sourceFileName);
+		// DefaultStratumId
+		scanner.expectLine("Kotlin");
+		// StratumSection
+		scanner.expectLine("*S Kotlin");
+		// FileSection
+		scanner.expectLine("*F");
+		final List<String> fileNames = new ArrayList<String>();
+		final List<String> classNames = new ArrayList<String>();
+		boolean sourceFileFound = false;
+		while (!scanner.nextLineIs("*L")) {
+			// FileInfo
+			scanner.expect('+');
+			scanner.expect(' ');
+			final int fileId = scanner.number();
+			scanner.expect(' ');
+			final String fileName = scanner.rest();
+			// AbsoluteFileName
+			scanner.nextLine();
+			final String className = scanner.line();
+			while (fileNames.size() <= fileId) {
+				fileNames.add(null);
+				classNames.add(null);
+			}
+			fileNames.set(fileId, fileName);
+			classNames.set(fileId, className);
+			sourceFileFound |= fileName.equals(sourceFileName);
+		}
+		if (!sourceFileFound) {
+			throw new IllegalStateException("Unexpected SMAP FileSection");
+		}
+		// LineSection
+		final List<Mapping> mappings = new ArrayList<Mapping>();
+		int fileId = 0;
+		while (!scanner.nextLineIs("*E")) {
+			// LineInfo
+			final int inputStartLine = scanner.number();
+			if (scanner.accept('#')) {
+				fileId = scanner.number();
+			}
+			int repeatCount = 1;
+			if (scanner.accept(',')) {
+				repeatCount = scanner.number();
+			}
+			scanner.expect(':');
+			final int outputStartLine = scanner.number();
+			if (scanner.accept(',')) {
+				// OutputLineIncrement
+				scanner.number();
+			}
+			scanner.expectLineEnd();
+			if (fileId >= fileNames.size() || fileNames.get(fileId) == null) {
+				scanner.fail();
+			}
+			mappings.add(new Mapping(fileNames.get(fileId),
+					classNames.get(fileId), inputStartLine, repeatCount,
+					outputStartLine));
+		}
+		this.mappings = Collections.unmodifiableList(mappings);
+	}
+
+	/**
+	 * @return all mappings of the LineSection in the order of the attribute
+	 */
+	public List<Mapping> mappings() {
+		return mappings;
+	}
+
+	/**
+	 * Line based scanner over the attribute value.
+	 */
+	private static final class Scanner {
+
+		private final String s;
+
+		/** Start of the next line, or -1 at the end of the content */
+		private int next;
+
+		/** Start of the current line, or -1 at the end of the content */
+		private int start;
+
+		/** End of the current line */
+		private int end;
+
+		/** Position within the current line */
+		private int pos;
+
+		Scanner(final String s) {
+			this.s = s;
+			this.next = 0;
+		}
+
+		void nextLine() {
+			start = next;
+			if (start == -1 || start == s.length()) {
+				start = -1;
+				fail();
+			}
+			end = start;
+			while (end < s.length() && s.charAt(end) != '\n'
+					&& s.charAt(end) != '\r') {
+				end++;
+			}
+			next = end;
+			if (next < s.length() && s.charAt(next++) == '\r'
+					&& next < s.length() && s.charAt(next) == '\n') {
+				next++;
+			}
+			pos = start;
+		}
+
+		boolean nextLineIs(final String expected) {
+			nextLine();
+			return end - start == expected.length()
+					&& s.regionMatches(start, expected, 0, expected.length());
+		}
+
+		void expectLine(final String expected) {
+			if (!nextLineIs(expected)) {
+				fail();
+			}
+		}
+
+		boolean accept(final char c) {
+			if (pos < end && s.charAt(pos) == c) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		void expect(final char c) {
+			if (!accept(c)) {
+				fail();
+			}
+		}
+
+		int number() {
+			final int begin = pos;
+			int value = 0;
+			while (pos < end) {
+				final char c = s.charAt(pos);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				value = value * 10 + (c - '0');
+				pos++;
+			}
+			if (pos == begin) {
+				fail();
+			}
+			return value;
+		}
+
+		String rest() {
+			if (pos == end) {
+				fail();
+			}
+			final String rest = s.substring(pos, end);
+			pos = end;
+			return rest;
+		}
+
+		String line() {
+			return s.substring(start, end);
+		}
+
+		void expectLineEnd() {
+			if (pos != end) {
+				fail();
+			}
+		}
+
+		void fail() {
+			final String line = start == -1 ? null : line();
+			throw new IllegalStateException("Unexpected SMAP line: " + line);
+		}
+
+	}
+
+}
@@ -11,6 +11,9 @@
  *******************************************************************************/
 package org.jacoco.core.internal.data;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import org.objectweb.asm.Opcodes;
 
 /**
@@ -28,6 +31,12 @@ public final class CRC64 {
 
 	private static final long[] LOOKUPTABLE;
 
+	/**
+	 * Additional tables for the "slicing-by-8" algorithm: T[k][i] is the
+	 * checksum of byte i followed by k zero bytes.
+	 */
+	private static final long[] T1, T2, T3, T4, T5, T6, T7;
+
 	static {
 		LOOKUPTABLE = new long[0x100];
 		for (int i = 0; i < 0x100; i++) {
@@ -41,6 +50,22 @@ public final class CRC64 {
 			}
 			LOOKUPTABLE[i] = v;
 		}
+		T1 = slice(LOOKUPTABLE);
+		T2 = slice(T1);
+		T3 = slice(T2);
+		T4 = slice(T3);
+		T5 = slice(T4);
+		T6 = slice(T5);
+		T7 = slice(T6);
+	}
+
+	private static long[] slice(final long[] previous) {
+		final long[] table = new long[0x100];
+		for (int i = 0; i < 0x100; i++) {
+			final long v = previous[i];
+			table[i] = (v >>> 8) ^ LOOKUPTABLE[(int) v & 0xff];
+		}
+		return table;
 	}
 
 	/**
@@ -57,6 +82,23 @@ public final class CRC64 {
 		return (sum >>> 8) ^ LOOKUPTABLE[lookupidx];
 	}
 
+	/**
+	 * Updates given checksum by the given 8 bytes in little endian order.
+	 *
+	 * @param sum
+	 *            initial checksum value
+	 * @param word
+	 *            next 8 bytes, the first byte in the lowest bits
+	 * @return updated checksum value
+	 */
+	private static long updateWord(final long sum, final long word) {
+		final long x = sum ^ word;
+		return T7[(int) x & 0xff] ^ T6[(int) (x >>> 8) & 0xff]
+				^ T5[(int) (x >>> 16) & 0xff] ^ T4[(int) (x >>> 24) & 0xff]
+				^ T3[(int) (x >>> 32) & 0xff] ^ T2[(int) (x >>> 40) & 0xff]
+				^ T1[(int) (x >>> 48) & 0xff] ^ LOOKUPTABLE[(int) (x >>> 56)];
+	}
+
 	/**
 	 * Updates given checksum by bytes from given array.
 	 *
@@ -72,12 +114,53 @@ public final class CRC64 {
 	 */
 	private static long update(long sum, final byte[] bytes,
 			final int fromIndexInclusive, final int toIndexExclusive) {
-		for (int i = fromIndexInclusive; i < toIndexExclusive; i++) {
+		int i = fromIndexInclusive;
+		for (final int end = toIndexExclusive - 7; i < end; i += 8) {
+			sum = updateWord(sum, (bytes[i] & 0xffL)
+					| (bytes[i + 1] & 0xffL) << 8
+					| (bytes[i + 2] & 0xffL) << 16
+					| (bytes[i + 3] & 0xffL) << 24
+					| (bytes[i + 4] & 0xffL) << 32
+					| (bytes[i + 5] & 0xffL) << 40
+					| (bytes[i + 6] & 0xffL) << 48
+					| (bytes[i + 7] & 0xffL) << 56);
+		}
+		for (; i < toIndexExclusive; i++) {
 			sum = update(sum, bytes[i]);
 		}
 		return sum;
 	}
 
+	/**
+	 * Updates given checksum by the remaining bytes of the given buffer. The
+	 * position of the buffer is moved to its limit.
+	 *
+	 * @param sum
+	 *            initial checksum value
+	 * @param buffer
+	 *            buffer to update the checksum with
+	 * @return updated checksum value
+	 */
+	private static long update(long sum, final ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			sum = update(sum, buffer.array(), offset + buffer.position(),
+					offset + buffer.limit());
+			buffer.position(buffer.limit());
+			return sum;
+		}
+		final ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.remaining() >= 8) {
+			sum = updateWord(sum, buffer.getLong());
+		}
+		buffer.order(order);
+		while (buffer.hasRemaining()) {
+			sum = update(sum, buffer.get());
+		}
+		return sum;
+	}
+
 	/**
 	 * Calculates class identifier for the given class bytes.
 	 *
@@ -86,18 +169,122 @@ public final class CRC64 {
 	 * @return class identifier
 	 */
 	public static long classId(final byte[] bytes) {
-		if (bytes.length > 7 && bytes[6] == 0x00 && bytes[7] == Opcodes.V9) {
+		return classId(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Calculates class identifier for the class bytes in the given range of an
+	 * array.
+	 *
+	 * @param bytes
+	 *            array containing the class bytes
+	 * @param offset
+	 *            offset of the first class byte in the array
+	 * @param length
+	 *            number of class bytes
+	 * @return class identifier
+	 */
+	public static long classId(final byte[] bytes, final int offset,
+			final int length) {
+		final int end = offset + length;
+		if (length > 7 && bytes[offset + 6] == 0x00
+				&& bytes[offset + 7] == Opcodes.V9) {
 			// To support early versions of Java 9 we did a trick - change of
 			// Java 9 class files version on Java 8. Unfortunately this also
 			// affected class identifiers.
-			long sum = update(0, bytes, 0, 7);
+			long sum = update(0, bytes, offset, offset + 7);
 			sum = update(sum, (byte) Opcodes.V1_8);
-			return update(sum, bytes, 8, bytes.length);
+			return update(sum, bytes, offset + 8, end);
 		}
-		return update(0, bytes, 0, bytes.length);
+		return update(0, bytes, offset, end);
 	}
 
-	private CRC64() {
+	/**
+	 * Calculates class identifier for the remaining class bytes of the given
+	 * buffer. The position of the buffer is not modified.
+	 *
+	 * @param buffer
+	 *            buffer containing the class bytes
+	 * @return class identifier
+	 */
+	public static long classId(final ByteBuffer buffer) {
+		final CRC64 crc = new CRC64();
+		crc.update(buffer.duplicate());
+		return crc.getClassId();
+	}
+
+	private final byte[] head = new byte[8];
+
+	private int headLength;
+
+	private long sum;
+
+	/**
+	 * Creates a new calculator which computes the class identifier
+	 * incrementally while the class bytes are read. The result is the same as
+	 * for {@link #classId(byte[])} on the concatenation of all updates.
+	 */
+	public CRC64() {
+		headLength = 0;
+		sum = 0;
+	}
+
+	/**
+	 * Updates the class identifier with the given bytes.
+	 *
+	 * @param bytes
+	 *            array containing the class bytes
+	 * @param offset
+	 *            offset of the first byte in the array
+	 * @param length
+	 *            number of bytes to process
+	 */
+	public void update(final byte[] bytes, int offset, int length) {
+		while (headLength < head.length && length > 0) {
+			head[headLength++] = bytes[offset++];
+			length--;
+			if (headLength == head.length) {
+				updateHead();
+			}
+		}
+		sum = update(sum, bytes, offset, offset + length);
+	}
+
+	/**
+	 * Updates the class identifier with the remaining bytes of the given
+	 * buffer. The position of the buffer is moved to its limit.
+	 *
+	 * @param buffer
+	 *            buffer containing the class bytes
+	 */
+	public void update(final ByteBuffer buffer) {
+		while (headLength < head.length && buffer.hasRemaining()) {
+			head[headLength++] = buffer.get();
+			if (headLength == head.length) {
+				updateHead();
+			}
+		}
+		sum = update(sum, buffer);
+	}
+
+	private void updateHead() {
+		if (head[6] == 0x00 && head[7] == Opcodes.V9) {
+			// Same workaround for early Java 9 class files as in classId()
+			head[7] = (byte) Opcodes.V1_8;
+		}
+		sum = update(0, head, 0, head.length);
+	}
+
+	/**
+	 * Returns the class identifier for all bytes processed so far.
+	 *
+	 * @return class identifier
+	 */
+	public long getClassId() {
+		if (headLength < head.length) {
+			return update(0, head, 0, headLength);
+		}
+		return sum;
 	}
 
 }
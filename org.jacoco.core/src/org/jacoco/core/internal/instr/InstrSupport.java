@@ -271,14 +271,38 @@ public final class InstrSupport {
 	 * @return {@link ClassReader}
 	 */
 	public static ClassReader classReaderFor(final byte[] b) {
-		final int originalVersion = getMajorVersion(b);
+		return classReaderFor(b, 0, b.length);
+	}
+
+	/**
+	 * Creates a {@link ClassReader} instance for bytes of class in the given
+	 * range of an array even if its version not yet supported by ASM.
+	 *
+	 * @param b
+	 *            array containing the bytes of class
+	 * @param offset
+	 *            offset of the first byte of class in the array
+	 * @param length
+	 *            number of bytes of class
+	 * @return {@link ClassReader}
+	 */
+	public static ClassReader classReaderFor(final byte[] b, final int offset,
+			final int length) {
+		final int originalVersion = ((b[offset + 6] & 0xFF) << 8)
+				| (b[offset + 7] & 0xFF);
 		if (originalVersion == Opcodes.V13 + 1) {
 			// temporarily downgrade version to bypass check in ASM
-			setMajorVersion(Opcodes.V13, b);
+			setMajorVersion(Opcodes.V13, b, offset);
 		}
-		final ClassReader classReader = new ClassReader(b);
-		setMajorVersion(originalVersion, b);
+		final ClassReader classReader = new ClassReader(b, offset, length);
+		setMajorVersion(originalVersion, b, offset);
 		return classReader;
 	}
 
+	private static void setMajorVersion(final int majorVersion, final byte[] b,
+			final int offset) {
+		b[offset + 6] = (byte) (majorVersion >>> 8);
+		b[offset + 7] = (byte) majorVersion;
+	}
+
 }
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
+import org.jacoco.core.internal.analysis.PackageCoverageImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BundleCollector}.
+ */
+public class BundleCollectorTest {
+
+	private IBundleCoverage bundle;
+
+	private ISourceFileLocator locator;
+
+	private IReportGroupVisitor visitor;
+
+	@Before
+	public void setup() {
+		locator = new DirectorySourceFileLocator(null, "UTF-8", 4);
+		visitor = new IReportGroupVisitor() {
+			public void visitBundle(final IBundleCoverage bundle,
+					final ISourceFileLocator l) {
+				assertNull(BundleCollectorTest.this.bundle);
+				assertSame(locator, l);
+				BundleCollectorTest.this.bundle = bundle;
+			}
+
+			public IReportGroupVisitor visitGroup(final String name) {
+				throw new AssertionError();
+			}
+		};
+	}
+
+	@Test
+	public void visitBundle_should_collect_packages_for_other_visitors()
+			throws IOException {
+		final IPackageCoverage p1 = createPackage("p1", 1);
+		final IPackageCoverage p2 = createPackage("p2", 2);
+
+		final IReportBundleVisitor bundleVisitor = BundleCollector
+				.visitBundle(visitor, "bundle", locator);
+		bundleVisitor.visitPackage(p1);
+		bundleVisitor.visitPackage(p2);
+		assertNull(bundle);
+		bundleVisitor.visitEnd();
+
+		assertEquals(ElementType.BUNDLE, bundle.getElementType());
+		assertEquals("bundle", bundle.getName());
+		assertEquals(Arrays.asList(p1, p2), bundle.getPackages());
+		assertEquals(CounterImpl.getInstance(0, 3),
+				bundle.getInstructionCounter());
+		assertEquals(CounterImpl.getInstance(0, 2), bundle.getClassCounter());
+	}
+
+	@Test
+	public void visitBundle_should_pass_packages_to_streaming_visitors()
+			throws IOException {
+		final IReportBundleVisitor expected = new BundleCollector(visitor,
+				"bundle", locator);
+		final IStreamingGroupVisitor streaming = new IStreamingGroupVisitor() {
+			public IReportBundleVisitor visitBundle(final String name,
+					final ISourceFileLocator l) {
+				assertEquals("bundle", name);
+				assertSame(locator, l);
+				return expected;
+			}
+
+			public void visitBundle(final IBundleCoverage bundle,
+					final ISourceFileLocator l) {
+				throw new AssertionError();
+			}
+
+			public IReportGroupVisitor visitGroup(final String name) {
+				throw new AssertionError();
+			}
+		};
+
+		assertSame(expected,
+				BundleCollector.visitBundle(streaming, "bundle", locator));
+	}
+
+	@Test
+	public void visitEnd_should_emit_empty_bundle() throws IOException {
+		new BundleCollector(visitor, "empty", locator).visitEnd();
+
+		assertEquals("empty", bundle.getName());
+		assertTrue(bundle.getPackages().isEmpty());
+		assertEquals(CounterImpl.COUNTER_0_0, bundle.getInstructionCounter());
+	}
+
+	private IPackageCoverage createPackage(final String name,
+			final int instructions) {
+		final MethodCoverageImpl m = new MethodCoverageImpl("m", "()V", null);
+		m.increment(CounterImpl.getInstance(0, instructions),
+				CounterImpl.COUNTER_0_0, 1);
+		m.incrementMethodCounter();
+		final ClassCoverageImpl c = new ClassCoverageImpl(name + "/A", 1,
+				false);
+		c.addMethod(m);
+		return new PackageCoverageImpl(name,
+				Collections.<IClassCoverage> singletonList(c),
+				Collections.<ISourceFileCoverage> emptyList());
+	}
+
+}
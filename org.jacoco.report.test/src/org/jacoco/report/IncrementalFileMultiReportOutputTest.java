@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jacoco.core.internal.ContentBuffer;
+import org.jacoco.report.html.HTMLFormatter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link IncrementalFileMultiReportOutput}.
+ */
+public class IncrementalFileMultiReportOutputTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File root;
+
+	@Before
+	public void setup() {
+		root = folder.getRoot();
+	}
+
+	@Test
+	public void should_write_all_files_initially() throws IOException {
+		final IMultiReportOutput output = new IncrementalFileMultiReportOutput(
+				root);
+		write(output, "a/b/c/test", 1, 2, 3);
+		output.close();
+
+		assertContent("a/b/c/test", 1, 2, 3);
+		assertTrue(new File(root, IncrementalFileMultiReportOutput.MANIFEST)
+				.isFile());
+	}
+
+	@Test
+	public void should_skip_unchanged_files() throws IOException {
+		IMultiReportOutput output = new IncrementalFileMultiReportOutput(root);
+		write(output, "a/same", 1, 2, 3);
+		write(output, "a/changed", 1, 2, 3);
+		output.close();
+		// Modify files without changing their size to detect rewrites:
+		overwrite("a/same", 7, 7, 7);
+		overwrite("a/changed", 7, 7, 7);
+
+		output = new IncrementalFileMultiReportOutput(root);
+		write(output, "a/same", 1, 2, 3);
+		write(output, "a/changed", 1, 2, 4);
+		output.close();
+
+		assertContent("a/same", 7, 7, 7);
+		assertContent("a/changed", 1, 2, 4);
+	}
+
+	@Test
+	public void should_rewrite_files_with_different_size() throws IOException {
+		IMultiReportOutput output = new IncrementalFileMultiReportOutput(root);
+		write(output, "file", 1, 2, 3);
+		output.close();
+		overwrite("file", 1, 2);
+
+		output = new IncrementalFileMultiReportOutput(root);
+		write(output, "file", 1, 2, 3);
+		output.close();
+
+		assertContent("file", 1, 2, 3);
+	}
+
+	@Test
+	public void should_rewrite_deleted_files() throws IOException {
+		IMultiReportOutput output = new IncrementalFileMultiReportOutput(root);
+		write(output, "file", 1, 2, 3);
+		output.close();
+		new File(root, "file").delete();
+
+		output = new IncrementalFileMultiReportOutput(root);
+		write(output, "file", 1, 2, 3);
+		output.close();
+
+		assertContent("file", 1, 2, 3);
+	}
+
+	@Test
+	public void should_delete_stale_files_and_empty_folders()
+			throws IOException {
+		IMultiReportOutput output = new IncrementalFileMultiReportOutput(root);
+		write(output, "a/b/stale", 1);
+		write(output, "a/keep", 2);
+		output.close();
+
+		output = new IncrementalFileMultiReportOutput(root);
+		write(output, "a/keep", 2);
+		output.close();
+
+		assertFalse(new File(root, "a/b").exists());
+		assertContent("a/keep", 2);
+	}
+
+	@Test
+	public void should_reject_manifest_with_files_outside_of_basedir()
+			throws IOException {
+		final File outside = folder.newFile("outside");
+		root = new File(folder.getRoot(), "report");
+		IMultiReportOutput output = new IncrementalFileMultiReportOutput(root);
+		write(output, "a/test", 1, 2, 3);
+		output.close();
+		final OutputStream manifest = new FileOutputStream(
+				new File(root, IncrementalFileMultiReportOutput.MANIFEST),
+				true);
+		manifest.write("0000 3 ../outside\n".getBytes("UTF-8"));
+		manifest.close();
+
+		try {
+			new IncrementalFileMultiReportOutput(root);
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertTrue(e.getMessage(), e.getMessage()
+					.startsWith("Invalid path ../outside in report manifest"));
+		}
+		assertTrue(outside.isFile());
+	}
+
+	@Test
+	public void should_write_all_files_after_aborted_report()
+			throws IOException {
+		IMultiReportOutput output = new IncrementalFileMultiReportOutput(root);
+		write(output, "file", 1, 2, 3);
+		output.close();
+
+		// aborted report, not closed
+		output = new IncrementalFileMultiReportOutput(root);
+		write(output, "file", 4, 5, 6);
+		overwrite("file", 7, 7, 7);
+
+		output = new IncrementalFileMultiReportOutput(root);
+		write(output, "file", 1, 2, 3);
+		output.close();
+
+		assertContent("file", 1, 2, 3);
+	}
+
+	@Test
+	public void should_create_same_html_report_as_full_output()
+			throws IOException {
+		final ReportStructureTestDriver driver = new ReportStructureTestDriver();
+		final File full = new File(root, "full");
+		final File incremental = new File(root, "incremental");
+
+		driver.sendNestedGroups(new HTMLFormatter()
+				.createVisitor(new FileMultiReportOutput(full)));
+		driver.sendNestedGroups(new HTMLFormatter().createVisitor(
+				new IncrementalFileMultiReportOutput(incremental)));
+		driver.sendNestedGroups(new HTMLFormatter().createVisitor(
+				new IncrementalFileMultiReportOutput(incremental)));
+
+		for (final String file : new String[] { "index.html",
+				"jacoco-resources/report.css", "bundle/index.html",
+				"bundle/org.jacoco.example/FooClass.html",
+				"bundle/org.jacoco.example/FooClass.java.html" }) {
+			assertArrayEquals(file, read(new File(full, file)),
+					read(new File(incremental, file)));
+		}
+	}
+
+	private void write(final IMultiReportOutput output, final String path,
+			final int... content) throws IOException {
+		final OutputStream out = output.createFile(path);
+		for (final int b : content) {
+			out.write(b);
+		}
+		out.close();
+	}
+
+	private void overwrite(final String path, final int... content)
+			throws IOException {
+		final OutputStream out = new FileOutputStream(new File(root, path));
+		for (final int b : content) {
+			out.write(b);
+		}
+		out.close();
+	}
+
+	private void assertContent(final String path, final int... content)
+			throws IOException {
+		final byte[] expected = new byte[content.length];
+		for (int i = 0; i < content.length; i++) {
+			expected[i] = (byte) content[i];
+		}
+		assertArrayEquals(expected, read(new File(root, path)));
+	}
+
+	private static byte[] read(final File file) throws IOException {
+		final InputStream in = new FileInputStream(file);
+		try {
+			final ContentBuffer buffer = new ContentBuffer();
+			buffer.readFully(in);
+			return buffer.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+}
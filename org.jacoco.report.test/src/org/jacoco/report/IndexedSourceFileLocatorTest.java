@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link IndexedSourceFileLocator}.
+ */
+public class IndexedSourceFileLocatorTest {
+
+	@Rule
+	public final TemporaryFolder sourceFolder = new TemporaryFolder();
+
+	private IndexedSourceFileLocator locator;
+
+	@Before
+	public void setup() {
+		locator = new IndexedSourceFileLocator("UTF-8", 4);
+	}
+
+	@After
+	public void teardown() throws IOException {
+		locator.close();
+	}
+
+	@Test
+	public void testGetSourceFileNegative() throws IOException {
+		locator.addDirectory(sourceFolder.getRoot());
+		assertNull(locator.getSourceFile("org/jacoco/example",
+				"DoesNotExist.java"));
+	}
+
+	@Test
+	public void testGetTabWidth() {
+		assertEquals(4, locator.getTabWidth());
+	}
+
+	@Test
+	public void testGetSourceFileFromDirectory() throws IOException {
+		createFile("src/org/jacoco/example/Test.java", "Source");
+		createFile("src/Default.java", "Default");
+		locator.addDirectory(new File(sourceFolder.getRoot(), "src"));
+
+		assertEquals(2, locator.getSize());
+		assertContent("Source",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+		assertContent("Default", locator.getSourceFile("", "Default.java"));
+	}
+
+	@Test
+	public void testSymbolicLinkCycle() throws Exception {
+		createFile("src/org/jacoco/example/Test.java", "Source");
+		final File link = new File(sourceFolder.getRoot(),
+				"src/org/jacoco/example/cycle");
+		createSymbolicLink(new File(sourceFolder.getRoot(), "src/org"), link);
+		locator.addDirectory(new File(sourceFolder.getRoot(), "src"));
+
+		assertEquals(1, locator.getSize());
+		assertContent("Source",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+	}
+
+	@Test
+	public void testSymbolicLinkToOtherDirectory() throws Exception {
+		createFile("shared/Shared.java", "Shared");
+		createSymbolicLink(new File(sourceFolder.getRoot(), "shared"),
+				new File(sourceFolder.getRoot(), "src/org/jacoco"));
+		locator.addDirectory(new File(sourceFolder.getRoot(), "src"));
+
+		assertEquals(1, locator.getSize());
+		assertContent("Shared",
+				locator.getSourceFile("org/jacoco", "Shared.java"));
+	}
+
+	@Test
+	public void testIgnoreMissingDirectory() throws IOException {
+		locator.addDirectory(new File(sourceFolder.getRoot(), "missing"));
+		assertEquals(0, locator.getSize());
+	}
+
+	@Test
+	public void testGetSourceFileFromArchive() throws IOException {
+		final File archive = createArchive("sources.jar",
+				"org/jacoco/example/Test.java", "Archived");
+		locator.add(archive);
+
+		assertEquals(1, locator.getSize());
+		assertContent("Archived",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+		assertContent("Archived",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+	}
+
+	@Test
+	public void testFirstRootTakesPrecedence() throws IOException {
+		createFile("a/org/jacoco/example/Test.java", "A");
+		createFile("b/org/jacoco/example/Test.java", "B");
+		createFile("b/org/jacoco/example/Other.java", "Other");
+		final File archive = createArchive("sources.jar",
+				"org/jacoco/example/Test.java", "Archived");
+		locator.add(new File(sourceFolder.getRoot(), "a"));
+		locator.add(archive);
+		locator.add(new File(sourceFolder.getRoot(), "b"));
+
+		assertEquals(2, locator.getSize());
+		assertContent("A",
+				locator.getSourceFile("org/jacoco/example", "Test.java"));
+		assertContent("Other",
+				locator.getSourceFile("org/jacoco/example", "Other.java"));
+	}
+
+	private static void createSymbolicLink(final File target, final File link)
+			throws Exception {
+		link.getParentFile().mkdirs();
+		int result;
+		try {
+			result = new ProcessBuilder("ln", "-s", target.getAbsolutePath(),
+					link.getAbsolutePath()).start().waitFor();
+		} catch (final IOException e) {
+			result = -1;
+		}
+		assumeTrue(result == 0);
+	}
+
+	private void createFile(String path, String content) throws IOException {
+		final File file = new File(sourceFolder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		final Writer writer = new OutputStreamWriter(
+				new FileOutputStream(file), "UTF-8");
+		writer.write(content);
+		writer.close();
+	}
+
+	private File createArchive(String name, String path, String content)
+			throws IOException {
+		final File file = new File(sourceFolder.getRoot(), name);
+		final ZipOutputStream zip = new ZipOutputStream(
+				new FileOutputStream(file));
+		zip.putNextEntry(new ZipEntry("org/"));
+		zip.putNextEntry(new ZipEntry(path));
+		zip.write(content.getBytes("UTF-8"));
+		zip.close();
+		return file;
+	}
+
+	private void assertContent(String expected, Reader source)
+			throws IOException {
+		assertNotNull(source);
+		final BufferedReader buffer = new BufferedReader(source);
+		assertEquals(expected, buffer.readLine());
+		assertNull(buffer.readLine());
+		buffer.close();
+	}
+
+}
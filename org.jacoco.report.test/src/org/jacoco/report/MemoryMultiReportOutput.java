@@ -22,9 +22,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,7 +35,7 @@ import java.util.Set;
  */
 public class MemoryMultiReportOutput implements IMultiReportOutput {
 
-	private final Map<String, ByteArrayOutputStream> files = new HashMap<String, ByteArrayOutputStream>();
+	private final Map<String, ByteArrayOutputStream> files = new LinkedHashMap<String, ByteArrayOutputStream>();
 
 	private final Set<String> open = new HashSet<String>();
 
@@ -61,6 +63,10 @@ public class MemoryMultiReportOutput implements IMultiReportOutput {
 		assertEquals(Collections.emptySet(), files.keySet());
 	}
 
+	public List<String> getFileNames() {
+		return new ArrayList<String>(files.keySet());
+	}
+
 	public void assertFile(String path) {
 		assertNotNull(String.format("Missing file %s. Actual files are %s.",
 				path, files.keySet()), files.get(path));
@@ -22,10 +22,13 @@ import java.util.Collections;
 import java.util.List;
 
 import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.SessionInfo;
 import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.jacoco.core.internal.analysis.PackageCoverageImpl;
 import org.junit.Test;
 
 /**
@@ -62,7 +65,7 @@ public class MultiReportVisitorTest {
 
 	}
 
-	private static class MockGroupVisitor implements IReportGroupVisitor {
+	private static class MockGroupVisitor implements IStreamingGroupVisitor {
 
 		private final String name;
 
@@ -77,6 +80,22 @@ public class MultiReportVisitorTest {
 			children.add(new MockGroupVisitor(bundle.getName()));
 		}
 
+		public IReportBundleVisitor visitBundle(String name,
+				ISourceFileLocator locator) throws IOException {
+			final MockGroupVisitor child = new MockGroupVisitor(name);
+			children.add(child);
+			return new IReportBundleVisitor() {
+				public void visitPackage(IPackageCoverage coverage)
+						throws IOException {
+					child.children.add(new MockGroupVisitor(coverage.getName()));
+				}
+
+				public void visitEnd() throws IOException {
+					child.children.add(new MockGroupVisitor("end"));
+				}
+			};
+		}
+
 		public IReportGroupVisitor visitGroup(String name) throws IOException {
 			MockGroupVisitor child = new MockGroupVisitor(name);
 			children.add(child);
@@ -94,7 +113,7 @@ public class MultiReportVisitorTest {
 		return new BundleCoverageImpl(name, packages);
 	}
 
-	private static final String MOCK_REPORT = "Report[g1[b1[], b2[]], g2[]]";
+	private static final String MOCK_REPORT = "Report[g1[b1[], b2[]], g2[b3[p1[], end[]]]]";
 
 	private void createMockReport(IReportVisitor visitor) throws IOException {
 		final List<SessionInfo> sessions = Collections.emptyList();
@@ -103,7 +122,13 @@ public class MultiReportVisitorTest {
 		IReportGroupVisitor g1 = visitor.visitGroup("g1");
 		g1.visitBundle(createBundle("b1"), null);
 		g1.visitBundle(createBundle("b2"), null);
-		visitor.visitGroup("g2");
+		IReportGroupVisitor g2 = visitor.visitGroup("g2");
+		IReportBundleVisitor b3 = ((IStreamingGroupVisitor) g2).visitBundle(
+				"b3", null);
+		b3.visitPackage(new PackageCoverageImpl("p1",
+				Collections.<IClassCoverage> emptyList(),
+				Collections.<ISourceFileCoverage> emptyList()));
+		b3.visitEnd();
 		visitor.visitEnd();
 	}
 
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.jacoco.core.internal.ContentBuffer;
+import org.jacoco.report.html.HTMLFormatter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ParallelZipMultiReportOutput}.
+ */
+public class ParallelZipMultiReportOutputTest {
+
+	private static final long TIME;
+
+	static {
+		final Calendar c = Calendar.getInstance();
+		c.clear();
+		c.set(2019, Calendar.MARCH, 14, 15, 9, 26);
+		TIME = c.getTimeInMillis();
+	}
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void should_write_entries_in_order_of_closing()
+			throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final IMultiReportOutput output = new ParallelZipMultiReportOutput(
+				buffer, 2, TIME);
+		final OutputStream a = output.createFile("a.txt");
+		final OutputStream b = output.createFile("dir/b.txt");
+		b.write("HelloZip".getBytes("UTF-8"));
+		b.close();
+		a.write(1);
+		a.close();
+		output.createFile("empty.txt").close();
+		output.close();
+
+		final ZipInputStream zip = new ZipInputStream(
+				new ByteArrayInputStream(buffer.toByteArray()));
+		assertEntry(zip, "dir/b.txt", "HelloZip".getBytes("UTF-8"));
+		assertEntry(zip, "a.txt", new byte[] { 1 });
+		assertEntry(zip, "empty.txt", new byte[0]);
+		assertNull(zip.getNextEntry());
+	}
+
+	@Test
+	public void should_write_central_directory() throws IOException {
+		final File file = folder.newFile("report.zip");
+		final List<String> names = new ArrayList<String>();
+		final IMultiReportOutput output = new ParallelZipMultiReportOutput(
+				new FileOutputStream(file), 3, TIME);
+		for (int i = 0; i < 100; i++) {
+			final String name = "p" + i + "/\u00e4\u0800" + i + ".html";
+			names.add(name);
+			final OutputStream out = output.createFile(name);
+			out.write(content(i));
+			out.close();
+		}
+		output.close();
+
+		final ZipFile zip = new ZipFile(file);
+		try {
+			final List<String> actual = new ArrayList<String>();
+			final Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				final ZipEntry entry = entries.nextElement();
+				actual.add(entry.getName());
+				assertEquals(TIME, entry.getTime());
+				final int i = names.indexOf(entry.getName());
+				assertEquals(content(i).length, entry.getSize());
+				assertArrayEquals(content(i), read(zip.getInputStream(entry)));
+			}
+			assertEquals(names, actual);
+		} finally {
+			zip.close();
+		}
+	}
+
+	@Test
+	public void should_create_identical_archives_for_same_time()
+			throws IOException {
+		final ReportStructureTestDriver driver = new ReportStructureTestDriver();
+		final byte[][] archives = new byte[2][];
+		for (int i = 0; i < archives.length; i++) {
+			final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			final HTMLFormatter formatter = new HTMLFormatter();
+			formatter.setThreads(3);
+			driver.sendNestedGroups(formatter.createVisitor(
+					new ParallelZipMultiReportOutput(buffer, 3, TIME)));
+			archives[i] = buffer.toByteArray();
+		}
+
+		assertArrayEquals(archives[0], archives[1]);
+	}
+
+	@Test
+	public void should_contain_same_entries_as_sequential_archive()
+			throws IOException {
+		final ReportStructureTestDriver driver = new ReportStructureTestDriver();
+		final ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+		driver.sendNestedGroups(new HTMLFormatter()
+				.createVisitor(new ZipMultiReportOutput(sequential)));
+		final ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+		driver.sendNestedGroups(new HTMLFormatter().createVisitor(
+				new ParallelZipMultiReportOutput(parallel, 4)));
+
+		final ZipInputStream expected = new ZipInputStream(
+				new ByteArrayInputStream(sequential.toByteArray()));
+		final ZipInputStream actual = new ZipInputStream(
+				new ByteArrayInputStream(parallel.toByteArray()));
+		ZipEntry entry;
+		while ((entry = expected.getNextEntry()) != null) {
+			assertEntry(actual, entry.getName(), read(expected));
+		}
+		assertNull(actual.getNextEntry());
+	}
+
+	@Test
+	public void should_use_1980_for_earlier_times() throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final IMultiReportOutput output = new ParallelZipMultiReportOutput(
+				buffer, 1, 0);
+		output.createFile("a.txt").close();
+		output.close();
+
+		final ZipInputStream zip = new ZipInputStream(
+				new ByteArrayInputStream(buffer.toByteArray()));
+		final Calendar c = Calendar.getInstance();
+		c.setTimeInMillis(zip.getNextEntry().getTime());
+		assertEquals(1980, c.get(Calendar.YEAR));
+		assertNull(zip.getNextEntry());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_should_reject_invalid_number_of_threads() {
+		new ParallelZipMultiReportOutput(new ByteArrayOutputStream(), 0);
+	}
+
+	private static byte[] content(final int i) {
+		final byte[] content = new byte[i * 997];
+		for (int j = 0; j < content.length; j++) {
+			content[j] = (byte) (j % (i + 7));
+		}
+		return content;
+	}
+
+	private static void assertEntry(final ZipInputStream zip,
+			final String name, final byte[] content) throws IOException {
+		final ZipEntry entry = zip.getNextEntry();
+		assertEquals(name, entry.getName());
+		assertArrayEquals(name, content, read(zip));
+	}
+
+	private static byte[] read(final InputStream in) throws IOException {
+		final ContentBuffer buffer = new ContentBuffer();
+		buffer.readFully(in);
+		return buffer.toByteArray();
+	}
+
+}
@@ -145,4 +145,29 @@ public class ReportStructureTestDriver {
 		groupVisitor.visitBundle(bundleCoverage, sourceFileLocator);
 	}
 
+	public void sendStreamedGroup(IReportVisitor reportVisitor)
+			throws IOException {
+		reportVisitor.visitInfo(sessions, executionData);
+		final IReportGroupVisitor group = reportVisitor.visitGroup("group");
+		sendStreamedBundle(group);
+		reportVisitor.visitEnd();
+	}
+
+	public void sendStreamedBundle(IReportVisitor reportVisitor)
+			throws IOException {
+		reportVisitor.visitInfo(sessions, executionData);
+		sendStreamedBundle((IReportGroupVisitor) reportVisitor);
+		reportVisitor.visitEnd();
+	}
+
+	public void sendStreamedBundle(IReportGroupVisitor groupVisitor)
+			throws IOException {
+		final IReportBundleVisitor bundleVisitor = BundleCollector.visitBundle(
+				groupVisitor, bundleCoverage.getName(), sourceFileLocator);
+		for (final IPackageCoverage p : bundleCoverage.getPackages()) {
+			bundleVisitor.visitPackage(p);
+		}
+		bundleVisitor.visitEnd();
+	}
+
 }
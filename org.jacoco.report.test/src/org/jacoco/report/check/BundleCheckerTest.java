@@ -118,6 +118,63 @@ public class BundleCheckerTest implements IViolationsOutput {
 		assertEquals(Collections.emptyList(), messages);
 	}
 
+	@Test
+	public void testParallelPackagesReportedInOrder() {
+		addRule(ElementType.CLASS);
+		addRule(ElementType.METHOD);
+		final String[] packageNames = new String[50];
+		final List<String> expected = new ArrayList<String>();
+		for (int i = 0; i < packageNames.length; i++) {
+			packageNames[i] = "p" + i;
+			expected.add("Rule violated for class p" + i
+					+ ".FooClass: instructions covered ratio is 0.50, but expected minimum is 0.75");
+			expected.add("Rule violated for method p" + i
+					+ ".FooClass.fooMethod(): instructions covered ratio is 0.50, but expected minimum is 0.75");
+		}
+		final BundleChecker checker = new BundleChecker(rules, names, this, 4,
+				false);
+		checker.checkBundle(createBundle(packageNames));
+		assertEquals(expected, messages);
+	}
+
+	@Test
+	public void testFailFast() {
+		addRule(ElementType.BUNDLE);
+		addRule(ElementType.CLASS);
+		final BundleChecker checker = new BundleChecker(rules, names, this, 1,
+				true);
+		checker.checkBundle(createBundle("p0", "p1"));
+		assertMessage("Rule violated for bundle Test: instructions covered ratio is 0.50, but expected minimum is 0.75");
+	}
+
+	@Test
+	public void testFailFastParallel() {
+		addRule(ElementType.CLASS);
+		addRule(ElementType.SOURCEFILE);
+		final String[] packageNames = new String[50];
+		for (int i = 0; i < packageNames.length; i++) {
+			packageNames[i] = "p" + i;
+		}
+		final BundleChecker checker = new BundleChecker(rules, names, this, 4,
+				true);
+		checker.checkBundle(createBundle(packageNames));
+		assertMessage("Rule violated for class p0.FooClass: instructions covered ratio is 0.50, but expected minimum is 0.75");
+	}
+
+	@Test
+	public void testFailFastStreamed() {
+		addRule(ElementType.PACKAGE);
+		addRule(ElementType.BUNDLE);
+		final IBundleCoverage bundle = createBundle("p0", "p1", "p2");
+		final BundleChecker checker = new BundleChecker(rules, names, this, 2,
+				true);
+		for (IPackageCoverage p : bundle.getPackages()) {
+			checker.checkPackage(p);
+		}
+		checker.checkBundleNode(bundle);
+		assertMessage("Rule violated for package p0: instructions covered ratio is 0.50, but expected minimum is 0.75");
+	}
+
 	private Rule addRule(ElementType elementType) {
 		final Rule rule = new Rule();
 		rule.setElement(elementType);
@@ -128,24 +185,32 @@ public class BundleCheckerTest implements IViolationsOutput {
 	}
 
 	private IBundleCoverage createBundle() {
-		final MethodCoverageImpl m = new MethodCoverageImpl("fooMethod", "()V",
-				null);
-		m.increment(CounterImpl.getInstance(5, 5), CounterImpl.COUNTER_0_0, 1);
-		m.incrementMethodCounter();
-
-		final ClassCoverageImpl c = new ClassCoverageImpl(
-				"org/jacoco/example/FooClass", 1001, false);
-		c.setSourceFileName("FooClass.java");
-		c.addMethod(m);
-
-		final SourceFileCoverageImpl s = new SourceFileCoverageImpl(
-				"FooClass.java", "org/jacoco/example");
-		s.increment(c);
-
-		IPackageCoverage p = new PackageCoverageImpl("org/jacoco/example",
-				Collections.singleton((IClassCoverage) c),
-				Collections.singleton((ISourceFileCoverage) s));
-		return new BundleCoverageImpl("Test", Collections.singleton(p));
+		return createBundle("org/jacoco/example");
+	}
+
+	private IBundleCoverage createBundle(String... packageNames) {
+		final List<IPackageCoverage> packages = new ArrayList<IPackageCoverage>();
+		for (String packageName : packageNames) {
+			final MethodCoverageImpl m = new MethodCoverageImpl("fooMethod",
+					"()V", null);
+			m.increment(CounterImpl.getInstance(5, 5), CounterImpl.COUNTER_0_0,
+					1);
+			m.incrementMethodCounter();
+
+			final ClassCoverageImpl c = new ClassCoverageImpl(
+					packageName + "/FooClass", 1001, false);
+			c.setSourceFileName("FooClass.java");
+			c.addMethod(m);
+
+			final SourceFileCoverageImpl s = new SourceFileCoverageImpl(
+					"FooClass.java", packageName);
+			s.increment(c);
+
+			packages.add(new PackageCoverageImpl(packageName,
+					Collections.singleton((IClassCoverage) c),
+					Collections.singleton((ISourceFileCoverage) s)));
+		}
+		return new BundleCoverageImpl("Test", packages);
 	}
 
 	private void assertMessage(String expected) {
@@ -43,6 +43,18 @@ public class RuleTest {
 		assertEquals("", rule.getExcludes());
 	}
 
+	@Test
+	public void testDefaultPatterns() {
+		assertTrue(rule.matches("Foo"));
+		assertFalse(rule.matches(""));
+		rule.setExcludes("Foo*");
+		rule.setExcludes("");
+		assertTrue(rule.matches("FooBar"));
+		rule.setIncludes("Foo*");
+		rule.setIncludes("*");
+		assertTrue(rule.matches("Other"));
+	}
+
 	@Test
 	public void testSetElement() {
 		rule.setElement(ElementType.PACKAGE);
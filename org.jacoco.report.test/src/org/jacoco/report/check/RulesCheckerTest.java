@@ -55,6 +55,64 @@ public class RulesCheckerTest implements IViolationsOutput {
 				messages);
 	}
 
+	@Test
+	public void testStreamedBundle() throws IOException {
+		Rule bundleRule = new Rule();
+		Limit bundleLimit = bundleRule.createLimit();
+		bundleLimit.setValue(CounterValue.MISSEDCOUNT.name());
+		bundleLimit.setMaximum("5");
+		Rule classRule = new Rule();
+		classRule.setElement(ElementType.CLASS);
+		Limit classLimit = classRule.createLimit();
+		classLimit.setValue(CounterValue.MISSEDCOUNT.name());
+		classLimit.setMaximum("5");
+		checker.setRules(Arrays.asList(bundleRule, classRule));
+		driver.sendStreamedGroup(checker.createVisitor(this));
+		assertEquals(Arrays.asList(
+				"Rule violated for class org.jacoco.example.FooClass: instructions missed count is 10, but expected maximum is 5",
+				"Rule violated for bundle bundle: instructions missed count is 10, but expected maximum is 5"),
+				messages);
+	}
+
+	@Test
+	public void testSetThreads() throws IOException {
+		Rule rule = new Rule();
+		rule.setElement(ElementType.CLASS);
+		Limit limit = rule.createLimit();
+		limit.setValue(CounterValue.MISSEDCOUNT.name());
+		limit.setMaximum("5");
+		checker.setRules(Arrays.asList(rule));
+		checker.setThreads(3);
+		driver.sendStreamedGroup(checker.createVisitor(this));
+		assertEquals(Arrays.asList(
+				"Rule violated for class org.jacoco.example.FooClass: instructions missed count is 10, but expected maximum is 5"),
+				messages);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetInvalidThreads() {
+		checker.setThreads(0);
+	}
+
+	@Test
+	public void testSetFailFast() throws IOException {
+		Rule bundleRule = new Rule();
+		Limit bundleLimit = bundleRule.createLimit();
+		bundleLimit.setValue(CounterValue.MISSEDCOUNT.name());
+		bundleLimit.setMaximum("5");
+		Rule classRule = new Rule();
+		classRule.setElement(ElementType.CLASS);
+		Limit classLimit = classRule.createLimit();
+		classLimit.setValue(CounterValue.MISSEDCOUNT.name());
+		classLimit.setMaximum("5");
+		checker.setRules(Arrays.asList(bundleRule, classRule));
+		checker.setFailFast(true);
+		driver.sendStreamedGroup(checker.createVisitor(this));
+		assertEquals(Arrays.asList(
+				"Rule violated for class org.jacoco.example.FooClass: instructions missed count is 10, but expected maximum is 5"),
+				messages);
+	}
+
 	@Test
 	public void testSetLanguageNames() throws IOException {
 		Rule rule = new Rule();
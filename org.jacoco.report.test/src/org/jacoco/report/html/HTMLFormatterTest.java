@@ -97,6 +97,71 @@ public class HTMLFormatterTest {
 		output.assertNoFile("empty/Empty.java.html");
 	}
 
+	@Test
+	public void should_render_streamed_bundle_like_complete_bundle()
+			throws IOException {
+		driver.sendBundle(formatter.createVisitor(output));
+		final MemoryMultiReportOutput expected = output;
+
+		output = new MemoryMultiReportOutput();
+		driver.sendStreamedBundle(formatter.createVisitor(output));
+
+		for (final String file : new String[] { "index.html",
+				"org.jacoco.example/index.html",
+				"org.jacoco.example/FooClass.html" }) {
+			assertEquals(file, new String(expected.getFile(file), "UTF-8"),
+					new String(output.getFile(file), "UTF-8"));
+		}
+		output.assertNoFile("empty/index.html");
+	}
+
+	@Test
+	public void should_render_streamed_bundle_in_group_like_complete_bundle()
+			throws IOException {
+		driver.sendGroup(formatter.createVisitor(output));
+		final MemoryMultiReportOutput expected = output;
+
+		output = new MemoryMultiReportOutput();
+		driver.sendStreamedGroup(formatter.createVisitor(output));
+
+		for (final String file : new String[] { "index.html",
+				"bundle/index.html", "bundle/org.jacoco.example/index.html" }) {
+			assertEquals(file, new String(expected.getFile(file), "UTF-8"),
+					new String(output.getFile(file), "UTF-8"));
+		}
+	}
+
+	@Test
+	public void should_create_same_report_with_multiple_threads()
+			throws IOException {
+		driver.sendNestedGroups(formatter.createVisitor(output));
+		final MemoryMultiReportOutput expected = output;
+
+		output = new MemoryMultiReportOutput();
+		formatter = new HTMLFormatter();
+		formatter.setThreads(4);
+		driver.sendNestedGroups(formatter.createVisitor(output));
+
+		for (final String file : new String[] { "index.html",
+				"jacoco-sessions.html", "bundle/index.html",
+				"bundle/org.jacoco.example/index.html",
+				"bundle/org.jacoco.example/index.source.html",
+				"bundle/org.jacoco.example/FooClass.html",
+				"bundle/org.jacoco.example/FooClass.java.html",
+				"group1/group/bundle/org.jacoco.example/FooClass.html",
+				"group1/group/bundle/org.jacoco.example/FooClass.java.html" }) {
+			assertEquals(file, new String(expected.getFile(file), "UTF-8"),
+					new String(output.getFile(file), "UTF-8"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setThreads_should_reject_invalid_number_of_threads()
+			throws IOException {
+		output.close();
+		formatter.setThreads(0);
+	}
+
 	@Test
 	public void testDefaultEncoding() throws Exception {
 		driver.sendBundle(formatter.createVisitor(output));
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.report.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
+import org.jacoco.core.internal.analysis.PackageCoverageImpl;
+import org.jacoco.report.IReportBundleVisitor;
+import org.jacoco.report.ISourceFileLocator;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AbstractGroupVisitor}.
+ */
+public class AbstractGroupVisitorTest {
+
+	private List<String> events;
+
+	private GroupVisitor visitor;
+
+	private IPackageCoverage p;
+
+	@Before
+	public void setup() {
+		events = new ArrayList<String>();
+		visitor = new GroupVisitor("group");
+		final MethodCoverageImpl m = new MethodCoverageImpl("m", "()V", null);
+		m.increment(CounterImpl.getInstance(1, 2), CounterImpl.COUNTER_0_0,
+				1);
+		final ClassCoverageImpl c = new ClassCoverageImpl("p/A", 1, false);
+		c.addMethod(m);
+		p = new PackageCoverageImpl("p",
+				Collections.<IClassCoverage> singletonList(c),
+				Collections.<ISourceFileCoverage> emptyList());
+	}
+
+	@Test
+	public void visitBundle_should_collect_packages_if_not_streamed()
+			throws IOException {
+		final IReportBundleVisitor bundleVisitor = visitor.visitBundle("b1",
+				null);
+		bundleVisitor.visitPackage(p);
+		bundleVisitor.visitEnd();
+		visitor.visitEnd();
+
+		assertEquals("[bundle b1 [p], end]", events.toString());
+		assertEquals(CounterImpl.getInstance(1, 2),
+				visitor.total.getInstructionCounter());
+	}
+
+	@Test
+	public void visitBundle_should_pass_packages_to_streaming_handler()
+			throws IOException {
+		visitor.streaming = true;
+		final IReportBundleVisitor bundleVisitor = visitor.visitBundle("b1",
+				null);
+		bundleVisitor.visitPackage(p);
+		bundleVisitor.visitEnd();
+		visitor.visitEnd();
+
+		assertEquals("[start b1, package p, end b1, end]", events.toString());
+		assertEquals(CounterImpl.getInstance(1, 2),
+				visitor.total.getInstructionCounter());
+	}
+
+	private class GroupVisitor extends AbstractGroupVisitor {
+
+		boolean streaming;
+
+		GroupVisitor(final String name) {
+			super(name);
+		}
+
+		@Override
+		protected void handleBundle(final IBundleCoverage bundle,
+				final ISourceFileLocator locator) {
+			final List<String> names = new ArrayList<String>();
+			for (final IPackageCoverage p : bundle.getPackages()) {
+				names.add(p.getName());
+			}
+			events.add("bundle " + bundle.getName() + " " + names);
+		}
+
+		@Override
+		protected IReportBundleVisitor handleBundle(final String name,
+				final ISourceFileLocator locator) throws IOException {
+			if (!streaming) {
+				return super.handleBundle(name, locator);
+			}
+			events.add("start " + name);
+			return new IReportBundleVisitor() {
+				public void visitPackage(final IPackageCoverage coverage) {
+					events.add("package " + coverage.getName());
+				}
+
+				public void visitEnd() {
+					events.add("end " + name);
+				}
+			};
+		}
+
+		@Override
+		protected AbstractGroupVisitor handleGroup(final String name) {
+			return new GroupVisitor(name);
+		}
+
+		@Override
+		protected void handleEnd() {
+			events.add("end");
+		}
+
+	}
+
+}
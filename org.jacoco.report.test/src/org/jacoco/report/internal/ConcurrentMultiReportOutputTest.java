@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.jacoco.report.MemoryMultiReportOutput;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConcurrentMultiReportOutput}.
+ */
+public class ConcurrentMultiReportOutputTest {
+
+	private MemoryMultiReportOutput delegate;
+
+	private ConcurrentMultiReportOutput output;
+
+	@Before
+	public void setup() {
+		delegate = new MemoryMultiReportOutput();
+		output = new ConcurrentMultiReportOutput(delegate);
+	}
+
+	@Test
+	public void should_write_file_when_closed() throws IOException {
+		final OutputStream out = output.createFile("a.txt");
+		out.write(new byte[] { 1, 2, 3 });
+		delegate.assertNoFile("a.txt");
+
+		out.close();
+		out.close();
+
+		assertArrayEquals(new byte[] { 1, 2, 3 }, delegate.getFile("a.txt"));
+		output.close();
+		delegate.assertAllClosed();
+	}
+
+	@Test
+	public void should_allow_interleaved_files() throws IOException {
+		final OutputStream a = output.createFile("a.txt");
+		final OutputStream b = output.createFile("b.txt");
+		a.write(1);
+		b.write(2);
+		a.write(3);
+		b.close();
+		a.close();
+		output.close();
+
+		assertArrayEquals(new byte[] { 1, 3 }, delegate.getFile("a.txt"));
+		assertArrayEquals(new byte[] { 2 }, delegate.getFile("b.txt"));
+		delegate.assertAllClosed();
+	}
+
+	@Test
+	public void should_write_files_in_order_of_creation() throws IOException {
+		final OutputStream a = output.createFile("a.txt");
+		final OutputStream b = output.createFile("b.txt");
+		final OutputStream c = output.createFile("c.txt");
+		c.close();
+		b.close();
+		delegate.assertEmpty();
+
+		a.close();
+
+		assertEquals(Arrays.asList("a.txt", "b.txt", "c.txt"),
+				delegate.getFileNames());
+		output.close();
+	}
+
+	@Test
+	public void close_should_discard_unclosed_files() throws IOException {
+		output.createFile("a.txt");
+		output.createFile("b.txt").close();
+		output.close();
+
+		assertEquals(Arrays.asList("b.txt"), delegate.getFileNames());
+		delegate.assertAllClosed();
+	}
+
+}
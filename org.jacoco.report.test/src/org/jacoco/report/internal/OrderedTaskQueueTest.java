@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link OrderedTaskQueue}.
+ */
+public class OrderedTaskQueueTest {
+
+	private OrderedTaskQueue<Integer> queue;
+
+	private CountDownLatch blocker;
+
+	@Before
+	public void setup() {
+		queue = new OrderedTaskQueue<Integer>("test", 2);
+		blocker = new CountDownLatch(1);
+	}
+
+	@After
+	public void teardown() {
+		blocker.countDown();
+		queue.shutdown();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_should_reject_invalid_number_of_threads() {
+		new OrderedTaskQueue<Integer>("test", 0);
+	}
+
+	@Test
+	public void next_should_return_results_in_submission_order()
+			throws IOException {
+		for (int i = 0; i < 4; i++) {
+			queue.submit(task(i, 10 * (4 - i)));
+		}
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(Integer.valueOf(i), queue.next());
+		}
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void isFull_should_return_true_with_two_tasks_per_thread() {
+		for (int i = 0; i < 3; i++) {
+			queue.submit(blockingTask());
+			assertFalse(queue.isFull());
+		}
+		queue.submit(blockingTask());
+
+		assertTrue(queue.isFull());
+		assertFalse(queue.isNextDone());
+	}
+
+	@Test
+	public void isNextDone_should_return_false_for_empty_queue() {
+		assertFalse(queue.isNextDone());
+	}
+
+	@Test
+	public void next_should_throw_IOException_of_task() {
+		final IOException exception = new IOException("test");
+		queue.submit(new Callable<Integer>() {
+			public Integer call() throws IOException {
+				throw exception;
+			}
+		});
+
+		try {
+			queue.next();
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void next_should_throw_RuntimeException_of_task()
+			throws IOException {
+		final RuntimeException exception = new IllegalStateException("test");
+		queue.submit(new Callable<Integer>() {
+			public Integer call() {
+				throw exception;
+			}
+		});
+
+		try {
+			queue.next();
+			fail("RuntimeException expected");
+		} catch (final RuntimeException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void next_should_wrap_checked_exception_of_task() {
+		final Exception exception = new Exception("test");
+		queue.submit(new Callable<Integer>() {
+			public Integer call() throws Exception {
+				throw exception;
+			}
+		});
+
+		try {
+			queue.next();
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+
+	@Test
+	public void shutdown_should_discard_pending_tasks() {
+		queue.submit(blockingTask());
+		queue.submit(blockingTask());
+
+		queue.shutdown();
+
+		assertTrue(queue.isEmpty());
+	}
+
+	private static Callable<Integer> task(final int result, final long delay) {
+		return new Callable<Integer>() {
+			public Integer call() throws InterruptedException {
+				Thread.sleep(delay);
+				return Integer.valueOf(result);
+			}
+		};
+	}
+
+	private Callable<Integer> blockingTask() {
+		return new Callable<Integer>() {
+			public Integer call() throws InterruptedException {
+				blocker.await();
+				return Integer.valueOf(0);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RenderQueue}.
+ */
+public class RenderQueueTest {
+
+	@Test
+	public void single_thread_should_execute_task_immediately()
+			throws IOException {
+		final RenderQueue queue = new RenderQueue(1);
+		final Thread caller = Thread.currentThread();
+		final Thread[] executor = new Thread[1];
+
+		queue.submit(new Callable<Void>() {
+			public Void call() {
+				executor[0] = Thread.currentThread();
+				return null;
+			}
+		});
+
+		assertFalse(queue.isConcurrent());
+		assertSame(caller, executor[0]);
+		queue.await();
+	}
+
+	@Test
+	public void await_should_wait_for_all_tasks() throws IOException {
+		final RenderQueue queue = new RenderQueue(3);
+		final AtomicInteger counter = new AtomicInteger();
+
+		for (int i = 0; i < 100; i++) {
+			queue.submit(new Callable<Void>() {
+				public Void call() throws InterruptedException {
+					Thread.sleep(1);
+					counter.incrementAndGet();
+					return null;
+				}
+			});
+		}
+		queue.await();
+
+		assertTrue(queue.isConcurrent());
+		assertEquals(100, counter.get());
+	}
+
+	@Test
+	public void await_should_report_failure_of_task() {
+		final RenderQueue queue = new RenderQueue(2);
+		final IOException expected = new IOException("failed");
+
+		try {
+			queue.submit(new Callable<Void>() {
+				public Void call() throws IOException {
+					throw expected;
+				}
+			});
+			queue.await();
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertSame(expected, e);
+		}
+	}
+
+	@Test
+	public void single_thread_should_report_failure_immediately() {
+		final RenderQueue queue = new RenderQueue(1);
+		final IOException expected = new IOException("failed");
+
+		try {
+			queue.submit(new Callable<Void>() {
+				public Void call() throws IOException {
+					throw expected;
+				}
+			});
+			fail("IOException expected");
+		} catch (final IOException e) {
+			assertSame(expected, e);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_should_reject_invalid_number_of_threads() {
+		new RenderQueue(0);
+	}
+
+}
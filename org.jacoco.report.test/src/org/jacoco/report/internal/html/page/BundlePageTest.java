@@ -74,6 +74,35 @@ public class BundlePageTest extends PageTestBase {
 				support.findStr(doc, "count(/html/body/table[1]/tbody/tr)"));
 	}
 
+	@Test
+	public void addPackage_should_render_package_immediately()
+			throws Exception {
+		final ClassCoverageImpl classCoverage = new ClassCoverageImpl(
+				"example/Class", 0, false);
+		final MethodCoverageImpl methodCoverage = new MethodCoverageImpl("m",
+				"()V", null);
+		methodCoverage.increment(CounterImpl.COUNTER_1_0,
+				CounterImpl.COUNTER_0_0, 42);
+		classCoverage.addMethod(methodCoverage);
+		final IPackageCoverage nonEmptyPackage = new PackageCoverageImpl(
+				"example",
+				Collections.<IClassCoverage> singleton(classCoverage),
+				Collections.<ISourceFileCoverage> emptySet());
+
+		final BundlePage page = new BundlePage("bundle", null, null,
+				rootFolder, context);
+		page.addPackage(nonEmptyPackage);
+		support.parse(output.getFile("example/index.html"));
+		page.render();
+
+		final Document doc = support.parse(output.getFile("index.html"));
+		assertEquals("example", support.findStr(doc,
+				"/html/body/table[1]/tbody/tr[1]/td[1]/a"));
+		assertEquals("example/index.html", support.findStr(doc,
+				"/html/body/table[1]/tbody/tr[1]/td[1]/a/@href"));
+		assertEquals(1, page.getNode().getInstructionCounter().getMissedCount());
+	}
+
 	@Test
 	public void should_render_message_when_no_class_files_specified()
 			throws Exception {
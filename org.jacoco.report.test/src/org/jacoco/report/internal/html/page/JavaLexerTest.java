@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html.page;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jacoco.report.internal.html.HTMLElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JavaLexer}.
+ */
+public class JavaLexerTest {
+
+	private JavaLexer lexer;
+
+	@Before
+	public void setup() {
+		lexer = new JavaLexer();
+	}
+
+	@Test
+	public void should_not_wrap_plain_code() throws IOException {
+		assertEquals("\tx = foo(y);", render("\tx = foo(y);"));
+	}
+
+	@Test
+	public void should_highlight_keywords() throws IOException {
+		assertEquals("<span class=\"kwd\">public</span> "
+				+ "<span class=\"kwd\">class</span> Foo "
+				+ "<span class=\"kwd\">extends</span> classic {",
+				render("public class Foo extends classic {"));
+	}
+
+	@Test
+	public void should_highlight_string_and_char_literals()
+			throws IOException {
+		assertEquals("s = <span class=\"str\">&quot;a\\&quot;b//&quot;</span>"
+				+ " + <span class=\"str\">'\\''</span>;",
+				render("s = \"a\\\"b//\" + '\\'';"));
+	}
+
+	@Test
+	public void should_highlight_unterminated_string_to_end_of_line()
+			throws IOException {
+		assertEquals("<span class=\"str\">&quot;abc\\</span>",
+				render("\"abc\\"));
+	}
+
+	@Test
+	public void should_highlight_numbers_and_annotations()
+			throws IOException {
+		assertEquals("<span class=\"lit\">@Override</span> x = "
+				+ "<span class=\"lit\">0x1F</span> - "
+				+ "<span class=\"lit\">1.5e-3d</span> - "
+				+ "<span class=\"lit\">.5f</span> - "
+				+ "<span class=\"lit\">1_000L</span> - a1;",
+				render("@Override x = 0x1F - 1.5e-3d - .5f - 1_000L - a1;"));
+	}
+
+	@Test
+	public void should_highlight_line_comments() throws IOException {
+		assertEquals(
+				"x; <span class=\"com\">// &quot;not&quot; a string</span>",
+				render("x; // \"not\" a string"));
+	}
+
+	@Test
+	public void should_highlight_block_comments_over_multiple_lines()
+			throws IOException {
+		assertEquals("x; <span class=\"com\">/* first</span>",
+				render("x; /* first"));
+		assertEquals("<span class=\"com\">   int second</span>",
+				render("   int second"));
+		assertEquals("<span class=\"com\">*/</span> "
+				+ "<span class=\"kwd\">int</span> "
+				+ "<span class=\"com\">/**/</span> y;",
+				render("*/ int /**/ y;"));
+		assertEquals("<span class=\"kwd\">int</span> z;", render("int z;"));
+	}
+
+	private String render(final String line) throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final HTMLElement html = new HTMLElement(buffer, "UTF-8");
+		final HTMLElement body = html.body();
+		lexer.render(body, line);
+		html.close();
+		final String result = buffer.toString("UTF-8");
+		return result.substring(result.indexOf("<body>") + 6,
+				result.indexOf("</body>"));
+	}
+
+}
@@ -22,6 +22,7 @@ import org.jacoco.report.internal.html.HTMLSupport;
 import org.jacoco.report.internal.html.IHTMLReportContext;
 import org.jacoco.report.internal.html.ILinkable;
 import org.jacoco.report.internal.html.LinkableStub;
+import org.jacoco.report.internal.html.RenderQueue;
 import org.jacoco.report.internal.html.index.IIndexUpdate;
 import org.jacoco.report.internal.html.resources.Resources;
 import org.jacoco.report.internal.html.resources.Styles;
@@ -48,6 +49,7 @@ public abstract class PageTestBase {
 		final Resources resources = new Resources(rootFolder);
 		final Table table = new Table();
 		table.add("Element", null, new LabelColumn(), true);
+		final RenderQueue renderQueue = new RenderQueue(1);
 		context = new IHTMLReportContext() {
 
 			public ILanguageNames getLanguageNames() {
@@ -82,6 +84,10 @@ public abstract class PageTestBase {
 				};
 			}
 
+			public RenderQueue getRenderQueue() {
+				return renderQueue;
+			}
+
 			public Locale getLocale() {
 				return Locale.ENGLISH;
 			}
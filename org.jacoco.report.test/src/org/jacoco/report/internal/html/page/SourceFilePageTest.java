@@ -57,13 +57,11 @@ public class SourceFilePageTest extends PageTestBase {
 		assertEquals("jacoco-resources/prettify.css", support.findStr(result,
 				"/html/head/link[@rel='stylesheet'][2]/@href"));
 
-		// highlighting script
-		assertEquals("text/javascript",
-				support.findStr(result, "/html/head/script/@type"));
-		assertEquals("jacoco-resources/prettify.js",
-				support.findStr(result, "/html/head/script/@src"));
-		assertEquals("window['PR_TAB_WIDTH']=4;prettyPrint()",
-				support.findStr(result, "/html/body/@onload"));
+		// highlighting is rendered without script
+		assertEquals("", support.findStr(result, "/html/head/script"));
+		assertEquals("", support.findStr(result, "/html/body/@onload"));
+		assertEquals("tab-size:4;-moz-tab-size:4",
+				support.findStr(result, "/html/body/pre/@style"));
 
 		// source code
 		assertNotNull(support.findStr(result, "/html/body/pre"));
@@ -65,11 +65,98 @@ public class SourceHighlighterTest {
 		assertEquals("\tA\n", htmlSupport.findStr(doc, "//pre/text()"));
 	}
 
+	@Test
+	public void testTabWidth() throws Exception {
+		sourceHighlighter.setTabWidth(3);
+		sourceHighlighter.render(parent, source, new StringReader("\tA"));
+		final Document doc = parseDoc();
+		assertEquals("tab-size:3;-moz-tab-size:3",
+				htmlSupport.findStr(doc, "//pre/@style"));
+	}
+
+	@Test
+	public void testLineNumbers() throws Exception {
+		sourceHighlighter.render(parent, source, new StringReader("A\nB"));
+		final Document doc = parseDoc();
+		assertEquals("2", htmlSupport.findStr(doc,
+				"count(//pre/span[@class='nr'])"));
+		assertEquals("", htmlSupport.findStr(doc,
+				"//pre/span[@class='nr'][1]/text()"));
+		assertEquals("tab-size:4;-moz-tab-size:4",
+				htmlSupport.findStr(doc, "//pre/@style"));
+	}
+
+	@Test
+	public void testSyntaxHighlighting() throws Exception {
+		source.increment(CounterImpl.COUNTER_0_1, CounterImpl.COUNTER_0_0, 1);
+		sourceHighlighter.render(parent, source,
+				new StringReader("return \"A\";"));
+		final Document doc = parseDoc();
+		assertEquals("return", htmlSupport.findStr(doc,
+				"//pre/span[@id='L1']/span[@class='kwd']/text()"));
+		assertEquals("\"A\"", htmlSupport.findStr(doc,
+				"//pre/span[@id='L1']/span[@class='str']/text()"));
+	}
+
+	@Test
+	public void testSyntaxHighlightingForKotlin() throws Exception {
+		assertSyntaxHighlighting("kotlin");
+	}
+
+	@Test
+	public void testSyntaxHighlightingForGroovy() throws Exception {
+		assertSyntaxHighlighting("groovy");
+	}
+
+	@Test
+	public void testSyntaxHighlightingForScala() throws Exception {
+		assertSyntaxHighlighting("scala");
+	}
+
+	@Test
+	public void testNoSyntaxHighlightingForOtherLanguages() throws Exception {
+		sourceHighlighter.setLanguage("txt");
+		source.increment(CounterImpl.COUNTER_0_1, CounterImpl.COUNTER_0_0, 1);
+		sourceHighlighter.render(parent, source,
+				new StringReader("return \"A\";"));
+		final Document doc = parseDoc();
+		assertEquals("return \"A\";",
+				htmlSupport.findStr(doc, "//pre/span[@id='L1']/text()"));
+		assertEquals("0",
+				htmlSupport.findStr(doc, "count(//pre/span[@id='L1']/span)"));
+	}
+
+	@Test
+	public void testSmallSourceIsNotChunked() throws Exception {
+		sourceHighlighter.render(parent, source,
+				new StringReader(lines(SourceHighlighter.CHUNK_LINES)));
+		final Document doc = parseDoc();
+		assertEquals("1", htmlSupport.findStr(doc, "count(//pre)"));
+		assertEquals("source lang-java",
+				htmlSupport.findStr(doc, "//pre/@class"));
+	}
+
+	@Test
+	public void testLargeSourceIsChunked() throws Exception {
+		sourceHighlighter.render(parent, source,
+				new StringReader(lines(2 * SourceHighlighter.CHUNK_LINES + 1)));
+		final Document doc = parseDoc();
+		assertEquals("3", htmlSupport.findStr(doc, "count(//pre)"));
+		assertEquals("source lang-java chunk",
+				htmlSupport.findStr(doc, "//pre[3]/@class"));
+		assertEquals("tab-size:4;-moz-tab-size:4;counter-reset:nr 500",
+				htmlSupport.findStr(doc, "//pre[2]/@style"));
+		assertEquals("tab-size:4;-moz-tab-size:4;counter-reset:nr 1000",
+				htmlSupport.findStr(doc, "//pre[3]/@style"));
+		assertEquals("1", htmlSupport.findStr(doc,
+				"count(//pre[3]/span[@class='nr'])"));
+	}
+
 	@Test
 	public void testDefaultLanguage() throws Exception {
 		sourceHighlighter.render(parent, source, new StringReader(""));
 		final Document doc = parseDoc();
-		assertEquals("source lang-java linenums",
+		assertEquals("source lang-java",
 				htmlSupport.findStr(doc, "//pre/@class"));
 	}
 
@@ -78,7 +165,7 @@ public class SourceHighlighterTest {
 		sourceHighlighter.setLanguage("scala");
 		sourceHighlighter.render(parent, source, new StringReader(""));
 		final Document doc = parseDoc();
-		assertEquals("source lang-scala linenums",
+		assertEquals("source lang-scala",
 				htmlSupport.findStr(doc, "//pre/@class"));
 	}
 
@@ -141,6 +228,27 @@ public class SourceHighlighterTest {
 				htmlSupport.findStr(doc, "//pre/span/@title"));
 	}
 
+	private void assertSyntaxHighlighting(final String lang)
+			throws Exception {
+		sourceHighlighter.setLanguage(lang);
+		source.increment(CounterImpl.COUNTER_0_1, CounterImpl.COUNTER_0_0, 1);
+		sourceHighlighter.render(parent, source,
+				new StringReader("return \"A\" // done"));
+		final Document doc = parseDoc();
+		assertEquals("return", htmlSupport.findStr(doc,
+				"//pre/span[@id='L1']/span[@class='kwd']/text()"));
+		assertEquals("// done", htmlSupport.findStr(doc,
+				"//pre/span[@id='L1']/span[@class='com']/text()"));
+	}
+
+	private static String lines(final int count) {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			sb.append("x++;\n");
+		}
+		return sb.toString();
+	}
+
 	private Document parseDoc() throws Exception {
 		html.close();
 		return htmlSupport.parse(buffer);
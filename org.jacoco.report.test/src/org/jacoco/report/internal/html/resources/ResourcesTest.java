@@ -61,7 +61,6 @@ public class ResourcesTest {
 		output.assertFile("jacoco-resources/method.gif");
 		output.assertFile("jacoco-resources/package.gif");
 		output.assertFile("jacoco-resources/prettify.css");
-		output.assertFile("jacoco-resources/prettify.js");
 		output.assertFile("jacoco-resources/redbar.gif");
 		output.assertFile("jacoco-resources/report.css");
 		output.assertFile("jacoco-resources/report.gif");
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Locale;
@@ -29,6 +30,7 @@ import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.HTMLSupport;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -71,6 +73,15 @@ public class BarColumnTest {
 		output.assertAllClosed();
 	}
 
+	@Test
+	public void testDescribe() throws Exception {
+		assertEquals("{\"type\":\"bar\",\"entity\":2,\"locale\":\"en\","
+				+ "\"red\":\"jacoco-resources/redbar.gif\","
+				+ "\"green\":\"jacoco-resources/greenbar.gif\"}",
+				describe(column));
+		html.close();
+	}
+
 	@Test
 	public void testInit() throws Exception {
 		final ITableItem i = createItem(6, 24);
@@ -234,4 +245,14 @@ public class BarColumnTest {
 		return support.parse(output.getFile("Test.html"));
 	}
 
+	private String describe(final IColumnRenderer column) throws IOException {
+		final StringWriter buffer = new StringWriter();
+		final JSONWriter json = new JSONWriter(buffer, false);
+		json.beginObject();
+		column.describe(json, resources, root);
+		json.endObject();
+		json.close();
+		return buffer.toString();
+	}
+
 }
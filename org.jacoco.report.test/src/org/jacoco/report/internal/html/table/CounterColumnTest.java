@@ -16,6 +16,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -31,6 +32,7 @@ import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.HTMLSupport;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -73,6 +75,15 @@ public class CounterColumnTest {
 		output.assertAllClosed();
 	}
 
+	@Test
+	public void testDescribe() throws Exception {
+		assertEquals("{\"type\":\"counter\",\"value\":\"missed\","
+				+ "\"entity\":2,\"locale\":\"en\"}",
+				describe(CounterColumn.newMissed(CounterEntity.LINE,
+						Locale.ENGLISH)));
+		html.close();
+	}
+
 	@Test
 	public void testInitVisible() throws Exception {
 		IColumnRenderer column = CounterColumn.newTotal(CounterEntity.LINE,
@@ -224,4 +235,14 @@ public class CounterColumnTest {
 		return support.parse(output.getFile("Test.html"));
 	}
 
+	private String describe(final IColumnRenderer column) throws IOException {
+		final StringWriter buffer = new StringWriter();
+		final JSONWriter json = new JSONWriter(buffer, false);
+		json.beginObject();
+		column.describe(json, resources, root);
+		json.endObject();
+		json.close();
+		return buffer.toString();
+	}
+
 }
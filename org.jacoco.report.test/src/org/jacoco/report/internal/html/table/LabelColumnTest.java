@@ -15,6 +15,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.StringWriter;
 
 import org.jacoco.core.analysis.CoverageNodeImpl;
 import org.jacoco.core.analysis.ICoverageNode;
@@ -24,6 +25,7 @@ import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.HTMLSupport;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -66,6 +68,12 @@ public class LabelColumnTest {
 		output.assertAllClosed();
 	}
 
+	@Test
+	public void testDescribe() throws Exception {
+		assertEquals("{\"type\":\"label\"}", describe(column));
+		html.close();
+	}
+
 	@Test
 	public void testInit() throws Exception {
 		assertTrue(column.init(null, null));
@@ -146,4 +154,15 @@ public class LabelColumnTest {
 		html.close();
 		return support.parse(output.getFile("Test.html"));
 	}
+
+	private String describe(final IColumnRenderer column) throws IOException {
+		final StringWriter buffer = new StringWriter();
+		final JSONWriter json = new JSONWriter(buffer, false);
+		json.beginObject();
+		column.describe(json, resources, root);
+		json.endObject();
+		json.close();
+		return buffer.toString();
+	}
+
 }
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Comparator;
 import java.util.Locale;
 
@@ -28,6 +29,7 @@ import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.HTMLSupport;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -70,6 +72,14 @@ public class PercentageColumnTest {
 		output.assertAllClosed();
 	}
 
+	@Test
+	public void testDescribe() throws Exception {
+		column = new PercentageColumn(CounterEntity.BRANCH, Locale.GERMANY);
+		assertEquals("{\"type\":\"percentage\",\"entity\":1,"
+				+ "\"locale\":\"de-DE\"}", describe(column));
+		html.close();
+	}
+
 	@Test
 	public void testInit() throws Exception {
 		assertTrue(column.init(null, null));
@@ -177,4 +187,15 @@ public class PercentageColumnTest {
 		html.close();
 		return support.parse(output.getFile("Test.html"));
 	}
+
+	private String describe(final IColumnRenderer column) throws IOException {
+		final StringWriter buffer = new StringWriter();
+		final JSONWriter json = new JSONWriter(buffer, false);
+		json.beginObject();
+		column.describe(json, resources, root);
+		json.endObject();
+		json.close();
+		return buffer.toString();
+	}
+
 }
@@ -12,6 +12,7 @@
 package org.jacoco.report.internal.html.table;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
@@ -30,6 +31,7 @@ import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.HTMLSupport;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -104,7 +106,8 @@ public class TableTest {
 		final List<ITableItem> items = Arrays.asList(createItem("A", 1),
 				createItem("B", 2), createItem("C", 3));
 		table.add("Header", null, recorder, false);
-		table.render(body, items, createTotal("Sum", 6), resources, root);
+		table.render(body, items, createTotal("Sum", 6), resources, root,
+				"Test.js");
 		html.close();
 		assertEquals("init-footer-itemA-itemB-itemC-", recorder.toString());
 	}
@@ -134,7 +137,8 @@ public class TableTest {
 		};
 		final List<ITableItem> items = Arrays.asList(createItem("A", 1));
 		table.add("Header", null, column, false);
-		table.render(body, items, createTotal("Sum", 1), resources, root);
+		table.render(body, items, createTotal("Sum", 1), resources, root,
+				"Test.js");
 		html.close();
 	}
 
@@ -162,7 +166,8 @@ public class TableTest {
 		table.add("Reverse", null, new StubRenderer(
 				CounterComparator.TOTALITEMS.reverse().on(CounterEntity.CLASS)),
 				false);
-		table.render(body, items, createTotal("Sum", 6), resources, root);
+		table.render(body, items, createTotal("Sum", 6), resources, root,
+				"Test.js");
 		html.close();
 
 		final HTMLSupport support = new HTMLSupport();
@@ -206,7 +211,8 @@ public class TableTest {
 				new StubRenderer(
 						CounterComparator.TOTALITEMS.on(CounterEntity.CLASS)),
 				true);
-		table.render(body, items, createTotal("Sum", 1), resources, root);
+		table.render(body, items, createTotal("Sum", 1), resources, root,
+				"Test.js");
 		html.close();
 
 		final HTMLSupport support = new HTMLSupport();
@@ -226,6 +232,104 @@ public class TableTest {
 				support.findStr(doc, "/html/body/table/tbody/tr[5]/td[1]"));
 	}
 
+	@Test
+	public void testPagedTable() throws Exception {
+		final List<ITableItem> items = Arrays.asList(createItem("C", 3),
+				createItem("\u00c4", 5), createItem("A", 1));
+		table.setPageSize(2);
+		table.add("Forward", "ctr1",
+				new StubRenderer(
+						CounterComparator.TOTALITEMS.on(CounterEntity.CLASS)),
+				true);
+		table.render(body, items, createTotal("Sum", 9), resources, root,
+				"Test.js");
+		html.close();
+
+		final HTMLSupport support = new HTMLSupport();
+		final Document doc = support.parse(output.getFile("Test.html"));
+
+		// Only the first page is rendered without sort ids:
+		assertEquals("2", support.findStr(doc,
+				"count(/html/body/table/tbody/tr)"));
+		assertEquals("A",
+				support.findStr(doc, "/html/body/table/tbody/tr[1]/td[1]"));
+		assertEquals("C",
+				support.findStr(doc, "/html/body/table/tbody/tr[2]/td[1]"));
+		assertEquals("", support.findStr(doc,
+				"/html/body/table/tbody/tr[1]/td[1]/@id"));
+		assertEquals("Test.js",
+				support.findStr(doc, "/html/body/script/@src"));
+
+		// All items are contained in the data in default order:
+		assertEquals("setTableData({\"pageSize\":2,\"columns\":[{"
+				+ "\"id\":\"a\",\"style\":\"ctr1\",\"type\":\"label\"}],"
+				+ "\"rows\":["
+				+ "[\"A\",\"A.html\",\"el_group\",0,0,0,0,0,0,0,0,0,0,1,0],"
+				+ "[\"C\",\"C.html\",\"el_group\",0,0,0,0,0,0,0,0,0,0,3,0],"
+				+ "[\"\\u00c4\",\"\\u00c4.html\",\"el_group\","
+				+ "0,0,0,0,0,0,0,0,0,0,5,0]]});",
+				new String(output.getFile("Test.js"), "US-ASCII"));
+	}
+
+	@Test
+	public void testPagedTablesWithCollidingDataFiles() throws Exception {
+		final List<ITableItem> items = Arrays.asList(createItem("A", 1),
+				createItem("B", 2));
+		table.setPageSize(1);
+		table.add("Forward", null,
+				new StubRenderer(
+						CounterComparator.TOTALITEMS.on(CounterEntity.CLASS)),
+				false);
+		table.render(body, items, createTotal("Sum", 3), resources, root,
+				"Foo.js");
+		html.close();
+		final HTMLElement html2 = new HTMLElement(
+				root.createFile("Test2.html"), "UTF-8");
+		html2.head().title();
+		table.render(html2.body(), items, createTotal("Sum", 3), resources,
+				root, "foo.js");
+		html2.close();
+
+		final HTMLSupport support = new HTMLSupport();
+		final String src1 = support.findStr(
+				support.parse(output.getFile("Test.html")),
+				"/html/body/script/@src");
+		final String src2 = support.findStr(
+				support.parse(output.getFile("Test2.html")),
+				"/html/body/script/@src");
+		assertEquals("Foo.js", src1);
+		assertFalse(src2, src2.equalsIgnoreCase(src1));
+		output.assertFile(src1);
+		output.assertFile(src2);
+	}
+
+	@Test
+	public void testPageSizeNotExceeded() throws Exception {
+		final List<ITableItem> items = Arrays.asList(createItem("A", 1),
+				createItem("B", 2));
+		table.setPageSize(2);
+		table.add("Forward", null,
+				new StubRenderer(
+						CounterComparator.TOTALITEMS.on(CounterEntity.CLASS)),
+				false);
+		table.render(body, items, createTotal("Sum", 3), resources, root,
+				"Test.js");
+		html.close();
+
+		final HTMLSupport support = new HTMLSupport();
+		final Document doc = support.parse(output.getFile("Test.html"));
+		assertEquals("a0", support.findStr(doc,
+				"/html/body/table/tbody/tr[1]/td[1]/@id"));
+		assertEquals("", support.findStr(doc, "/html/body/script"));
+		output.assertNoFile("Test.js");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPageSize() throws IOException {
+		html.close();
+		table.setPageSize(-1);
+	}
+
 	private ITableItem createItem(final String name, final int count) {
 		final ICoverageNode node = new CoverageNodeImpl(ElementType.GROUP,
 				name) {
@@ -282,6 +386,11 @@ public class TableTest {
 			td.text(item.getLinkLabel());
 		}
 
+		public void describe(JSONWriter json, Resources resources,
+				ReportOutputFolder base) throws IOException {
+			json.member("type", "label");
+		}
+
 		public Comparator<ITableItem> getComparator() {
 			return comparator;
 		}
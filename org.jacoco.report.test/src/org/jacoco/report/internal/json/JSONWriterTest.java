@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.report.internal.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.jacoco.report.MemoryOutput;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JSONWriter}.
+ */
+public class JSONWriterTest {
+
+	private MemoryOutput output;
+
+	private JSONWriter writer;
+
+	@Before
+	public void setup() throws IOException {
+		output = new MemoryOutput();
+		writer = new JSONWriter(output);
+	}
+
+	@Test
+	public void should_write_empty_object() throws IOException {
+		writer.beginObject();
+		writer.endObject();
+		assertContent("{}");
+	}
+
+	@Test
+	public void should_separate_members() throws IOException {
+		writer.beginObject();
+		writer.member("a", "x");
+		writer.member("b", 42);
+		writer.member("c", Long.MIN_VALUE);
+		writer.name("d");
+		writer.beginArray();
+		writer.endArray();
+		writer.endObject();
+		assertContent(
+				"{\"a\":\"x\",\"b\":42,\"c\":-9223372036854775808,\"d\":[]}");
+	}
+
+	@Test
+	public void should_separate_array_values() throws IOException {
+		writer.beginArray();
+		writer.value("a");
+		writer.value(1);
+		writer.beginObject();
+		writer.endObject();
+		writer.beginArray();
+		writer.value(2);
+		writer.endArray();
+		writer.endArray();
+		assertContent("[\"a\",1,{},[2]]");
+	}
+
+	@Test
+	public void member_should_omit_null_value() throws IOException {
+		writer.beginObject();
+		writer.member("a", null);
+		writer.member("b", "y");
+		writer.endObject();
+		assertContent("{\"b\":\"y\"}");
+	}
+
+	@Test
+	public void should_support_deep_nesting() throws IOException {
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			writer.beginArray();
+			writer.value(i);
+			expected.append('[').append(i).append(',');
+		}
+		for (int i = 0; i < 40; i++) {
+			writer.endArray();
+			expected.append(']');
+		}
+		assertContent(expected.toString().replace(",]", "]"));
+	}
+
+	@Test
+	public void should_escape_strings() throws IOException {
+		writer.value("a\"b\\c\nd\re\tf\u0000g\u001fh</i>\u00e4\u20ac");
+		assertContent(
+				"\"a\\\"b\\\\c\\nd\\re\\tf\\u0000g\\u001fh</i>\u00e4\u20ac\"");
+	}
+
+	@Test
+	public void should_escape_non_ascii_characters_in_ascii_mode()
+			throws IOException {
+		final StringWriter buffer = new StringWriter();
+		writer = new JSONWriter(buffer, true);
+		writer.value("a\u007f\u00e4\u20ac\n");
+		writer.close();
+		assertEquals("\"a\\u007f\\u00e4\\u20ac\\n\"", buffer.toString());
+	}
+
+	@Test
+	public void should_write_null_values() throws IOException {
+		writer.beginArray();
+		writer.nullValue();
+		writer.nullValue();
+		writer.endArray();
+		assertContent("[null,null]");
+	}
+
+	@Test
+	public void should_escape_names() throws IOException {
+		writer.beginObject();
+		writer.member("\"", "");
+		writer.endObject();
+		assertContent("{\"\\\"\":\"\"}");
+	}
+
+	private void assertContent(final String expected) throws IOException {
+		writer.close();
+		output.assertClosed();
+		assertEquals(expected, output.toString("UTF-8"));
+	}
+
+}
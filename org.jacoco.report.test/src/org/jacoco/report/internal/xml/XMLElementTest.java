@@ -119,6 +119,16 @@ public class XMLElementTest {
 		assertContent("<root>&lt;black&amp;white&quot;&gt;</root>");
 	}
 
+	@Test
+	public void text_should_keep_unquoted_runs() throws IOException {
+		root.text("a<<bc&&def\"ghij>klmno");
+		root.text("");
+		root.text("&");
+		root.text("plain");
+		assertContent(
+				"<root>a&lt;&lt;bc&amp;&amp;def&quot;ghij&gt;klmno&amp;plain</root>");
+	}
+
 	@Test
 	public void attr_should_ignore_call_when_value_is_null()
 			throws IOException {
@@ -167,6 +177,38 @@ public class XMLElementTest {
 		root.attr("id", "12345");
 	}
 
+	@Test
+	public void element_should_write_tag_with_values() throws IOException {
+		final XMLElement.Tag tag = new XMLElement.Tag("line", "nr", "mi");
+		root.element("child");
+		root.element(tag, 1, 2);
+		root.element(tag, 3, -4);
+		root.element(new XMLElement.Tag("empty"));
+		root.text("text");
+		assertContent(
+				"<root><child/><line nr=\"1\" mi=\"2\"/><line nr=\"3\" mi=\"-4\"/><empty/>text</root>");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void element_should_throw_exception_when_values_dont_match_tag()
+			throws IOException {
+		root.element(new XMLElement.Tag("line", "nr", "mi"), 1);
+	}
+
+	@Test(expected = IOException.class)
+	public void element_should_throw_exception_when_tag_added_after_close()
+			throws IOException {
+		root.close();
+		root.element(new XMLElement.Tag("line", "nr"), 1);
+	}
+
+	@Test(expected = IOException.class)
+	public void int_attr_should_throw_exception_when_child_was_added()
+			throws IOException {
+		root.element("child");
+		root.attr("id", 12345);
+	}
+
 	private void assertContent(String expected) throws IOException {
 		assertEquals(DECL + expected, actual());
 	}
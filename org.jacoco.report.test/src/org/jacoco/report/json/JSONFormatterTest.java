@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.report.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.MemoryOutput;
+import org.jacoco.report.ReportStructureTestDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link JSONFormatter}.
+ */
+public class JSONFormatterTest {
+
+	private static final String COUNTERS = "\"counters\":{"
+			+ "\"INSTRUCTION\":{\"missed\":10,\"covered\":15},"
+			+ "\"BRANCH\":{\"missed\":1,\"covered\":2},"
+			+ "\"LINE\":{\"missed\":0,\"covered\":3},"
+			+ "\"COMPLEXITY\":{\"missed\":1,\"covered\":2},"
+			+ "\"METHOD\":{\"missed\":0,\"covered\":1},"
+			+ "\"CLASS\":{\"missed\":0,\"covered\":1}}";
+
+	private ReportStructureTestDriver driver;
+
+	private JSONFormatter formatter;
+
+	private MemoryOutput output;
+
+	private List<SessionInfo> infos;
+
+	private Collection<ExecutionData> data;
+
+	@Before
+	public void setup() {
+		driver = new ReportStructureTestDriver();
+		formatter = new JSONFormatter();
+		output = new MemoryOutput();
+		infos = new ArrayList<SessionInfo>();
+		data = new ArrayList<ExecutionData>();
+	}
+
+	@After
+	public void teardown() {
+		output.assertClosed();
+	}
+
+	@Test
+	public void should_write_session_infos() throws IOException {
+		infos.add(new SessionInfo("session-1", 12345, 67890));
+		infos.add(new SessionInfo("session-2", 1, 2));
+		final IReportVisitor visitor = formatter.createVisitor(output);
+		visitor.visitInfo(infos, data);
+		visitor.visitGroup("foo");
+		visitor.visitEnd();
+
+		assertEquals("{\"name\":\"foo\",\"sessions\":["
+				+ "{\"id\":\"session-1\",\"start\":12345,\"dump\":67890},"
+				+ "{\"id\":\"session-2\",\"start\":1,\"dump\":2}],"
+				+ "\"counters\":{}}", actual());
+	}
+
+	@Test
+	public void should_write_nested_groups() throws IOException {
+		driver.sendNestedGroups(formatter.createVisitor(output));
+
+		final String json = actual();
+		assertTrue(json, json.startsWith("{\"name\":\"report\","
+				+ "\"sessions\":[],\"groups\":[{\"name\":\"group1\","
+				+ "\"groups\":[{\"name\":\"group\",\"groups\":["
+				+ "{\"name\":\"bundle\",\"packages\":["
+				+ "{\"name\":\"org/jacoco/example\",\"classes\":["));
+		assertTrue(json, json.contains("]," + COUNTERS + "}]," + COUNTERS
+				+ "}]," + COUNTERS + "},{\"name\":\"bundle\",\"packages\":["));
+		assertTrue(json, json.endsWith("{\"name\":\"empty\",\"classes\":["
+				+ "{\"name\":\"empty/Empty\",\"sourcefilename\":\"Empty.java\","
+				+ "\"methods\":[],\"counters\":{}}],\"sourcefiles\":["
+				+ "{\"name\":\"Empty.java\",\"lines\":[],\"counters\":{}}],"
+				+ "\"counters\":{}}]," + COUNTERS + "}],\"counters\":{"
+				+ "\"INSTRUCTION\":{\"missed\":20,\"covered\":30},"
+				+ "\"BRANCH\":{\"missed\":2,\"covered\":4},"
+				+ "\"LINE\":{\"missed\":0,\"covered\":6},"
+				+ "\"COMPLEXITY\":{\"missed\":2,\"covered\":4},"
+				+ "\"METHOD\":{\"missed\":0,\"covered\":2},"
+				+ "\"CLASS\":{\"missed\":0,\"covered\":2}}}"));
+	}
+
+	@Test
+	public void should_write_bundle() throws IOException {
+		driver.sendBundle(formatter.createVisitor(output));
+
+		final String json = actual();
+		assertTrue(json, json.startsWith("{\"name\":\"bundle\","
+				+ "\"sessions\":[],\"packages\":["
+				+ "{\"name\":\"org/jacoco/example\",\"classes\":["
+				+ "{\"name\":\"org/jacoco/example/FooClass\","
+				+ "\"sourcefilename\":\"FooClass.java\",\"methods\":["
+				+ "{\"name\":\"fooMethod\",\"desc\":\"()V\",\"line\":1,"));
+		assertTrue(json, json.contains("\"sourcefiles\":["
+				+ "{\"name\":\"FooClass.java\",\"lines\":["
+				+ "{\"nr\":1,\"mi\":3,\"ci\":5,\"mb\":0,\"cb\":0},"
+				+ "{\"nr\":2,\"mi\":3,\"ci\":5,\"mb\":1,\"cb\":2},"
+				+ "{\"nr\":4,\"mi\":4,\"ci\":5,\"mb\":0,\"cb\":0}],"
+				+ COUNTERS + "},"));
+		assertTrue(json, json.endsWith("]," + COUNTERS + "}"));
+	}
+
+	@Test
+	public void should_write_streamed_bundle_like_complete_bundle()
+			throws IOException {
+		driver.sendBundle(formatter.createVisitor(output));
+		final String expected = actual();
+
+		output = new MemoryOutput();
+		driver.sendStreamedBundle(formatter.createVisitor(output));
+
+		assertEquals(expected, actual());
+	}
+
+	@Test
+	public void should_write_streamed_bundle_in_group_like_complete_bundle()
+			throws IOException {
+		driver.sendGroup(formatter.createVisitor(output));
+		final String expected = actual();
+
+		output = new MemoryOutput();
+		driver.sendStreamedGroup(formatter.createVisitor(output));
+
+		assertEquals(expected, actual());
+	}
+
+	private String actual() throws IOException {
+		return output.toString("UTF-8");
+	}
+
+}
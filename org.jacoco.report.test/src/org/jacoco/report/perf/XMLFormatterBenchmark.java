@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.perf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.internal.analysis.BundleCoverageImpl;
+import org.jacoco.core.internal.analysis.ClassCoverageImpl;
+import org.jacoco.core.internal.analysis.CounterImpl;
+import org.jacoco.core.internal.analysis.MethodCoverageImpl;
+import org.jacoco.core.internal.analysis.SourceFileCoverageImpl;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.xml.XMLFormatter;
+
+/**
+ * Measures the time to write a XML report for a bundle with one million
+ * lines. Run with the class path of the test module.
+ */
+public class XMLFormatterBenchmark {
+
+	private static final int CLASSES = 1000;
+
+	private static final int METHODS = 20;
+
+	private static final int LINES = 50;
+
+	private static final int RUNS = 10;
+
+	private static IBundleCoverage createBundle() {
+		final List<IClassCoverage> classes = new ArrayList<IClassCoverage>();
+		final List<ISourceFileCoverage> sourcefiles = new ArrayList<ISourceFileCoverage>();
+		for (int c = 0; c < CLASSES; c++) {
+			final String pkg = "org/example/p" + (c / 50);
+			final ClassCoverageImpl cc = new ClassCoverageImpl(
+					pkg + "/Class" + c + "$Inner", c, false);
+			cc.setSourceFileName("Class" + c + ".java");
+			for (int m = 0; m < METHODS; m++) {
+				final MethodCoverageImpl mc = new MethodCoverageImpl(
+						m == 0 ? "<init>" : "method" + m,
+						"(Ljava/util/List<Ljava/lang/String;>;I)V", null);
+				for (int l = 0; l < LINES; l++) {
+					mc.increment(CounterImpl.getInstance(l % 3, l % 5),
+							CounterImpl.getInstance(l % 2, 0),
+							1 + m * LINES + l);
+				}
+				mc.incrementMethodCounter();
+				cc.addMethod(mc);
+			}
+			classes.add(cc);
+			final SourceFileCoverageImpl s = new SourceFileCoverageImpl(
+					cc.getSourceFileName(), pkg);
+			s.increment(cc);
+			sourcefiles.add(s);
+		}
+		return new BundleCoverageImpl("bundle", classes, sourcefiles);
+	}
+
+	private static long write(final IBundleCoverage bundle)
+			throws IOException {
+		final long start = System.nanoTime();
+		final IReportVisitor visitor = new XMLFormatter()
+				.createVisitor(new OutputStream() {
+					@Override
+					public void write(final int b) {
+					}
+
+					@Override
+					public void write(final byte[] b, final int off,
+							final int len) {
+					}
+				});
+		visitor.visitInfo(Collections.<SessionInfo> emptyList(),
+				Collections.<ExecutionData> emptyList());
+		visitor.visitBundle(bundle, null);
+		visitor.visitEnd();
+		return System.nanoTime() - start;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final IBundleCoverage bundle = createBundle();
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < RUNS; i++) {
+			min = Math.min(min, write(bundle));
+		}
+		System.out.printf("XML report for %s lines: %.1f ms%n",
+				Integer.valueOf(CLASSES * METHODS * LINES),
+				Double.valueOf(min / 1e6));
+	}
+
+}
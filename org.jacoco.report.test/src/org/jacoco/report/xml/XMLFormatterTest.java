@@ -128,6 +128,38 @@ public class XMLFormatterTest {
 		assertPathMatches("1", "report/counter[@type='CLASS']/@covered");
 	}
 
+	@Test
+	public void should_write_streamed_bundle_like_complete_bundle()
+			throws Exception {
+		IReportVisitor visitor = formatter.createVisitor(output);
+		visitor.visitInfo(infos, data);
+		driver.sendBundle(visitor);
+		final String expected = output.toString();
+
+		output = new MemoryOutput();
+		visitor = formatter.createVisitor(output);
+		visitor.visitInfo(infos, data);
+		driver.sendStreamedBundle(visitor);
+
+		assertEquals(expected, output.toString());
+	}
+
+	@Test
+	public void should_write_streamed_bundle_in_group_like_complete_bundle()
+			throws Exception {
+		IReportVisitor visitor = formatter.createVisitor(output);
+		visitor.visitInfo(infos, data);
+		driver.sendGroup(visitor);
+		final String expected = output.toString();
+
+		output = new MemoryOutput();
+		visitor = formatter.createVisitor(output);
+		visitor.visitInfo(infos, data);
+		driver.sendStreamedGroup(visitor);
+
+		assertEquals(expected, output.toString());
+	}
+
 	@Test
 	public void testStructureWithBundleOnly() throws Exception {
 		final IReportVisitor visitor = formatter.createVisitor(output);
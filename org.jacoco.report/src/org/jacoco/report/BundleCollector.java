@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+
+/**
+ * {@link IReportBundleVisitor} which collects all packages of a bundle and
+ * passes the complete bundle to
+ * {@link IReportGroupVisitor#visitBundle(IBundleCoverage, ISourceFileLocator)}
+ * at the end. This allows to emit bundles package by package to visitors
+ * which do not implement {@link IStreamingGroupVisitor}.
+ */
+public class BundleCollector implements IReportBundleVisitor {
+
+	private final IReportGroupVisitor visitor;
+
+	private final String name;
+
+	private final ISourceFileLocator locator;
+
+	private final List<IPackageCoverage> packages;
+
+	/**
+	 * Creates a new collector for a bundle with the given name.
+	 * 
+	 * @param visitor
+	 *            visitor the complete bundle is passed to
+	 * @param name
+	 *            name of the bundle
+	 * @param locator
+	 *            source locator for this bundle
+	 */
+	public BundleCollector(final IReportGroupVisitor visitor,
+			final String name, final ISourceFileLocator locator) {
+		this.visitor = visitor;
+		this.name = name;
+		this.locator = locator;
+		this.packages = new ArrayList<IPackageCoverage>();
+	}
+
+	/**
+	 * Adds a bundle with the given name to the given visitor whose packages are
+	 * emitted one by one through the returned visitor. If the visitor
+	 * implements {@link IStreamingGroupVisitor} the packages are passed on
+	 * immediately, otherwise they are collected until the end of the bundle.
+	 * 
+	 * @param visitor
+	 *            visitor to add the bundle to
+	 * @param name
+	 *            name of the bundle
+	 * @param locator
+	 *            source locator for this bundle
+	 * @return visitor for the packages of the bundle
+	 * @throws IOException
+	 *             in case of IO problems with the report writer
+	 */
+	public static IReportBundleVisitor visitBundle(
+			final IReportGroupVisitor visitor, final String name,
+			final ISourceFileLocator locator) throws IOException {
+		if (visitor instanceof IStreamingGroupVisitor) {
+			return ((IStreamingGroupVisitor) visitor).visitBundle(name,
+					locator);
+		}
+		return new BundleCollector(visitor, name, locator);
+	}
+
+	public void visitPackage(final IPackageCoverage coverage) {
+		packages.add(coverage);
+	}
+
+	public void visitEnd() throws IOException {
+		visitor.visitBundle(new Bundle(name, packages), locator);
+	}
+
+	private static class Bundle extends CoverageNodeImpl implements
+			IBundleCoverage {
+
+		private final Collection<IPackageCoverage> packages;
+
+		Bundle(final String name, final Collection<IPackageCoverage> packages) {
+			super(ElementType.BUNDLE, name);
+			this.packages = packages;
+			increment(packages);
+		}
+
+		public Collection<IPackageCoverage> getPackages() {
+			return packages;
+		}
+
+	}
+
+}
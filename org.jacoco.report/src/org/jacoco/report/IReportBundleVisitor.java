@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.IOException;
+
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.IPackageCoverageVisitor;
+
+/**
+ * Output-Interface for a bundle which is emitted package by package. Each
+ * package is written immediately, so formatters do not need to keep the
+ * complete bundle structure in memory. The instance can directly be used as
+ * output of a {@link org.jacoco.core.analysis.PackageCoverageBuilder}.
+ * 
+ * @see IStreamingGroupVisitor#visitBundle(String, ISourceFileLocator)
+ */
+public interface IReportBundleVisitor extends IPackageCoverageVisitor {
+
+	/**
+	 * Called to add a package to the bundle. Every package name must be
+	 * emitted only once.
+	 * 
+	 * @param coverage
+	 *            coverage data of the package
+	 * @throws IOException
+	 *             in case of IO problems with the report writer
+	 */
+	void visitPackage(IPackageCoverage coverage) throws IOException;
+
+	/**
+	 * Has to be called after all packages of the bundle have been emitted.
+	 * 
+	 * @throws IOException
+	 *             in case of IO problems with the report writer
+	 */
+	void visitEnd() throws IOException;
+
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *    
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.IOException;
+
+/**
+ * Optional extension of {@link IReportGroupVisitor} for visitors which accept
+ * bundles package by package. In contrast to
+ * {@link #visitBundle(org.jacoco.core.analysis.IBundleCoverage, ISourceFileLocator)}
+ * the complete bundle structure does not need to be in memory at once. The
+ * report formatters implement this interface. To emit a bundle package by
+ * package to any {@link IReportGroupVisitor} use
+ * {@link BundleCollector#visitBundle(IReportGroupVisitor, String, ISourceFileLocator)}
+ * which falls back to collecting the packages for other visitors.
+ * 
+ * A bundle emitted with {@link #visitBundle(String, ISourceFileLocator)} has
+ * to be completed with {@link IReportBundleVisitor#visitEnd()} before this or
+ * any parent visitor can be used again.
+ */
+public interface IStreamingGroupVisitor extends IReportGroupVisitor {
+
+	/**
+	 * Called to add a bundle to the report whose packages are emitted one by
+	 * one through the returned visitor.
+	 * 
+	 * @param name
+	 *            name of the bundle
+	 * @param locator
+	 *            source locator for this bundle
+	 * @return visitor for the packages of the bundle
+	 * @throws IOException
+	 *             in case of IO problems with the report writer
+	 */
+	IReportBundleVisitor visitBundle(String name, ISourceFileLocator locator)
+			throws IOException;
+
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementation of {@link IMultiReportOutput} that writes files to a given
+ * directory like {@link FileMultiReportOutput}, but only if their content has
+ * changed since the previous report in the same directory. For this purpose a
+ * manifest with the hash and size of every file is stored in the base
+ * directory. Files of the previous report which are not created again are
+ * deleted when the output is closed.
+ *
+ * The content of every file is buffered in memory until the file is closed.
+ * If report creation is aborted before {@link #close()} is called no manifest
+ * is left behind and the next report is written completely. A manifest which
+ * refers to files outside of the base directory is rejected.
+ */
+public class IncrementalFileMultiReportOutput implements IMultiReportOutput {
+
+	/** Name of the manifest file in the base directory */
+	public static final String MANIFEST = ".jacoco-manifest";
+
+	private static final String DIGEST_ALGORITHM = "SHA-1";
+
+	private static final String MANIFEST_ENCODING = "UTF-8";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final File basedir;
+
+	private final FileMultiReportOutput delegate;
+
+	private final MessageDigest digest;
+
+	private final Map<String, String> previous;
+
+	private final Map<String, String> current;
+
+	/**
+	 * Creates a new instance for document output in the given base directory.
+	 * The manifest of a previous report is read and removed immediately.
+	 *
+	 * @param basedir
+	 *            base directory
+	 * @throws IOException
+	 *             if the manifest of the previous report can't be read
+	 */
+	public IncrementalFileMultiReportOutput(final File basedir)
+			throws IOException {
+		this.basedir = basedir;
+		this.delegate = new FileMultiReportOutput(basedir);
+		try {
+			this.digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			// SHA-1 is available on every Java platform
+			throw new RuntimeException(e);
+		}
+		this.previous = readManifest();
+		this.current = new TreeMap<String, String>();
+	}
+
+	public OutputStream createFile(final String path) throws IOException {
+		return new ByteArrayOutputStream() {
+			private boolean closed;
+
+			@Override
+			public void close() throws IOException {
+				if (!closed) {
+					closed = true;
+					writeFile(path, toByteArray());
+				}
+			}
+		};
+	}
+
+	private void writeFile(final String path, final byte[] content)
+			throws IOException {
+		final String entry = hash(content) + " " + content.length;
+		current.put(path, entry);
+		final File file = new File(basedir, path);
+		if (entry.equals(previous.get(path)) && file.isFile()
+				&& file.length() == content.length) {
+			return;
+		}
+		final OutputStream out = delegate.createFile(path);
+		try {
+			out.write(content);
+		} finally {
+			out.close();
+		}
+	}
+
+	private String hash(final byte[] content) {
+		final byte[] h = digest.digest(content);
+		final char[] chars = new char[h.length * 2];
+		for (int i = 0; i < h.length; i++) {
+			chars[2 * i] = HEX[(h[i] >> 4) & 0xf];
+			chars[2 * i + 1] = HEX[h[i] & 0xf];
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Deletes all files of the previous report which have not been created
+	 * again and writes the new manifest.
+	 */
+	public void close() throws IOException {
+		for (final String path : previous.keySet()) {
+			if (!current.containsKey(path)) {
+				delete(path);
+			}
+		}
+		writeManifest();
+		delegate.close();
+	}
+
+	private void delete(final String path) {
+		File file = new File(basedir, path);
+		file.delete();
+		// Remove folders which became empty, deletion of non-empty folders
+		// simply fails:
+		file = file.getParentFile();
+		while (file != null && !file.equals(basedir) && file.delete()) {
+			file = file.getParentFile();
+		}
+	}
+
+	private Map<String, String> readManifest() throws IOException {
+		final Map<String, String> manifest = new HashMap<String, String>();
+		final File file = new File(basedir, MANIFEST);
+		final String prefix = basedir.getCanonicalPath() + File.separator;
+		final BufferedReader reader;
+		try {
+			reader = new BufferedReader(new InputStreamReader(
+					new FileInputStream(file), MANIFEST_ENCODING));
+		} catch (final FileNotFoundException e) {
+			return manifest;
+		}
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				// format: <hash> <size> <path>
+				final int hashEnd = line.indexOf(' ');
+				final int sizeEnd = line.indexOf(' ', hashEnd + 1);
+				if (hashEnd == -1 || sizeEnd == -1) {
+					throw new IOException(
+							"Invalid report manifest " + file + ".");
+				}
+				final String path = line.substring(sizeEnd + 1);
+				// Stale files get deleted, so only accept files of the report:
+				if (!new File(basedir, path).getCanonicalPath()
+						.startsWith(prefix)) {
+					throw new IOException("Invalid path " + path
+							+ " in report manifest " + file + ".");
+				}
+				manifest.put(path, line.substring(0, sizeEnd));
+			}
+		} finally {
+			reader.close();
+		}
+		if (!file.delete()) {
+			throw new IOException("Can't delete report manifest " + file + ".");
+		}
+		return manifest;
+	}
+
+	private void writeManifest() throws IOException {
+		basedir.mkdirs();
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(new File(basedir, MANIFEST)),
+				MANIFEST_ENCODING));
+		try {
+			for (final Map.Entry<String, String> e : current.entrySet()) {
+				writer.write(e.getValue());
+				writer.write(' ');
+				writer.write(e.getKey());
+				writer.write('\n');
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+}
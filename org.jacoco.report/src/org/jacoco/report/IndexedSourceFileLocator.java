@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Locator for source files in multiple directories and source archives. All
+ * source roots are scanned once when they are added and the contained files
+ * are kept in an in-memory index, so looking up source files does not access
+ * the file system for files which do not exist. If the same path exists in
+ * multiple roots the root added first takes precedence.
+ *
+ * Source roots must not be added while the locator is used by a report. As
+ * the index does not change afterwards the same instance can be used for
+ * multiple bundles and report groups, also by concurrent threads. Source
+ * archives are kept open until {@link #close()} is called.
+ */
+public class IndexedSourceFileLocator extends InputStreamSourceFileLocator {
+
+	private final Map<String, Source> index;
+
+	private final List<ZipFile> archives;
+
+	/**
+	 * Creates a new locator without source roots.
+	 *
+	 * @param encoding
+	 *            encoding of the source files, <code>null</code> for platform
+	 *            default encoding
+	 * @param tabWidth
+	 *            tab width in source files as number of blanks
+	 */
+	public IndexedSourceFileLocator(final String encoding,
+			final int tabWidth) {
+		super(encoding, tabWidth);
+		this.index = new HashMap<String, Source>();
+		this.archives = new ArrayList<ZipFile>();
+	}
+
+	/**
+	 * Adds all files of the given directory and its sub-directories to the
+	 * index. Directories which do not exist are ignored. Symbolic links to
+	 * directories are followed unless they point to one of their parent
+	 * directories.
+	 *
+	 * @param directory
+	 *            root directory of source files
+	 * @throws IOException
+	 *             if the canonical path of a directory can not be determined
+	 */
+	public void addDirectory(final File directory) throws IOException {
+		addDirectory(directory, "", new HashSet<String>());
+	}
+
+	private void addDirectory(final File directory, final String prefix,
+			final Set<String> parents) throws IOException {
+		final File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		final String canonicalPath = directory.getCanonicalPath();
+		if (!parents.add(canonicalPath)) {
+			// symbolic link cycle
+			return;
+		}
+		for (final File file : files) {
+			final String path = prefix + file.getName();
+			if (file.isDirectory()) {
+				addDirectory(file, path + "/", parents);
+			} else if (!index.containsKey(path)) {
+				index.put(path, new FileSource(file));
+			}
+		}
+		parents.remove(canonicalPath);
+	}
+
+	/**
+	 * Adds all files of the given source archive, e.g. a source JAR, to the
+	 * index. The paths of the entries are relative to the root of the archive.
+	 *
+	 * @param archive
+	 *            ZIP file containing source files
+	 * @throws IOException
+	 *             if the archive can not be read
+	 */
+	public void addArchive(final File archive) throws IOException {
+		final ZipFile zip = new ZipFile(archive);
+		archives.add(zip);
+		final Enumeration<? extends ZipEntry> entries = zip.entries();
+		while (entries.hasMoreElements()) {
+			final ZipEntry entry = entries.nextElement();
+			if (!entry.isDirectory() && !index.containsKey(entry.getName())) {
+				index.put(entry.getName(), new ArchiveSource(zip, entry));
+			}
+		}
+	}
+
+	/**
+	 * Adds the given source root to the index. Files are considered as
+	 * archives, everything else as directories.
+	 *
+	 * @param root
+	 *            source directory or archive
+	 * @throws IOException
+	 *             if an archive can not be read
+	 */
+	public void add(final File root) throws IOException {
+		if (root.isFile()) {
+			addArchive(root);
+		} else {
+			addDirectory(root);
+		}
+	}
+
+	/**
+	 * Returns the number of source files in the index.
+	 *
+	 * @return number of indexed source files
+	 */
+	public int getSize() {
+		return index.size();
+	}
+
+	@Override
+	protected InputStream getSourceStream(final String path)
+			throws IOException {
+		final Source source = index.get(path);
+		return source == null ? null : source.open();
+	}
+
+	/**
+	 * Closes all source archives. Source files from archives can not be
+	 * located any more afterwards.
+	 *
+	 * @throws IOException
+	 *             if an archive can not be closed
+	 */
+	public void close() throws IOException {
+		for (final ZipFile zip : archives) {
+			zip.close();
+		}
+		archives.clear();
+	}
+
+	private interface Source {
+
+		InputStream open() throws IOException;
+
+	}
+
+	private static class FileSource implements Source {
+
+		private final File file;
+
+		FileSource(final File file) {
+			this.file = file;
+		}
+
+		public InputStream open() throws IOException {
+			return new FileInputStream(file);
+		}
+
+	}
+
+	private static class ArchiveSource implements Source {
+
+		private final ZipFile zip;
+
+		private final ZipEntry entry;
+
+		ArchiveSource(final ZipFile zip, final ZipEntry entry) {
+			this.zip = zip;
+			this.entry = entry;
+		}
+
+		public InputStream open() throws IOException {
+			return zip.getInputStream(entry);
+		}
+
+	}
+
+}
@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.SessionInfo;
 
@@ -55,7 +56,7 @@ public class MultiReportVisitor extends MultiGroupVisitor implements
 
 }
 
-class MultiGroupVisitor implements IReportGroupVisitor {
+class MultiGroupVisitor implements IStreamingGroupVisitor {
 
 	private final List<? extends IReportGroupVisitor> visitors;
 
@@ -70,6 +71,28 @@ class MultiGroupVisitor implements IReportGroupVisitor {
 		}
 	}
 
+	public IReportBundleVisitor visitBundle(final String name,
+			final ISourceFileLocator locator) throws IOException {
+		final List<IReportBundleVisitor> children = new ArrayList<IReportBundleVisitor>();
+		for (final IReportGroupVisitor v : visitors) {
+			children.add(BundleCollector.visitBundle(v, name, locator));
+		}
+		return new IReportBundleVisitor() {
+			public void visitPackage(final IPackageCoverage coverage)
+					throws IOException {
+				for (final IReportBundleVisitor v : children) {
+					v.visitPackage(coverage);
+				}
+			}
+
+			public void visitEnd() throws IOException {
+				for (final IReportBundleVisitor v : children) {
+					v.visitEnd();
+				}
+			}
+		};
+	}
+
 	public IReportGroupVisitor visitGroup(final String name) throws IOException {
 		final List<IReportGroupVisitor> children = new ArrayList<IReportGroupVisitor>();
 		for (final IReportGroupVisitor v : visitors) {
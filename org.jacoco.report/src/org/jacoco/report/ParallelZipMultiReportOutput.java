@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.jacoco.report.internal.OrderedTaskQueue;
+
+/**
+ * Implementation of {@link IMultiReportOutput} that writes files into a ZIP
+ * archive where the content of the entries is compressed by multiple worker
+ * threads. Entries are written to the archive in the order the files are
+ * closed. All entries get the same modification time, so for the same
+ * sequence of files the archive is byte-identical if the same time is
+ * specified.
+ *
+ * The content of each file is buffered in memory until it is closed. To
+ * limit memory consumption the number of entries which are compressed but not
+ * written yet is bounded. Like {@link ZipMultiReportOutput} instances are not
+ * thread safe.
+ */
+public class ParallelZipMultiReportOutput implements IMultiReportOutput {
+
+	private static final int LOCAL_HEADER = 0x04034b50;
+
+	private static final int CENTRAL_HEADER = 0x02014b50;
+
+	private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+	private static final int VERSION = 20;
+
+	/** general purpose flag: file names are encoded in UTF-8 */
+	private static final int FLAG_UTF8 = 0x0800;
+
+	private static final int METHOD_DEFLATED = 8;
+
+	private static final int MAX_ENTRIES = 0xffff;
+
+	private static final long MAX_SIZE = 0xffffffffL;
+
+	private final OutputStream out;
+
+	private final int dosTime;
+
+	private final int dosDate;
+
+	private final OrderedTaskQueue<Entry> pending;
+
+	private final List<Entry> entries;
+
+	private long offset;
+
+	/**
+	 * Creates a new instance writing to the given stream. The current time is
+	 * used as modification time of all entries.
+	 *
+	 * @param out
+	 *            stream to write the archive to
+	 * @param threads
+	 *            number of threads to compress entries with
+	 */
+	public ParallelZipMultiReportOutput(final OutputStream out,
+			final int threads) {
+		this(out, threads, System.currentTimeMillis());
+	}
+
+	/**
+	 * Creates a new instance writing to the given stream.
+	 *
+	 * @param out
+	 *            stream to write the archive to
+	 * @param threads
+	 *            number of threads to compress entries with
+	 * @param time
+	 *            modification time of all entries in milliseconds since the
+	 *            epoch
+	 */
+	public ParallelZipMultiReportOutput(final OutputStream out,
+			final int threads, final long time) {
+		this.out = out;
+		final Calendar c = Calendar.getInstance();
+		c.setTimeInMillis(time);
+		if (c.get(Calendar.YEAR) < 1980) {
+			dosTime = 0;
+			dosDate = (1 << 5) | 1;
+		} else {
+			dosTime = (c.get(Calendar.HOUR_OF_DAY) << 11)
+					| (c.get(Calendar.MINUTE) << 5)
+					| (c.get(Calendar.SECOND) >> 1);
+			dosDate = ((c.get(Calendar.YEAR) - 1980) << 9)
+					| ((c.get(Calendar.MONTH) + 1) << 5)
+					| c.get(Calendar.DAY_OF_MONTH);
+		}
+		this.pending = new OrderedTaskQueue<Entry>("jacoco-zip-deflate",
+				threads);
+		this.entries = new ArrayList<Entry>();
+		this.offset = 0;
+	}
+
+	public OutputStream createFile(final String path) throws IOException {
+		return new ByteArrayOutputStream() {
+			private boolean closed;
+
+			@Override
+			public void close() throws IOException {
+				if (!closed) {
+					closed = true;
+					submit(path, toByteArray());
+				}
+			}
+		};
+	}
+
+	private void submit(final String path, final byte[] content)
+			throws IOException {
+		pending.submit(new Callable<Entry>() {
+			public Entry call() throws IOException {
+				return new Entry(path, content);
+			}
+		});
+		while (pending.isFull() || pending.isNextDone()) {
+			writeEntry(pending.next());
+		}
+	}
+
+	/**
+	 * Writes all pending entries, the central directory and closes the
+	 * underlying stream.
+	 */
+	public void close() throws IOException {
+		try {
+			while (!pending.isEmpty()) {
+				writeEntry(pending.next());
+			}
+			writeCentralDirectory();
+			out.close();
+		} finally {
+			pending.shutdown();
+		}
+	}
+
+	private void writeEntry(final Entry entry) throws IOException {
+		if (entries.size() == MAX_ENTRIES || offset > MAX_SIZE) {
+			throw new IOException("Report too large for ZIP archive.");
+		}
+		entry.offset = offset;
+		entries.add(entry);
+		final byte[] header = new byte[30];
+		int pos = putInt(header, 0, LOCAL_HEADER);
+		pos = putShort(header, pos, VERSION);
+		pos = putEntryInfo(header, pos, entry);
+		putShort(header, pos, 0);
+		write(header);
+		write(entry.name);
+		write(entry.data);
+		entry.data = null;
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		final long start = offset;
+		for (final Entry entry : entries) {
+			final byte[] header = new byte[46];
+			int pos = putInt(header, 0, CENTRAL_HEADER);
+			pos = putShort(header, pos, VERSION);
+			pos = putShort(header, pos, VERSION);
+			pos = putEntryInfo(header, pos, entry);
+			// extra field, comment, disk number, attributes:
+			pos = putShort(header, pos, 0);
+			pos = putShort(header, pos, 0);
+			pos = putShort(header, pos, 0);
+			pos = putShort(header, pos, 0);
+			pos = putInt(header, pos, 0);
+			putInt(header, pos, (int) entry.offset);
+			write(header);
+			write(entry.name);
+		}
+		if (offset > MAX_SIZE) {
+			throw new IOException("Report too large for ZIP archive.");
+		}
+		final byte[] end = new byte[22];
+		int pos = putInt(end, 0, END_OF_CENTRAL_DIRECTORY);
+		pos = putShort(end, pos, 0);
+		pos = putShort(end, pos, 0);
+		pos = putShort(end, pos, entries.size());
+		pos = putShort(end, pos, entries.size());
+		pos = putInt(end, pos, (int) (offset - start));
+		pos = putInt(end, pos, (int) start);
+		putShort(end, pos, 0);
+		write(end);
+	}
+
+	/**
+	 * Puts the fields common to local and central headers, from the general
+	 * purpose flag to the file name length.
+	 */
+	private int putEntryInfo(final byte[] buffer, final int start,
+			final Entry entry) {
+		int pos = putShort(buffer, start, FLAG_UTF8);
+		pos = putShort(buffer, pos, METHOD_DEFLATED);
+		pos = putShort(buffer, pos, dosTime);
+		pos = putShort(buffer, pos, dosDate);
+		pos = putInt(buffer, pos, entry.crc);
+		pos = putInt(buffer, pos, entry.compressedSize);
+		pos = putInt(buffer, pos, entry.size);
+		return putShort(buffer, pos, entry.name.length);
+	}
+
+	private void write(final byte[] bytes) throws IOException {
+		out.write(bytes);
+		offset += bytes.length;
+	}
+
+	private static int putShort(final byte[] buffer, final int pos,
+			final int value) {
+		buffer[pos] = (byte) value;
+		buffer[pos + 1] = (byte) (value >> 8);
+		return pos + 2;
+	}
+
+	private static int putInt(final byte[] buffer, final int pos,
+			final int value) {
+		putShort(buffer, pos, value);
+		return putShort(buffer, pos + 2, value >> 16);
+	}
+
+	/**
+	 * Compressed archive entry.
+	 */
+	private static class Entry {
+
+		final byte[] name;
+
+		final int crc;
+
+		final int size;
+
+		final int compressedSize;
+
+		/** compressed data, released once written */
+		byte[] data;
+
+		long offset;
+
+		Entry(final String path, final byte[] content) throws IOException {
+			name = path.getBytes("UTF-8");
+			final CRC32 crc32 = new CRC32();
+			crc32.update(content);
+			crc = (int) crc32.getValue();
+			size = content.length;
+			data = deflate(content);
+			compressedSize = data.length;
+		}
+
+		private static byte[] deflate(final byte[] content) {
+			final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION,
+					true);
+			try {
+				deflater.setInput(content);
+				deflater.finish();
+				final ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+						content.length / 4 + 64);
+				final byte[] chunk = new byte[4096];
+				while (!deflater.finished()) {
+					final int len = deflater.deflate(chunk);
+					buffer.write(chunk, 0, len);
+				}
+				return buffer.toByteArray();
+			} finally {
+				deflater.end();
+			}
+		}
+
+	}
+
+}
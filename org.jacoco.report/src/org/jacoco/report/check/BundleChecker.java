@@ -11,8 +11,12 @@
  *******************************************************************************/
 package org.jacoco.report.check;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.IClassCoverage;
@@ -21,130 +25,304 @@ import org.jacoco.core.analysis.IMethodCoverage;
 import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.report.ILanguageNames;
+import org.jacoco.report.internal.OrderedTaskQueue;
 
 /**
  * Internal class to check a list of rules against a {@link IBundleCoverage}
  * instance.
+ * 
+ * Packages might be checked by multiple worker threads. Violations are always
+ * reported in the order the elements are passed to this checker and from the
+ * calling thread. In fail-fast mode only the first violation in this order is
+ * reported and all subsequent checks are skipped.
  */
 class BundleChecker {
 
 	private final ILanguageNames names;
 	private final IViolationsOutput output;
+	private final int threads;
+	private final boolean failFast;
 
-	private final Collection<Rule> bundleRules;
-	private final Collection<Rule> packageRules;
-	private final Collection<Rule> classRules;
-	private final Collection<Rule> sourceFileRules;
-	private final Collection<Rule> methodRules;
+	private final Rule[] bundleRules;
+	private final Rule[] packageRules;
+	private final Rule[] classRules;
+	private final Rule[] sourceFileRules;
+	private final Rule[] methodRules;
 
 	private final boolean traversePackages;
 	private final boolean traverseClasses;
 	private final boolean traverseSourceFiles;
 	private final boolean traverseMethods;
 
+	/** sequence number of the first element with a violation */
+	private final AtomicInteger firstViolation;
+
+	private OrderedTaskQueue<Violations> pending;
+
+	private int sequence;
+
+	private volatile boolean stopped;
+
 	public BundleChecker(final Collection<Rule> rules,
 			final ILanguageNames names, final IViolationsOutput output) {
+		this(rules, names, output, 1, false);
+	}
+
+	public BundleChecker(final Collection<Rule> rules,
+			final ILanguageNames names, final IViolationsOutput output,
+			final int threads, final boolean failFast) {
 		this.names = names;
 		this.output = output;
-		this.bundleRules = new ArrayList<Rule>();
-		this.packageRules = new ArrayList<Rule>();
-		this.classRules = new ArrayList<Rule>();
-		this.sourceFileRules = new ArrayList<Rule>();
-		this.methodRules = new ArrayList<Rule>();
+		this.threads = threads;
+		this.failFast = failFast;
+		final List<Rule> bundle = new ArrayList<Rule>();
+		final List<Rule> pkg = new ArrayList<Rule>();
+		final List<Rule> clazz = new ArrayList<Rule>();
+		final List<Rule> sourceFile = new ArrayList<Rule>();
+		final List<Rule> method = new ArrayList<Rule>();
 		for (final Rule rule : rules) {
 			switch (rule.getElement()) {
 			case BUNDLE:
-				bundleRules.add(rule);
+				bundle.add(rule);
 				break;
 			case PACKAGE:
-				packageRules.add(rule);
+				pkg.add(rule);
 				break;
 			case CLASS:
-				classRules.add(rule);
+				clazz.add(rule);
 				break;
 			case SOURCEFILE:
-				sourceFileRules.add(rule);
+				sourceFile.add(rule);
 				break;
 			case METHOD:
-				methodRules.add(rule);
+				method.add(rule);
 				break;
 			}
 		}
-		traverseMethods = !methodRules.isEmpty();
-		traverseClasses = !classRules.isEmpty() || traverseMethods;
-		traverseSourceFiles = !sourceFileRules.isEmpty();
-		traversePackages = !packageRules.isEmpty() || traverseClasses
+		bundleRules = toArray(bundle);
+		packageRules = toArray(pkg);
+		classRules = toArray(clazz);
+		sourceFileRules = toArray(sourceFile);
+		methodRules = toArray(method);
+		traverseMethods = methodRules.length > 0;
+		traverseClasses = classRules.length > 0 || traverseMethods;
+		traverseSourceFiles = sourceFileRules.length > 0;
+		traversePackages = packageRules.length > 0 || traverseClasses
 				|| traverseSourceFiles;
+		firstViolation = new AtomicInteger(Integer.MAX_VALUE);
+	}
+
+	private static Rule[] toArray(final List<Rule> rules) {
+		return rules.toArray(new Rule[rules.size()]);
 	}
 
 	public void checkBundle(final IBundleCoverage bundleCoverage) {
-		final String name = bundleCoverage.getName();
-		checkRules(bundleCoverage, bundleRules, "bundle", name);
-		if (traversePackages) {
-			for (final IPackageCoverage p : bundleCoverage.getPackages()) {
-				check(p);
-			}
+		checkBundleNode(bundleCoverage);
+		for (final IPackageCoverage p : bundleCoverage.getPackages()) {
+			checkPackage(p);
 		}
+		awaitPackages();
 	}
 
-	private void check(final IPackageCoverage packageCoverage) {
-		final String name = names.getPackageName(packageCoverage.getName());
-		checkRules(packageCoverage, packageRules, "package", name);
-		if (traverseClasses) {
-			for (final IClassCoverage c : packageCoverage.getClasses()) {
-				check(c);
-			}
+	public void checkBundleNode(final ICoverageNode bundleCoverage) {
+		awaitPackages();
+		if (stopped || bundleRules.length == 0) {
+			return;
+		}
+		final Violations violations = new Violations(sequence++);
+		violations.checkRules(bundleCoverage, bundleRules, "bundle",
+				bundleCoverage.getName());
+		report(violations);
+	}
+
+	public void checkPackage(final IPackageCoverage packageCoverage) {
+		if (stopped || !traversePackages) {
+			return;
 		}
-		if (traverseSourceFiles) {
-			for (final ISourceFileCoverage s : packageCoverage.getSourceFiles()) {
-				check(s);
+		final Violations violations = new Violations(sequence++);
+		if (threads == 1) {
+			violations.check(packageCoverage);
+			report(violations);
+			return;
+		}
+		if (pending == null) {
+			pending = new OrderedTaskQueue<Violations>("jacoco-check",
+					threads);
+		}
+		pending.submit(new Callable<Violations>() {
+			public Violations call() {
+				violations.check(packageCoverage);
+				return violations;
 			}
+		});
+		while (!stopped && (pending.isFull() || pending.isNextDone())) {
+			report(next());
 		}
 	}
 
-	private void check(final IClassCoverage classCoverage) {
-		final String name = names
-				.getQualifiedClassName(classCoverage.getName());
-		checkRules(classCoverage, classRules, "class", name);
-		if (traverseMethods) {
-			for (final IMethodCoverage m : classCoverage.getMethods()) {
-				check(m, classCoverage.getName());
+	/**
+	 * Reports the violations of all packages checked by worker threads and
+	 * terminates the workers.
+	 */
+	public void awaitPackages() {
+		if (pending == null) {
+			return;
+		}
+		try {
+			while (!stopped && !pending.isEmpty()) {
+				report(next());
 			}
+		} finally {
+			pending.shutdown();
+			pending = null;
 		}
 	}
 
-	private void check(final ISourceFileCoverage sourceFile) {
-		final String name = sourceFile.getPackageName() + "/"
-				+ sourceFile.getName();
-		checkRules(sourceFile, sourceFileRules, "source file", name);
+	private void report(final Violations violations) {
+		for (final Violation v : violations.list) {
+			output.onViolation(v.node, v.rule, v.limit, v.message);
+			if (failFast) {
+				stopped = true;
+				return;
+			}
+		}
 	}
 
-	private void check(final IMethodCoverage method, final String className) {
-		final String name = names.getQualifiedMethodName(className,
-				method.getName(), method.getDesc(), method.getSignature());
-		checkRules(method, methodRules, "method", name);
+	private Violations next() {
+		try {
+			return pending.next();
+		} catch (final IOException e) {
+			// checks do not throw checked exceptions, only interrupts
+			throw new IllegalStateException(
+					"Interrupted while checking coverage rules.", e);
+		}
 	}
 
-	private void checkRules(final ICoverageNode node,
-			final Collection<Rule> rules, final String typename,
-			final String elementname) {
-		for (final Rule rule : rules) {
-			if (rule.matches(elementname)) {
-				for (final Limit limit : rule.getLimits()) {
-					checkLimit(node, typename, elementname, rule, limit);
+	/**
+	 * Violations found for a single element and its children, collected by the
+	 * thread which performs the checks.
+	 */
+	private class Violations {
+
+		private final int index;
+
+		final List<Violation> list = new ArrayList<Violation>();
+
+		Violations(final int index) {
+			this.index = index;
+		}
+
+		/**
+		 * In fail-fast mode the check is aborted once it is clear that none of
+		 * its violations will be reported.
+		 */
+		private boolean aborted() {
+			return failFast && (!list.isEmpty() || firstViolation.get() < index);
+		}
+
+		void check(final IPackageCoverage packageCoverage) {
+			if (packageRules.length > 0) {
+				final String name = names
+						.getPackageName(packageCoverage.getName());
+				checkRules(packageCoverage, packageRules, "package", name);
+			}
+			if (traverseClasses) {
+				for (final IClassCoverage c : packageCoverage.getClasses()) {
+					if (aborted()) {
+						return;
+					}
+					check(c);
+				}
+			}
+			if (traverseSourceFiles) {
+				for (final ISourceFileCoverage s : packageCoverage
+						.getSourceFiles()) {
+					if (aborted()) {
+						return;
+					}
+					check(s);
+				}
+			}
+		}
+
+		private void check(final IClassCoverage classCoverage) {
+			if (classRules.length > 0) {
+				final String name = names
+						.getQualifiedClassName(classCoverage.getName());
+				checkRules(classCoverage, classRules, "class", name);
+			}
+			if (traverseMethods) {
+				for (final IMethodCoverage m : classCoverage.getMethods()) {
+					check(m, classCoverage.getName());
 				}
 			}
 		}
+
+		private void check(final ISourceFileCoverage sourceFile) {
+			final String name = sourceFile.getPackageName() + "/"
+					+ sourceFile.getName();
+			checkRules(sourceFile, sourceFileRules, "source file", name);
+		}
+
+		private void check(final IMethodCoverage method,
+				final String className) {
+			final String name = names.getQualifiedMethodName(className,
+					method.getName(), method.getDesc(), method.getSignature());
+			checkRules(method, methodRules, "method", name);
+		}
+
+		void checkRules(final ICoverageNode node, final Rule[] rules,
+				final String typename, final String elementname) {
+			for (final Rule rule : rules) {
+				if (aborted()) {
+					return;
+				}
+				if (rule.matches(elementname)) {
+					for (final Limit limit : rule.getLimits()) {
+						checkLimit(node, typename, elementname, rule, limit);
+					}
+				}
+			}
+		}
+
+		private void checkLimit(final ICoverageNode node,
+				final String elementtype, final String typename,
+				final Rule rule, final Limit limit) {
+			if (aborted()) {
+				return;
+			}
+			final String message = limit.check(node);
+			if (message != null) {
+				list.add(new Violation(node, rule, limit,
+						String.format("Rule violated for %s %s: %s",
+								elementtype, typename, message)));
+				if (failFast) {
+					int first;
+					do {
+						first = firstViolation.get();
+					} while (index < first
+							&& !firstViolation.compareAndSet(first, index));
+				}
+			}
+		}
+
 	}
 
-	private void checkLimit(final ICoverageNode node, final String elementtype,
-			final String typename, final Rule rule, final Limit limit) {
-		final String message = limit.check(node);
-		if (message != null) {
-			output.onViolation(node, rule, limit, String.format(
-					"Rule violated for %s %s: %s", elementtype, typename,
-					message));
+	private static class Violation {
+
+		final ICoverageNode node;
+		final Rule rule;
+		final Limit limit;
+		final String message;
+
+		Violation(final ICoverageNode node, final Rule rule,
+				final Limit limit, final String message) {
+			this.node = node;
+			this.rule = rule;
+			this.limit = limit;
+			this.message = message;
 		}
+
 	}
 
 }
@@ -31,6 +31,10 @@ public final class Rule {
 	private WildcardMatcher includesMatcher;
 	private WildcardMatcher excludesMatcher;
 
+	/** default patterns which can be evaluated without regular expressions */
+	private boolean includesAll;
+	private boolean excludesNone;
+
 	/**
 	 * Creates a new Rule without limits.
 	 */
@@ -70,6 +74,7 @@ public final class Rule {
 	public void setIncludes(final String includes) {
 		this.includes = includes;
 		this.includesMatcher = new WildcardMatcher(includes);
+		this.includesAll = "*".equals(includes);
 	}
 
 	/**
@@ -87,6 +92,7 @@ public final class Rule {
 	public void setExcludes(final String excludes) {
 		this.excludes = excludes;
 		this.excludesMatcher = new WildcardMatcher(excludes);
+		this.excludesNone = excludes.length() == 0;
 	}
 
 	/**
@@ -116,7 +122,14 @@ public final class Rule {
 	}
 
 	boolean matches(final String name) {
-		return includesMatcher.matches(name) && !excludesMatcher.matches(name);
+		if (!includesAll && !includesMatcher.matches(name)) {
+			return false;
+		}
+		if (excludesNone) {
+			// the empty pattern only matches the empty name
+			return name.length() != 0;
+		}
+		return !excludesMatcher.matches(name);
 	}
 
 }
@@ -16,13 +16,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.jacoco.core.analysis.CoverageNodeImpl;
 import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.SessionInfo;
 import org.jacoco.report.ILanguageNames;
+import org.jacoco.report.IReportBundleVisitor;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IStreamingGroupVisitor;
 import org.jacoco.report.JavaNames;
 
 /**
@@ -33,6 +38,8 @@ public class RulesChecker {
 
 	private List<Rule> rules;
 	private ILanguageNames languageNames;
+	private int threads;
+	private boolean failFast;
 
 	/**
 	 * New formatter instance.
@@ -40,6 +47,8 @@ public class RulesChecker {
 	public RulesChecker() {
 		this.rules = new ArrayList<Rule>();
 		this.setLanguageNames(new JavaNames());
+		this.threads = 1;
+		this.failFast = false;
 	}
 
 	/**
@@ -63,6 +72,36 @@ public class RulesChecker {
 		this.languageNames = languageNames;
 	}
 
+	/**
+	 * Sets the number of threads used to check the packages of a bundle. The
+	 * reported violations and their order do not depend on the number of
+	 * threads. Default is 1, i.e. all checks are performed by the thread
+	 * emitting the report data.
+	 * 
+	 * @param threads
+	 *            number of threads, must be positive
+	 */
+	public void setThreads(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Invalid number of threads " + threads);
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Sets whether checking should stop at the first violation. In this case
+	 * only the first violation is reported to the {@link IViolationsOutput}
+	 * and all remaining elements are skipped, which is sufficient if only the
+	 * overall result is required. Default is <code>false</code>.
+	 * 
+	 * @param failFast
+	 *            if <code>true</code> only the first violation is reported
+	 */
+	public void setFailFast(final boolean failFast) {
+		this.failFast = failFast;
+	}
+
 	/**
 	 * Creates a new visitor to process the configured checks.
 	 * 
@@ -72,8 +111,8 @@ public class RulesChecker {
 	 */
 	public IReportVisitor createVisitor(final IViolationsOutput output) {
 		final BundleChecker bundleChecker = new BundleChecker(rules,
-				languageNames, output);
-		return new IReportVisitor() {
+				languageNames, output, threads, failFast);
+		class RootVisitor implements IReportVisitor, IStreamingGroupVisitor {
 
 			public IReportGroupVisitor visitGroup(final String name)
 					throws IOException {
@@ -85,6 +124,23 @@ public class RulesChecker {
 				bundleChecker.checkBundle(bundle);
 			}
 
+			public IReportBundleVisitor visitBundle(final String name,
+					final ISourceFileLocator locator) throws IOException {
+				final CoverageNodeImpl total = new CoverageNodeImpl(
+						ElementType.BUNDLE, name);
+				return new IReportBundleVisitor() {
+					public void visitPackage(final IPackageCoverage coverage)
+							throws IOException {
+						total.increment(coverage);
+						bundleChecker.checkPackage(coverage);
+					}
+
+					public void visitEnd() throws IOException {
+						bundleChecker.checkBundleNode(total);
+					}
+				};
+			}
+
 			public void visitInfo(final List<SessionInfo> sessionInfos,
 					final Collection<ExecutionData> executionData)
 					throws IOException {
@@ -92,7 +148,8 @@ public class RulesChecker {
 
 			public void visitEnd() throws IOException {
 			}
-		};
+		}
+		return new RootVisitor();
 	}
 
 }
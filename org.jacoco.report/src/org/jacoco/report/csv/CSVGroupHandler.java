@@ -16,13 +16,15 @@ import java.io.IOException;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.report.IReportBundleVisitor;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IStreamingGroupVisitor;
 
 /**
  * Report visitor that handles coverage information for groups.
  */
-class CSVGroupHandler implements IReportGroupVisitor {
+class CSVGroupHandler implements IStreamingGroupVisitor {
 
 	private final ClassRowWriter writer;
 
@@ -39,15 +41,31 @@ class CSVGroupHandler implements IReportGroupVisitor {
 
 	public void visitBundle(final IBundleCoverage bundle,
 			final ISourceFileLocator locator) throws IOException {
-		final String name = appendName(bundle.getName());
+		final IReportBundleVisitor visitor = visitBundle(bundle.getName(),
+				locator);
 		for (final IPackageCoverage p : bundle.getPackages()) {
-			final String packageName = p.getName();
-			for (final IClassCoverage c : p.getClasses()) {
-				if (c.containsCode()) {
-					writer.writeRow(name, packageName, c);
+			visitor.visitPackage(p);
+		}
+		visitor.visitEnd();
+	}
+
+	public IReportBundleVisitor visitBundle(final String name,
+			final ISourceFileLocator locator) throws IOException {
+		final String bundleName = appendName(name);
+		return new IReportBundleVisitor() {
+			public void visitPackage(final IPackageCoverage coverage)
+					throws IOException {
+				final String packageName = coverage.getName();
+				for (final IClassCoverage c : coverage.getClasses()) {
+					if (c.containsCode()) {
+						writer.writeRow(bundleName, packageName, c);
+					}
 				}
 			}
-		}
+
+			public void visitEnd() throws IOException {
+			}
+		};
 	}
 
 	public IReportGroupVisitor visitGroup(final String name) throws IOException {
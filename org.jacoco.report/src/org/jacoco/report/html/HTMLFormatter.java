@@ -18,18 +18,23 @@ import java.util.Locale;
 
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.SessionInfo;
 import org.jacoco.report.ILanguageNames;
 import org.jacoco.report.IMultiReportOutput;
+import org.jacoco.report.IReportBundleVisitor;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.IReportVisitor;
 import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IStreamingGroupVisitor;
 import org.jacoco.report.JavaNames;
+import org.jacoco.report.internal.ConcurrentMultiReportOutput;
 import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLGroupVisitor;
 import org.jacoco.report.internal.html.IHTMLReportContext;
 import org.jacoco.report.internal.html.ILinkable;
+import org.jacoco.report.internal.html.RenderQueue;
 import org.jacoco.report.internal.html.index.ElementIndex;
 import org.jacoco.report.internal.html.index.IIndexUpdate;
 import org.jacoco.report.internal.html.page.BundlePage;
@@ -56,13 +61,24 @@ public class HTMLFormatter implements IHTMLReportContext {
 
 	private String outputEncoding = "UTF-8";
 
+	private int threads = 1;
+
+	private int tablePageSize = 0;
+
 	private Resources resources;
 
 	private ElementIndex index;
 
 	private SessionsPage sessionsPage;
 
-	private Table table;
+	private final ThreadLocal<Table> table = new ThreadLocal<Table>() {
+		@Override
+		protected Table initialValue() {
+			return createTable();
+		}
+	};
+
+	private RenderQueue renderQueue;
 
 	/**
 	 * New instance with default settings.
@@ -112,6 +128,42 @@ public class HTMLFormatter implements IHTMLReportContext {
 		this.outputEncoding = outputEncoding;
 	}
 
+	/**
+	 * Sets the number of threads used to render the pages of classes and
+	 * source files. With more than one thread the content of each page is
+	 * buffered in memory until it is complete. The generated report does not
+	 * depend on the number of threads. Default is 1, i.e. all pages are
+	 * rendered by the calling thread.
+	 * 
+	 * @param threads
+	 *            number of threads, must be positive
+	 */
+	public void setThreads(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Invalid number of threads " + threads);
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Sets the page size for tables with many elements, for example packages
+	 * with thousands of classes. For tables with more elements only the first
+	 * page is rendered as HTML. The data of all elements is written to a
+	 * separate script file from which the browser renders, sorts and pages the
+	 * table. Default is 0, i.e. all tables are completely rendered as HTML.
+	 * 
+	 * @param tablePageSize
+	 *            number of table rows per page or 0
+	 */
+	public void setTablePageSize(final int tablePageSize) {
+		if (tablePageSize < 0) {
+			throw new IllegalArgumentException(
+					"Invalid table page size " + tablePageSize);
+		}
+		this.tablePageSize = tablePageSize;
+	}
+
 	// === IHTMLReportContext ===
 
 	public ILanguageNames getLanguageNames() {
@@ -123,14 +175,12 @@ public class HTMLFormatter implements IHTMLReportContext {
 	}
 
 	public Table getTable() {
-		if (table == null) {
-			table = createTable();
-		}
-		return table;
+		return table.get();
 	}
 
 	private Table createTable() {
 		final Table t = new Table();
+		t.setPageSize(tablePageSize);
 		t.add("Element", null, new LabelColumn(), false);
 		t.add("Missed Instructions", Styles.BAR, new BarColumn(CounterEntity.INSTRUCTION,
 				locale), true);
@@ -171,6 +221,10 @@ public class HTMLFormatter implements IHTMLReportContext {
 		return index;
 	}
 
+	public RenderQueue getRenderQueue() {
+		return renderQueue;
+	}
+
 	public Locale getLocale() {
 		return locale;
 	}
@@ -186,11 +240,14 @@ public class HTMLFormatter implements IHTMLReportContext {
 	 */
 	public IReportVisitor createVisitor(final IMultiReportOutput output)
 			throws IOException {
-		final ReportOutputFolder root = new ReportOutputFolder(output);
+		renderQueue = new RenderQueue(threads);
+		final IMultiReportOutput out = renderQueue.isConcurrent()
+				? new ConcurrentMultiReportOutput(output) : output;
+		final ReportOutputFolder root = new ReportOutputFolder(out);
 		resources = new Resources(root);
 		resources.copyResources();
 		index = new ElementIndex(root);
-		return new IReportVisitor() {
+		class RootVisitor implements IReportVisitor, IStreamingGroupVisitor {
 
 			private List<SessionInfo> sessionInfos;
 			private Collection<ExecutionData> executionData;
@@ -212,6 +269,23 @@ public class HTMLFormatter implements IHTMLReportContext {
 				page.render();
 			}
 
+			public IReportBundleVisitor visitBundle(final String name,
+					final ISourceFileLocator locator) throws IOException {
+				final BundlePage page = new BundlePage(name, null, locator,
+						root, HTMLFormatter.this);
+				createSessionsPage(page);
+				return new IReportBundleVisitor() {
+					public void visitPackage(final IPackageCoverage coverage)
+							throws IOException {
+						page.addPackage(coverage);
+					}
+
+					public void visitEnd() throws IOException {
+						page.render();
+					}
+				};
+			}
+
 			public IReportGroupVisitor visitGroup(final String name)
 					throws IOException {
 				groupHandler = new HTMLGroupVisitor(null, root,
@@ -230,9 +304,11 @@ public class HTMLFormatter implements IHTMLReportContext {
 				if (groupHandler != null) {
 					groupHandler.visitEnd();
 				}
+				renderQueue.await();
 				sessionsPage.render();
-				output.close();
+				out.close();
 			}
-		};
+		}
+		return new RootVisitor();
 	}
 }
@@ -16,14 +16,18 @@ import java.io.IOException;
 import org.jacoco.core.analysis.CoverageNodeImpl;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.report.BundleCollector;
+import org.jacoco.report.IReportBundleVisitor;
 import org.jacoco.report.IReportGroupVisitor;
 import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IStreamingGroupVisitor;
 
 /**
  * Internal base visitor to calculate group counter summaries for hierarchical
  * reports.
  */
-public abstract class AbstractGroupVisitor implements IReportGroupVisitor {
+public abstract class AbstractGroupVisitor implements IStreamingGroupVisitor {
 
 	/** coverage node for this group to total counters */
 	protected final CoverageNodeImpl total;
@@ -60,6 +64,46 @@ public abstract class AbstractGroupVisitor implements IReportGroupVisitor {
 	protected abstract void handleBundle(IBundleCoverage bundle,
 			ISourceFileLocator locator) throws IOException;
 
+	public final IReportBundleVisitor visitBundle(final String name,
+			final ISourceFileLocator locator) throws IOException {
+		finalizeLastChild();
+		final IReportBundleVisitor handler = handleBundle(name, locator);
+		if (handler == null) {
+			return new BundleCollector(this, name, locator);
+		}
+		return new IReportBundleVisitor() {
+			public void visitPackage(final IPackageCoverage coverage)
+					throws IOException {
+				total.increment(coverage);
+				handler.visitPackage(coverage);
+			}
+
+			public void visitEnd() throws IOException {
+				handler.visitEnd();
+			}
+		};
+	}
+
+	/**
+	 * Called to handle a bundle with the given name whose packages are emitted
+	 * one by one. Subclasses may override this method to write every package
+	 * immediately. The default implementation returns <code>null</code>, in
+	 * this case all packages are collected and passed to
+	 * {@link #handleBundle(IBundleCoverage, ISourceFileLocator)}.
+	 * 
+	 * @param name
+	 *            name of the bundle
+	 * @param locator
+	 *            source locator
+	 * @return visitor for the packages of the bundle or <code>null</code>
+	 * @throws IOException
+	 *             if the report can't be written
+	 */
+	protected IReportBundleVisitor handleBundle(final String name,
+			final ISourceFileLocator locator) throws IOException {
+		return null;
+	}
+
 	public final IReportGroupVisitor visitGroup(final String name)
 			throws IOException {
 		finalizeLastChild();
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.jacoco.report.IMultiReportOutput;
+
+/**
+ * Wrapper for a {@link IMultiReportOutput} which allows to write multiple files
+ * concurrently from different threads. The content of every file is buffered
+ * in memory. Files are written to the underlying output in the order they have
+ * been created, each as soon as it and all files created before are closed.
+ * Therefore the sequence of files passed to the underlying output does not
+ * depend on the order in which concurrent writers finish.
+ */
+public class ConcurrentMultiReportOutput implements IMultiReportOutput {
+
+	private final IMultiReportOutput delegate;
+
+	private final LinkedList<BufferedFile> files;
+
+	/**
+	 * Creates a new wrapper.
+	 * 
+	 * @param delegate
+	 *            output to write the files to
+	 */
+	public ConcurrentMultiReportOutput(final IMultiReportOutput delegate) {
+		this.delegate = delegate;
+		this.files = new LinkedList<BufferedFile>();
+	}
+
+	public synchronized OutputStream createFile(final String path)
+			throws IOException {
+		final BufferedFile file = new BufferedFile(path);
+		files.add(file);
+		return file;
+	}
+
+	private synchronized void writeClosedFiles() throws IOException {
+		while (!files.isEmpty() && files.getFirst().closed) {
+			final BufferedFile file = files.removeFirst();
+			final OutputStream out = delegate.createFile(file.path);
+			try {
+				file.writeTo(out);
+			} finally {
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * Writes all files which have been closed and closes the underlying
+	 * output. Files which have not been closed are discarded.
+	 */
+	public synchronized void close() throws IOException {
+		final Iterator<BufferedFile> i = files.iterator();
+		while (i.hasNext()) {
+			if (!i.next().closed) {
+				i.remove();
+			}
+		}
+		writeClosedFiles();
+		delegate.close();
+	}
+
+	private class BufferedFile extends ByteArrayOutputStream {
+
+		final String path;
+
+		volatile boolean closed;
+
+		BufferedFile(final String path) {
+			this.path = path;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				writeClosedFiles();
+			}
+		}
+
+	}
+
+}
@@ -32,6 +32,9 @@ import java.util.Set;
  * <li>If unique filenames can't directly created from the ids, additional
  * suffixes are appended.</li>
  * </ul>
+ * 
+ * Instances are thread safe, but the names assigned to colliding ids depend on
+ * the order of the calls.
  */
 class NormalizedFileNames {
 
@@ -49,7 +52,7 @@ class NormalizedFileNames {
 
 	private final Set<String> usedNames = new HashSet<String>();
 
-	public String getFileName(final String id) {
+	public synchronized String getFileName(final String id) {
 		String name = mapping.get(id);
 		if (name != null) {
 			return name;
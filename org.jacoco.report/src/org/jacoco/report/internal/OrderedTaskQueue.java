@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executes tasks with a fixed number of daemon worker threads and provides
+ * their results in the order the tasks have been submitted. To limit the
+ * memory used by results which have not been consumed yet, callers should
+ * only submit new tasks while the queue is not full. Instances are not thread
+ * safe and should be used by a single thread only.
+ *
+ * @param <T>
+ *            type of the task results
+ */
+public class OrderedTaskQueue<T> {
+
+	/** Number of pending tasks per worker thread until the queue is full */
+	private static final int PENDING_PER_THREAD = 2;
+
+	private final ExecutorService executor;
+
+	private final int maxPending;
+
+	private final LinkedList<Future<? extends T>> pending;
+
+	/**
+	 * Creates a new queue with the given number of worker threads.
+	 *
+	 * @param name
+	 *            name of the worker threads
+	 * @param threads
+	 *            number of worker threads
+	 */
+	public OrderedTaskQueue(final String name, final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Invalid number of threads " + threads);
+		}
+		this.executor = Executors.newFixedThreadPool(threads,
+				new ThreadFactory() {
+					public Thread newThread(final Runnable r) {
+						final Thread t = new Thread(r, name);
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		this.maxPending = threads * PENDING_PER_THREAD;
+		this.pending = new LinkedList<Future<? extends T>>();
+	}
+
+	/**
+	 * Submits the given task for execution.
+	 *
+	 * @param task
+	 *            task to execute
+	 */
+	public void submit(final Callable<? extends T> task) {
+		pending.add(executor.submit(task));
+	}
+
+	/**
+	 * Checks whether no more tasks should be submitted before the next result
+	 * has been consumed.
+	 *
+	 * @return <code>true</code> if the maximum number of pending tasks is
+	 *         reached
+	 */
+	public boolean isFull() {
+		return pending.size() >= maxPending;
+	}
+
+	/**
+	 * Checks whether there is no pending task.
+	 *
+	 * @return <code>true</code> if all results have been consumed
+	 */
+	public boolean isEmpty() {
+		return pending.isEmpty();
+	}
+
+	/**
+	 * Checks whether the result of the next task is available without
+	 * waiting.
+	 *
+	 * @return <code>true</code> if the next task has been completed
+	 */
+	public boolean isNextDone() {
+		return !pending.isEmpty() && pending.getFirst().isDone();
+	}
+
+	/**
+	 * Waits for the oldest pending task and returns its result. If the task
+	 * failed its exception is thrown by this method, checked exceptions other
+	 * than {@link IOException} are wrapped in an {@link IOException}.
+	 *
+	 * @return result of the oldest pending task
+	 * @throws IOException
+	 *             if the task failed with an exception or the calling thread
+	 *             has been interrupted
+	 * @throws NoSuchElementException
+	 *             if there is no pending task
+	 */
+	public T next() throws IOException {
+		final Future<? extends T> future = pending.removeFirst();
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for task.");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			final IOException wrapper = new IOException(
+					String.valueOf(cause));
+			wrapper.initCause(cause);
+			throw wrapper;
+		}
+	}
+
+	/**
+	 * Cancels all pending tasks and terminates the worker threads. The queue
+	 * can not be used afterwards.
+	 */
+	public void shutdown() {
+		for (final Future<? extends T> f : pending) {
+			f.cancel(true);
+		}
+		pending.clear();
+		executor.shutdownNow();
+	}
+
+}
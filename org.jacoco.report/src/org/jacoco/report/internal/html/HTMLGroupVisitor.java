@@ -15,6 +15,8 @@ import java.io.IOException;
 
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.report.IReportBundleVisitor;
 import org.jacoco.report.ISourceFileLocator;
 import org.jacoco.report.internal.AbstractGroupVisitor;
 import org.jacoco.report.internal.ReportOutputFolder;
@@ -73,6 +75,24 @@ public class HTMLGroupVisitor extends AbstractGroupVisitor {
 		page.addItem(bundlepage);
 	}
 
+	@Override
+	protected IReportBundleVisitor handleBundle(final String name,
+			final ISourceFileLocator locator) throws IOException {
+		final BundlePage bundlepage = new BundlePage(name, page, locator,
+				folder.subFolder(name), context);
+		page.addItem(bundlepage);
+		return new IReportBundleVisitor() {
+			public void visitPackage(final IPackageCoverage coverage)
+					throws IOException {
+				bundlepage.addPackage(coverage);
+			}
+
+			public void visitEnd() throws IOException {
+				bundlepage.render();
+			}
+		};
+	}
+
 	@Override
 	protected AbstractGroupVisitor handleGroup(final String name)
 			throws IOException {
@@ -38,7 +38,8 @@ public interface IHTMLReportContext {
 	ILanguageNames getLanguageNames();
 
 	/**
-	 * Returns a table for rendering coverage nodes.
+	 * Returns a table for rendering coverage nodes. As tables are stateful
+	 * every thread gets its own instance.
 	 * 
 	 * @return table for rendering
 	 */
@@ -72,6 +73,13 @@ public interface IHTMLReportContext {
 	 */
 	IIndexUpdate getIndexUpdate();
 
+	/**
+	 * Returns the queue to render pages with.
+	 * 
+	 * @return queue for rendering tasks
+	 */
+	RenderQueue getRenderQueue();
+
 	/**
 	 * Returns the locale used to format numbers and dates.
 	 * 
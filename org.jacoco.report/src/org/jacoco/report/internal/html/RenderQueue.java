@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import org.jacoco.report.internal.OrderedTaskQueue;
+
+/**
+ * Executes rendering tasks for a HTML report. With a single thread all tasks
+ * are executed immediately by the calling thread. Otherwise tasks are executed
+ * by a fixed number of worker threads. The number of pending tasks is bounded:
+ * if too many tasks are pending the calling thread waits for the oldest one.
+ */
+public class RenderQueue {
+
+	private final OrderedTaskQueue<Object> pending;
+
+	/**
+	 * Creates a new queue.
+	 * 
+	 * @param threads
+	 *            number of worker threads, <code>1</code> to execute all
+	 *            tasks in the calling thread
+	 */
+	public RenderQueue(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Invalid number of threads " + threads);
+		}
+		if (threads == 1) {
+			pending = null;
+		} else {
+			pending = new OrderedTaskQueue<Object>("jacoco-html-report",
+					threads);
+		}
+	}
+
+	/**
+	 * Returns whether tasks might be executed concurrently.
+	 * 
+	 * @return <code>true</code> if tasks are executed by worker threads
+	 */
+	public boolean isConcurrent() {
+		return pending != null;
+	}
+
+	/**
+	 * Submits the given task for execution. Failures of previously submitted
+	 * tasks are reported by this method.
+	 * 
+	 * @param task
+	 *            task to execute
+	 * @throws IOException
+	 *             if this or a previous task failed
+	 */
+	public void submit(final Callable<?> task) throws IOException {
+		if (pending == null) {
+			call(task);
+			return;
+		}
+		while (pending.isFull() || pending.isNextDone()) {
+			pending.next();
+		}
+		pending.submit(task);
+	}
+
+	/**
+	 * Waits until all submitted tasks have been executed and terminates the
+	 * worker threads.
+	 * 
+	 * @throws IOException
+	 *             if a task failed
+	 */
+	public void await() throws IOException {
+		if (pending == null) {
+			return;
+		}
+		try {
+			while (!pending.isEmpty()) {
+				pending.next();
+			}
+		} finally {
+			pending.shutdown();
+		}
+	}
+
+	private static void call(final Callable<?> task) throws IOException {
+		try {
+			task.call();
+		} catch (final IOException e) {
+			throw e;
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Exception e) {
+			final IOException wrapper = new IOException(String.valueOf(e));
+			wrapper.initCause(e);
+			throw wrapper;
+		}
+	}
+
+}
@@ -13,8 +13,10 @@ package org.jacoco.report.internal.html.page;
 
 import java.io.IOException;
 
+import org.jacoco.core.analysis.CoverageNodeImpl;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
 import org.jacoco.core.analysis.IPackageCoverage;
 import org.jacoco.report.ISourceFileLocator;
 import org.jacoco.report.internal.ReportOutputFolder;
@@ -27,10 +29,14 @@ import org.jacoco.report.internal.html.IHTMLReportContext;
  */
 public class BundlePage extends TablePage<ICoverageNode> {
 
+	private final CoverageNodeImpl total;
+
 	private final ISourceFileLocator locator;
 
 	private IBundleCoverage bundle;
 
+	private boolean hasPackages;
+
 	/**
 	 * Creates a new visitor in the given context.
 	 * 
@@ -48,32 +54,75 @@ public class BundlePage extends TablePage<ICoverageNode> {
 	public BundlePage(final IBundleCoverage bundle, final ReportPage parent,
 			final ISourceFileLocator locator, final ReportOutputFolder folder,
 			final IHTMLReportContext context) {
-		super(bundle.getPlainCopy(), parent, folder, context);
+		this(bundle.getName(), parent, locator, folder, context);
 		this.bundle = bundle;
+	}
+
+	/**
+	 * Creates a new visitor in the given context for a bundle whose packages
+	 * are added with {@link #addPackage(IPackageCoverage)}.
+	 * 
+	 * @param name
+	 *            name of the bundle
+	 * @param parent
+	 *            optional hierarchical parent
+	 * @param locator
+	 *            source locator
+	 * @param folder
+	 *            base folder for this bundle
+	 * @param context
+	 *            settings context
+	 */
+	public BundlePage(final String name, final ReportPage parent,
+			final ISourceFileLocator locator, final ReportOutputFolder folder,
+			final IHTMLReportContext context) {
+		this(new CoverageNodeImpl(ElementType.BUNDLE, name), parent, locator,
+				folder, context);
+	}
+
+	private BundlePage(final CoverageNodeImpl total, final ReportPage parent,
+			final ISourceFileLocator locator, final ReportOutputFolder folder,
+			final IHTMLReportContext context) {
+		super(total, parent, folder, context);
+		this.total = total;
 		this.locator = locator;
 	}
 
-	@Override
-	public void render() throws IOException {
-		renderPackages();
-		super.render();
-		// Don't keep the bundle structure in memory
-		bundle = null;
+	/**
+	 * Renders the page of the given package immediately and adds it to this
+	 * bundle. Only the counters of the package are kept afterwards. Method
+	 * must be called before this page is rendered.
+	 * 
+	 * @param p
+	 *            coverage data of the package
+	 * @throws IOException
+	 *             if the package page can't be written
+	 */
+	public void addPackage(final IPackageCoverage p) throws IOException {
+		hasPackages = true;
+		total.increment(p);
+		if (!p.containsCode()) {
+			return;
+		}
+		final String packagename = p.getName();
+		final String foldername = packagename.length() == 0 ? "default"
+				: packagename.replace('/', '.');
+		final PackagePage page = new PackagePage(p, this, locator,
+				folder.subFolder(foldername), context);
+		page.render();
+		addItem(new PackageItem(page));
 	}
 
-	private void renderPackages() throws IOException {
-		for (final IPackageCoverage p : bundle.getPackages()) {
-			if (!p.containsCode()) {
-				continue;
+	@Override
+	public void render() throws IOException {
+		if (bundle != null) {
+			for (final IPackageCoverage p : bundle.getPackages()) {
+				addPackage(p);
 			}
-			final String packagename = p.getName();
-			final String foldername = packagename.length() == 0 ? "default"
-					: packagename.replace('/', '.');
-			final PackagePage page = new PackagePage(p, this, locator,
-					folder.subFolder(foldername), context);
-			page.render();
-			addItem(page);
+			// Don't keep the bundle structure in memory
+			bundle = null;
 		}
+		super.render();
 	}
 
 	@Override
@@ -88,9 +137,9 @@ public class BundlePage extends TablePage<ICoverageNode> {
 
 	@Override
 	protected void content(HTMLElement body) throws IOException {
-		if (bundle.getPackages().isEmpty()) {
+		if (!hasPackages) {
 			body.p().text("No class files specified.");
-		} else if (!bundle.containsCode()) {
+		} else if (!total.containsCode()) {
 			body.p().text(
 					"None of the analyzed classes contain code relevant for code coverage.");
 		} else {
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.html.page;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jacoco.report.internal.html.HTMLElement;
+
+/**
+ * Minimal lexer for Java source code which emits keywords, literals and
+ * comments as spans with the style classes of <code>prettify.css</code>. The
+ * lexer is line based and only keeps track of block comments spanning
+ * multiple lines. As it does not need to be exact for highlighting purposes it
+ * is also used for Kotlin, Groovy and Scala sources: comments, literals and
+ * annotations are highlighted the same way, but only keywords which also exist
+ * in Java are emitted as keywords.
+ */
+final class JavaLexer {
+
+	/** Style of keywords */
+	static final String KEYWORD = "kwd";
+
+	/** Style of string and character literals */
+	static final String STRING = "str";
+
+	/** Style of comments */
+	static final String COMMENT = "com";
+
+	/** Style of numbers and annotations */
+	static final String LITERAL = "lit";
+
+	private static final Set<String> KEYWORDS = new HashSet<String>(
+			Arrays.asList("abstract", "assert", "boolean", "break", "byte",
+					"case", "catch", "char", "class", "const", "continue",
+					"default", "do", "double", "else", "enum", "extends",
+					"false", "final", "finally", "float", "for", "goto", "if",
+					"implements", "import", "instanceof", "int", "interface",
+					"long", "native", "new", "null", "package", "private",
+					"protected", "public", "return", "short", "static",
+					"strictfp", "super", "switch", "synchronized", "this",
+					"throw", "throws", "transient", "true", "try", "void",
+					"volatile", "while"));
+
+	private boolean blockComment;
+
+	/**
+	 * Writes the highlighted tokens of the given line to the parent element.
+	 * Lines of the same source file have to be passed in order.
+	 *
+	 * @param parent
+	 *            element to write to
+	 * @param line
+	 *            source line without line terminator
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void render(final HTMLElement parent, final String line)
+			throws IOException {
+		final int length = line.length();
+		int plain = 0;
+		int pos = 0;
+		if (blockComment) {
+			pos = endOfBlockComment(line, 0);
+			parent.span(COMMENT).text(line.substring(0, pos));
+			plain = pos;
+		}
+		while (pos < length) {
+			final char c = line.charAt(pos);
+			final char next = pos + 1 < length ? line.charAt(pos + 1) : 0;
+			final int end;
+			final String style;
+			if (c == '/' && next == '/') {
+				end = length;
+				style = COMMENT;
+			} else if (c == '/' && next == '*') {
+				blockComment = true;
+				end = endOfBlockComment(line, pos + 2);
+				style = COMMENT;
+			} else if (c == '"' || c == '\'') {
+				end = endOfQuote(line, pos + 1, c);
+				style = STRING;
+			} else if (c == '@' && Character.isJavaIdentifierStart(next)) {
+				end = endOfIdentifier(line, pos + 1);
+				style = LITERAL;
+			} else if (Character.isJavaIdentifierStart(c)) {
+				end = endOfIdentifier(line, pos);
+				style = KEYWORDS.contains(line.substring(pos, end)) ? KEYWORD
+						: null;
+			} else if (isDigit(c) || (c == '.' && isDigit(next))) {
+				end = endOfNumber(line, pos);
+				style = LITERAL;
+			} else {
+				pos++;
+				continue;
+			}
+			if (style != null) {
+				if (plain < pos) {
+					parent.text(line.substring(plain, pos));
+				}
+				parent.span(style).text(line.substring(pos, end));
+				plain = end;
+			}
+			pos = end;
+		}
+		if (plain < length) {
+			parent.text(line.substring(plain));
+		}
+	}
+
+	private int endOfBlockComment(final String line, final int start) {
+		final int idx = line.indexOf("*/", start);
+		if (idx == -1) {
+			return line.length();
+		}
+		blockComment = false;
+		return idx + 2;
+	}
+
+	private static int endOfQuote(final String line, final int start,
+			final char quote) {
+		final int length = line.length();
+		int pos = start;
+		while (pos < length) {
+			final char c = line.charAt(pos);
+			if (c == quote) {
+				return pos + 1;
+			}
+			pos += c == '\\' ? 2 : 1;
+		}
+		return length;
+	}
+
+	private static int endOfIdentifier(final String line, final int start) {
+		final int length = line.length();
+		int pos = start;
+		while (pos < length
+				&& Character.isJavaIdentifierPart(line.charAt(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+
+	private static int endOfNumber(final String line, final int start) {
+		final int length = line.length();
+		int pos = start;
+		while (pos < length) {
+			final char c = line.charAt(pos);
+			if (Character.isLetterOrDigit(c) || c == '.' || c == '_') {
+				pos++;
+			} else if ((c == '+' || c == '-') && isExponent(line, start, pos)) {
+				pos++;
+			} else {
+				break;
+			}
+		}
+		return pos;
+	}
+
+	private static boolean isExponent(final String line, final int start,
+			final int pos) {
+		final char prev = line.charAt(pos - 1);
+		if (prev != 'e' && prev != 'E' && prev != 'p' && prev != 'P') {
+			return false;
+		}
+		// 'e' is a hex digit, only 'p' marks the exponent of hex literals
+		final boolean hex = pos - start > 2 && line.charAt(start) == '0'
+				&& (line.charAt(start + 1) == 'x'
+						|| line.charAt(start + 1) == 'X');
+		return hex ? prev == 'p' || prev == 'P' : prev == 'e' || prev == 'E';
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+}
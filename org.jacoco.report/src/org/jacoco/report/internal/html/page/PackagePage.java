@@ -72,7 +72,7 @@ public class PackagePage extends TablePage<IPackageCoverage> {
 					.getSourceFilePage(c.getSourceFileName());
 			final ClassPage page = new ClassPage(c, this, sourceFilePage,
 					folder, context);
-			page.render();
+			page.submitRender();
 			addItem(page);
 		}
 	}
@@ -90,7 +90,7 @@ public class PackageSourcePage extends TablePage<IPackageCoverage> {
 			} else {
 				final SourceFilePage sourcePage = new SourceFilePage(s, reader,
 						locator.getTabWidth(), this, folder, context);
-				sourcePage.render();
+				sourcePage.submitRender();
 				sourceFilePages.put(sourcename, sourcePage);
 				addItem(sourcePage);
 			}
@@ -12,6 +12,8 @@
 package org.jacoco.report.internal.html.page;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
 
 import org.jacoco.core.JaCoCo;
 import org.jacoco.report.internal.ReportOutputFolder;
@@ -36,6 +38,9 @@ public abstract class ReportPage implements ILinkable {
 	/** context for this report */
 	protected final IHTMLReportContext context;
 
+	/** output created in advance by {@link #submitRender()} */
+	private OutputStream output;
+
 	/**
 	 * Creates a new report page.
 	 * 
@@ -70,14 +75,36 @@ public abstract class ReportPage implements ILinkable {
 	 *             if the page can't be written
 	 */
 	public void render() throws IOException {
-		final HTMLElement html = new HTMLElement(
-				folder.createFile(getFileName()), context.getOutputEncoding());
+		final OutputStream out = output == null
+				? folder.createFile(getFileName()) : output;
+		output = null;
+		final HTMLElement html = new HTMLElement(out,
+				context.getOutputEncoding());
 		html.attr("lang", context.getLocale().getLanguage());
 		head(html.head());
 		body(html.body());
 		html.close();
 	}
 
+	/**
+	 * Renders this page with the render queue of the report context, i.e.
+	 * possibly concurrently. The output file is created immediately, so file
+	 * names are assigned in the order of the calls. Like {@link #render()} this
+	 * method must be called at most once.
+	 * 
+	 * @throws IOException
+	 *             if the page can't be written
+	 */
+	public void submitRender() throws IOException {
+		output = folder.createFile(getFileName());
+		context.getRenderQueue().submit(new Callable<Void>() {
+			public Void call() throws IOException {
+				render();
+				return null;
+			}
+		});
+	}
+
 	/**
 	 * Creates the elements within the head element.
 	 * 
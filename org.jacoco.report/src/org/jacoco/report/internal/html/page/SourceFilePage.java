@@ -11,8 +11,6 @@
  *******************************************************************************/
 package org.jacoco.report.internal.html.page;
 
-import static java.lang.String.format;
-
 import java.io.IOException;
 import java.io.Reader;
 
@@ -60,6 +58,7 @@ public class SourceFilePage extends NodePage<ISourceNode> {
 	@Override
 	protected void content(final HTMLElement body) throws IOException {
 		final SourceHighlighter hl = new SourceHighlighter(context.getLocale());
+		hl.setTabWidth(tabWidth);
 		hl.render(body, getNode(), sourceReader);
 		sourceReader.close();
 	}
@@ -69,14 +68,6 @@ public class SourceFilePage extends NodePage<ISourceNode> {
 		super.head(head);
 		head.link("stylesheet", context.getResources().getLink(folder,
 				Resources.PRETTIFY_STYLESHEET), "text/css");
-		head.script(context.getResources().getLink(folder,
-				Resources.PRETTIFY_SCRIPT));
-	}
-
-	@Override
-	protected String getOnload() {
-		return format("window['PR_TAB_WIDTH']=%d;prettyPrint()",
-				Integer.valueOf(tabWidth));
 	}
 
 	@Override
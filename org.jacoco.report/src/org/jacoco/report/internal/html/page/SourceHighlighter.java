@@ -14,7 +14,13 @@ package org.jacoco.report.internal.html.page;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ILine;
@@ -23,14 +29,27 @@ import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.resources.Styles;
 
 /**
- * Creates a highlighted output of a source file.
+ * Creates a highlighted output of a source file. Syntax highlighting and line
+ * numbers are rendered directly into the page, so no script has to process
+ * the source in the browser. Large sources are split into chunks of
+ * {@value #CHUNK_LINES} lines which the browser only renders when they become
+ * visible.
  */
 final class SourceHighlighter {
 
-	private final Locale locale;
+	/** Number of lines per chunk for large source files */
+	static final int CHUNK_LINES = 500;
+
+	/** Languages which are highlighted with {@link JavaLexer} */
+	private static final Set<String> LEXER_LANGUAGES = new HashSet<String>(
+			Arrays.asList("java", "kotlin", "groovy", "scala"));
+
+	private final NumberFormat numberFormat;
 
 	private String lang;
 
+	private int tabWidth;
+
 	/**
 	 * Creates a new highlighter with default settings.
 	 * 
@@ -38,13 +57,16 @@ final class SourceHighlighter {
 	 *            locale for tooltip rendering
 	 */
 	public SourceHighlighter(final Locale locale) {
-		this.locale = locale;
+		numberFormat = NumberFormat.getIntegerInstance(locale);
+		numberFormat.setGroupingUsed(false);
 		lang = "java";
+		tabWidth = 4;
 	}
 
 	/**
-	 * Specifies the source language. This value might be used for syntax
-	 * highlighting. Default is "java".
+	 * Specifies the source language. Syntax highlighting is applied to "java",
+	 * "kotlin", "groovy" and "scala" sources, other sources are rendered as
+	 * plain text. Default is "java".
 	 * 
 	 * @param lang
 	 *            source language identifier
@@ -53,6 +75,16 @@ final class SourceHighlighter {
 		this.lang = lang;
 	}
 
+	/**
+	 * Specifies the number of characters per tab. Default is 4.
+	 * 
+	 * @param tabWidth
+	 *            number of characters per tab
+	 */
+	public void setTabWidth(final int tabWidth) {
+		this.tabWidth = tabWidth;
+	}
+
 	/**
 	 * Highlights the given source file.
 	 * 
@@ -67,20 +99,49 @@ final class SourceHighlighter {
 	 */
 	public void render(final HTMLElement parent, final ISourceNode source,
 			final Reader contents) throws IOException {
-		final HTMLElement pre = parent.pre(Styles.SOURCE + " lang-" + lang
-				+ " linenums");
+		final List<String> lines = readLines(contents);
+		final boolean chunked = lines.size() > CHUNK_LINES;
+		final JavaLexer lexer = LEXER_LANGUAGES.contains(lang)
+				? new JavaLexer()
+				: null;
+		int nr = 0;
+		do {
+			final HTMLElement pre = parent.pre(Styles.combine(Styles.SOURCE,
+					"lang-" + lang, chunked ? Styles.CHUNK : null));
+			// Line numbers are generated by a CSS counter, so they don't
+			// bloat the page and are not copied with the source code:
+			pre.attr("style", "tab-size:" + tabWidth + ";-moz-tab-size:"
+					+ tabWidth + (nr == 0 ? "" : ";counter-reset:nr " + nr));
+			final int end = Math.min(nr + CHUNK_LINES, lines.size());
+			while (nr < end) {
+				final String line = lines.get(nr++);
+				renderCodeLine(pre, lexer, line, source.getLine(nr), nr);
+			}
+			pre.close();
+		} while (nr < lines.size());
+	}
+
+	private static List<String> readLines(final Reader contents)
+			throws IOException {
 		final BufferedReader lineBuffer = new BufferedReader(contents);
+		final List<String> lines = new ArrayList<String>();
 		String line;
-		int nr = 0;
 		while ((line = lineBuffer.readLine()) != null) {
-			nr++;
-			renderCodeLine(pre, line, source.getLine(nr), nr);
+			lines.add(line);
 		}
+		return lines;
 	}
 
-	private void renderCodeLine(final HTMLElement pre, final String linesrc,
-			final ILine line, final int lineNr) throws IOException {
-		highlight(pre, line, lineNr).text(linesrc);
+	private void renderCodeLine(final HTMLElement pre, final JavaLexer lexer,
+			final String linesrc, final ILine line, final int lineNr)
+			throws IOException {
+		pre.span(Styles.NR).text("");
+		final HTMLElement target = highlight(pre, line, lineNr);
+		if (lexer == null) {
+			target.text(linesrc);
+		} else {
+			lexer.render(target, linesrc);
+		}
 		pre.text("\n");
 	}
 
@@ -106,25 +167,31 @@ final class SourceHighlighter {
 		switch (branches.getStatus()) {
 		case ICounter.NOT_COVERED:
 			return span(pre, lineId, style, Styles.BRANCH_NOT_COVERED,
-					"All %2$d branches missed.", branches);
+					"All " + format(branches.getTotalCount())
+							+ " branches missed.");
 		case ICounter.FULLY_COVERED:
 			return span(pre, lineId, style, Styles.BRANCH_FULLY_COVERED,
-					"All %2$d branches covered.", branches);
+					"All " + format(branches.getTotalCount())
+							+ " branches covered.");
 		case ICounter.PARTLY_COVERED:
 			return span(pre, lineId, style, Styles.BRANCH_PARTLY_COVERED,
-					"%1$d of %2$d branches missed.", branches);
+					format(branches.getMissedCount()) + " of "
+							+ format(branches.getTotalCount())
+							+ " branches missed.");
 		default:
 			return pre.span(style, lineId);
 		}
 	}
 
+	private String format(final int count) {
+		return numberFormat.format(count);
+	}
+
 	private HTMLElement span(final HTMLElement parent, final String id,
-			final String style1, final String style2, final String title,
-			final ICounter branches) throws IOException {
+			final String style1, final String style2, final String title)
+			throws IOException {
 		final HTMLElement span = parent.span(style1 + " " + style2, id);
-		final Integer missed = Integer.valueOf(branches.getMissedCount());
-		final Integer total = Integer.valueOf(branches.getTotalCount());
-		span.attr("title", String.format(locale, title, missed, total));
+		span.attr("title", title);
 		return span;
 	}
 
@@ -61,6 +61,12 @@ public abstract class TablePage<NodeType extends ICoverageNode>
 		items.add(item);
 	}
 
+	private String getDataFileName() {
+		final String name = getFileName();
+		final int ext = name.lastIndexOf('.');
+		return (ext == -1 ? name : name.substring(0, ext)) + ".js";
+	}
+
 	@Override
 	protected void head(final HTMLElement head) throws IOException {
 		super.head(head);
@@ -71,7 +77,7 @@ public abstract class TablePage<NodeType extends ICoverageNode>
 	@Override
 	protected void content(final HTMLElement body) throws IOException {
 		context.getTable().render(body, items, getNode(),
-				context.getResources(), folder);
+				context.getResources(), folder, getDataFileName());
 		// free memory, otherwise we will keep the complete page tree:
 		items.clear();
 	}
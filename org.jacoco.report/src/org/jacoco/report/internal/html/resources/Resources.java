@@ -30,9 +30,6 @@ public class Resources {
 	/** The name of the prettify style sheet */
 	public static final String PRETTIFY_STYLESHEET = "prettify.css";
 
-	/** The name of the prettify script */
-	public static final String PRETTIFY_SCRIPT = "prettify.js";
-
 	/** The name of the sort script */
 	public static final String SORT_SCRIPT = "sort.js";
 
@@ -117,7 +114,6 @@ public class Resources {
 		copyResource(REDBAR);
 		copyResource(GREENBAR);
 		copyResource(PRETTIFY_STYLESHEET);
-		copyResource(PRETTIFY_SCRIPT);
 		copyResource(SORT_SCRIPT);
 	}
 
@@ -76,7 +76,10 @@ public final class Styles {
 	/** Block of source code */
 	public static final String SOURCE = "source";
 
-	/** Line number before each source line */
+	/** Part of a large block of source code, only rendered when visible */
+	public static final String CHUNK = "chunk";
+
+	/** Line number before each source line, rendered by a CSS counter */
 	public static final String NR = "nr";
 
 	/** Part of source code where instructions are not covered */
@@ -55,11 +55,35 @@
    */  
   function sortColumn(header, sortup) {
     var table = header.parentNode.parentNode.parentNode;
-    var body = table.tBodies[0];
-    var colidx = getNodePosition(header);
     
     resetSortedStyle(table);
     
+    if (tableData) {
+      sortData(header.id, sortup);
+    } else {
+      sortRows(table, header, sortup);
+    }
+    
+    var hash;
+    
+    if (sortup) {
+      header.className = 'up ' + header.className;
+      hash = 'up-' + header.id;
+    } else {
+      header.className = 'down ' + header.className;
+      hash = 'dn-' + header.id;
+    }
+    
+    setHash(hash);
+  }
+
+  /**
+   * Sorts the rows of the table body by the sort ids of the given column.
+   */  
+  function sortRows(table, header, sortup) {
+    var body = table.tBodies[0];
+    var colidx = getNodePosition(header);
+    
     var rows = body.rows;
     var sortedrows = [];
     for (var i = 0; i < rows.length; i++) {
@@ -67,23 +91,256 @@
       sortedrows[parseInt(r.childNodes[colidx].id.slice(1))] = r;
     }
     
-    var hash;
-    
     if (sortup) {
       for (var i = sortedrows.length - 1; i >= 0; i--) {
         body.appendChild(sortedrows[i]);
       }
-      header.className = 'up ' + header.className;
-      hash = 'up-' + header.id;
     } else {
       for (var i = 0; i < sortedrows.length; i++) {
         body.appendChild(sortedrows[i]);
       }
-      header.className = 'down ' + header.className;
-      hash = 'dn-' + header.id;
     }
-    
-    setHash(hash);
+  }
+
+  /**
+   * Data of tables with many rows which are rendered page-wise by this script.
+   * Every row consists of label, link, link style followed by missed and
+   * covered count for every counter entity.
+   */
+  var tableData = null;
+  var tableRows = null;
+  var tableHash = '';
+
+  /**
+   * Called by the data script of a paged table. The first page is already
+   * contained in the document.
+   */
+  function setTableData(data) {
+    tableData = data;
+    tableRows = data.rows;
+    for (var i = 0; i < data.columns.length; i++) {
+      var column = data.columns[i];
+      if (column.locale && !data.format) {
+        data.format = createFormat(column.locale, false);
+      }
+      column.format = createFormat(column.locale, column.type == 'percentage');
+      if (column.type == 'bar') {
+        column.max = 0;
+        for (var j = 0; j < tableRows.length; j++) {
+          column.max = Math.max(column.max, total(tableRows[j], column));
+        }
+      }
+    }
+    renderPager(0);
+  }
+
+  function missed(row, column) {
+    return row[3 + 2 * column.entity];
+  }
+
+  function covered(row, column) {
+    return row[4 + 2 * column.entity];
+  }
+
+  function total(row, column) {
+    return missed(row, column) + covered(row, column);
+  }
+
+  function createFormat(locale, percent) {
+    var options = percent ? { style: 'percent' } : {};
+    try {
+      var format = new Intl.NumberFormat(locale || undefined, options);
+      return function(value) { return format.format(value); };
+    } catch (e) {
+      return function(value) {
+        return percent ? Math.round(value * 100) + '%' : String(value);
+      };
+    }
+  }
+
+  /**
+   * Compares numbers like Java's Double.compare(), NaN is the greatest value.
+   */
+  function compareNumbers(a, b) {
+    if (isNaN(a)) {
+      return isNaN(b) ? 0 : 1;
+    }
+    if (isNaN(b)) {
+      return -1;
+    }
+    return a - b;
+  }
+
+  /**
+   * Comparators for the column types which create the same order as the
+   * server side comparators of the columns.
+   */
+  var comparators = {
+    label: function(column) {
+      return function(r1, r2) {
+        var l1 = r1[0].toLowerCase();
+        var l2 = r2[0].toLowerCase();
+        return l1 < l2 ? -1 : (l1 > l2 ? 1 : 0);
+      };
+    },
+    bar: function(column) {
+      return function(r1, r2) {
+        return compareNumbers(missed(r2, column), missed(r1, column))
+            || compareNumbers(total(r2, column), total(r1, column));
+      };
+    },
+    percentage: function(column) {
+      return function(r1, r2) {
+        return compareNumbers(missed(r1, column) / total(r1, column),
+            missed(r2, column) / total(r2, column));
+      };
+    },
+    counter: function(column) {
+      var value = counterValues[column.value];
+      return function(r1, r2) {
+        return compareNumbers(value(r2, column), value(r1, column));
+      };
+    }
+  };
+
+  var counterValues = {
+    missed: missed,
+    covered: covered,
+    total: total
+  };
+
+  /**
+   * Renderers for the cells of the column types.
+   */
+  var renderers = {
+    label: function(td, row, column) {
+      var a;
+      if (row[1] === null) {
+        a = document.createElement('span');
+      } else {
+        a = document.createElement('a');
+        a.setAttribute('href', row[1] + tableHash);
+      }
+      a.className = row[2];
+      a.appendChild(document.createTextNode(row[0]));
+      td.appendChild(a);
+    },
+    bar: function(td, row, column) {
+      if (column.max > 0) {
+        renderBar(td, missed(row, column), column.red, column);
+        renderBar(td, covered(row, column), column.green, column);
+      }
+    },
+    percentage: function(td, row, column) {
+      var t = total(row, column);
+      var text = 'n/a';
+      if (t > 0) {
+        text = column.format(Math.floor(covered(row, column) * 100 / t) / 100);
+      }
+      td.appendChild(document.createTextNode(text));
+    },
+    counter: function(td, row, column) {
+      var value = counterValues[column.value](row, column);
+      td.appendChild(document.createTextNode(column.format(value)));
+    }
+  };
+
+  function renderBar(td, count, image, column) {
+    var width = Math.floor(count * 120 / column.max);
+    if (width > 0) {
+      var img = document.createElement('img');
+      img.src = image;
+      img.width = width;
+      img.height = 10;
+      img.title = img.alt = column.format(count);
+      td.appendChild(img);
+    }
+  }
+
+  /**
+   * Sorts the table data by the column with the given id and shows the first
+   * page.
+   */
+  function sortData(id, sortup) {
+    for (var i = 0; i < tableData.columns.length; i++) {
+      var column = tableData.columns[i];
+      if (column.id == id) {
+        tableRows = tableData.rows.slice(0);
+        tableRows.sort(comparators[column.type](column));
+        if (sortup) {
+          tableRows.reverse();
+        }
+        renderPage(0);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Replaces the rows of the table body with the given page of the data.
+   */
+  function renderPage(page) {
+    var body = document.getElementById('coveragetable').tBodies[0];
+    while (body.firstChild) {
+      body.removeChild(body.firstChild);
+    }
+    var end = Math.min(tableRows.length, (page + 1) * tableData.pageSize);
+    for (var i = page * tableData.pageSize; i < end; i++) {
+      var tr = document.createElement('tr');
+      for (var j = 0; j < tableData.columns.length; j++) {
+        var column = tableData.columns[j];
+        var td = document.createElement('td');
+        if (column.style) {
+          td.className = column.style;
+        }
+        renderers[column.type](td, tableRows[i], column);
+        tr.appendChild(td);
+      }
+      body.appendChild(tr);
+    }
+    renderPager(page);
+  }
+
+  /**
+   * Creates or updates the navigation below the table.
+   */
+  function renderPager(page) {
+    var table = document.getElementById('coveragetable');
+    var pager = document.getElementById('pager');
+    if (!pager) {
+      pager = document.createElement('div');
+      pager.id = 'pager';
+      pager.className = 'pager';
+      table.parentNode.insertBefore(pager, table.nextSibling);
+    }
+    while (pager.firstChild) {
+      pager.removeChild(pager.firstChild);
+    }
+    var size = tableData.pageSize;
+    var pages = Math.ceil(tableRows.length / size);
+    var format = tableData.format || String;
+    renderPagerLink(pager, '\u00ab Previous', page > 0 ? page - 1 : -1);
+    pager.appendChild(document.createTextNode(' Rows '
+        + format(page * size + 1) + '\u2013'
+        + format(Math.min(tableRows.length, (page + 1) * size)) + ' of '
+        + format(tableRows.length) + ' '));
+    renderPagerLink(pager, 'Next \u00bb', page < pages - 1 ? page + 1 : -1);
+  }
+
+  function renderPagerLink(pager, label, page) {
+    var link;
+    if (page < 0) {
+      link = document.createElement('span');
+    } else {
+      link = document.createElement('a');
+      link.setAttribute('href', '#');
+      link.onclick = function() {
+        renderPage(page);
+        return false;
+      };
+    }
+    link.appendChild(document.createTextNode(label));
+    pager.appendChild(link);
   }
 
   /**
@@ -91,6 +348,7 @@
    */
   function setHash(hash) {
     window.document.location.hash = hash;
+    tableHash = '#' + hash;
     ids = window.linkelementids;
     for (var i = 0; i < ids.length; i++) {
         setHashOnAllLinks(document.getElementById(ids[i]), hash);
@@ -143,5 +401,6 @@
   
   window['initialSort'] = initialSort;
   window['toggleSort'] = toggleSort;
+  window['setTableData'] = setTableData;
 
 })();
\ No newline at end of file
@@ -25,6 +25,7 @@ import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
 import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 
 /**
  * Column with a graphical bar that represents the total amount of items in with
@@ -39,6 +40,8 @@ public class BarColumn implements IColumnRenderer {
 
 	private final NumberFormat integerFormat;
 
+	private final String languageTag;
+
 	private int max;
 
 	private final Comparator<ITableItem> comparator;
@@ -55,6 +58,7 @@ public class BarColumn implements IColumnRenderer {
 	public BarColumn(final CounterEntity entity, final Locale locale) {
 		this.entity = entity;
 		this.integerFormat = DecimalFormat.getIntegerInstance(locale);
+		this.languageTag = Table.getLanguageTag(locale);
 		this.comparator = new TableItemComparator(CounterComparator.MISSEDITEMS
 				.reverse().on(entity)
 				.second(CounterComparator.TOTALITEMS.reverse().on(entity)));
@@ -103,6 +107,15 @@ public class BarColumn implements IColumnRenderer {
 		}
 	}
 
+	public void describe(final JSONWriter json, final Resources resources,
+			final ReportOutputFolder base) throws IOException {
+		json.member("type", "bar");
+		json.member("entity", entity.ordinal());
+		json.member("locale", languageTag);
+		json.member("red", resources.getLink(base, Resources.REDBAR));
+		json.member("green", resources.getLink(base, Resources.GREENBAR));
+	}
+
 	public Comparator<ITableItem> getComparator() {
 		return comparator;
 	}
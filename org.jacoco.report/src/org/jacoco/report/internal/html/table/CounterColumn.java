@@ -25,6 +25,7 @@ import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
 import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 
 /**
  * Column that prints the counter values of entities for each item and a summary
@@ -44,8 +45,8 @@ public abstract class CounterColumn implements IColumnRenderer {
 	 */
 	public static CounterColumn newTotal(final CounterEntity entity,
 			final Locale locale) {
-		return new CounterColumn(entity, locale, CounterComparator.TOTALITEMS
-				.reverse().on(entity)) {
+		return new CounterColumn(entity, "total", locale,
+				CounterComparator.TOTALITEMS.reverse().on(entity)) {
 			@Override
 			protected int getValue(final ICounter counter) {
 				return counter.getTotalCount();
@@ -64,8 +65,8 @@ public abstract class CounterColumn implements IColumnRenderer {
 	 */
 	public static CounterColumn newMissed(final CounterEntity entity,
 			final Locale locale) {
-		return new CounterColumn(entity, locale, CounterComparator.MISSEDITEMS
-				.reverse().on(entity)) {
+		return new CounterColumn(entity, "missed", locale,
+				CounterComparator.MISSEDITEMS.reverse().on(entity)) {
 			@Override
 			protected int getValue(final ICounter counter) {
 				return counter.getMissedCount();
@@ -84,8 +85,8 @@ public abstract class CounterColumn implements IColumnRenderer {
 	 */
 	public static CounterColumn newCovered(final CounterEntity entity,
 			final Locale locale) {
-		return new CounterColumn(entity, locale, CounterComparator.COVEREDITEMS
-				.reverse().on(entity)) {
+		return new CounterColumn(entity, "covered", locale,
+				CounterComparator.COVEREDITEMS.reverse().on(entity)) {
 			@Override
 			protected int getValue(final ICounter counter) {
 				return counter.getCoveredCount();
@@ -95,8 +96,12 @@ public abstract class CounterColumn implements IColumnRenderer {
 
 	private final CounterEntity entity;
 
+	private final String value;
+
 	private final NumberFormat integerFormat;
 
+	private final String languageTag;
+
 	private final Comparator<ITableItem> comparator;
 
 	/**
@@ -105,15 +110,21 @@ public abstract class CounterColumn implements IColumnRenderer {
 	 * 
 	 * @param entity
 	 *            counter entity for this column
+	 * @param value
+	 *            name of the displayed counter value for browser side
+	 *            rendering: <code>missed</code>, <code>covered</code> or
+	 *            <code>total</code>
 	 * @param locale
 	 *            locale for rendering numbers
 	 * @param comparator
 	 *            comparator for the nodes of this column
 	 */
-	protected CounterColumn(final CounterEntity entity, final Locale locale,
-			final Comparator<ICoverageNode> comparator) {
+	protected CounterColumn(final CounterEntity entity, final String value,
+			final Locale locale, final Comparator<ICoverageNode> comparator) {
 		this.entity = entity;
+		this.value = value;
 		this.integerFormat = DecimalFormat.getIntegerInstance(locale);
+		this.languageTag = Table.getLanguageTag(locale);
 		this.comparator = new TableItemComparator(comparator);
 	}
 
@@ -145,6 +156,14 @@ public abstract class CounterColumn implements IColumnRenderer {
 		td.text(integerFormat.format(value));
 	}
 
+	public void describe(final JSONWriter json, final Resources resources,
+			final ReportOutputFolder base) throws IOException {
+		json.member("type", "counter");
+		json.member("value", value);
+		json.member("entity", entity.ordinal());
+		json.member("locale", languageTag);
+	}
+
 	public Comparator<ITableItem> getComparator() {
 		return comparator;
 	}
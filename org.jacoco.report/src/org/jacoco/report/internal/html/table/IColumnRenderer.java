@@ -19,6 +19,7 @@ import org.jacoco.core.analysis.ICoverageNode;
 import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 
 /**
  * Renderer for a single column of a coverage table. The methods are always
@@ -72,6 +73,23 @@ public interface IColumnRenderer {
 	void item(HTMLElement td, ITableItem item, Resources resources,
 			ReportOutputFolder base) throws IOException;
 
+	/**
+	 * Writes the description of this column for tables which are rendered by
+	 * the browser from JSON data. The column type and type specific properties
+	 * are written as members of the current JSON object.
+	 * 
+	 * @param json
+	 *            writer positioned within the column object
+	 * @param resources
+	 *            static resources that might be referenced
+	 * @param base
+	 *            base folder of the table
+	 * @throws IOException
+	 *             in case of IO problems with the data output
+	 */
+	void describe(JSONWriter json, Resources resources,
+			ReportOutputFolder base) throws IOException;
+
 	/**
 	 * Returns the comparator to sort this table column.
 	 * 
@@ -19,6 +19,7 @@ import org.jacoco.core.analysis.ICoverageNode;
 import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 
 /**
  * Column for the item label. The implementation is stateless, instances might
@@ -49,6 +50,11 @@ public class LabelColumn implements IColumnRenderer {
 		td.a(item, base);
 	}
 
+	public void describe(final JSONWriter json, final Resources resources,
+			final ReportOutputFolder base) throws IOException {
+		json.member("type", "label");
+	}
+
 	public Comparator<ITableItem> getComparator() {
 		return COMPARATOR;
 	}
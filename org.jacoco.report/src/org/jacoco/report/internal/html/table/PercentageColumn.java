@@ -26,6 +26,7 @@ import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
 import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.resources.Resources;
+import org.jacoco.report.internal.json.JSONWriter;
 
 /**
  * Column that prints the coverage percentage for each item and the total
@@ -38,6 +39,8 @@ public class PercentageColumn implements IColumnRenderer {
 
 	private final NumberFormat percentageFormat;
 
+	private final String languageTag;
+
 	private final Comparator<ITableItem> comparator;
 
 	/**
@@ -52,6 +55,7 @@ public class PercentageColumn implements IColumnRenderer {
 	public PercentageColumn(final CounterEntity entity, final Locale locale) {
 		this.entity = entity;
 		this.percentageFormat = NumberFormat.getPercentInstance(locale);
+		this.languageTag = Table.getLanguageTag(locale);
 		comparator = new TableItemComparator(
 				CounterComparator.MISSEDRATIO.on(entity));
 	}
@@ -95,6 +99,13 @@ public class PercentageColumn implements IColumnRenderer {
 				BigDecimal.valueOf(ratio).setScale(2, RoundingMode.FLOOR));
 	}
 
+	public void describe(final JSONWriter json, final Resources resources,
+			final ReportOutputFolder base) throws IOException {
+		json.member("type", "percentage");
+		json.member("entity", entity.ordinal());
+		json.member("locale", languageTag);
+	}
+
 	public Comparator<ITableItem> getComparator() {
 		return comparator;
 	}
@@ -11,17 +11,24 @@
  *******************************************************************************/
 package org.jacoco.report.internal.html.table;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 
+import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
 import org.jacoco.report.internal.ReportOutputFolder;
 import org.jacoco.report.internal.html.HTMLElement;
 import org.jacoco.report.internal.html.resources.Resources;
 import org.jacoco.report.internal.html.resources.Styles;
+import org.jacoco.report.internal.json.JSONWriter;
 
 /**
  * Renderer for a table of {@link ITableItem}s.
@@ -32,11 +39,32 @@ public class Table {
 
 	private Comparator<ITableItem> defaultComparator;
 
+	private int pageSize;
+
 	/**
 	 * Create a new table without any columns yet.
 	 */
 	public Table() {
 		this.columns = new ArrayList<Table.Column>();
+		this.pageSize = 0;
+	}
+
+	/**
+	 * Sets the page size for tables with many items. If a table has more items
+	 * than the given page size only the first page is rendered as HTML. The
+	 * data of all items is written as a separate script and the browser
+	 * renders, sorts and pages the rows from this data. The default value 0
+	 * renders all rows as HTML.
+	 * 
+	 * @param pageSize
+	 *            maximum number of rows rendered as HTML or 0
+	 */
+	public void setPageSize(final int pageSize) {
+		if (pageSize < 0) {
+			throw new IllegalArgumentException(
+					"Invalid page size " + pageSize);
+		}
+		this.pageSize = pageSize;
 	}
 
 	/**
@@ -81,27 +109,38 @@ public class Table {
 	 *            static resources that might be referenced
 	 * @param base
 	 *            base folder of the table
+	 * @param dataFile
+	 *            name of the script file in the base folder for the table
+	 *            data if the items exceed the page size
 	 * @throws IOException
 	 *             in case of IO problems with the element output
 	 */
 	public void render(final HTMLElement parent,
 			final List<? extends ITableItem> items, final ICoverageNode total,
-			final Resources resources, final ReportOutputFolder base)
-			throws IOException {
+			final Resources resources, final ReportOutputFolder base,
+			final String dataFile) throws IOException {
 		final List<? extends ITableItem> sortedItems = sort(items);
+		final boolean paged = pageSize > 0 && items.size() > pageSize;
 		final HTMLElement table = parent.table(Styles.COVERAGETABLE);
 		table.attr("id", "coveragetable");
-		header(table, sortedItems, total);
+		header(table, sortedItems, total, !paged);
 		footer(table, total, resources, base);
-		body(table, sortedItems, resources, base);
+		if (paged) {
+			body(table, sortedItems.subList(0, pageSize), false, resources,
+					base);
+			data(sortedItems, resources, base, dataFile);
+			parent.script(base.getLink(base, dataFile));
+		} else {
+			body(table, sortedItems, true, resources, base);
+		}
 	}
 
 	private void header(final HTMLElement table,
-			final List<? extends ITableItem> items, final ICoverageNode total)
-			throws IOException {
+			final List<? extends ITableItem> items, final ICoverageNode total,
+			final boolean sortIndex) throws IOException {
 		final HTMLElement tr = table.thead().tr();
 		for (final Column c : columns) {
-			c.init(tr, items, total);
+			c.init(tr, items, total, sortIndex);
 		}
 	}
 
@@ -115,19 +154,66 @@ public class Table {
 	}
 
 	private void body(final HTMLElement table,
-			final List<? extends ITableItem> items, final Resources resources,
-			final ReportOutputFolder base) throws IOException {
+			final List<? extends ITableItem> items, final boolean sortIds,
+			final Resources resources, final ReportOutputFolder base)
+			throws IOException {
 		final HTMLElement tbody = table.tbody();
 		int idx = 0;
 		for (final ITableItem item : items) {
 			final HTMLElement tr = tbody.tr();
 			for (final Column c : columns) {
-				c.body(tr, idx, item, resources, base);
+				c.body(tr, sortIds ? idx : -1, item, resources, base);
 			}
 			idx++;
 		}
 	}
 
+	/**
+	 * Writes all items as call of the function <code>setTableData()</code>
+	 * defined in <code>sort.js</code>. Every row holds the link of the item
+	 * followed by missed and covered count of all counter entities. Non-ASCII
+	 * characters are escaped as the page encoding is not known here.
+	 */
+	private void data(final List<? extends ITableItem> items,
+			final Resources resources, final ReportOutputFolder base,
+			final String dataFile) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(
+				base.createFile(dataFile), "US-ASCII"));
+		writer.write("setTableData(");
+		final JSONWriter json = new JSONWriter(writer, true);
+		json.beginObject();
+		json.member("pageSize", pageSize);
+		json.name("columns");
+		json.beginArray();
+		for (final Column c : columns) {
+			c.describe(json, resources, base);
+		}
+		json.endArray();
+		json.name("rows");
+		json.beginArray();
+		for (final ITableItem item : items) {
+			json.beginArray();
+			json.value(item.getLinkLabel());
+			final String link = item.getLink(base);
+			if (link == null) {
+				json.nullValue();
+			} else {
+				json.value(link);
+			}
+			json.value(item.getLinkStyle());
+			for (final CounterEntity entity : CounterEntity.values()) {
+				final ICounter counter = item.getNode().getCounter(entity);
+				json.value(counter.getMissedCount());
+				json.value(counter.getCoveredCount());
+			}
+			json.endArray();
+		}
+		json.endArray();
+		json.endObject();
+		writer.write(");");
+		json.close();
+	}
+
 	private List<? extends ITableItem> sort(
 			final List<? extends ITableItem> items) {
 		if (defaultComparator != null) {
@@ -138,6 +224,20 @@ public class Table {
 		return items;
 	}
 
+	/**
+	 * Returns the language tag for the given locale as used by the number
+	 * formats of browsers.
+	 * 
+	 * @param locale
+	 *            locale
+	 * @return language tag like <code>en-US</code>
+	 */
+	static String getLanguageTag(final Locale locale) {
+		final String country = locale.getCountry();
+		return country.length() == 0 ? locale.getLanguage()
+				: locale.getLanguage() + "-" + country;
+	}
+
 	private static class Column {
 
 		private final char idprefix;
@@ -160,10 +260,13 @@ public class Table {
 		}
 
 		void init(final HTMLElement tr, final List<? extends ITableItem> items,
-				final ICoverageNode total) throws IOException {
+				final ICoverageNode total, final boolean sortIndex)
+				throws IOException {
 			visible = renderer.init(items, total);
 			if (visible) {
-				index.init(items);
+				if (sortIndex) {
+					index.init(items);
+				}
 				final HTMLElement td = tr.td(headerStyle);
 				td.attr("id", String.valueOf(idprefix));
 				td.attr("onclick", "toggleSort(this)");
@@ -179,16 +282,34 @@ public class Table {
 			}
 		}
 
+		/**
+		 * Renders the cell of the item with the given index in the sorted
+		 * items list or -1 to omit the sort id.
+		 */
 		void body(final HTMLElement tr, final int idx, final ITableItem item,
 				final Resources resources, final ReportOutputFolder base)
 				throws IOException {
 			if (visible) {
 				final HTMLElement td = tr.td(style);
-				td.attr("id", idprefix + String.valueOf(index.getPosition(idx)));
+				if (idx != -1) {
+					td.attr("id",
+							idprefix + String.valueOf(index.getPosition(idx)));
+				}
 				renderer.item(td, item, resources, base);
 			}
 		}
 
+		void describe(final JSONWriter json, final Resources resources,
+				final ReportOutputFolder base) throws IOException {
+			if (visible) {
+				json.beginObject();
+				json.member("id", String.valueOf(idprefix));
+				json.member("style", style);
+				renderer.describe(json, resources, base);
+				json.endObject();
+			}
+		}
+
 	}
 
 }
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.json;
+
+import java.io.IOException;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.report.IReportBundleVisitor;
+
+/**
+ * A {@link IReportBundleVisitor} that writes each package as JSON object
+ * immediately. The bundle counters are written at the end and the object of
+ * the bundle is closed.
+ */
+public class JSONBundleVisitor implements IReportBundleVisitor {
+
+	private final JSONWriter writer;
+
+	private final CoverageNodeImpl total;
+
+	/**
+	 * New visitor for a bundle with the given name.
+	 * 
+	 * @param writer
+	 *            writer positioned within the open object of the bundle
+	 * @param name
+	 *            name of the bundle
+	 * @throws IOException
+	 *             if JSON can't be written to the underlying output
+	 */
+	public JSONBundleVisitor(final JSONWriter writer, final String name)
+			throws IOException {
+		this.writer = writer;
+		this.total = new CoverageNodeImpl(ElementType.BUNDLE, name);
+		writer.name("packages");
+		writer.beginArray();
+	}
+
+	public void visitPackage(final IPackageCoverage coverage)
+			throws IOException {
+		total.increment(coverage);
+		JSONCoverageWriter.writePackage(coverage, writer);
+	}
+
+	public void visitEnd() throws IOException {
+		writer.endArray();
+		JSONCoverageWriter.writeCounters(total, writer);
+		writer.endObject();
+	}
+
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.json;
+
+import java.io.IOException;
+
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ICoverageNode;
+import org.jacoco.core.analysis.ICoverageNode.CounterEntity;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.analysis.ISourceFileCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.data.SessionInfo;
+
+/**
+ * Serializes coverage data as JSON fragments. The structure follows the XML
+ * report: Every node is an object with a <code>name</code> member, members for
+ * its children and a <code>counters</code> member.
+ */
+public final class JSONCoverageWriter {
+
+	/**
+	 * Writes a session info object.
+	 * 
+	 * @param info
+	 *            session info
+	 * @param writer
+	 *            writer to write to
+	 * @throws IOException
+	 *             if JSON can't be written to the underlying output
+	 */
+	public static void writeSessionInfo(final SessionInfo info,
+			final JSONWriter writer) throws IOException {
+		writer.beginObject();
+		writer.member("id", info.getId());
+		writer.member("start", info.getStartTimeStamp());
+		writer.member("dump", info.getDumpTimeStamp());
+		writer.endObject();
+	}
+
+	/**
+	 * Writes the object of a given package.
+	 * 
+	 * @param p
+	 *            package coverage data
+	 * @param writer
+	 *            writer to write to
+	 * @throws IOException
+	 *             if JSON can't be written to the underlying output
+	 */
+	public static void writePackage(final IPackageCoverage p,
+			final JSONWriter writer) throws IOException {
+		writer.beginObject();
+		writer.member("name", p.getName());
+		writer.name("classes");
+		writer.beginArray();
+		for (final IClassCoverage c : p.getClasses()) {
+			writeClass(c, writer);
+		}
+		writer.endArray();
+		writer.name("sourcefiles");
+		writer.beginArray();
+		for (final ISourceFileCoverage s : p.getSourceFiles()) {
+			writeSourceFile(s, writer);
+		}
+		writer.endArray();
+		writeCounters(p, writer);
+		writer.endObject();
+	}
+
+	private static void writeClass(final IClassCoverage c,
+			final JSONWriter writer) throws IOException {
+		writer.beginObject();
+		writer.member("name", c.getName());
+		writer.member("sourcefilename", c.getSourceFileName());
+		writer.name("methods");
+		writer.beginArray();
+		for (final IMethodCoverage m : c.getMethods()) {
+			writeMethod(m, writer);
+		}
+		writer.endArray();
+		writeCounters(c, writer);
+		writer.endObject();
+	}
+
+	private static void writeMethod(final IMethodCoverage m,
+			final JSONWriter writer) throws IOException {
+		writer.beginObject();
+		writer.member("name", m.getName());
+		writer.member("desc", m.getDesc());
+		final int line = m.getFirstLine();
+		if (line != ISourceNode.UNKNOWN_LINE) {
+			writer.member("line", line);
+		}
+		writeCounters(m, writer);
+		writer.endObject();
+	}
+
+	private static void writeSourceFile(final ISourceFileCoverage s,
+			final JSONWriter writer) throws IOException {
+		writer.beginObject();
+		writer.member("name", s.getName());
+		writer.name("lines");
+		writer.beginArray();
+		final int last = s.getLastLine();
+		for (int nr = s.getFirstLine(); nr <= last; nr++) {
+			final ILine line = s.getLine(nr);
+			if (line.getStatus() != ICounter.EMPTY) {
+				writeLine(nr, line, writer);
+			}
+		}
+		writer.endArray();
+		writeCounters(s, writer);
+		writer.endObject();
+	}
+
+	private static void writeLine(final int nr, final ILine line,
+			final JSONWriter writer) throws IOException {
+		writer.beginObject();
+		writer.member("nr", nr);
+		writer.member("mi", line.getInstructionCounter().getMissedCount());
+		writer.member("ci", line.getInstructionCounter().getCoveredCount());
+		writer.member("mb", line.getBranchCounter().getMissedCount());
+		writer.member("cb", line.getBranchCounter().getCoveredCount());
+		writer.endObject();
+	}
+
+	/**
+	 * Writes the <code>counters</code> member with all non-zero counters of
+	 * the given node.
+	 * 
+	 * @param node
+	 *            node to retrieve counters from
+	 * @param writer
+	 *            writer to write to
+	 * @throws IOException
+	 *             if JSON can't be written to the underlying output
+	 */
+	public static void writeCounters(final ICoverageNode node,
+			final JSONWriter writer) throws IOException {
+		writer.name("counters");
+		writer.beginObject();
+		for (final CounterEntity counterEntity : CounterEntity.values()) {
+			final ICounter counter = node.getCounter(counterEntity);
+			if (counter.getTotalCount() > 0) {
+				writer.name(counterEntity.name());
+				writer.beginObject();
+				writer.member("missed", counter.getMissedCount());
+				writer.member("covered", counter.getCoveredCount());
+				writer.endObject();
+			}
+		}
+		writer.endObject();
+	}
+
+	private JSONCoverageWriter() {
+	}
+
+}
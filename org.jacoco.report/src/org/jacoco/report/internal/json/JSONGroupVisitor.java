@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.json;
+
+import java.io.IOException;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.report.IReportBundleVisitor;
+import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.internal.AbstractGroupVisitor;
+
+/**
+ * A {@link org.jacoco.report.IReportGroupVisitor} that transforms the report
+ * structure into JSON objects. Groups and bundles are both written to the
+ * <code>groups</code> member of their parent.
+ */
+public class JSONGroupVisitor extends AbstractGroupVisitor {
+
+	private final JSONWriter writer;
+
+	private boolean hasChildren;
+
+	/**
+	 * New handler for a group with the given name.
+	 * 
+	 * @param writer
+	 *            writer positioned within the open object of the group
+	 * @param name
+	 *            name of the group
+	 */
+	public JSONGroupVisitor(final JSONWriter writer, final String name) {
+		super(name);
+		this.writer = writer;
+		this.hasChildren = false;
+	}
+
+	private void beginChild(final String name) throws IOException {
+		if (!hasChildren) {
+			writer.name("groups");
+			writer.beginArray();
+			hasChildren = true;
+		}
+		writer.beginObject();
+		writer.member("name", name);
+	}
+
+	@Override
+	protected void handleBundle(final IBundleCoverage bundle,
+			final ISourceFileLocator locator) throws IOException {
+		final IReportBundleVisitor visitor = handleBundle(bundle.getName(),
+				locator);
+		for (final IPackageCoverage p : bundle.getPackages()) {
+			visitor.visitPackage(p);
+		}
+		visitor.visitEnd();
+	}
+
+	@Override
+	protected IReportBundleVisitor handleBundle(final String name,
+			final ISourceFileLocator locator) throws IOException {
+		beginChild(name);
+		return new JSONBundleVisitor(writer, name);
+	}
+
+	@Override
+	protected AbstractGroupVisitor handleGroup(final String name)
+			throws IOException {
+		beginChild(name);
+		return new JSONGroupVisitor(writer, name);
+	}
+
+	@Override
+	protected void handleEnd() throws IOException {
+		if (hasChildren) {
+			writer.endArray();
+		}
+		JSONCoverageWriter.writeCounters(total, writer);
+		writer.endObject();
+	}
+
+}
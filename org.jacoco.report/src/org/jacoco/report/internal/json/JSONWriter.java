@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Streaming writer for JSON documents with minimal memory overhead. Separators
+ * between values are inserted automatically. The sequence of calls is not
+ * validated, callers are responsible for creating a well formed document.
+ */
+public class JSONWriter {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final Writer writer;
+
+	private final boolean ascii;
+
+	/** whether the container on the respective nesting level has values */
+	private boolean[] hasValues;
+
+	private int depth;
+
+	private boolean afterName;
+
+	/**
+	 * Creates a new writer for a JSON document in UTF-8 encoding.
+	 * 
+	 * @param output
+	 *            output stream will be closed if the writer is closed
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public JSONWriter(final OutputStream output) throws IOException {
+		this(new BufferedWriter(new OutputStreamWriter(output, "UTF-8")),
+				false);
+	}
+
+	/**
+	 * Creates a new writer for a JSON document on the given character stream.
+	 * Optionally all non-ASCII characters are escaped, so the document can be
+	 * embedded into content of any ASCII compatible encoding.
+	 * 
+	 * @param writer
+	 *            character stream will be closed if the writer is closed
+	 * @param ascii
+	 *            if <code>true</code> non-ASCII characters are escaped
+	 */
+	public JSONWriter(final Writer writer, final boolean ascii) {
+		this.writer = writer;
+		this.ascii = ascii;
+		this.hasValues = new boolean[16];
+		this.depth = 0;
+		this.afterName = false;
+	}
+
+	/**
+	 * Starts a new object.
+	 * 
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void beginObject() throws IOException {
+		begin('{');
+	}
+
+	/**
+	 * Ends the current object.
+	 * 
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void endObject() throws IOException {
+		end('}');
+	}
+
+	/**
+	 * Starts a new array.
+	 * 
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void beginArray() throws IOException {
+		begin('[');
+	}
+
+	/**
+	 * Ends the current array.
+	 * 
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void endArray() throws IOException {
+		end(']');
+	}
+
+	/**
+	 * Writes the name of the next member of the current object. The next call
+	 * must write its value.
+	 * 
+	 * @param name
+	 *            member name
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void name(final String name) throws IOException {
+		separate();
+		string(name);
+		writer.write(':');
+		afterName = true;
+	}
+
+	/**
+	 * Writes a member with a string value. If the value is <code>null</code>
+	 * the member is omitted.
+	 * 
+	 * @param name
+	 *            member name
+	 * @param value
+	 *            member value or <code>null</code>
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void member(final String name, final String value)
+			throws IOException {
+		if (value != null) {
+			name(name);
+			value(value);
+		}
+	}
+
+	/**
+	 * Writes a member with a numeric value.
+	 * 
+	 * @param name
+	 *            member name
+	 * @param value
+	 *            member value
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void member(final String name, final long value)
+			throws IOException {
+		name(name);
+		value(value);
+	}
+
+	/**
+	 * Writes a string value.
+	 * 
+	 * @param value
+	 *            string value
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void value(final String value) throws IOException {
+		separate();
+		string(value);
+	}
+
+	/**
+	 * Writes a numeric value.
+	 * 
+	 * @param value
+	 *            numeric value
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void value(final long value) throws IOException {
+		separate();
+		writer.write(Long.toString(value));
+	}
+
+	/**
+	 * Writes a <code>null</code> value.
+	 * 
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void nullValue() throws IOException {
+		separate();
+		writer.write("null");
+	}
+
+	/**
+	 * Closes the writer and the underlying output stream.
+	 * 
+	 * @throws IOException
+	 *             in case of problems with the underlying output
+	 */
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private void begin(final char bracket) throws IOException {
+		separate();
+		writer.write(bracket);
+		depth++;
+		if (depth == hasValues.length) {
+			final boolean[] newHasValues = new boolean[depth * 2];
+			System.arraycopy(hasValues, 0, newHasValues, 0, depth);
+			hasValues = newHasValues;
+		}
+		hasValues[depth] = false;
+	}
+
+	private void end(final char bracket) throws IOException {
+		depth--;
+		writer.write(bracket);
+	}
+
+	private void separate() throws IOException {
+		if (afterName) {
+			afterName = false;
+			return;
+		}
+		if (hasValues[depth]) {
+			writer.write(',');
+		}
+		hasValues[depth] = true;
+	}
+
+	/**
+	 * Writes the given string as JSON string literal. Runs of characters which
+	 * need no escaping are written in one call.
+	 */
+	private void string(final String s) throws IOException {
+		writer.write('"');
+		final int len = s.length();
+		int start = 0;
+		for (int i = 0; i < len; i++) {
+			final char c = s.charAt(i);
+			if (c >= 0x20 && c != '"' && c != '\\'
+					&& (c < 0x7f || !ascii)) {
+				continue;
+			}
+			writer.write(s, start, i - start);
+			switch (c) {
+			case '"':
+				writer.write("\\\"");
+				break;
+			case '\\':
+				writer.write("\\\\");
+				break;
+			case '\n':
+				writer.write("\\n");
+				break;
+			case '\r':
+				writer.write("\\r");
+				break;
+			case '\t':
+				writer.write("\\t");
+				break;
+			default:
+				writer.write("\\u");
+				writer.write(HEX[c >> 12]);
+				writer.write(HEX[(c >> 8) & 0xf]);
+				writer.write(HEX[(c >> 4) & 0xf]);
+				writer.write(HEX[c & 0xf]);
+				break;
+			}
+			start = i + 1;
+		}
+		writer.write(s, start, len - start);
+		writer.write('"');
+	}
+
+}
@@ -30,6 +30,9 @@ public class ReportElement extends XMLElement {
 
 	private static final String SYSTEM = "report.dtd";
 
+	private static final Tag LINE = new Tag("line", "nr", "mi", "ci", "mb",
+			"cb");
+
 	/**
 	 * Creates a <code>report</code> root element for a XML report.
 	 * 
@@ -168,10 +171,11 @@ public class ReportElement extends XMLElement {
 	 *             in case of problems with the underlying output
 	 */
 	public void line(final int nr, final ILine line) throws IOException {
-		final ReportElement element = element("line");
-		element.attr("nr", nr);
-		counterAttributes(element, "mi", "ci", line.getInstructionCounter());
-		counterAttributes(element, "mb", "cb", line.getBranchCounter());
+		final ICounter instructions = line.getInstructionCounter();
+		final ICounter branches = line.getBranchCounter();
+		element(LINE, nr, instructions.getMissedCount(),
+				instructions.getCoveredCount(), branches.getMissedCount(),
+				branches.getCoveredCount());
 	}
 
 	/**
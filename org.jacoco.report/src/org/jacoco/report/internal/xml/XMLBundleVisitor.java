@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.internal.xml;
+
+import java.io.IOException;
+
+import org.jacoco.core.analysis.CoverageNodeImpl;
+import org.jacoco.core.analysis.ICoverageNode.ElementType;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.report.IReportBundleVisitor;
+
+/**
+ * A {@link IReportBundleVisitor} that writes each package as XML element
+ * immediately. The bundle counters are written at the end.
+ */
+public class XMLBundleVisitor implements IReportBundleVisitor {
+
+	private final ReportElement element;
+
+	private final CoverageNodeImpl total;
+
+	/**
+	 * New visitor for a bundle with the given name.
+	 * 
+	 * @param element
+	 *            container element for the bundle data
+	 * @param name
+	 *            name of the bundle
+	 */
+	public XMLBundleVisitor(final ReportElement element, final String name) {
+		this.element = element;
+		this.total = new CoverageNodeImpl(ElementType.BUNDLE, name);
+	}
+
+	public void visitPackage(final IPackageCoverage coverage)
+			throws IOException {
+		total.increment(coverage);
+		XMLCoverageWriter.writePackage(coverage, element);
+	}
+
+	public void visitEnd() throws IOException {
+		XMLCoverageWriter.writeCounters(total, element);
+	}
+
+}
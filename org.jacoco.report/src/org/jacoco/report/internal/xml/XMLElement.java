@@ -13,6 +13,7 @@ package org.jacoco.report.internal.xml;
 
 import static java.lang.String.format;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -21,6 +22,7 @@ import java.io.Writer;
 /**
  * Simple API to create well formed XML streams with minimal memory overhead. A
  * {@link XMLElement} instance represents a single element in a XML document.
+ * The output is buffered and only flushed when the root element is closed.
  * {@link XMLElement} can be used directly or might be subclassed for schema
  * specific convenience methods.
  */
@@ -80,7 +82,8 @@ public class XMLElement {
 			final String system, final boolean standalone,
 			final String encoding, final OutputStream output)
 			throws IOException {
-		this(new OutputStreamWriter(output, encoding), name, true);
+		this(new BufferedWriter(new OutputStreamWriter(output, encoding)),
+				name, true);
 		if (standalone) {
 			writer.write(format(HEADER_STANDALONE, encoding));
 		} else {
@@ -131,28 +134,46 @@ public class XMLElement {
 		}
 	}
 
+	/**
+	 * Writes the given text with XML special characters replaced by entities.
+	 * Runs of characters which need no replacement are written in one call.
+	 */
 	private void quote(final String text) throws IOException {
 		final int len = text.length();
+		int start = 0;
 		for (int i = 0; i < len; i++) {
-			final char c = text.charAt(i);
-			switch (c) {
+			final String entity;
+			switch (text.charAt(i)) {
 			case '<':
-				writer.write("&lt;");
+				entity = "&lt;";
 				break;
 			case '>':
-				writer.write("&gt;");
+				entity = "&gt;";
 				break;
 			case '"':
-				writer.write("&quot;");
+				entity = "&quot;";
 				break;
 			case '&':
-				writer.write("&amp;");
+				entity = "&amp;";
 				break;
 			default:
-				writer.write(c);
-				break;
+				continue;
 			}
+			writer.write(text, start, i - start);
+			writer.write(entity);
+			start = i + 1;
+		}
+		writer.write(text, start, len - start);
+	}
+
+	private void attrStart(final String name) throws IOException {
+		if (closed || openTagDone) {
+			throw new IOException(
+					format("Element %s already closed.", this.name));
 		}
+		writer.write(' ');
+		writer.write(name);
+		writer.write("=\"");
 	}
 
 	/**
@@ -174,14 +195,7 @@ public class XMLElement {
 		if (value == null) {
 			return;
 		}
-		if (closed || openTagDone) {
-			throw new IOException(
-					format("Element %s already closed.", this.name));
-		}
-		writer.write(' ');
-		writer.write(name);
-		writer.write('=');
-		writer.write('"');
+		attrStart(name);
 		quote(value);
 		writer.write('"');
 	}
@@ -201,7 +215,10 @@ public class XMLElement {
 	 */
 	public final void attr(final String name, final int value)
 			throws IOException {
-		attr(name, String.valueOf(value));
+		// decimal numbers never need quoting
+		attrStart(name);
+		writer.write(Integer.toString(value));
+		writer.write('"');
 	}
 
 	/**
@@ -219,7 +236,9 @@ public class XMLElement {
 	 */
 	public final void attr(final String name, final long value)
 			throws IOException {
-		attr(name, String.valueOf(value));
+		attrStart(name);
+		writer.write(Long.toString(value));
+		writer.write('"');
 	}
 
 	/**
@@ -243,6 +262,42 @@ public class XMLElement {
 		quote(text);
 	}
 
+	/**
+	 * Adds an empty child element with the given pre-encoded tag. This is
+	 * faster than creating a child element with {@link #element(String)} and
+	 * adding its attributes one by one. May only be called before this element
+	 * has been closed.
+	 * 
+	 * @param tag
+	 *            pre-encoded tag of the child element
+	 * @param values
+	 *            values of all attributes of the tag
+	 * @throws IOException
+	 *             in case of problems with the underlying output or if the
+	 *             element is already closed.
+	 */
+	public final void element(final Tag tag, final int... values)
+			throws IOException {
+		if (closed) {
+			throw new IOException(format("Element %s already closed.", name));
+		}
+		if (values.length != tag.parts.length - 1) {
+			throw new IllegalArgumentException(
+					format("Expected %s attribute values.",
+							Integer.valueOf(tag.parts.length - 1)));
+		}
+		finishOpenTag();
+		if (lastchild != null) {
+			lastchild.close();
+			lastchild = null;
+		}
+		for (int i = 0; i < values.length; i++) {
+			writer.write(tag.parts[i]);
+			writer.write(Integer.toString(values[i]));
+		}
+		writer.write(tag.parts[values.length]);
+	}
+
 	/**
 	 * Creates a new child element for this element. Might be overridden in
 	 * subclasses to return a instance of the subclass.
@@ -257,6 +312,36 @@ public class XMLElement {
 		return new XMLElement(name, this);
 	}
 
+	/**
+	 * Markup of an empty element with numeric attributes only, which is encoded
+	 * once and then written with {@link XMLElement#element(Tag, int...)}.
+	 * Element and attribute names are written as they are.
+	 */
+	public static final class Tag {
+
+		private final String[] parts;
+
+		/**
+		 * Encodes the tag for the given element and attribute names.
+		 * 
+		 * @param name
+		 *            element name
+		 * @param attributes
+		 *            names of all attributes in their output order
+		 */
+		public Tag(final String name, final String... attributes) {
+			parts = new String[attributes.length + 1];
+			String separator = "<" + name + " ";
+			for (int i = 0; i < attributes.length; i++) {
+				parts[i] = separator + attributes[i] + "=\"";
+				separator = "\" ";
+			}
+			parts[attributes.length] = attributes.length == 0 ? "<" + name
+					+ "/>" : "\"/>";
+		}
+
+	}
+
 	/**
 	 * Closes this element if it has not been closed before.
 	 * 
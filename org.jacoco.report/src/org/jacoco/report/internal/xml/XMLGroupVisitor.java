@@ -15,6 +15,7 @@ package org.jacoco.report.internal.xml;
 import java.io.IOException;
 
 import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.report.IReportBundleVisitor;
 import org.jacoco.report.ISourceFileLocator;
 import org.jacoco.report.internal.AbstractGroupVisitor;
 
@@ -51,6 +52,13 @@ public class XMLGroupVisitor extends AbstractGroupVisitor {
 		XMLCoverageWriter.writeBundle(bundle, child);
 	}
 
+	@Override
+	protected IReportBundleVisitor handleBundle(final String name,
+			final ISourceFileLocator locator) throws IOException {
+		final ReportElement child = element.group(name);
+		return new XMLBundleVisitor(child, name);
+	}
+
 	@Override
 	protected AbstractGroupVisitor handleGroup(final String name)
 			throws IOException {
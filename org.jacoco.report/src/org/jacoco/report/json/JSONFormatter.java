@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2009, 2019 Mountainminds GmbH & Co. KG and Contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Marc R. Hoffmann - initial API and implementation
+ *
+ *******************************************************************************/
+package org.jacoco.report.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+
+import org.jacoco.core.analysis.IBundleCoverage;
+import org.jacoco.core.analysis.IPackageCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.report.IReportBundleVisitor;
+import org.jacoco.report.IReportGroupVisitor;
+import org.jacoco.report.IReportVisitor;
+import org.jacoco.report.ISourceFileLocator;
+import org.jacoco.report.IStreamingGroupVisitor;
+import org.jacoco.report.internal.json.JSONBundleVisitor;
+import org.jacoco.report.internal.json.JSONCoverageWriter;
+import org.jacoco.report.internal.json.JSONGroupVisitor;
+import org.jacoco.report.internal.json.JSONWriter;
+
+/**
+ * Report formatter that creates a single JSON file for a coverage session. The
+ * document has the same structure as the XML report and is always encoded in
+ * UTF-8. Coverage data is written as it is emitted, no intermediate tree is
+ * created.
+ */
+public class JSONFormatter {
+
+	/**
+	 * Creates a new visitor to write a report to the given stream.
+	 * 
+	 * @param output
+	 *            output stream to write the report to
+	 * @return visitor to emit the report data to
+	 * @throws IOException
+	 *             in case of problems with the output stream
+	 */
+	public IReportVisitor createVisitor(final OutputStream output)
+			throws IOException {
+		final JSONWriter writer = new JSONWriter(output);
+		class RootVisitor implements IReportVisitor, IStreamingGroupVisitor {
+
+			private List<SessionInfo> sessionInfos;
+			private JSONGroupVisitor groupVisitor;
+
+			public void visitInfo(final List<SessionInfo> sessionInfos,
+					final Collection<ExecutionData> executionData)
+					throws IOException {
+				this.sessionInfos = sessionInfos;
+			}
+
+			public void visitBundle(final IBundleCoverage bundle,
+					final ISourceFileLocator locator) throws IOException {
+				final IReportBundleVisitor visitor = visitBundle(
+						bundle.getName(), locator);
+				for (final IPackageCoverage p : bundle.getPackages()) {
+					visitor.visitPackage(p);
+				}
+				visitor.visitEnd();
+			}
+
+			public IReportBundleVisitor visitBundle(final String name,
+					final ISourceFileLocator locator) throws IOException {
+				createRootObject(name);
+				return new JSONBundleVisitor(writer, name);
+			}
+
+			public IReportGroupVisitor visitGroup(final String name)
+					throws IOException {
+				createRootObject(name);
+				groupVisitor = new JSONGroupVisitor(writer, name);
+				return groupVisitor;
+			}
+
+			private void createRootObject(final String name)
+					throws IOException {
+				writer.beginObject();
+				writer.member("name", name);
+				writer.name("sessions");
+				writer.beginArray();
+				for (final SessionInfo i : sessionInfos) {
+					JSONCoverageWriter.writeSessionInfo(i, writer);
+				}
+				writer.endArray();
+			}
+
+			public void visitEnd() throws IOException {
+				if (groupVisitor != null) {
+					groupVisitor.visitEnd();
+				}
+				writer.close();
+			}
+		}
+		return new RootVisitor();
+	}
+
+}